@@ -18,6 +18,7 @@ package org.apache.logging.log4j;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -28,6 +29,10 @@ public final class MarkerManager {
 
     private static ConcurrentMap<String, Marker> markerMap = new ConcurrentHashMap<String, Marker>();
 
+    private static final AtomicInteger MARKER_IDS = new AtomicInteger();
+
+    private static final int BITS_SHIFT = 6;
+
     private MarkerManager() {
     }
 
@@ -37,8 +42,11 @@ public final class MarkerManager {
      * @return The Marker with the specified name.
      */
     public static Marker getMarker(String name) {
-        markerMap.putIfAbsent(name, new Log4JMarker(name));
-        return markerMap.get(name);
+        Marker marker = markerMap.get(name);
+        if (marker == null) {
+            marker = addMarker(new Log4JMarker(name));
+        }
+        return marker;
     }
 
     /**
@@ -63,12 +71,32 @@ public final class MarkerManager {
      * @return The Marker with the specified name.
      */
     public static Marker getMarker(String name, Marker parent) {
-        markerMap.putIfAbsent(name, new Log4JMarker(name, parent));
-        return markerMap.get(name);
+        Marker marker = markerMap.get(name);
+        if (marker == null) {
+            marker = addMarker(new Log4JMarker(name, parent));
+        }
+        return marker;
     }
 
     /**
-     * The actual Marker implementation.
+     * Determines whether a Marker with the specified name has been created. Unlike getMarker this
+     * method never creates a Marker.
+     * @param name The name of the Marker.
+     * @return true if the Marker exists, false otherwise.
+     */
+    public static boolean exists(String name) {
+        return markerMap.containsKey(name);
+    }
+
+    private static Marker addMarker(Marker marker) {
+        Marker existing = markerMap.putIfAbsent(marker.getName(), marker);
+        return existing == null ? marker : existing;
+    }
+
+    /**
+     * The actual Marker implementation. Each Marker is given a dense integer id when it is created along
+     * with a bitset holding its own id and the ids of all its ancestors, so testing whether it is an instance
+     * of another Log4JMarker is a single bit test rather than a walk of the parent chain.
      */
     private static class Log4JMarker implements Marker {
 
@@ -76,15 +104,28 @@ public final class MarkerManager {
 
         private final String name;
         private final Marker parent;
+        private final transient int id;
+        private final transient long[] ancestry;
+        /** true if some ancestor is not a Log4JMarker and so has no bit in the ancestry set. */
+        private final transient boolean foreignAncestor;
 
         public Log4JMarker(String name) {
-            this.name = name;
-            this.parent = null;
+            this(name, null);
         }
 
         public Log4JMarker(String name, Marker parent) {
             this.name = name;
             this.parent = parent;
+            this.id = MARKER_IDS.getAndIncrement();
+            this.ancestry = new long[(id >>> BITS_SHIFT) + 1];
+            boolean foreign = parent != null;
+            if (parent instanceof Log4JMarker) {
+                Log4JMarker p = (Log4JMarker) parent;
+                System.arraycopy(p.ancestry, 0, ancestry, 0, Math.min(p.ancestry.length, ancestry.length));
+                foreign = p.foreignAncestor;
+            }
+            this.ancestry[id >>> BITS_SHIFT] |= 1L << id;
+            this.foreignAncestor = foreign;
         }
 
         public String getName() {
@@ -99,6 +140,9 @@ public final class MarkerManager {
             if (m == null) {
                 throw new IllegalArgumentException("A marker parameter is required");
             }
+            if (m instanceof Log4JMarker && (hasBit(((Log4JMarker) m).id) || !foreignAncestor)) {
+                return hasBit(((Log4JMarker) m).id);
+            }
             Marker test = this;
             do {
                 if (test == m) {
@@ -113,6 +157,10 @@ public final class MarkerManager {
             if (name == null) {
                 throw new IllegalArgumentException("A marker name is required");
             }
+            if (!foreignAncestor) {
+                Marker m = markerMap.get(name);
+                return m instanceof Log4JMarker && hasBit(((Log4JMarker) m).id);
+            }
             Marker toTest = this;
             do {
                 if (name.equals(toTest.getName())) {
@@ -123,6 +171,20 @@ public final class MarkerManager {
             return false;
         }
 
+        private boolean hasBit(int bit) {
+            int index = bit >>> BITS_SHIFT;
+            return index < ancestry.length && (ancestry[index] & (1L << bit)) != 0;
+        }
+
+        /**
+         * Ids are only meaningful within a single JVM so a deserialized Marker is replaced by the
+         * registered Marker of the same name.
+         * @return The Marker registered with the MarkerManager.
+         */
+        protected Object readResolve() {
+            return parent == null ? getMarker(name) : getMarker(name, parent);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) {
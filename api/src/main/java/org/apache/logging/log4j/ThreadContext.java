@@ -17,7 +17,13 @@
 
 package org.apache.logging.log4j;
 
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Stack;
 
@@ -31,6 +37,11 @@ import java.util.Stack;
  */
 public final class ThreadContext {
 
+    /**
+     * The empty stack.
+     */
+    public static final ContextStack EMPTY_STACK = new ContextStack(null, null);
+
     private static ThreadLocal<Map<String, String>> localMap =
         new InheritableThreadLocal<Map<String, String>>() {
             protected Map<String, String> childValue(Map<String, String> parentValue) {
@@ -38,13 +49,10 @@ public final class ThreadContext {
             }
         };
 
-    private static ThreadLocal<Stack<String>> localStack =
-        new InheritableThreadLocal<Stack<String>>() {
-            protected Stack<String> childValue(Stack<String> parentValue) {
-                return parentValue == null ? null : (Stack<String>) parentValue.clone();
-            }
-        };
-
+    /**
+     * The ContextStack is immutable so a child thread can share its parent's stack.
+     */
+    private static ThreadLocal<ContextStack> localStack = new InheritableThreadLocal<ContextStack>();
 
 
     private ThreadContext() {
@@ -133,16 +141,30 @@ public final class ThreadContext {
      * @return A copy of this thread's stack.
      */
     public static Stack<String> cloneStack() {
-        Stack<String> stack = localStack.get();
-        return stack == null ? new Stack<String>() : (Stack<String>) stack.clone();
+        Stack<String> stack = new Stack<String>();
+        stack.addAll(getImmutableStack().asList());
+        return stack;
+    }
+
+    /**
+     * Return this thread's stack. The stack is never modified, so it can be retained without copying it.
+     * @return This thread's stack.
+     */
+    public static ContextStack getImmutableStack() {
+        ContextStack stack = localStack.get();
+        return stack == null ? EMPTY_STACK : stack;
     }
 
     /**
      * Set this thread's stack.
-     * @param stack The stack to use.
+     * @param stack The stack to use, with the innermost context last.
      */
-    public static void setStack(Stack<String> stack) {
-        localStack.set(stack);
+    public static void setStack(Collection<String> stack) {
+        if (stack == null || stack.isEmpty()) {
+            localStack.remove();
+        } else {
+            localStack.set(ContextStack.create(stack));
+        }
     }
 
     /**
@@ -152,8 +174,7 @@ public final class ThreadContext {
      * @see #setMaxDepth
      */
     public static int getDepth() {
-        Stack<String> stack = localStack.get();
-        return stack == null ? 0 : stack.size();
+        return getImmutableStack().getDepth();
     }
 
     /**
@@ -165,11 +186,12 @@ public final class ThreadContext {
      * @return String The innermost diagnostic context.
      */
     public static String pop() {
-        Stack<String> s = localStack.get();
+        ContextStack s = localStack.get();
         if (s == null || s.isEmpty()) {
             return "";
         }
-        return s.pop();
+        setImmutableStack(s.getParent());
+        return s.peek();
     }
 
     /**
@@ -182,7 +204,7 @@ public final class ThreadContext {
      * @return String The innermost diagnostic context.
      */
     public static String peek() {
-        Stack<String> s = localStack.get();
+        ContextStack s = localStack.get();
         if (s == null || s.isEmpty()) {
             return "";
         }
@@ -198,11 +220,7 @@ public final class ThreadContext {
      * @param message The new diagnostic context information.
      */
     public static void push(String message) {
-        Stack<String> stack = localStack.get();
-        if (stack == null) {
-            stack = new Stack<String>();
-        }
-        stack.push(message);
+        localStack.set(getImmutableStack().push(message));
     }
 
     /**
@@ -256,6 +274,166 @@ public final class ThreadContext {
      * @param maxDepth The maximum depth of the stack.
      */
     public static void setMaxDepth(int maxDepth) {
+        ContextStack s = localStack.get();
+        if (s != null && s.getDepth() > maxDepth) {
+            setImmutableStack(s.trim(maxDepth));
+        }
+    }
+
+    private static void setImmutableStack(ContextStack stack) {
+        if (stack.isEmpty()) {
+            localStack.remove();
+        } else {
+            localStack.set(stack);
+        }
+    }
+
+    /**
+     * An immutable stack of diagnostic context values. Pushing a value or trimming the stack returns a
+     * new ContextStack that shares the existing entries, so a LogEvent can capture the stack of the
+     * thread it was created on without copying it.
+     */
+    public static final class ContextStack implements Iterable<String>, Serializable {
+
+        private static final long serialVersionUID = 5050501848417946722L;
+
+        private final String value;
+        private final ContextStack parent;
+        private final int depth;
+
+        private ContextStack(String value, ContextStack parent) {
+            this.value = value;
+            this.parent = parent;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        /**
+         * Create a ContextStack containing the values of a Collection.
+         * @param values The values, with the innermost context last.
+         * @return The ContextStack.
+         */
+        public static ContextStack create(Collection<String> values) {
+            ContextStack stack = EMPTY_STACK;
+            if (values != null) {
+                for (String value : values) {
+                    stack = stack.push(value);
+                }
+            }
+            return stack;
+        }
 
+        /**
+         * Return a stack with a value added to the top of this stack.
+         * @param message The value to add.
+         * @return The new ContextStack.
+         */
+        public ContextStack push(String message) {
+            return new ContextStack(message, this);
+        }
+
+        /**
+         * Return this stack without its top value.
+         * @return The ContextStack below the top value, or this stack if it is empty.
+         */
+        public ContextStack getParent() {
+            return parent == null ? this : parent;
+        }
+
+        /**
+         * Return this stack with only its bottom values.
+         * @param maxDepth The maximum number of values to keep.
+         * @return The trimmed ContextStack.
+         */
+        public ContextStack trim(int maxDepth) {
+            ContextStack stack = this;
+            while (stack.depth > maxDepth && stack.parent != null) {
+                stack = stack.parent;
+            }
+            return stack;
+        }
+
+        /**
+         * Return the value at the top of the stack.
+         * @return The innermost context, or null if the stack is empty.
+         */
+        public String peek() {
+            return value;
+        }
+
+        /**
+         * Return the number of values on the stack.
+         * @return The depth of the stack.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Determine if the stack is empty.
+         * @return true if the stack contains no values.
+         */
+        public boolean isEmpty() {
+            return depth == 0;
+        }
+
+        /**
+         * Return the values in the stack.
+         * @return An unmodifiable List of the values with the innermost context last.
+         */
+        public List<String> asList() {
+            if (depth == 0) {
+                return Collections.emptyList();
+            }
+            String[] values = new String[depth];
+            for (ContextStack stack = this; stack.depth > 0; stack = stack.parent) {
+                values[stack.depth - 1] = stack.value;
+            }
+            return Collections.unmodifiableList(Arrays.asList(values));
+        }
+
+        /**
+         * Iterate over the values with the innermost context last.
+         * @return The Iterator.
+         */
+        public Iterator<String> iterator() {
+            return asList().iterator();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ContextStack)) {
+                return false;
+            }
+            ContextStack s1 = this;
+            ContextStack s2 = (ContextStack) o;
+            if (s1.depth != s2.depth) {
+                return false;
+            }
+            while (s1 != s2 && s1.depth > 0) {
+                if (s1.value == null ? s2.value != null : !s1.value.equals(s2.value)) {
+                    return false;
+                }
+                s1 = s1.parent;
+                s2 = s2.parent;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return asList().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return asList().toString();
+        }
+
+        private Object readResolve() {
+            return depth == 0 ? EMPTY_STACK : this;
+        }
     }
 }
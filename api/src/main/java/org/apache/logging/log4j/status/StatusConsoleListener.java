@@ -21,7 +21,7 @@ import org.apache.logging.log4j.Level;
 /**
  * StatusListener that writes to the Console.
  */
-public class StatusConsoleListener implements StatusListener {
+public class StatusConsoleListener implements LeveledStatusListener {
 
     private static final String STATUS_LEVEL = "org.apache.logging.log4j.StatusLevel";
 
@@ -57,6 +57,14 @@ public class StatusConsoleListener implements StatusListener {
         this.level = level;
     }
 
+    /**
+     * Return the Log Level for which the Listener should receive events.
+     * @return the Log Level.
+     */
+    public Level getStatusLevel() {
+        return this.level;
+    }
+
     /**
      * Writes status messages to the console.
      * @param data The StatusData.
@@ -79,7 +87,11 @@ public class StatusConsoleListener implements StatusListener {
         if (filters == null) {
             return false;
         }
-        String caller = data.getStackTraceElement().getClassName();
+        StackTraceElement element = data.getStackTraceElement();
+        if (element == null) {
+            return false;
+        }
+        String caller = element.getClassName();
         for (String filter : filters) {
             if (caller.startsWith(filter)) {
                 return true;
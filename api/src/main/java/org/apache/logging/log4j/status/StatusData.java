@@ -29,9 +29,21 @@ import java.util.Date;
  */
 public class StatusData {
 
+    private static final String NOT_AVAIL = "?";
+
     private final long timestamp;
 
-    private final StackTraceElement caller;
+    /**
+     * The caller, which is only located by the logging thread but may be read by any thread.
+     */
+    private volatile StackTraceElement caller;
+
+    private final String fqcn;
+
+    /**
+     * The thread that is logging the event, while the event is being passed to the listeners.
+     */
+    private volatile Thread owner;
 
     private final Level level;
 
@@ -49,11 +61,36 @@ public class StatusData {
     public StatusData(StackTraceElement caller, Level level, Message msg, Throwable t) {
         this.timestamp = System.currentTimeMillis();
         this.caller = caller;
+        this.fqcn = null;
+        this.level = level;
+        this.msg = msg;
+        this.throwable = t;
+    }
+
+    /**
+     * Creates a StatusData object whose caller is located only if a listener asks for it while the
+     * event is being logged.
+     * @param fqcn The fully qualified class name of the logging API.
+     * @param level The logging level.
+     * @param msg The message String.
+     * @param t The Error or Exception that occurred.
+     */
+    StatusData(String fqcn, Level level, Message msg, Throwable t) {
+        this.timestamp = System.currentTimeMillis();
+        this.fqcn = fqcn;
+        this.owner = fqcn == null ? null : Thread.currentThread();
         this.level = level;
         this.msg = msg;
         this.throwable = t;
     }
 
+    /**
+     * Called once the event has been passed to the listeners, after which the caller can no longer be located.
+     */
+    void complete() {
+        owner = null;
+    }
+
     /**
      * Return the event's timestamp.
      * @return The event's timestamp.
@@ -63,11 +100,35 @@ public class StatusData {
     }
 
     /**
-     * Returns the StackTraceElement for the method that created the event.
-     * @return The StackTraceElement.
+     * Returns the StackTraceElement for the method that created the event. The caller is only located on
+     * request while the event is being passed to the listeners; afterwards null is returned if no listener
+     * asked for it, so callers must allow for null.
+     * @return The StackTraceElement or null.
      */
     public StackTraceElement getStackTraceElement() {
-        return caller;
+        StackTraceElement element = caller;
+        if (element == null && owner == Thread.currentThread()) {
+            // Only the owning thread locates the caller, so there is no race on the assignment.
+            element = locate(fqcn, Thread.currentThread().getStackTrace());
+            caller = element;
+        }
+        return element;
+    }
+
+    private static StackTraceElement locate(String fqcn, StackTraceElement[] stackTrace) {
+        boolean next = false;
+        for (StackTraceElement element : stackTrace) {
+            if (next) {
+                return element;
+            }
+            String className = element.getClassName();
+            if (fqcn.equals(className)) {
+                next = true;
+            } else if (NOT_AVAIL.equals(className)) {
+                break;
+            }
+        }
+        return null;
     }
 
     /**
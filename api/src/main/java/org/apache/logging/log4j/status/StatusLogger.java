@@ -25,10 +25,9 @@ import org.apache.logging.log4j.message.Message;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -42,9 +41,7 @@ public final class StatusLogger extends AbstractLogger {
      */
     public static final String MAX_STATUS_ENTRIES = "log4j2.status.entries";
 
-    private static final String NOT_AVAIL = "?";
-
-    private static final int MAX_ENTRIES = Integer.getInteger(MAX_STATUS_ENTRIES, 200);
+    private static final int MAX_ENTRIES = Math.max(1, Integer.getInteger(MAX_STATUS_ENTRIES, 200));
 
     // private static final String FQCN = AbstractLogger.class.getName();
 
@@ -55,8 +52,11 @@ public final class StatusLogger extends AbstractLogger {
     private CopyOnWriteArrayList<StatusListener> listeners = new CopyOnWriteArrayList<StatusListener>();
     private ReentrantReadWriteLock listenersLock = new ReentrantReadWriteLock();
 
-    private Queue<StatusData> messages = new BoundedQueue<StatusData>(MAX_ENTRIES);
-    private ReentrantLock msgLock = new ReentrantLock();
+    /**
+     * Ring of the most recent events. Slot (sequence % MAX_ENTRIES) holds the event with that sequence number.
+     */
+    private final AtomicReferenceArray<StatusData> messages = new AtomicReferenceArray<StatusData>(MAX_ENTRIES);
+    private final AtomicLong sequence = new AtomicLong();
 
     private StatusLogger() {
     }
@@ -116,23 +116,24 @@ public final class StatusLogger extends AbstractLogger {
      * @return The list of StatusData objects.
      */
     public List<StatusData> getStatusData() {
-        msgLock.lock();
-        try {
-            return new ArrayList<StatusData>(messages);
-        } finally {
-            msgLock.unlock();
+        long end = sequence.get();
+        long start = Math.max(0, end - MAX_ENTRIES);
+        List<StatusData> list = new ArrayList<StatusData>((int) (end - start));
+        for (long i = start; i < end; ++i) {
+            StatusData data = messages.get((int) (i % MAX_ENTRIES));
+            if (data != null) {
+                list.add(data);
+            }
         }
+        return list;
     }
 
     /**
      * Clears the list of status events.
      */
     public void clear() {
-        msgLock.lock();
-        try {
-            messages.clear();
-        } finally {
-            msgLock.unlock();
+        for (int i = 0; i < MAX_ENTRIES; ++i) {
+            messages.set(i, null);
         }
     }
 
@@ -147,39 +148,18 @@ public final class StatusLogger extends AbstractLogger {
      */
     @Override
     public void log(Marker marker, String fqcn, Level level, Message msg, Throwable t) {
-        StackTraceElement element = null;
-        if (fqcn != null) {
-            element = getStackTraceElement(fqcn, Thread.currentThread().getStackTrace());
-        }
-        StatusData data = new StatusData(element, level, msg, t);
-        msgLock.lock();
-        try {
-            messages.add(data);
-        } finally {
-            msgLock.unlock();
-        }
+        StatusData data = new StatusData(fqcn, level, msg, t);
+        messages.set((int) (sequence.getAndIncrement() % MAX_ENTRIES), data);
         for (StatusListener listener : listeners) {
-            listener.log(data);
-        }
-    }
-
-    private StackTraceElement getStackTraceElement(String fqcn, StackTraceElement[] stackTrace) {
-        if (fqcn == null) {
-            return null;
-        }
-        boolean next = false;
-        for (StackTraceElement element : stackTrace) {
-            if (next) {
-                return element;
-            }
-            String className = element.getClassName();
-            if (fqcn.equals(className)) {
-                next = true;
-            } else if (NOT_AVAIL.equals(className)) {
-                break;
+            if (listener instanceof LeveledStatusListener) {
+                Level listenerLevel = ((LeveledStatusListener) listener).getStatusLevel();
+                if (listenerLevel != null && !level.isAtLeastAsSpecificAs(listenerLevel)) {
+                    continue;
+                }
             }
+            listener.log(data);
         }
-        return null;
+        data.complete();
     }
 
     @Override
@@ -243,24 +223,4 @@ public final class StatusLogger extends AbstractLogger {
         }
         return false;
     }
-
-    /**
-     * Queue for status events.
-     * @param <E> Object type to be stored in the queue.
-     */
-    private class BoundedQueue<E> extends ConcurrentLinkedQueue<E> {
-
-        private final int size;
-
-        public BoundedQueue(int size) {
-            this.size = size;
-        }
-
-        public boolean add(E object) {
-            while (messages.size() > size) {
-                messages.poll();
-            }
-            return super.add(object);
-        }
-    }
 }
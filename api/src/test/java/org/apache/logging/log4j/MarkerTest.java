@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class MarkerTest {
+
+    @Test
+    public void testMarkerHierarchy() {
+        Marker parent = MarkerManager.getMarker("MarkerTestParent");
+        Marker child = MarkerManager.getMarker("MarkerTestChild", parent);
+        Marker grandChild = MarkerManager.getMarker("MarkerTestGrandChild", child);
+        Marker stranger = MarkerManager.getMarker("MarkerTestStranger");
+        assertSame(parent, MarkerManager.getMarker("MarkerTestParent"));
+        assertTrue(grandChild.isInstanceOf(parent));
+        assertTrue(grandChild.isInstanceOf(child));
+        assertTrue(grandChild.isInstanceOf(grandChild));
+        assertTrue(grandChild.isInstanceOf("MarkerTestParent"));
+        assertFalse(parent.isInstanceOf(child));
+        assertFalse(grandChild.isInstanceOf(stranger));
+        assertFalse(grandChild.isInstanceOf("MarkerTestStranger"));
+        assertFalse(grandChild.isInstanceOf("MarkerTestUndefined"));
+    }
+
+    @Test
+    public void testManyMarkers() {
+        Marker parent = MarkerManager.getMarker("MarkerTestRoot");
+        Marker marker = parent;
+        for (int i = 0; i < 200; ++i) {
+            marker = MarkerManager.getMarker("MarkerTestLevel" + i, marker);
+        }
+        Marker other = MarkerManager.getMarker("MarkerTestOther");
+        assertTrue(marker.isInstanceOf(parent));
+        assertTrue(marker.isInstanceOf("MarkerTestLevel100"));
+        assertFalse(parent.isInstanceOf(marker));
+        assertFalse(other.isInstanceOf(marker));
+    }
+
+    @Test
+    public void testForeignParent() {
+        Marker foreign = new Marker() {
+            private static final long serialVersionUID = 1L;
+
+            public String getName() {
+                return "MarkerTestForeign";
+            }
+
+            public Marker getParent() {
+                return null;
+            }
+
+            public boolean isInstanceOf(Marker m) {
+                return m == this;
+            }
+
+            public boolean isInstanceOf(String name) {
+                return getName().equals(name);
+            }
+        };
+        Marker child = MarkerManager.getMarker("MarkerTestForeignChild", foreign);
+        assertTrue(child.isInstanceOf(foreign));
+        assertTrue(child.isInstanceOf("MarkerTestForeign"));
+        assertTrue(child.isInstanceOf(child));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Marker parent = MarkerManager.getMarker("MarkerTestSerialParent");
+        Marker child = MarkerManager.getMarker("MarkerTestSerialChild", parent);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(child);
+        oos.close();
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray()));
+        Marker marker = (Marker) ois.readObject();
+        assertSame(child, marker);
+        assertTrue(marker.isInstanceOf(parent));
+    }
+}
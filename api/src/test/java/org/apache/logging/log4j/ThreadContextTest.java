@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class ThreadContextTest {
+
+    @After
+    public void cleanup() {
+        ThreadContext.removeStack();
+    }
+
+    @Test
+    public void testPushPop() {
+        assertEquals(0, ThreadContext.getDepth());
+        assertEquals("", ThreadContext.peek());
+        ThreadContext.push("Hello");
+        ThreadContext.push("World");
+        assertEquals(2, ThreadContext.getDepth());
+        assertEquals("World", ThreadContext.peek());
+        assertEquals("World", ThreadContext.pop());
+        assertEquals("Hello", ThreadContext.pop());
+        assertEquals("", ThreadContext.pop());
+        assertEquals(0, ThreadContext.getDepth());
+        assertSame(ThreadContext.EMPTY_STACK, ThreadContext.getImmutableStack());
+    }
+
+    @Test
+    public void testSnapshot() {
+        ThreadContext.push("one");
+        ThreadContext.push("two");
+        ThreadContext.ContextStack snapshot = ThreadContext.getImmutableStack();
+        ThreadContext.pop();
+        ThreadContext.push("three");
+        assertEquals(Arrays.asList("one", "two"), snapshot.asList());
+        assertEquals("[one, two]", snapshot.toString());
+        assertEquals("[one, three]", ThreadContext.getImmutableStack().toString());
+        assertEquals(ThreadContext.ContextStack.create(Arrays.asList("one", "two")), snapshot);
+        assertEquals(Arrays.asList("one", "three"), ThreadContext.cloneStack());
+    }
+
+    @Test
+    public void testSetMaxDepth() {
+        ThreadContext.push("one");
+        ThreadContext.push("two");
+        ThreadContext.push("three");
+        ThreadContext.setMaxDepth(5);
+        assertEquals(3, ThreadContext.getDepth());
+        ThreadContext.setMaxDepth(1);
+        assertEquals(1, ThreadContext.getDepth());
+        assertEquals("one", ThreadContext.peek());
+        ThreadContext.setMaxDepth(0);
+        assertEquals(0, ThreadContext.getDepth());
+    }
+
+    @Test
+    public void testInheritance() throws Exception {
+        ThreadContext.push("parent");
+        final ThreadContext.ContextStack[] child = new ThreadContext.ContextStack[1];
+        Thread thread = new Thread() {
+            public void run() {
+                ThreadContext.push("child");
+                child[0] = ThreadContext.getImmutableStack();
+            }
+        };
+        thread.start();
+        thread.join();
+        assertEquals("[parent, child]", child[0].toString());
+        assertEquals("[parent]", ThreadContext.getImmutableStack().toString());
+        assertTrue(ThreadContext.getImmutableStack().equals(child[0].getParent()));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.status;
+
+import org.apache.logging.log4j.Level;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ *
+ */
+public class StatusLoggerTest {
+
+    private final StatusLogger logger = StatusLogger.getLogger();
+
+    @Before
+    public void setup() {
+        logger.clear();
+    }
+
+    @After
+    public void cleanup() {
+        logger.clear();
+    }
+
+    @Test
+    public void testRingKeepsNewestEntries() {
+        int max = Integer.getInteger(StatusLogger.MAX_STATUS_ENTRIES, 200);
+        for (int i = 0; i < max + 10; ++i) {
+            logger.debug("Message " + i);
+        }
+        List<StatusData> data = logger.getStatusData();
+        assertEquals(max, data.size());
+        assertEquals("Message 10", data.get(0).getMessage().getFormattedMessage());
+        assertEquals("Message " + (max + 9), data.get(max - 1).getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testListenerLevel() {
+        Listener listener = new Listener(Level.WARN);
+        logger.registerListener(listener);
+        try {
+            logger.debug("Debug message");
+            logger.error("Error message");
+        } finally {
+            logger.removeListener(listener);
+        }
+        assertEquals(1, listener.events.size());
+        assertEquals(Level.ERROR, listener.events.get(0).getLevel());
+    }
+
+    @Test
+    public void testListenerWithoutLevel() {
+        final List<StatusData> events = new ArrayList<StatusData>();
+        StatusListener listener = new StatusListener() {
+            public void log(StatusData data) {
+                events.add(data);
+            }
+        };
+        logger.registerListener(listener);
+        try {
+            logger.debug("Debug message");
+            logger.error("Error message");
+        } finally {
+            logger.removeListener(listener);
+        }
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    public void testFilterWithoutLocation() {
+        logger.debug("Unlocated message");
+        List<StatusData> data = logger.getStatusData();
+        StatusConsoleListener listener = new StatusConsoleListener(Level.DEBUG);
+        listener.setFilters(new String[] {"org.apache"});
+        // The entry was dispatched without a location, so the filter must not fail on it.
+        listener.log(data.get(data.size() - 1));
+    }
+
+    @Test
+    public void testLocationOnRequest() {
+        Listener listener = new Listener(Level.DEBUG);
+        logger.registerListener(listener);
+        try {
+            logger.debug("Located message");
+        } finally {
+            logger.removeListener(listener);
+        }
+        assertEquals(1, listener.locations.size());
+        StackTraceElement element = listener.locations.get(0);
+        assertNotNull("No location while logging", element);
+        assertEquals(StatusLoggerTest.class.getName(), element.getClassName());
+
+        logger.debug("Unlocated message");
+        List<StatusData> data = logger.getStatusData();
+        assertNull("Location captured without a request", data.get(data.size() - 1).getStackTraceElement());
+    }
+
+    private static class Listener implements LeveledStatusListener {
+        private final Level level;
+        private final List<StatusData> events = new ArrayList<StatusData>();
+        private final List<StackTraceElement> locations = new ArrayList<StackTraceElement>();
+
+        public Listener(Level level) {
+            this.level = level;
+        }
+
+        public void log(StatusData data) {
+            events.add(data);
+            locations.add(data.getStackTraceElement());
+        }
+
+        public Level getStatusLevel() {
+            return level;
+        }
+    }
+}
@@ -19,8 +19,10 @@ package org.apache.logging.log4j.core;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfigurationMonitor;
 import org.apache.logging.log4j.core.config.LoggerConfig;
 import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.LevelOnlyFilter;
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.spi.AbstractLogger;
@@ -38,6 +40,11 @@ import java.util.Map;
  */
 public class Logger extends AbstractLogger {
 
+    /**
+     * Indicates the Filter must be consulted to determine whether a Level is enabled.
+     */
+    private static final int NO_THRESHOLD = Integer.MIN_VALUE;
+
     /**
      * config should be consistent across threads.
      */
@@ -263,6 +270,11 @@ public class Logger extends AbstractLogger {
         private final Level level;
         private final int intLevel;
         private final Logger logger;
+        /**
+         * The least specific int level that is enabled when the context-wide Filter only looks at the Level,
+         * otherwise NO_THRESHOLD.
+         */
+        private final int threshold;
 
         public PrivateConfig(Configuration config, Logger logger) {
             this.config = config;
@@ -270,6 +282,7 @@ public class Logger extends AbstractLogger {
             this.level = this.loggerConfig.getLevel();
             this.intLevel = this.level.intLevel();
             this.logger = logger;
+            this.threshold = getThreshold();
         }
 
         public PrivateConfig(PrivateConfig pc, Level level) {
@@ -278,6 +291,7 @@ public class Logger extends AbstractLogger {
             this.level = level;
             this.intLevel = this.level.intLevel();
             this.logger = pc.logger;
+            this.threshold = getThreshold();
         }
 
         public PrivateConfig(PrivateConfig pc, LoggerConfig lc) {
@@ -286,6 +300,55 @@ public class Logger extends AbstractLogger {
             this.level = lc.getLevel();
             this.intLevel = this.level.intLevel();
             this.logger = pc.logger;
+            this.threshold = getThreshold();
+        }
+
+        /**
+         * Folds a context-wide Filter made up only of LevelOnlyFilters into the Logger's level. This is only
+         * done when no ConfigurationMonitor needs to be called on each check. Loggers are updated whenever the
+         * context-wide Filter changes through the LoggerContext.
+         * @return The least specific int level that is enabled or NO_THRESHOLD.
+         */
+        private int getThreshold() {
+            if (!(config.getConfigurationMonitor() instanceof DefaultConfigurationMonitor)) {
+                return NO_THRESHOLD;
+            }
+            Filter filter = config.getFilter();
+            Level[] levels = Level.values();
+            boolean[] enabled = new boolean[levels.length];
+            int threshold = -1;
+            for (int i = 0; i < levels.length; ++i) {
+                Filter.Result result = filter == null ? Filter.Result.NEUTRAL : filter(filter, levels[i]);
+                if (result == null) {
+                    return NO_THRESHOLD;
+                }
+                enabled[i] = result == Filter.Result.ACCEPT ||
+                    (result == Filter.Result.NEUTRAL && intLevel >= levels[i].intLevel());
+                if (enabled[i] && levels[i].intLevel() > threshold) {
+                    threshold = levels[i].intLevel();
+                }
+            }
+            for (int i = 0; i < levels.length; ++i) {
+                if (enabled[i] != threshold >= levels[i].intLevel()) {
+                    return NO_THRESHOLD;
+                }
+            }
+            return threshold;
+        }
+
+        private Filter.Result filter(Filter filter, Level level) {
+            if (filter instanceof LevelOnlyFilter) {
+                return ((LevelOnlyFilter) filter).filter(level);
+            } else if (filter instanceof CompositeFilter) {
+                for (Filter f : (CompositeFilter) filter) {
+                    Filter.Result result = filter(f, level);
+                    if (result != Filter.Result.NEUTRAL) {
+                        return result;
+                    }
+                }
+                return Filter.Result.NEUTRAL;
+            }
+            return null;
         }
 
         protected void logEvent(LogEvent event) {
@@ -294,6 +357,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, String msg) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -307,6 +373,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, String msg, Throwable t) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -320,6 +389,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, String msg, Object p1) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -333,6 +405,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, String msg, Object p1, Object p2) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -346,6 +421,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, String msg, Object p1, Object p2, Object p3) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -360,6 +438,9 @@ public class Logger extends AbstractLogger {
 
         boolean filter(Level level, Marker marker, String msg, Object p1, Object p2, Object p3,
                        Object... params) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -373,6 +454,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, Object msg, Throwable t) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
@@ -386,6 +470,9 @@ public class Logger extends AbstractLogger {
         }
 
         boolean filter(Level level, Marker marker, Message msg, Throwable t) {
+            if (threshold != NO_THRESHOLD) {
+                return threshold >= level.intLevel();
+            }
             config.getConfigurationMonitor().checkConfiguration();
             Filter filter = config.getFilter();
             if (filter != null) {
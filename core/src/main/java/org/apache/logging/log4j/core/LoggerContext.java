@@ -22,6 +22,7 @@ import org.apache.logging.log4j.core.config.ConfigurationListener;
 import org.apache.logging.log4j.core.config.DefaultConfiguration;
 import org.apache.logging.log4j.core.config.NullConfiguration;
 import org.apache.logging.log4j.core.config.Reconfigurable;
+import org.apache.logging.log4j.core.jmx.Server;
 import org.apache.logging.log4j.status.StatusLogger;
 
 import java.io.File;
@@ -153,6 +154,14 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
         }
     }
 
+    /**
+     * Return the name of the LoggerContext.
+     * @return The name.
+     */
+    public String getName() {
+        return contextName;
+    }
+
     public Status getStatus() {
         return status;
     }
@@ -218,6 +227,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      */
     public void addFilter(Filter filter) {
         config.addFilter(filter);
+        updateLoggers();
     }
 
     /**
@@ -226,6 +236,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
      */
     public void removeFiler(Filter filter) {
         config.removeFilter(filter);
+        updateLoggers();
     }
 
     /**
@@ -239,6 +250,7 @@ public class LoggerContext implements org.apache.logging.log4j.spi.LoggerContext
         }
         Configuration prev = this.config;
         config.addListener(this);
+        Server.setContextName(config, contextName);
         config.start();
         this.config = config;
         updateLoggers();
@@ -29,53 +29,98 @@ import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.AsynchQueueStats;
+import org.apache.logging.log4j.core.jmx.AsynchQueueStatsMBean;
+import org.apache.logging.log4j.core.jmx.AsynchTargetStats;
+import org.apache.logging.log4j.core.jmx.AsynchTargetStatsMBean;
+import org.apache.logging.log4j.core.jmx.Metrics;
+import org.apache.logging.log4j.core.jmx.Server;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.management.ObjectName;
 
 /**
  * Appender to write to one or more Appenders asynchronously.  The AsynchAppender can be configrued with one
  * or more Appenders and an Appender to write to if the queue is full. The AsynchAppender does not allow
  * filter to be specified on the Appender references.
+ * <p/>
+ * If a journal directory is configured, events that do not fit in the queue are written to an overflow journal
+ * on disk instead of blocking or being passed to the error Appender. Once the journal contains events, all
+ * new events are written to it until it has been replayed, so events are always delivered in order. Events
+ * that are still in the journal when the Appender is stopped are replayed when it is started again.
+ * <p/>
+ * In parallel mode each referenced Appender has its own queue, thread and overflow policy, so an Appender that
+ * stalls only delays its own events. The statistics of each target are registered as MBeans. If none of the
+ * Appenders can be located all events are passed to the error Appender.
  */
 @Plugin(name = "Asynch", type = "Core", elementType = "appender", printObject = true)
 public final class AsynchAppender extends AppenderBase {
 
     private static final int DEFAULT_QUEUE_SIZE = 128;
     private static final String SHUTDOWN = "Shutdown";
+    private static final String JOURNAL = "Journal";
+    private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final int DEFAULT_MAX_SEGMENTS = 16;
+    /** The number of milliseconds a caller waits for space in a target queue before checking for shutdown. */
+    private static final long STOP_CHECK_INTERVAL = 100;
 
     private final BlockingQueue<Serializable> queue;
     private final boolean blocking;
     private final Configuration config;
     private final AppenderRef[] appenderRefs;
     private final String errorRef;
+    private final JournalManager journal;
+    private final AsynchTarget[] targets;
+    private final boolean parallel;
+    private final int bufferSize;
+    private final List<TargetThread> targetThreads = new ArrayList<TargetThread>();
+    private final Map<ObjectName, AsynchTargetStats> mbeans = new LinkedHashMap<ObjectName, AsynchTargetStats>();
+    private final AsynchQueueStats queueStats;
+    private ObjectName queueName;
     private AppenderControl errorAppender = null;
     private AsynchThread thread = null;
 
     private AsynchAppender(String name, Filter filter, AppenderRef[] appenderRefs, String errorRef,
                            int queueSize, boolean blocking,
-                           boolean handleExceptions, Configuration config) {
+                           boolean handleExceptions, Configuration config, JournalManager journal,
+                           AsynchTarget[] targets, boolean parallel) {
         super(name, filter, null, handleExceptions);
-        this.queue = new ArrayBlockingQueue<Serializable>(queueSize);
+        this.bufferSize = queueSize;
+        this.targets = targets;
+        this.parallel = parallel;
+        this.queue = parallel ? null : new ArrayBlockingQueue<Serializable>(queueSize);
+        this.queueStats = parallel ? null : new AsynchQueueStats(name, queue);
         this.blocking = blocking;
         this.config = config;
         this.appenderRefs = appenderRefs;
         this.errorRef = errorRef;
+        this.journal = journal;
     }
 
     @Override
     public void start() {
         Map<String, Appender> map = config.getAppenders();
         List<AppenderControl> appenders = new ArrayList<AppenderControl>();
-        for (AppenderRef appenderRef : appenderRefs) {
-            if (map.containsKey(appenderRef.getRef())) {
-                appenders.add(new AppenderControl(map.get(appenderRef.getRef()), null, null));
-            } else {
-                LOGGER.error("No appender named {} was configured", appenderRef);
+        if (appenderRefs != null) {
+            for (AppenderRef appenderRef : appenderRefs) {
+                if (map.containsKey(appenderRef.getRef())) {
+                    appenders.add(new AppenderControl(map.get(appenderRef.getRef()), null, null));
+                } else {
+                    LOGGER.error("No appender named {} was configured", appenderRef);
+                }
             }
         }
         if (errorRef != null) {
@@ -85,25 +130,116 @@ public final class AsynchAppender extends AppenderBase {
                 LOGGER.error("Unable to set up error Appender. No appender named {} was configured", errorRef);
             }
         }
+        if (parallel) {
+            startTargets(map, appenders);
+            if (targetThreads.isEmpty() && errorAppender == null) {
+                throw new ConfigurationException("No appenders are available for AsynchAppender " + getName());
+            }
+            super.start();
+            return;
+        }
         if (appenders.size() > 0) {
             thread = new AsynchThread(appenders, queue);
         } else if (errorRef == null) {
             throw new ConfigurationException("No appenders are available for AsynchAppender " + getName());
         }
 
-        thread.start();
+        if (thread != null) {
+            queueName = Server.createName("AsynchAppender", getName(), "context", Server.getContextName(config));
+            Server.registerMetrics(queueName, queueStats);
+            thread.start();
+        }
         super.start();
     }
 
+    private void startTargets(Map<String, Appender> map, List<AppenderControl> appenders) {
+        AsynchTarget.Overflow defaultPolicy = blocking ? AsynchTarget.Overflow.BLOCK : AsynchTarget.Overflow.ERROR;
+        for (AppenderControl control : appenders) {
+            targetThreads.add(new TargetThread(control, bufferSize, defaultPolicy));
+        }
+        if (targets != null) {
+            for (AsynchTarget target : targets) {
+                if (map.containsKey(target.getRef())) {
+                    int size = target.getBufferSize() > 0 ? target.getBufferSize() : bufferSize;
+                    AsynchTarget.Overflow policy = target.getOverflow() == null ? defaultPolicy : target.getOverflow();
+                    targetThreads.add(new TargetThread(new AppenderControl(map.get(target.getRef()), null, null),
+                        size, policy));
+                } else {
+                    LOGGER.error("No appender named {} was configured", target.getRef());
+                }
+            }
+        }
+        for (TargetThread target : targetThreads) {
+            ObjectName objectName = Server.createName("AsynchAppender", getName(), "context",
+                Server.getContextName(config), "target", target.stats.getName());
+            if (objectName != null) {
+                Server.register(objectName, target.stats);
+                mbeans.put(objectName, target.stats);
+            }
+            target.start();
+        }
+    }
+
     @Override
     public void stop() {
         super.stop();
-        thread.shutdown();
-        try {
-            thread.join();
-        } catch (InterruptedException ex) {
-            LOGGER.warn("Interrupted while stopping AsynchAppender {}", getName());
+        if (thread != null) {
+            thread.shutdown();
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping AsynchAppender {}", getName());
+            }
+        }
+        for (TargetThread target : targetThreads) {
+            target.shutdown();
         }
+        for (TargetThread target : targetThreads) {
+            try {
+                target.join();
+            } catch (InterruptedException ex) {
+                LOGGER.warn("Interrupted while stopping AsynchAppender {}", getName());
+            }
+        }
+        for (Map.Entry<ObjectName, AsynchTargetStats> entry : mbeans.entrySet()) {
+            Server.unregister(entry.getKey(), entry.getValue());
+        }
+        mbeans.clear();
+        if (queueName != null) {
+            Server.unregister(queueName, queueStats);
+            queueName = null;
+        }
+        if (journal != null) {
+            journal.release();
+        }
+    }
+
+    /**
+     * Returns the statistics of each Appender dispatched to in parallel mode.
+     * @return The statistics, in the order the Appenders were referenced.
+     */
+    public List<AsynchTargetStatsMBean> getTargetStats() {
+        List<AsynchTargetStatsMBean> list = new ArrayList<AsynchTargetStatsMBean>(targetThreads.size());
+        for (TargetThread target : targetThreads) {
+            list.add(target.stats);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the statistics of the queue shared by the Appenders.
+     * @return The statistics or null in parallel mode.
+     */
+    public AsynchQueueStatsMBean getQueueStats() {
+        return queueStats;
+    }
+
+    /**
+     * Returns the overflow journal.
+     * @return The JournalManager or null if no journal is configured.
+     */
+    public JournalManager getJournal() {
+        return journal;
     }
 
     /**
@@ -116,7 +252,20 @@ public final class AsynchAppender extends AppenderBase {
             throw new IllegalStateException("AsynchAppender " + getName() + " is not active");
         }
         if (event instanceof Log4jLogEvent) {
-            if (blocking && queue.remainingCapacity() > 0) {
+            if (parallel) {
+                dispatch(event);
+                return;
+            }
+            if (journal != null) {
+                Serializable serialized = Log4jLogEvent.serialize((Log4jLogEvent) event);
+                if (!journal.hasRecords() && queue.offer(serialized)) {
+                    return;
+                }
+                if (spill(serialized)) {
+                    return;
+                }
+                error("Appender " + getName() + " is unable to write primary appenders. queue and journal are full");
+            } else if (blocking && queue.remainingCapacity() > 0) {
                 try {
                     queue.add(Log4jLogEvent.serialize((Log4jLogEvent) event));
                     return;
@@ -125,7 +274,7 @@ public final class AsynchAppender extends AppenderBase {
                 }
             }
             if (errorAppender != null) {
-                if (!blocking) {
+                if (!blocking && journal == null) {
                     error("Appender " + getName() + " is unable to write primary appenders. queue is full");
                 }
                 errorAppender.callAppender(event);
@@ -133,6 +282,44 @@ public final class AsynchAppender extends AppenderBase {
         }
     }
 
+    private void dispatch(LogEvent event) {
+        if (targetThreads.isEmpty()) {
+            errorAppender.callAppender(event);
+            return;
+        }
+        Entry entry = new Entry(Log4jLogEvent.serialize((Log4jLogEvent) event));
+        boolean overflow = false;
+        for (TargetThread target : targetThreads) {
+            if (!target.offer(entry)) {
+                overflow = true;
+            }
+        }
+        if (overflow && errorAppender != null) {
+            error("Appender " + getName() + " is unable to write to all targets. queue is full");
+            errorAppender.callAppender(event);
+        }
+    }
+
+    private boolean spill(Serializable serialized) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ObjectOutputStream oos = new ObjectOutputStream(baos);
+            oos.writeObject(serialized);
+            oos.close();
+            if (!journal.write(baos.toByteArray())) {
+                return false;
+            }
+        } catch (IOException ex) {
+            LOGGER.error("Unable to serialize event for the journal of " + getName(), ex);
+            return false;
+        }
+        // Wake the thread in case it found the journal empty and is waiting on the queue.
+        if (queue.isEmpty()) {
+            queue.offer(JOURNAL);
+        }
+        return true;
+    }
+
     /**
      * Create an AsynchAppender.
      * @param appenderRefs The Appenders to reference.
@@ -144,6 +331,12 @@ public final class AsynchAppender extends AppenderBase {
      * @param config The Configuration.
      * @param suppress "true" if exceptions should be hidden from the application, "false" otherwise.
      * The default is "true".
+     * @param journalDir The directory to write events to when the queue is full, or null.
+     * @param segmentSize The size in bytes of each journal segment file. The default is 4 MB.
+     * @param maxSegments The maximum number of journal segment files. The default is 16.
+     * @param targets Appenders to dispatch to in parallel, each with its own queue and overflow policy.
+     * @param dispatch "parallel" to dispatch to each Appender on its own thread. The default is "serial", unless
+     * targets are specified.
      * @return The AsynchAppender.
      */
     @PluginFactory
@@ -154,22 +347,41 @@ public final class AsynchAppender extends AppenderBase {
                                                 @PluginAttr("name") String name,
                                                 @PluginElement("filter") Filter filter,
                                                 @PluginConfiguration Configuration config,
-                                                @PluginAttr("suppressExceptions") String suppress) {
+                                                @PluginAttr("suppressExceptions") String suppress,
+                                                @PluginAttr("journal") String journalDir,
+                                                @PluginAttr("journalSegmentSize") String segmentSize,
+                                                @PluginAttr("journalSegments") String maxSegments,
+                                                @PluginElement("targets") AsynchTarget[] targets,
+                                                @PluginAttr("dispatch") String dispatch) {
         if (name == null) {
             LOGGER.error("No name provided for AsynchAppender");
             return null;
         }
-        if (appenderRefs == null) {
+        if (appenderRefs == null && targets == null) {
             LOGGER.error("No appender references provided to AsynchAppender {}", name);
         }
+        boolean parallel = dispatch == null ? targets != null && targets.length > 0 :
+            "parallel".equalsIgnoreCase(dispatch);
 
         boolean isBlocking = blocking == null ? true : Boolean.valueOf(blocking);
         int queueSize = size == null ? DEFAULT_QUEUE_SIZE : Integer.parseInt(size);
 
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
 
+        JournalManager journal = null;
+        if (journalDir != null && parallel) {
+            LOGGER.warn("AsynchAppender {} does not use a journal when dispatching in parallel", name);
+        } else if (journalDir != null) {
+            int segSize = segmentSize == null ? DEFAULT_SEGMENT_SIZE : Integer.parseInt(segmentSize);
+            int segments = maxSegments == null ? DEFAULT_MAX_SEGMENTS : Integer.parseInt(maxSegments);
+            journal = JournalManager.getJournalManager(journalDir, name, segSize, segments);
+            if (journal == null) {
+                LOGGER.error("Unable to create journal for AsynchAppender {}", name);
+            }
+        }
+
         return new AsynchAppender(name, filter, appenderRefs, errorRef, queueSize, isBlocking, handleExceptions,
-                                  config);
+                                  config, journal, targets, parallel);
     }
 
     /**
@@ -188,11 +400,26 @@ public final class AsynchAppender extends AppenderBase {
 
         public void run() {
             while (!shutdown) {
-                Serializable s;
+                Serializable s = queue.poll();
+                if (s == null && journal != null) {
+                    JournalManager.Record record = journal.read();
+                    if (record != null) {
+                        Log4jLogEvent event = restore(record.getData());
+                        if (event != null) {
+                            callAppenders(event);
+                        }
+                        journal.commit(record);
+                        continue;
+                    }
+                }
                 try {
-                    s = queue.take();
-                    if (s != null && s instanceof String && SHUTDOWN.equals(s.toString())) {
-                        shutdown = true;
+                    if (s == null) {
+                        s = queue.take();
+                    }
+                    if (s instanceof String) {
+                        if (SHUTDOWN.equals(s.toString())) {
+                            shutdown = true;
+                        }
                         continue;
                     }
                 } catch (InterruptedException ex) {
@@ -200,27 +427,19 @@ public final class AsynchAppender extends AppenderBase {
                     continue;
                 }
                 Log4jLogEvent event = Log4jLogEvent.deserialize(s);
-                boolean success = false;
-                for (AppenderControl control : appenders) {
-                    try {
-                        control.callAppender(event);
-                        success = true;
-                    } catch (Exception ex) {
-                        // If no appender is successful the error appender will get it.
-                    }
-                }
-                if (!success && errorAppender != null) {
-                    try {
-                        errorAppender.callAppender(event);
-                    } catch (Exception ex) {
-                        // Silently accept the error.
-                    }
+                if (Metrics.isEnabled()) {
+                    queueStats.dequeued(event.getMillis());
                 }
+                callAppenders(event);
             }
-            // Process any remaining items in the queue.
+            // Process any remaining items in the queue. Events in the journal are kept for the next start.
             while (!queue.isEmpty()) {
                 try {
-                    Log4jLogEvent event = Log4jLogEvent.deserialize(queue.take());
+                    Serializable s = queue.take();
+                    if (s instanceof String) {
+                        continue;
+                    }
+                    Log4jLogEvent event = Log4jLogEvent.deserialize(s);
                     for (AppenderControl control : appenders) {
                         control.callAppender(event);
                     }
@@ -230,6 +449,39 @@ public final class AsynchAppender extends AppenderBase {
             }
         }
 
+        private void callAppenders(Log4jLogEvent event) {
+            boolean success = false;
+            for (AppenderControl control : appenders) {
+                try {
+                    control.callAppender(event);
+                    success = true;
+                } catch (Exception ex) {
+                    // If no appender is successful the error appender will get it.
+                }
+            }
+            if (!success && errorAppender != null) {
+                try {
+                    errorAppender.callAppender(event);
+                } catch (Exception ex) {
+                    // Silently accept the error.
+                }
+            }
+        }
+
+        private Log4jLogEvent restore(byte[] record) {
+            try {
+                ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(record));
+                try {
+                    return (Log4jLogEvent) ois.readObject();
+                } finally {
+                    ois.close();
+                }
+            } catch (Exception ex) {
+                LOGGER.error("Discarding unreadable event from the journal of " + getName(), ex);
+                return null;
+            }
+        }
+
         public void shutdown() {
             shutdown = true;
             if (queue.isEmpty()) {
@@ -237,4 +489,109 @@ public final class AsynchAppender extends AppenderBase {
             }
         }
     }
+
+    /**
+     * An event and the time it was queued.
+     */
+    private static class Entry {
+        private final Serializable event;
+        private final long queued = System.nanoTime();
+
+        public Entry(Serializable event) {
+            this.event = event;
+        }
+    }
+
+    /**
+     * Thread that calls a single Appender in parallel mode.
+     */
+    private class TargetThread extends Thread {
+
+        private volatile boolean shutdown = false;
+        private final AppenderControl control;
+        private final BlockingQueue<Entry> entries;
+        private final AsynchTarget.Overflow overflow;
+        private final AsynchTargetStats stats;
+
+        public TargetThread(AppenderControl control, int size, AsynchTarget.Overflow overflow) {
+            this.control = control;
+            this.entries = new ArrayBlockingQueue<Entry>(size);
+            this.overflow = overflow;
+            this.stats = new AsynchTargetStats(control.getAppender().getName(), entries);
+            setName("AsynchAppender-" + AsynchAppender.this.getName() + "-" + stats.getName());
+        }
+
+        /**
+         * Queue an event according to the overflow policy.
+         * @param entry The event.
+         * @return false if the event should be passed to the error Appender.
+         */
+        public boolean offer(Entry entry) {
+            if (entries.offer(entry)) {
+                return true;
+            }
+            if (overflow == AsynchTarget.Overflow.BLOCK) {
+                // Once the thread has stopped nothing drains the queue, so never wait for space indefinitely.
+                try {
+                    while (!shutdown && isAlive()) {
+                        if (entries.offer(entry, STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+                            return true;
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                stats.overflow();
+                return false;
+            }
+            stats.overflow();
+            return overflow != AsynchTarget.Overflow.ERROR;
+        }
+
+        public void run() {
+            while (!shutdown) {
+                Entry entry;
+                try {
+                    entry = entries.take();
+                } catch (InterruptedException ex) {
+                    continue;
+                }
+                if (entry.event != null) {
+                    call(entry);
+                }
+            }
+            // Process any remaining items in the queue.
+            Entry entry;
+            while ((entry = entries.poll()) != null) {
+                if (entry.event != null) {
+                    call(entry);
+                }
+            }
+        }
+
+        private void call(Entry entry) {
+            Log4jLogEvent event = Log4jLogEvent.deserialize(entry.event);
+            boolean success = true;
+            try {
+                control.callAppender(event);
+            } catch (Exception ex) {
+                success = false;
+            }
+            stats.dispatched(System.nanoTime() - entry.queued, success);
+            if (!success && errorAppender != null) {
+                try {
+                    errorAppender.callAppender(event);
+                } catch (Exception ex) {
+                    // Silently accept the error.
+                }
+            }
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            if (entries.isEmpty()) {
+                entries.offer(new Entry(null));
+            }
+        }
+    }
 }
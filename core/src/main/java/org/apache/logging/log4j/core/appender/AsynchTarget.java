@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+
+/**
+ * An Appender that the AsynchAppender dispatches to on its own thread, with its own queue and overflow
+ * policy.
+ */
+@Plugin(name = "target", type = "Core", printObject = true)
+public final class AsynchTarget {
+
+    /**
+     * What to do with an event when the target's queue is full.
+     */
+    public enum Overflow {
+        /** Wait until the queue has room for the event. */
+        BLOCK,
+        /** Drop the event. */
+        DISCARD,
+        /** Pass the event to the AsynchAppender's error Appender. */
+        ERROR
+    }
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final String ref;
+    private final int bufferSize;
+    private final Overflow overflow;
+
+    private AsynchTarget(String ref, int bufferSize, Overflow overflow) {
+        this.ref = ref;
+        this.bufferSize = bufferSize;
+        this.overflow = overflow;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    /**
+     * Returns the size of the target's queue.
+     * @return The queue size, or zero to use the AsynchAppender's bufferSize.
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Returns the overflow policy.
+     * @return The policy, or null to use the AsynchAppender's blocking setting.
+     */
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    @Override
+    public String toString() {
+        return ref;
+    }
+
+    /**
+     * Create an AsynchTarget.
+     * @param ref The name of the Appender.
+     * @param size The size of the target's queue.
+     * @param overflow "block", "discard" or "error".
+     * @return The AsynchTarget.
+     */
+    @PluginFactory
+    public static AsynchTarget createTarget(@PluginAttr("ref") String ref,
+                                            @PluginAttr("bufferSize") String size,
+                                            @PluginAttr("overflow") String overflow) {
+        if (ref == null) {
+            LOGGER.error("Target references an undefined Appender");
+            return null;
+        }
+        int bufferSize = size == null ? 0 : Integer.parseInt(size);
+        Overflow policy = null;
+        if (overflow != null) {
+            try {
+                policy = Overflow.valueOf(overflow.toUpperCase());
+            } catch (IllegalArgumentException ex) {
+                LOGGER.error("Invalid overflow policy " + overflow + " for target " + ref);
+            }
+        }
+        return new AsynchTarget(ref, bufferSize, policy);
+    }
+}
@@ -35,6 +35,9 @@ import java.io.OutputStream;
  * is handled within the Layout. Typically, a Layout will generate a String
  * and then call getBytes which may use a configured encoding or the system
  * default. OTOH, a Writer cannot print byte streams.
+ * <p/>
+ * <p>When "direct" is true events are buffered and written to the file descriptor of the target by a
+ * {@link DirectConsoleManager} instead.
  */
 @Plugin(name = "Console", type = "Core", elementType = "appender", printObject = true)
 public final class ConsoleAppender extends OutputStreamAppender {
@@ -52,8 +55,8 @@ public final class ConsoleAppender extends OutputStreamAppender {
     }
 
     private ConsoleAppender(String name, Layout layout, Filter filter, OutputStreamManager manager,
-                           boolean handleExceptions) {
-        super(name, layout, filter, handleExceptions, true, manager);
+                           boolean handleExceptions, boolean immediateFlush) {
+        super(name, layout, filter, handleExceptions, immediateFlush, manager);
     }
 
     /**
@@ -66,12 +69,35 @@ public final class ConsoleAppender extends OutputStreamAppender {
      * The default is "true".
      * @return The ConsoleAppender.
      */
+    public static ConsoleAppender createAppender(Layout layout, Filter filter, String t, String name,
+                                                 String suppress) {
+        return createAppender(layout, filter, t, name, suppress, null, null, null);
+    }
+
+    /**
+     * Create a Console Appender.
+     * @param layout The layout to use (required).
+     * @param filter The Filter or null.
+     * @param t The target ("SYSTEM_OUT" or "SYSTEM_ERR"). The default is "SYSTEM_OUT".
+     * @param name The name of the Appender (required).
+     * @param suppress "true" if exceptions should be hidden from the application, "false" otherwise.
+     * The default is "true".
+     * @param direct "true" if the events should be buffered and written to the file descriptor of the target
+     * instead of through System.out or System.err. The default is "false".
+     * @param bufferSize The size of the buffer in bytes when writing directly. The default is 262144.
+     * @param flushInterval The maximum number of milliseconds an event remains in the buffer when writing
+     * directly. The default is 100.
+     * @return The ConsoleAppender.
+     */
     @PluginFactory
     public static ConsoleAppender createAppender(@PluginElement("layout") Layout layout,
                                                  @PluginElement("filters") Filter filter,
                                                  @PluginAttr("target") String t,
                                                  @PluginAttr("name") String name,
-                                                 @PluginAttr("suppressExceptions") String suppress) {
+                                                 @PluginAttr("suppressExceptions") String suppress,
+                                                 @PluginAttr("direct") String direct,
+                                                 @PluginAttr("bufferSize") String bufferSize,
+                                                 @PluginAttr("flushInterval") String flushInterval) {
         if (name == null) {
             LOGGER.error("No name provided for ConsoleAppender");
             return null;
@@ -81,7 +107,18 @@ public final class ConsoleAppender extends OutputStreamAppender {
         }
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
         Target target = t == null ? Target.SYSTEM_OUT : Target.valueOf(t);
-        return new ConsoleAppender(name, layout, filter, getManager(target), handleExceptions);
+        if (Boolean.parseBoolean(direct)) {
+            int size = bufferSize == null ? DirectConsoleManager.DEFAULT_BUFFER_SIZE : Integer.parseInt(bufferSize);
+            int interval = flushInterval == null ? DirectConsoleManager.DEFAULT_FLUSH_INTERVAL :
+                Integer.parseInt(flushInterval);
+            if (size <= 0 || interval <= 0) {
+                LOGGER.error("ConsoleAppender " + name + " requires a positive bufferSize and flushInterval");
+                return null;
+            }
+            return new ConsoleAppender(name, layout, filter,
+                DirectConsoleManager.getDirectConsoleManager(target, size, interval), handleExceptions, false);
+        }
+        return new ConsoleAppender(name, layout, filter, getManager(target), handleExceptions, true);
     }
 
     private static OutputStreamManager getManager(Target target) {
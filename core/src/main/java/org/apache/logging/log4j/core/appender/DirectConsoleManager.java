@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes to the standard output or standard error file descriptor of the process, bypassing
+ * <code>System.out</code> and <code>System.err</code>. Events are collected in a buffer that is written when it
+ * is full, when the appender is flushed and at least every flush interval by a background thread, so each event
+ * costs neither the PrintStream's monitor nor a system call.
+ * <p/>
+ * <p>The descriptor is written with a plain FileOutputStream rather than its FileChannel. Interrupting a thread
+ * that is writing to a FileChannel closes the channel and with it the descriptor, which would end all output to
+ * the console, including that of <code>System.out</code>. The descriptor is never closed by this manager. Every
+ * write contains whole events unless an event is larger than the buffer, so output of the application through
+ * <code>System.out</code> may appear between events but not within them.
+ */
+public class DirectConsoleManager extends OutputStreamManager {
+
+    /**
+     * The default size of the buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * The default number of milliseconds between flushes of the buffer.
+     */
+    public static final int DEFAULT_FLUSH_INTERVAL = 100;
+
+    private static ManagerFactory factory = new DirectConsoleManagerFactory();
+
+    private final FileOutputStream fos;
+    private final byte[] buffer;
+    private int count;
+    private final Flusher flusher;
+    private final Thread shutdownHook;
+
+    protected DirectConsoleManager(FileOutputStream fos, String name, int bufferSize, int flushInterval) {
+        super(fos, name);
+        this.fos = fos;
+        this.buffer = new byte[bufferSize];
+        this.flusher = new Flusher(name, flushInterval);
+        this.shutdownHook = new Thread("Log4j-" + name + "-Shutdown") {
+            @Override
+            public void run() {
+                flush();
+            }
+        };
+        flusher.start();
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Return a DirectConsoleManager.
+     * @param target The descriptor to write to.
+     * @param bufferSize The size of the buffer in bytes.
+     * @param flushInterval The maximum number of milliseconds an event remains in the buffer.
+     * @return The DirectConsoleManager.
+     */
+    public static DirectConsoleManager getDirectConsoleManager(ConsoleAppender.Target target, int bufferSize,
+                                                               int flushInterval) {
+        return (DirectConsoleManager) getManager("DIRECT_" + target.name(),
+            new FactoryData(target, bufferSize, flushInterval), factory);
+    }
+
+    /**
+     * Write the header through the buffer so that it follows any events still in it.
+     * @param header The header.
+     */
+    @Override
+    public synchronized void setHeader(byte[] header) {
+        if (header != null) {
+            write(header, 0, header.length);
+        }
+    }
+
+    @Override
+    protected synchronized void write(byte[] bytes, int offset, int length) {
+        if (length > buffer.length - count) {
+            drain();
+        }
+        if (length > buffer.length) {
+            writeToDescriptor(bytes, offset, length);
+        } else {
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+    }
+
+    /**
+     * Write the contents of the buffer to the descriptor.
+     */
+    @Override
+    public synchronized void flush() {
+        drain();
+    }
+
+    @Override
+    public void releaseSub() {
+        flusher.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ex) {
+            // The virtual machine is shutting down, the hook flushes the buffer.
+        }
+        super.releaseSub();
+    }
+
+    /**
+     * Flushes the buffer instead of closing the descriptor, which is shared with the rest of the process.
+     */
+    @Override
+    protected synchronized void close() {
+        drain();
+    }
+
+    private void drain() {
+        if (count > 0) {
+            int length = count;
+            count = 0;
+            writeToDescriptor(buffer, 0, length);
+        }
+    }
+
+    private void writeToDescriptor(byte[] bytes, int offset, int length) {
+        try {
+            fos.write(bytes, offset, length);
+        } catch (IOException ex) {
+            String msg = "Error writing to stream " + getName();
+            throw new AppenderRuntimeException(msg, ex);
+        }
+    }
+
+    /**
+     * Flushes the buffer periodically.
+     */
+    private class Flusher extends Thread {
+
+        private final int interval;
+        private volatile boolean shutdown = false;
+
+        public Flusher(String name, int interval) {
+            super("Log4j-" + name + "-Flusher");
+            this.interval = interval;
+            setDaemon(true);
+        }
+
+        public void shutdown() {
+            shutdown = true;
+            synchronized (this) {
+                notifyAll();
+            }
+            try {
+                join();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (!shutdown) {
+                synchronized (this) {
+                    try {
+                        wait(interval);
+                    } catch (InterruptedException ie) {
+                        break;
+                    }
+                }
+                try {
+                    flush();
+                } catch (AppenderRuntimeException ex) {
+                    LOGGER.error(ex.getMessage(), ex.getCause());
+                }
+            }
+        }
+    }
+
+    /**
+     * Data to pass to factory method.
+     */
+    private static class FactoryData {
+        private final ConsoleAppender.Target target;
+        private final int bufferSize;
+        private final int flushInterval;
+
+        public FactoryData(ConsoleAppender.Target target, int bufferSize, int flushInterval) {
+            this.target = target;
+            this.bufferSize = bufferSize;
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    /**
+     * Factory to create a DirectConsoleManager.
+     */
+    private static class DirectConsoleManagerFactory implements ManagerFactory<DirectConsoleManager, FactoryData> {
+
+        /**
+         * Create a DirectConsoleManager.
+         * @param name The name of the entity to manage.
+         * @param data The data required to create the entity.
+         * @return The DirectConsoleManager.
+         */
+        public DirectConsoleManager createManager(String name, FactoryData data) {
+            FileDescriptor fd = data.target == ConsoleAppender.Target.SYSTEM_OUT ? FileDescriptor.out :
+                FileDescriptor.err;
+            return new DirectConsoleManager(new FileOutputStream(fd), name, data.bufferSize, data.flushInterval);
+        }
+    }
+}
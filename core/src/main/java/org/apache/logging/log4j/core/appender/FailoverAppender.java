@@ -27,19 +27,34 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.jmx.AppenderStats;
+import org.apache.logging.log4j.core.jmx.AppenderStatsMBean;
+import org.apache.logging.log4j.core.jmx.Server;
 
+import javax.management.ObjectName;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The FailoverAppender will capture exceptions in an Appender and then route the event
  * to a different appender. Hopefully it is obvious that the Appenders must be configured
  * to not suppress exceptions for the FailoverAppender to work.
+ * <p>
+ * When a failure threshold is configured the primary Appender is bypassed once it has failed that
+ * many times in a row. After the retry interval a single event is used to probe the primary Appender.
+ * If it succeeds the primary Appender is used again, otherwise it is bypassed for another interval.
  */
 @Plugin(name = "Failover", type = "Core", elementType = "appender", printObject = true)
 public final class FailoverAppender extends AppenderBase {
 
+    private static final int DEFAULT_RETRY_INTERVAL = 60;
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+
     private final String primaryRef;
 
     private final String[] failovers;
@@ -50,12 +65,30 @@ public final class FailoverAppender extends AppenderBase {
 
     private List<AppenderControl> failoverAppenders = new ArrayList<AppenderControl>();
 
+    private final int failureThreshold;
+
+    private final long retryInterval;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    /** The time the primary may next be probed, or zero if the primary is in use. */
+    private final AtomicLong bypassUntil = new AtomicLong();
+
+    private AppenderStats primaryStats;
+
+    private final List<AppenderStats> failoverStats = new ArrayList<AppenderStats>();
+
+    private final Map<ObjectName, AppenderStats> mbeans = new HashMap<ObjectName, AppenderStats>();
+
     private FailoverAppender(String name, Filter filter, String primary, String[] failovers,
-                            Configuration config, boolean handleExceptions) {
+                            Configuration config, boolean handleExceptions, int failureThreshold,
+                            long retryInterval) {
         super(name, filter, null, handleExceptions);
         this.primaryRef = primary;
         this.failovers = failovers;
         this.config = config;
+        this.failureThreshold = failureThreshold;
+        this.retryInterval = retryInterval;
     }
 
 
@@ -65,6 +98,7 @@ public final class FailoverAppender extends AppenderBase {
         int errors = 0;
         if (map.containsKey(primaryRef)) {
             primary = new AppenderControl(map.get(primaryRef), null, null);
+            primaryStats = new AppenderStats(primaryRef);
         } else {
             LOGGER.error("Unable to locate primary Appender " + primaryRef);
             ++errors;
@@ -72,6 +106,7 @@ public final class FailoverAppender extends AppenderBase {
         for (String name : failovers) {
             if (map.containsKey(name)) {
                 failoverAppenders.add(new AppenderControl(map.get(name), null, null));
+                failoverStats.add(new AppenderStats(name));
             } else {
                 LOGGER.error("Failover appender " + name + " is not configured");
             }
@@ -81,38 +116,93 @@ public final class FailoverAppender extends AppenderBase {
             ++errors;
         }
         if (errors == 0) {
+            register(primaryStats);
+            for (AppenderStats stats : failoverStats) {
+                register(stats);
+            }
             super.start();
         }
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        for (Map.Entry<ObjectName, AppenderStats> entry : mbeans.entrySet()) {
+            Server.unregister(entry.getKey(), entry.getValue());
+        }
+        mbeans.clear();
+    }
+
+    private void register(AppenderStats stats) {
+        ObjectName objectName = Server.createName("FailoverAppender", getName(), "context",
+            Server.getContextName(config), "appender", stats.getName());
+        if (objectName != null) {
+            Server.register(objectName, stats);
+            mbeans.put(objectName, stats);
+        }
+    }
+
     /**
      * Handle the Log event.
      * @param event The LogEvent.
      */
     public void append(LogEvent event) {
-        RuntimeException re = null;
         if (!isStarted()) {
             error("FailoverAppender " + getName() + " did not start successfully");
             return;
         }
+        long until = bypassUntil.get();
+        if (until != 0 && (System.currentTimeMillis() < until ||
+            !bypassUntil.compareAndSet(until, System.currentTimeMillis() + retryInterval))) {
+            primaryStats.bypass();
+            failover(event, null);
+            return;
+        }
         try {
             primary.callAppender(event);
+            primaryStats.success();
+            if (until != 0) {
+                LOGGER.debug("Primary Appender {} of {} is available again", primaryRef, getName());
+                bypassUntil.set(0);
+            }
+            if (failureThreshold > 0) {
+                consecutiveFailures.set(0);
+            }
         } catch (Exception ex) {
-            re = new LoggingException(ex);
-            boolean written = false;
-            for (AppenderControl control : failoverAppenders) {
-                try {
-                    control.callAppender(event);
-                    written = true;
-                    break;
-                } catch (Exception fex) {
-                    continue;
-                }
+            primaryStats.failure();
+            if (failureThreshold > 0 && consecutiveFailures.incrementAndGet() >= failureThreshold &&
+                bypassUntil.compareAndSet(until, System.currentTimeMillis() + retryInterval)) {
+                LOGGER.debug("Bypassing primary Appender {} of {} for {} milliseconds", primaryRef, getName(),
+                    retryInterval);
             }
-            if (!written && !isExceptionSuppressed()) {
-                throw re;
+            failover(event, ex);
+        }
+    }
+
+    private void failover(LogEvent event, Exception ex) {
+        int i = 0;
+        for (AppenderControl control : failoverAppenders) {
+            AppenderStats stats = failoverStats.get(i++);
+            try {
+                control.callAppender(event);
+                stats.success();
+                return;
+            } catch (Exception fex) {
+                stats.failure();
             }
         }
+        if (!isExceptionSuppressed()) {
+            throw ex == null ? new LoggingException("Primary Appender " + primaryRef + " is unavailable") :
+                new LoggingException(ex);
+        }
+    }
+
+    /**
+     * Returns the counters for the primary Appender.
+     * @return The primary Appender's counters.
+     */
+    public AppenderStatsMBean getPrimaryStats() {
+        return primaryStats;
     }
 
     @Override
@@ -140,6 +230,10 @@ public final class FailoverAppender extends AppenderBase {
      * @param filter A Filter (optional).
      * @param suppress "true" if exceptions should be hidden from the application, "false" otherwise.
      * The default is "true".
+     * @param failureThreshold The number of consecutive failures after which the primary Appender is bypassed.
+     * The default of zero never bypasses the primary Appender.
+     * @param retryInterval The number of seconds to bypass the primary Appender before probing it again.
+     * The default is 60.
      * @return The FailoverAppender that was created.
      */
     @PluginFactory
@@ -148,7 +242,9 @@ public final class FailoverAppender extends AppenderBase {
                                                   @PluginElement("failovers") String[] failovers,
                                                   @PluginConfiguration Configuration config,
                                                   @PluginElement("filters") Filter filter,
-                                                  @PluginAttr("suppressExceptions") String suppress) {
+                                                  @PluginAttr("suppressExceptions") String suppress,
+                                                  @PluginAttr("failureThreshold") String failureThreshold,
+                                                  @PluginAttr("retryInterval") String retryInterval) {
         if (name == null) {
             LOGGER.error("A name for the Appender must be specified");
             return null;
@@ -163,7 +259,15 @@ public final class FailoverAppender extends AppenderBase {
         }
 
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
+        int threshold = failureThreshold == null ? 0 : Integer.parseInt(failureThreshold);
+        long interval = (retryInterval == null ? DEFAULT_RETRY_INTERVAL : Integer.parseInt(retryInterval)) *
+            MILLIS_PER_SECOND;
+        if (threshold > 0 && interval <= 0) {
+            LOGGER.error("The retryInterval must be positive when a failureThreshold is specified");
+            return null;
+        }
 
-        return new FailoverAppender(name, filter, primary, failovers, config, handleExceptions);
+        return new FailoverAppender(name, filter, primary, failovers, config, handleExceptions, threshold,
+            interval);
     }
 }
@@ -23,6 +23,7 @@ import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
 import org.apache.logging.log4j.core.layout.SerializedLayout;
 import org.apache.logging.log4j.core.net.JMSTopicManager;
 
@@ -34,10 +35,13 @@ public final class JMSTopicAppender extends AppenderBase {
 
     private final JMSTopicManager manager;
 
+    private final boolean bytesMessage;
+
     private JMSTopicAppender(String name, Filter filter, Layout layout, JMSTopicManager manager,
-                            boolean handleExceptions) {
+                            boolean handleExceptions, boolean bytesMessage) {
         super(name, filter, layout, handleExceptions);
         this.manager = manager;
+        this.bytesMessage = bytesMessage;
     }
 
     /**
@@ -47,12 +51,25 @@ public final class JMSTopicAppender extends AppenderBase {
      */
     public void append(LogEvent event) {
         try {
-            manager.send(getLayout().formatAs(event));
+            if (bytesMessage) {
+                Layout layout = getLayout();
+                // Each JMS message may be delivered to a different receiver, so BinaryLayout records stand alone.
+                manager.send(layout instanceof BinaryLayout ? ((BinaryLayout) layout).formatRecord(event) :
+                    layout.format(event));
+            } else {
+                manager.send(getLayout().formatAs(event));
+            }
         } catch (Exception ex) {
             throw new AppenderRuntimeException(ex);
         }
     }
 
+    @Override
+    public void stop() {
+        super.stop();
+        manager.release();
+    }
+
     /**
      * Create a JMSTopicAppender.
      * @param factoryName The fully qualified class name of the InitialContextFactory.
@@ -71,6 +88,39 @@ public final class JMSTopicAppender extends AppenderBase {
      * The default is "true".
      * @return The JMSTopicAppender.
      */
+    public static JMSTopicAppender createAppender(String factoryName, String providerURL, String urlPkgPrefixes,
+                                                  String securityPrincipalName, String securityCredentials,
+                                                  String factoryBindingName, String topicBindingName, String userName,
+                                                  String password, Layout layout, Filter filter, String suppress) {
+        return createAppender(factoryName, providerURL, urlPkgPrefixes, securityPrincipalName, securityCredentials,
+            factoryBindingName, topicBindingName, userName, password, layout, filter, suppress, null, null, null, null);
+    }
+
+    /**
+     * Create a JMSTopicAppender.
+     * @param factoryName The fully qualified class name of the InitialContextFactory.
+     * @param providerURL The URL of the provider to use.
+     * @param urlPkgPrefixes A colon-separated list of package prefixes for the class name of the factory class that
+     * will create a URL context factory
+     * @param securityPrincipalName The name of the identity of the Principal.
+     * @param securityCredentials The security credentials of the Principal.
+     * @param factoryBindingName The name to locate in the Context that provides the TopicConnectionFactory.
+     * @param topicBindingName The name to use to locate the Topic.
+     * @param userName The userid to use to create the Topic Connection.
+     * @param password The password to use to create the Topic Connection.
+     * @param layout The layout to use. Defaults to the BinaryLayout when bytesMessage is "true" and to the
+     * SerializedLayout otherwise.
+     * @param filter The Filter or null.
+     * @param suppress "true" if exceptions should be hidden from the application, "false" otherwise.
+     * The default is "true".
+     * @param batchSize The number of events to send in each JMS transaction. When set the events are sent by
+     * background threads rather than by the caller. The default is zero, which sends each event immediately.
+     * @param batchDelay The maximum number of milliseconds to wait for a batch to fill before it is committed.
+     * @param sessions The number of JMS Sessions, each with its own dispatcher thread, to use when batching.
+     * @param bytesMessage "true" if the bytes produced by the Layout should be sent as a BytesMessage instead
+     * of sending the formatted Object.
+     * @return The JMSTopicAppender.
+     */
     @PluginFactory
     public static JMSTopicAppender createAppender(@PluginAttr("factoryName") String factoryName,
                                                   @PluginAttr("providerURL") String providerURL,
@@ -83,18 +133,27 @@ public final class JMSTopicAppender extends AppenderBase {
                                                   @PluginAttr("password") String password,
                                                   @PluginElement("layout") Layout layout,
                                                   @PluginElement("filters") Filter filter,
-                                                  @PluginAttr("suppressExceptions") String suppress) {
+                                                  @PluginAttr("suppressExceptions") String suppress,
+                                                  @PluginAttr("batchSize") String batchSize,
+                                                  @PluginAttr("batchDelay") String batchDelay,
+                                                  @PluginAttr("sessions") String sessions,
+                                                  @PluginAttr("bytesMessage") String bytesMessage) {
 
         String name = "JMSTopic" + factoryBindingName + "." + topicBindingName;
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
+        int size = batchSize == null ? 0 : Integer.parseInt(batchSize);
+        int delay = batchDelay == null ? JMSTopicManager.DEFAULT_BATCH_DELAY : Integer.parseInt(batchDelay);
+        int count = sessions == null ? 1 : Integer.parseInt(sessions);
+        boolean bytes = bytesMessage == null ? false : Boolean.valueOf(bytesMessage);
         JMSTopicManager manager = JMSTopicManager.getJMSTopicManager(factoryName, providerURL, urlPkgPrefixes,
-            securityPrincipalName, securityCredentials, factoryBindingName, topicBindingName, userName, password);
+            securityPrincipalName, securityCredentials, factoryBindingName, topicBindingName, userName, password,
+            size, delay, count);
         if (manager == null) {
             return null;
         }
         if (layout == null) {
-            layout = SerializedLayout.createLayout();
+            layout = bytes ? BinaryLayout.createLayout(null) : SerializedLayout.createLayout();
         }
-        return new JMSTopicAppender(name, filter, layout, manager, handleExceptions);
+        return new JMSTopicAppender(name, filter, layout, manager, handleExceptions, bytes);
     }
 }
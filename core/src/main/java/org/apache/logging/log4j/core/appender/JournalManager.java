@@ -0,0 +1,423 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.zip.CRC32;
+
+/**
+ * Manages an overflow journal of records on local disk. The journal is a sequence of fixed size, memory
+ * mapped segment files in a directory. Records are read back in the order they were written and are marked
+ * as consumed in the segment once they have been committed, so the records that remain after a crash are
+ * read again when the journal is reopened. A segment is deleted once all of its records have been consumed.
+ * Each record that is read is returned with its position, so several consumers may read from the same journal
+ * and commit their records independently.
+ * <p/>
+ * Each record is written as its length, the CRC32 of its contents and the contents. The length is written last
+ * so a record that was only partially written is never read, and it is negated when the record is consumed.
+ */
+public final class JournalManager extends AbstractManager {
+
+    private static ManagerFactory factory = new JournalManagerFactory();
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 8;
+    private static final int END = Integer.MIN_VALUE;
+    private static final int MIN_SEGMENT_SIZE = 1024;
+
+    private final File directory;
+    private final String prefix;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final LinkedList<Segment> segments = new LinkedList<Segment>();
+    private final CRC32 crc = new CRC32();
+    private long nextSequence;
+    private volatile int records;
+
+    private JournalManager(String name, File directory, String prefix, int segmentSize, int maxSegments) {
+        super(name);
+        this.directory = directory;
+        this.prefix = prefix;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+    }
+
+    /**
+     * Return a JournalManager.
+     * @param directory The directory containing the segment files.
+     * @param prefix The prefix of the segment file names.
+     * @param segmentSize The size of each segment file in bytes.
+     * @param maxSegments The maximum number of segment files.
+     * @return The JournalManager or null if the journal could not be opened.
+     */
+    public static JournalManager getJournalManager(String directory, String prefix, int segmentSize,
+                                                   int maxSegments) {
+        File dir = new File(directory);
+        String name = "Journal:" + new File(dir, prefix).getAbsolutePath();
+        try {
+            return (JournalManager) getManager(name, factory, new FactoryData(dir, prefix,
+                Math.max(segmentSize, MIN_SEGMENT_SIZE), Math.max(maxSegments, 1)));
+        } catch (IllegalStateException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Determine if the journal contains records that have not been read. This does not require a lock.
+     * @return true if there are unread records.
+     */
+    public boolean hasRecords() {
+        return records > 0;
+    }
+
+    /**
+     * Return the number of records that have not been read.
+     * @return The number of unread records.
+     */
+    public int getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Append a record to the journal.
+     * @param data The contents of the record.
+     * @return true if the record was written, false if the journal is full or cannot be written.
+     */
+    public synchronized boolean write(byte[] data) {
+        int length = data.length + HEADER_SIZE;
+        if (length > segmentSize) {
+            return false;
+        }
+        Segment segment = segments.isEmpty() ? null : segments.getLast();
+        if (segment == null || segment.closed || segment.writePosition + length > segmentSize) {
+            purge();
+            if (segments.size() >= maxSegments) {
+                return false;
+            }
+            if (segment != null && !segment.closed) {
+                segment.close();
+            }
+            try {
+                segment = createSegment();
+            } catch (IOException ex) {
+                LOGGER.error("Unable to create journal segment in " + directory, ex);
+                return false;
+            }
+            segments.add(segment);
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        int position = segment.writePosition;
+        crc.reset();
+        crc.update(data);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.position(position + HEADER_SIZE);
+        buffer.put(data);
+        buffer.putInt(position, data.length);
+        segment.writePosition = position + length;
+        ++records;
+        return true;
+    }
+
+    /**
+     * Read the next record. The record is not marked as consumed until it is passed to {@link #commit(Record)}.
+     * @return The record or null if there are no unread records.
+     */
+    public synchronized Record read() {
+        Iterator<Segment> iter = segments.iterator();
+        while (iter.hasNext()) {
+            Segment segment = iter.next();
+            MappedByteBuffer buffer = segment.buffer;
+            int position = segment.readPosition;
+            while (position < segment.writePosition) {
+                int length = buffer.getInt(position);
+                if (length < 0) {
+                    // Consumed before the journal was reopened.
+                    position += HEADER_SIZE - length;
+                    segment.readPosition = position;
+                    continue;
+                }
+                byte[] data = new byte[length];
+                buffer.position(position + HEADER_SIZE);
+                buffer.get(data);
+                segment.readPosition = position + HEADER_SIZE + length;
+                ++segment.pending;
+                --records;
+                return new Record(data, segment, position);
+            }
+            if (!segment.closed) {
+                return null;
+            }
+            if (segment.pending == 0) {
+                iter.remove();
+                segment.delete();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mark a record returned by {@link #read()} as consumed.
+     * @param record The record.
+     */
+    public synchronized void commit(Record record) {
+        if (record == null || record.segment == null) {
+            return;
+        }
+        Segment segment = record.segment;
+        record.segment = null;
+        if (segments.contains(segment)) {
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.putInt(record.position, -buffer.getInt(record.position));
+            --segment.pending;
+            purge();
+        }
+    }
+
+    /**
+     * Force the contents of the journal to be written to the storage device.
+     */
+    public synchronized void force() {
+        for (Segment segment : segments) {
+            segment.buffer.force();
+        }
+    }
+
+    @Override
+    protected synchronized void releaseSub() {
+        for (Segment segment : segments) {
+            if (segment.readPosition >= segment.writePosition && segment.pending == 0) {
+                segment.delete();
+            } else {
+                segment.buffer.force();
+            }
+        }
+        segments.clear();
+    }
+
+    /**
+     * Delete the leading segments whose records have all been consumed.
+     */
+    private void purge() {
+        while (!segments.isEmpty()) {
+            Segment segment = segments.getFirst();
+            if (!segment.closed || segment.readPosition < segment.writePosition || segment.pending > 0) {
+                break;
+            }
+            segments.removeFirst();
+            segment.delete();
+        }
+    }
+
+    private Segment createSegment() throws IOException {
+        File file = new File(directory, prefix + "-" + nextSequence++ + SUFFIX);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            raf.setLength(0);
+            raf.setLength(segmentSize);
+            return new Segment(file, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Open the existing segments, skipping the records that were consumed and truncating any record
+     * that was not completely written.
+     */
+    private void recover() throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long[] sequences = new long[files.length];
+        int count = 0;
+        String start = prefix + "-";
+        for (File file : files) {
+            String fileName = file.getName();
+            if (fileName.startsWith(start) && fileName.endsWith(SUFFIX)) {
+                try {
+                    sequences[count++] = Long.parseLong(fileName.substring(start.length(),
+                        fileName.length() - SUFFIX.length()));
+                } catch (NumberFormatException ex) {
+                    // Not a segment file.
+                }
+            }
+        }
+        Arrays.sort(sequences, 0, count);
+        for (int i = 0; i < count; ++i) {
+            File file = new File(directory, start + sequences[i] + SUFFIX);
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            Segment segment;
+            try {
+                int size = (int) Math.min(raf.length(), Integer.MAX_VALUE);
+                segment = new Segment(file, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size));
+            } finally {
+                raf.close();
+            }
+            scan(segment);
+            if (segment.readPosition >= segment.writePosition) {
+                segment.delete();
+            } else {
+                segment.close();
+                segments.add(segment);
+            }
+            nextSequence = sequences[i] + 1;
+        }
+    }
+
+    private void scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int capacity = buffer.capacity();
+        int position = 0;
+        boolean consumed = true;
+        while (position + HEADER_SIZE <= capacity) {
+            int length = buffer.getInt(position);
+            if (length == 0 || length == END || Math.abs(length) > capacity - position - HEADER_SIZE) {
+                break;
+            }
+            if (length > 0) {
+                byte[] data = new byte[length];
+                buffer.position(position + HEADER_SIZE);
+                buffer.get(data);
+                crc.reset();
+                crc.update(data);
+                if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    LOGGER.warn("Discarding incomplete record in journal segment " + segment.file);
+                    break;
+                }
+                if (consumed) {
+                    segment.readPosition = position;
+                    consumed = false;
+                }
+                ++records;
+            }
+            position += HEADER_SIZE + Math.abs(length);
+        }
+        segment.writePosition = position;
+        if (consumed) {
+            segment.readPosition = position;
+        }
+    }
+
+    /**
+     * A record read from the journal.
+     */
+    public static final class Record {
+        private final byte[] data;
+        private final int position;
+        private Segment segment;
+
+        private Record(byte[] data, Segment segment, int position) {
+            this.data = data;
+            this.segment = segment;
+            this.position = position;
+        }
+
+        /**
+         * Return the contents of the record.
+         * @return The contents.
+         */
+        public byte[] getData() {
+            return data;
+        }
+    }
+
+    /**
+     * A segment file.
+     */
+    private static final class Segment {
+        private final File file;
+        private final MappedByteBuffer buffer;
+        private int writePosition;
+        private int readPosition;
+        private int pending;
+        private boolean closed;
+
+        public Segment(File file, MappedByteBuffer buffer) {
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Mark the segment as complete so no more records are appended to it.
+         */
+        public void close() {
+            if (writePosition + 4 <= buffer.capacity()) {
+                buffer.putInt(writePosition, END);
+            }
+            closed = true;
+        }
+
+        public void delete() {
+            if (!file.delete()) {
+                // The file may still be mapped.
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Factory Data.
+     */
+    private static class FactoryData {
+        private final File directory;
+        private final String prefix;
+        private final int segmentSize;
+        private final int maxSegments;
+
+        public FactoryData(File directory, String prefix, int segmentSize, int maxSegments) {
+            this.directory = directory;
+            this.prefix = prefix;
+            this.segmentSize = segmentSize;
+            this.maxSegments = maxSegments;
+        }
+    }
+
+    /**
+     * Factory to create a JournalManager.
+     */
+    private static class JournalManagerFactory implements ManagerFactory<JournalManager, FactoryData> {
+
+        public JournalManager createManager(String name, FactoryData data) {
+            if (!data.directory.exists() && !data.directory.mkdirs()) {
+                LOGGER.error("Unable to create journal directory " + data.directory);
+                return null;
+            }
+            JournalManager manager = new JournalManager(name, data.directory, data.prefix, data.segmentSize,
+                data.maxSegments);
+            try {
+                synchronized (manager) {
+                    manager.recover();
+                }
+            } catch (IOException ex) {
+                LOGGER.error("Unable to open journal in " + data.directory, ex);
+                return null;
+            }
+            if (manager.records > 0) {
+                LOGGER.info("Recovered " + manager.records + " records from journal " + name);
+            }
+            return manager;
+        }
+    }
+}
@@ -19,6 +19,8 @@ package org.apache.logging.log4j.core.appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.jmx.OutputStreamManagerStats;
+import org.apache.logging.log4j.core.layout.StatefulLayout;
 
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
@@ -45,6 +47,9 @@ public abstract class OutputStreamAppender extends AppenderBase {
 
     private volatile OutputStreamManager manager;
 
+    /** The generation of the manager's stream the Layout last wrote its header to. Guarded by the manager. */
+    private int generation;
+
     private ReadWriteLock rwLock = new ReentrantReadWriteLock();
     private Lock readLock = rwLock.readLock();
     private Lock writeLock = rwLock.writeLock();
@@ -66,12 +71,21 @@ public abstract class OutputStreamAppender extends AppenderBase {
         }
         this.manager = manager;
         this.immediateFlush = immediateFlush;
+        this.generation = manager.getGeneration();
     }
 
     protected OutputStreamManager getManager() {
         return manager;
     }
 
+    /**
+     * Return the statistics of the OutputStreamManager.
+     * @return The statistics.
+     */
+    public OutputStreamManagerStats getManagerStats() {
+        return manager.getStats();
+    }
+
     protected void replaceManager(OutputStreamManager newManager) {
 
         writeLock.lock();
@@ -112,7 +126,11 @@ public abstract class OutputStreamAppender extends AppenderBase {
     public void append(LogEvent event) {
         readLock.lock();
         try {
-            manager.write(getLayout().format(event));
+            if (getLayout() instanceof StatefulLayout) {
+                writeInOrder(event);
+            } else {
+                manager.write(getLayout().format(event));
+            }
             if (this.immediateFlush) {
                 manager.flush();
             }
@@ -123,4 +141,26 @@ public abstract class OutputStreamAppender extends AppenderBase {
             readLock.unlock();
         }
     }
+
+    /**
+     * Formats and writes the event while holding the manager's lock so that events reach the stream in the
+     * order a StatefulLayout formatted them. If the stream was replaced the Layout is reset and its header
+     * is written to the new stream first.
+     * @param event The LogEvent.
+     */
+    private void writeInOrder(LogEvent event) {
+        Layout layout = getLayout();
+        synchronized (manager) {
+            int current = manager.getGeneration();
+            if (current != generation) {
+                ((StatefulLayout) layout).reset();
+                byte[] header = layout.getHeader();
+                if (header != null) {
+                    manager.write(header);
+                }
+                generation = current;
+            }
+            manager.write(layout.format(event));
+        }
+    }
 }
@@ -16,6 +16,9 @@
  */
 package org.apache.logging.log4j.core.appender;
 
+import org.apache.logging.log4j.core.jmx.Metrics;
+import org.apache.logging.log4j.core.jmx.OutputStreamManagerStats;
+
 import java.io.IOException;
 import java.io.OutputStream;
 
@@ -29,9 +32,14 @@ public class OutputStreamManager extends AbstractManager {
 
     private byte[] footer = null;
 
+    private volatile int generation = 0;
+
+    private final OutputStreamManagerStats stats;
+
     protected OutputStreamManager(OutputStream os, String streamName) {
         super(streamName);
         this.os = os;
+        this.stats = new OutputStreamManagerStats(streamName);
     }
 
     /**
@@ -81,6 +89,14 @@ public class OutputStreamManager extends AbstractManager {
         close();
     }
 
+    /**
+     * Return the statistics of the stream. They are only updated while {@link Metrics#isEnabled()} is true.
+     * @return The statistics.
+     */
+    public OutputStreamManagerStats getStats() {
+        return stats;
+    }
+
     /**
      * Return the status of the stream.
      * @return true if the stream is open, false if it is not.
@@ -95,6 +111,16 @@ public class OutputStreamManager extends AbstractManager {
 
     protected void setOutputStream(OutputStream os) {
         this.os = os;
+        ++generation;
+    }
+
+    /**
+     * Returns the number of times the OutputStream has been replaced, such as when a connection is
+     * reestablished or a file is rolled over.
+     * @return The generation of the OutputStream.
+     */
+    public int getGeneration() {
+        return generation;
     }
 
     /**
@@ -122,7 +148,18 @@ public class OutputStreamManager extends AbstractManager {
      * @throws AppenderRuntimeException if an error occurs.
      */
     protected void write(byte[] bytes)  {
-        write(bytes, 0, bytes.length);
+        boolean metrics = Metrics.isEnabled();
+        try {
+            write(bytes, 0, bytes.length);
+        } catch (AppenderRuntimeException ex) {
+            if (metrics) {
+                stats.error();
+            }
+            throw ex;
+        }
+        if (metrics) {
+            stats.written(bytes.length);
+        }
     }
 
     protected void close() {
@@ -20,6 +20,8 @@ import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.rolling.DefaultRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.DirectWriteRolloverStrategy;
+import org.apache.logging.log4j.core.appender.rolling.PatternProcessor;
 import org.apache.logging.log4j.core.appender.rolling.RollingFileManager;
 import org.apache.logging.log4j.core.appender.rolling.RolloverStrategy;
 import org.apache.logging.log4j.core.appender.rolling.TriggeringPolicy;
@@ -82,7 +84,8 @@ public final class RollingFileAppender extends OutputStreamAppender {
 
     /**
      * Create a RollingFileAppender.
-     * @param fileName The name of the file that is actively written to. (required).
+     * @param fileName The name of the file that is actively written to. (required unless the strategy is a
+     * DirectWriteRolloverStrategy, which names the active file from the file pattern).
      * @param filePattern The pattern of the file name to use on rollover. (required).
      * @param append If true, events are appended to the file. If false, the file
      * is overwritten when opened. Defaults to "true"
@@ -122,13 +125,21 @@ public final class RollingFileAppender extends OutputStreamAppender {
             return null;
         }
 
-        if (fileName == null) {
-            LOGGER.error("No filename was provided for FileAppender with name "  + name);
+        if (filePattern == null) {
+            LOGGER.error("No filename pattern provided for FileAppender with name "  + name);
             return null;
         }
 
-        if (filePattern == null) {
-            LOGGER.error("No filename pattern provided for FileAppender with name "  + name);
+        if (strategy instanceof DirectWriteRolloverStrategy) {
+            if (fileName != null) {
+                LOGGER.warn("The fileName of RollingFileAppender " + name + " is ignored because the " +
+                    "DirectWriteRolloverStrategy writes to the files named by the filePattern");
+            }
+            fileName = ((DirectWriteRolloverStrategy) strategy).getActiveFileName(new PatternProcessor(filePattern));
+        }
+
+        if (fileName == null) {
+            LOGGER.error("No filename was provided for FileAppender with name "  + name);
             return null;
         }
 
@@ -138,7 +149,7 @@ public final class RollingFileAppender extends OutputStreamAppender {
         }
 
         if (strategy == null) {
-            strategy = DefaultRolloverStrategy.createStrategy(null, null, config);
+            strategy = DefaultRolloverStrategy.createStrategy(null, null, null, config);
         }
 
         RollingFileManager manager = RollingFileManager.getFileManager(fileName, filePattern, isAppend, isBuffered);
@@ -24,7 +24,7 @@ import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.layout.SerializedLayout;
 import org.apache.logging.log4j.core.net.AbstractSocketManager;
-import org.apache.logging.log4j.core.net.DatagramSocketManager;
+import org.apache.logging.log4j.core.net.DatagramChannelManager;
 import org.apache.logging.log4j.core.net.Protocol;
 import org.apache.logging.log4j.core.net.TCPSocketManager;
 
@@ -55,6 +55,28 @@ public class SocketAppender extends OutputStreamAppender {
      * @param filter The Filter or null.
      * @return A SocketAppender.
      */
+    public static SocketAppender createAppender(String host, String portNum, String protocol, String delay,
+                                                String name, String immediateFlush, String suppress,
+                                                Layout layout, Filter filter) {
+        return createAppender(host, portNum, protocol, delay, name, immediateFlush, suppress, layout, filter,
+            null);
+    }
+
+    /**
+     *
+     * @param host The name of the host to connect to.
+     * @param portNum The port to connect to on the target host.
+     * @param protocol The Protocol to use.
+     * @param delay The interval in which failed writes should be retried.
+     * @param name The name of the Appender.
+     * @param immediateFlush "true" if data should be flushed on each write.
+     * @param suppress "true" if exceptions should be hidden from the application, "false" otherwise.
+     * The default is "true".
+     * @param layout The layout to use (defaults to SerlializedLayout).
+     * @param filter The Filter or null.
+     * @param batch "true" if UDP events should be packed into shared datagrams. The default is "false".
+     * @return A SocketAppender.
+     */
     @PluginFactory
     public static SocketAppender createAppender(@PluginAttr("host") String host,
                                                 @PluginAttr("port") String portNum,
@@ -64,10 +86,12 @@ public class SocketAppender extends OutputStreamAppender {
                                                 @PluginAttr("immediateFlush") String immediateFlush,
                                                 @PluginAttr("suppressExceptions") String suppress,
                                                 @PluginElement("layout") Layout layout,
-                                                @PluginElement("filters") Filter filter) {
+                                                @PluginElement("filters") Filter filter,
+                                                @PluginAttr("batch") String batch) {
 
         boolean isFlush = immediateFlush == null ? true : Boolean.valueOf(immediateFlush);
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
+        boolean isBatch = Boolean.valueOf(batch);
         int reconnectDelay = delay == null ? 0 : Integer.parseInt(delay);
         int port = portNum == null ? 0 : Integer.parseInt(portNum);
         if (layout == null) {
@@ -79,7 +103,7 @@ public class SocketAppender extends OutputStreamAppender {
             return null;
         }
 
-        AbstractSocketManager manager = createSocketManager(protocol, host, port, reconnectDelay);
+        AbstractSocketManager manager = createSocketManager(protocol, host, port, reconnectDelay, isBatch);
         if (manager == null) {
             return null;
         }
@@ -87,12 +111,27 @@ public class SocketAppender extends OutputStreamAppender {
     }
 
     protected static AbstractSocketManager createSocketManager(String protocol, String host, int port, int delay) {
+        return createSocketManager(protocol, host, port, delay, false);
+    }
+
+    /**
+     * Creates the manager for the protocol. UDP events are sent through a DatagramChannelManager, one event per
+     * datagram unless batching is requested.
+     * @param protocol The Protocol to use.
+     * @param host The name of the host to connect to.
+     * @param port The port to connect to on the target host.
+     * @param delay The interval in which failed writes should be retried.
+     * @param batch true if UDP events should be packed into shared datagrams.
+     * @return The AbstractSocketManager or null if the protocol is not supported.
+     */
+    protected static AbstractSocketManager createSocketManager(String protocol, String host, int port, int delay,
+                                                               boolean batch) {
         Protocol p = Protocol.valueOf(protocol.toUpperCase());
         switch (p) {
             case TCP:
                 return TCPSocketManager.getSocketManager(host, port, delay);
             case UDP:
-                return DatagramSocketManager.getSocketManager(host, port);
+                return DatagramChannelManager.getSocketManager(host, port, 0, batch);
             default:
                 return null;
         }
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.appender.rolling;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.appender.rolling.helper.Action;
+import org.apache.logging.log4j.core.appender.rolling.helper.CompositeAction;
 import org.apache.logging.log4j.core.appender.rolling.helper.FileRenameAction;
 import org.apache.logging.log4j.core.appender.rolling.helper.GZCompressAction;
 import org.apache.logging.log4j.core.appender.rolling.helper.ZipCompressAction;
@@ -25,6 +26,7 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.status.StatusLogger;
@@ -84,15 +86,28 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
 
     private final StrSubstitutor subst;
 
+    private final RetentionPolicy retention;
+
     /**
      * Constructs a new instance.
      * @param min The minimum index.
      * @param max The maximum index.
      */
     protected DefaultRolloverStrategy(int min, int max, StrSubstitutor subst) {
+        this(min, max, subst, null);
+    }
+
+    /**
+     * Constructs a new instance.
+     * @param min The minimum index.
+     * @param max The maximum index.
+     * @param retention The limits on the files rolled over, or null.
+     */
+    protected DefaultRolloverStrategy(int min, int max, StrSubstitutor subst, RetentionPolicy retention) {
         minIndex = min;
         maxIndex = max;
         this.subst = subst;
+        this.retention = retention;
     }
 
     /**
@@ -104,8 +119,9 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
     public RolloverDescription rollover(RollingFileManager manager) throws SecurityException {
         if (maxIndex >= 0) {
             int purgeStart = minIndex;
+            List<File> changed = new ArrayList<File>();
 
-            if (!purge(purgeStart, maxIndex, manager)) {
+            if (!purge(purgeStart, maxIndex, manager, changed)) {
                 return null;
             }
 
@@ -128,7 +144,27 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
             FileRenameAction renameAction =
                 new FileRenameAction(new File(currentFileName), new File(renameTo), false);
 
-            return new RolloverDescriptionImpl(currentFileName, false, renameAction, compressAction);
+            Action asynchronous = compressAction;
+            Action retentionAction = null;
+            if (retention != null) {
+                // The index of the files is updated with the renames rather than by scanning the directory again.
+                changed.add(new File(renameTo));
+                changed.add(new File(compressedName));
+                retentionAction = retention.createAction(manager.getProcessor().getPattern(),
+                    new File(currentFileName), changed);
+            }
+            if (retentionAction != null) {
+                if (compressAction == null) {
+                    asynchronous = retentionAction;
+                } else {
+                    List<Action> actions = new ArrayList<Action>();
+                    actions.add(compressAction);
+                    actions.add(retentionAction);
+                    asynchronous = new CompositeAction(actions, false);
+                }
+            }
+
+            return new RolloverDescriptionImpl(currentFileName, false, renameAction, asynchronous);
         }
 
         return null;
@@ -140,9 +176,11 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
      * @param lowIndex  low index
      * @param highIndex high index.  Log file associated with high index will be deleted if needed.
      * @param manager The RollingFileManager
+     * @param changed The files that are renamed or deleted are added to this list.
      * @return true if purge was successful and rollover should be attempted.
      */
-    private boolean purge(final int lowIndex, final int highIndex, RollingFileManager manager) {
+    private boolean purge(final int lowIndex, final int highIndex, RollingFileManager manager,
+                          List<File> changed) {
         int suffixLength = 0;
 
         List<FileRenameAction> renames = new ArrayList<FileRenameAction>();
@@ -167,6 +205,7 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
 
                 if (toRename.exists()) {
                     if (toRenameBase.exists()) {
+                        changed.add(toRenameBase);
                         toRenameBase.delete();
                     }
                 } else {
@@ -181,6 +220,7 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
                 //        attempt to delete last file
                 //        if that fails then abandon purge
                 if (i == highIndex) {
+                    changed.add(toRename);
                     if (!toRename.delete()) {
                         return false;
                     }
@@ -202,6 +242,8 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
                 }
 
                 renames.add(new FileRenameAction(toRename, new File(renameTo), true));
+                changed.add(toRename);
+                changed.add(new File(renameTo));
                 lowFilename = highFilename;
             } else {
                 break;
@@ -229,19 +271,22 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
 
     @Override
     public String toString() {
-        return "DefaultRolloverStrategy(min=" + minIndex + ", max=" + maxIndex + ")";
+        return "DefaultRolloverStrategy(min=" + minIndex + ", max=" + maxIndex +
+            (retention == null ? "" : ", " + retention) + ")";
     }
 
     /**
      * Create the DefaultRolloverStrategy.
      * @param max The maximum number of files to keep.
      * @param min The minimum number of files to keep.
+     * @param retention The limits on the age, total size and number of files rolled over, or null.
      * @param config The Configuration.
      * @return A DefaultRolloverStrategy.
      */
     @PluginFactory
     public static DefaultRolloverStrategy createStrategy(@PluginAttr("max") String max,
                                                          @PluginAttr("min") String min,
+                                                         @PluginElement("retention") RetentionPolicy retention,
                                                          @PluginConfiguration Configuration config) {
 
         int minIndex;
@@ -264,7 +309,7 @@ public class DefaultRolloverStrategy implements RolloverStrategy {
         } else {
             maxIndex = DEFAULT_WINDOW_SIZE;
         }
-        return new DefaultRolloverStrategy(minIndex, maxIndex, config.getSubst());
+        return new DefaultRolloverStrategy(minIndex, maxIndex, config.getSubst(), retention);
     }
 
 }
@@ -0,0 +1,279 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.rolling.helper.Action;
+import org.apache.logging.log4j.core.appender.rolling.helper.CompositeAction;
+import org.apache.logging.log4j.core.appender.rolling.helper.FileDeleteAction;
+import org.apache.logging.log4j.core.appender.rolling.helper.GZCompressAction;
+import org.apache.logging.log4j.core.appender.rolling.helper.ZipCompressAction;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * When rolling over, <code>DirectWriteRolloverStrategy</code> does not rename any files. The active file is
+ * already named from the file pattern, so a rollover only increments the "%i" counter and opens the file the
+ * pattern names next. The counter restarts at 1 when the date in the pattern changes.
+ * <p/>
+ * <p>If the pattern ends in ".gz" or ".zip" the active file is written without that suffix and compressed after
+ * it has been rolled over. Once more than <b>max</b> files have been rolled over the oldest ones are deleted.
+ * Compressing and deleting are done asynchronously, so the time a rollover holds the RollingFileManager does not
+ * depend on the number of files kept.
+ * <p/>
+ * <p>When the strategy first determines the active file it lists the directory of the pattern once to find the
+ * highest counter used so far for the current date and continues from it. Files of earlier dates that were
+ * written before a restart are not deleted by this strategy.
+ */
+@Plugin(name = "DirectWriteRolloverStrategy", type = "Core", printObject = true)
+public class DirectWriteRolloverStrategy implements RolloverStrategy {
+    /**
+     * Allow subclasses access to the status logger without creating another instance.
+     */
+    protected static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int DEFAULT_MAX_FILES = 7;
+
+    /**
+     * A counter value that is formatted in place of the real one to locate the counter in a file name.
+     */
+    private static final int MARKER = 987654321;
+
+    private static final String GZ = ".gz";
+    private static final String ZIP = ".zip";
+
+    /**
+     * The maximum number of rolled over files to keep.
+     */
+    private final int maxFiles;
+
+    private final StrSubstitutor subst;
+
+    private final RetentionPolicy retention;
+
+    /**
+     * The rolled over files, oldest first, named as they are after compression.
+     */
+    private final LinkedList<String> files = new LinkedList<String>();
+
+    private String activeFileName;
+
+    /**
+     * The file name formatted with the marker counter, which only changes when the date changes.
+     */
+    private String period;
+
+    private int index;
+
+    private String suffix;
+
+    /**
+     * Constructs a new instance.
+     * @param max The maximum number of rolled over files to keep.
+     * @param subst The StrSubstitutor to resolve the file names with.
+     * @param retention The limits on the files rolled over, or null.
+     */
+    protected DirectWriteRolloverStrategy(int max, StrSubstitutor subst, RetentionPolicy retention) {
+        this.maxFiles = max;
+        this.subst = subst;
+        this.retention = retention;
+    }
+
+    /**
+     * Returns the name of the file to write to, determining it from the files already present the first time.
+     * @param processor The PatternProcessor of the file pattern.
+     * @return The name of the active file.
+     */
+    public synchronized String getActiveFileName(PatternProcessor processor) {
+        if (activeFileName == null) {
+            initialize(processor);
+        }
+        return activeFileName;
+    }
+
+    /**
+     * Perform the rollover. Without "%i" in the pattern a rollover within the same period would name the file
+     * that is still being written, so none is performed.
+     * @param manager The RollingFileManager name for current active log file.
+     * @return A RolloverDescription, or null if the next file has the same name as the active one.
+     * @throws SecurityException if an error occurs.
+     */
+    public synchronized RolloverDescription rollover(RollingFileManager manager) throws SecurityException {
+        PatternProcessor processor = manager.getProcessor();
+        if (activeFileName == null) {
+            initialize(processor);
+        }
+        String previous = manager.getFileName();
+        String current = format(processor, MARKER);
+        if (current.equals(period)) {
+            ++index;
+        } else {
+            period = current;
+            index = 1;
+        }
+        String next = strip(format(processor, index));
+        if (next.equals(previous)) {
+            return null;
+        }
+        activeFileName = next;
+
+        List<Action> actions = new ArrayList<Action>();
+        if (GZ.equals(suffix)) {
+            actions.add(new GZCompressAction(new File(previous), new File(previous + suffix), true));
+        } else if (ZIP.equals(suffix)) {
+            actions.add(new ZipCompressAction(new File(previous), new File(previous + suffix), true));
+        }
+        files.add(previous + suffix);
+        List<File> changed = new ArrayList<File>();
+        changed.add(new File(previous + suffix));
+        while (files.size() > maxFiles) {
+            File file = new File(files.removeFirst());
+            actions.add(new FileDeleteAction(file));
+            changed.add(file);
+        }
+        if (retention != null) {
+            Action retentionAction = retention.createAction(processor.getPattern(), new File(activeFileName),
+                changed);
+            if (retentionAction != null) {
+                actions.add(retentionAction);
+            }
+        }
+        Action asynchronous = null;
+        if (actions.size() == 1) {
+            asynchronous = actions.get(0);
+        } else if (actions.size() > 1) {
+            asynchronous = new CompositeAction(actions, false);
+        }
+        return new RolloverDescriptionImpl(activeFileName, true, null, asynchronous);
+    }
+
+    private void initialize(PatternProcessor processor) {
+        period = format(processor, MARKER);
+        suffix = period.endsWith(GZ) ? GZ : period.endsWith(ZIP) ? ZIP : "";
+        String marker = Integer.toString(MARKER);
+        int pos = period.lastIndexOf(marker);
+        index = 1;
+        if (pos >= 0) {
+            Map<Integer, String> existing = findFiles(period.substring(0, pos),
+                strip(period.substring(pos + marker.length())));
+            for (Map.Entry<Integer, String> entry : existing.entrySet()) {
+                files.add(entry.getValue());
+                index = entry.getKey();
+            }
+            if (!existing.isEmpty() && new File(strip(existing.get(index))).exists()) {
+                // The highest file has not been rolled over yet so keep writing to it.
+                files.removeLast();
+            } else if (!existing.isEmpty()) {
+                ++index;
+            }
+        } else {
+            LOGGER.warn("The file pattern {} does not contain %i. The file will only be rolled over when the date " +
+                "in the pattern changes", period);
+        }
+        activeFileName = strip(format(processor, index));
+    }
+
+    /**
+     * Lists the files in the directory of the pattern that match it for the current date.
+     * @param prefix The part of the file name before the counter.
+     * @param after The part of the file name after the counter without any compression suffix.
+     * @return The names of the files keyed and ordered by their counter.
+     */
+    private Map<Integer, String> findFiles(String prefix, String after) {
+        Map<Integer, String> map = new TreeMap<Integer, String>();
+        File file = new File(prefix + "0");
+        File dir = file.getParentFile();
+        if (dir == null) {
+            dir = new File(".");
+        }
+        String name = file.getName();
+        Pattern pattern = Pattern.compile(Pattern.quote(name.substring(0, name.length() - 1)) + "(\\d+)" +
+            Pattern.quote(after) + "(" + Pattern.quote(GZ) + "|" + Pattern.quote(ZIP) + ")?");
+        String[] names = dir.list();
+        if (names == null) {
+            return map;
+        }
+        for (String candidate : names) {
+            Matcher matcher = pattern.matcher(candidate);
+            if (matcher.matches()) {
+                try {
+                    map.put(Integer.valueOf(matcher.group(1)), new File(dir, candidate).getPath());
+                } catch (NumberFormatException ex) {
+                    // Too large to be a counter.
+                }
+            }
+        }
+        return map;
+    }
+
+    private String format(PatternProcessor processor, int counter) {
+        StringBuilder buf = new StringBuilder();
+        processor.formatFileName(counter, buf);
+        return subst.replace(buf);
+    }
+
+    private String strip(String fileName) {
+        if (fileName.endsWith(GZ)) {
+            return fileName.substring(0, fileName.length() - GZ.length());
+        } else if (fileName.endsWith(ZIP)) {
+            return fileName.substring(0, fileName.length() - ZIP.length());
+        }
+        return fileName;
+    }
+
+    @Override
+    public String toString() {
+        return "DirectWriteRolloverStrategy(max=" + maxFiles + (retention == null ? "" : ", " + retention) + ")";
+    }
+
+    /**
+     * Create the DirectWriteRolloverStrategy.
+     * @param max The maximum number of rolled over files to keep.
+     * @param retention The limits on the age, total size and number of files rolled over, or null.
+     * @param config The Configuration.
+     * @return A DirectWriteRolloverStrategy.
+     */
+    @PluginFactory
+    public static DirectWriteRolloverStrategy createStrategy(@PluginAttr("max") String max,
+                                                             @PluginElement("retention") RetentionPolicy retention,
+                                                             @PluginConfiguration Configuration config) {
+        int maxFiles = DEFAULT_MAX_FILES;
+        if (max != null) {
+            maxFiles = Integer.parseInt(max);
+            if (maxFiles < 1) {
+                LOGGER.error("The maximum number of files must be at least 1. Set to " + DEFAULT_MAX_FILES);
+                maxFiles = DEFAULT_MAX_FILES;
+            }
+        }
+        return new DirectWriteRolloverStrategy(maxFiles, config.getSubst(), retention);
+    }
+}
@@ -43,6 +43,8 @@ public class PatternProcessor {
     private static final char SECOND_CHAR = 's';
     private static final char MILLIS_CHAR = 'S';
 
+    private final String pattern;
+
     private final ArrayPatternConverter[] patternConverters;
     private final FormattingInfo[] patternFields;
 
@@ -53,6 +55,7 @@ public class PatternProcessor {
      * @param pattern The file pattern.
      */
     public PatternProcessor(String pattern) {
+        this.pattern = pattern;
         PatternParser parser = createPatternParser();
         List<PatternConverter> converters = new ArrayList<PatternConverter>();
         List<FormattingInfo> fields = new ArrayList<FormattingInfo>();
@@ -70,6 +73,14 @@ public class PatternProcessor {
         }
     }
 
+    /**
+     * Return the file pattern.
+     * @return The file pattern.
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
     /**
      * Return the next expire time.
      * @param current The current time.
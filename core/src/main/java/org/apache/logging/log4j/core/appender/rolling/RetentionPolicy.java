@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.appender.rolling.helper.Action;
+import org.apache.logging.log4j.core.appender.rolling.helper.RetentionAction;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Limits the age, total size and number of the files a RolloverStrategy has rolled over. The files are found by
+ * matching the file pattern of the RollingFileAppender: a counter matches a number and a date or date lookup
+ * matches the dates its format produces. Other lookups are resolved when the files are matched. A pattern with
+ * any other converter is not enforced, as the policy must not delete files the appender did not create.
+ */
+@Plugin(name = "Retention", type = "Core", printObject = true)
+public final class RetentionPolicy {
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final Pattern AGE_PATTERN = Pattern.compile("([0-9]+)\\s*(ms|s|m|h|d)?",
+        Pattern.CASE_INSENSITIVE);
+
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long MILLIS_PER_MINUTE = 60 * MILLIS_PER_SECOND;
+    private static final long MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24 * MILLIS_PER_HOUR;
+
+    private static final String DEFAULT_DATE_PATTERN = "yyyy-MM-dd";
+
+    private static final String TEXT = "\\p{L}+\\.?";
+
+    private final long maxAge;
+    private final long maxTotalSize;
+    private final int maxFiles;
+    private final StrSubstitutor subst;
+
+    private String filePattern;
+    private File baseDir;
+    private Pattern pattern;
+    private int maxDepth;
+
+    private RetentionPolicy(long maxAge, long maxTotalSize, int maxFiles, StrSubstitutor subst) {
+        this.maxAge = maxAge;
+        this.maxTotalSize = maxTotalSize;
+        this.maxFiles = maxFiles;
+        this.subst = subst;
+    }
+
+    /**
+     * Creates the Action that enforces the limits.
+     * @param filePattern The file pattern of the RollingFileAppender.
+     * @param active The file being written to.
+     * @param changed The files the rollover created, renamed or deleted.
+     * @return The Action, or null if the files of the pattern cannot be matched.
+     */
+    public synchronized Action createAction(String filePattern, File active, Collection<File> changed) {
+        if (!filePattern.equals(this.filePattern)) {
+            this.filePattern = filePattern;
+            if (!parse(filePattern)) {
+                pattern = null;
+            }
+        }
+        if (pattern == null) {
+            return null;
+        }
+        return new RetentionAction(filePattern, baseDir, pattern, maxDepth, active, changed, maxAge, maxTotalSize,
+            maxFiles, RetentionAction.DEFAULT_RESCAN_INTERVAL);
+    }
+
+    /**
+     * Splits the file pattern into the directory before the first variable part and an expression for the
+     * path of the files below that directory.
+     * @param filePattern The file pattern.
+     * @return false if the pattern contains a part whose names cannot be matched exactly.
+     */
+    private boolean parse(String filePattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        String base = null;
+        int length = filePattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = filePattern.charAt(i);
+            if (c == '%' && i + 1 < length && filePattern.charAt(i + 1) == '%') {
+                literal.append('%');
+                i += 2;
+            } else if (c == '%') {
+                int j = i + 1;
+                while (j < length && "-.0123456789".indexOf(filePattern.charAt(j)) >= 0) {
+                    ++j;
+                }
+                int start = j;
+                while (j < length && Character.isLetter(filePattern.charAt(j))) {
+                    ++j;
+                }
+                String converter = filePattern.substring(start, j);
+                String option = null;
+                while (j < length && filePattern.charAt(j) == '{') {
+                    // Only the first option is the format; a second one is the time zone.
+                    int end = closingBrace(filePattern, j);
+                    if (option == null) {
+                        option = filePattern.substring(j + 1, end);
+                    }
+                    j = end + 1;
+                }
+                String part;
+                if (converter.equals("i") || converter.equals("index")) {
+                    part = "\\d+";
+                } else if (converter.equals("d") || converter.equals("date")) {
+                    part = dateRegex(datePattern(option));
+                } else {
+                    LOGGER.error("Retention cannot match the files of " + filePattern + " as it contains %" +
+                        converter);
+                    return false;
+                }
+                base = appendVariable(base, literal, regex, part);
+                i = j;
+            } else if (c == '$' && i + 1 < length && filePattern.charAt(i + 1) == '{') {
+                int j = closingBrace(filePattern, i + 1);
+                String lookup = filePattern.substring(i, j + 1);
+                if (lookup.startsWith("${date:")) {
+                    base = appendVariable(base, literal, regex,
+                        dateRegex(lookup.substring("${date:".length(), lookup.length() - 1)));
+                } else {
+                    literal.append(subst.replace(lookup));
+                }
+                i = j + 1;
+            } else {
+                literal.append(c == File.separatorChar ? '/' : c);
+                ++i;
+            }
+        }
+        if (base == null) {
+            base = splitBase(literal);
+        }
+        regex.append(Pattern.quote(literal.toString()));
+
+        String relative = regex.toString();
+        int depth = 0;
+        for (char c : relative.toCharArray()) {
+            if (c == '/') {
+                ++depth;
+            }
+        }
+        this.baseDir = base.length() == 0 ? new File("").getAbsoluteFile() : new File(base);
+        this.pattern = Pattern.compile(relative);
+        this.maxDepth = depth;
+        return true;
+    }
+
+    /**
+     * Returns the SimpleDateFormat pattern used by the date converter for an option.
+     */
+    private static String datePattern(String option) {
+        if (option == null) {
+            return DEFAULT_DATE_PATTERN;
+        }
+        if (option.equalsIgnoreCase("ISO8601")) {
+            return "yyyy-MM-dd HH:mm:ss,SSS";
+        } else if (option.equalsIgnoreCase("ABSOLUTE")) {
+            return "HH:mm:ss,SSS";
+        } else if (option.equalsIgnoreCase("DATE")) {
+            return "dd MMM yyyy HH:mm:ss,SSS";
+        }
+        return option;
+    }
+
+    /**
+     * Converts a SimpleDateFormat pattern to an expression matching the dates it formats.
+     * @param datePattern The date pattern.
+     * @return The expression.
+     */
+    static String dateRegex(String datePattern) {
+        StringBuilder regex = new StringBuilder();
+        StringBuilder literal = new StringBuilder();
+        int length = datePattern.length();
+        int i = 0;
+        while (i < length) {
+            char c = datePattern.charAt(i);
+            if (c == '\'') {
+                int end = datePattern.indexOf('\'', i + 1);
+                if (end == i + 1) {
+                    literal.append('\'');
+                    i += 2;
+                    continue;
+                }
+                if (end < 0) {
+                    end = length;
+                }
+                literal.append(datePattern, i + 1, end);
+                i = end + 1;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < length && datePattern.charAt(i + count) == c) {
+                    ++count;
+                }
+                if (literal.length() > 0) {
+                    regex.append(Pattern.quote(literal.toString()));
+                    literal.setLength(0);
+                }
+                regex.append(dateField(c, count));
+                i += count;
+            } else {
+                literal.append(c);
+                ++i;
+            }
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        return regex.toString();
+    }
+
+    private static String dateField(char letter, int count) {
+        switch (letter) {
+            case 'M':
+                if (count < 3) {
+                    return "\\d{" + count + ",}";
+                }
+                return TEXT;
+            case 'E':
+            case 'a':
+            case 'G':
+                return TEXT;
+            case 'z':
+                return "[\\p{L}\\d:+\\-]+";
+            case 'Z':
+                return "[+\\-]\\d{4}";
+            case 'X':
+                return "(?:Z|[+\\-]\\d{2}(?::?\\d{2})?)";
+            default:
+                return "\\d{" + count + ",}";
+        }
+    }
+
+    /**
+     * Adds a variable part of the pattern.
+     * @param base The base directory, or null if this is the first variable part.
+     * @param literal The fixed text since the previous variable part, which is cleared.
+     * @param regex The expression.
+     * @param part The expression matching the variable part.
+     * @return The base directory.
+     */
+    private String appendVariable(String base, StringBuilder literal, StringBuilder regex, String part) {
+        if (base == null) {
+            base = splitBase(literal);
+        }
+        if (literal.length() > 0) {
+            regex.append(Pattern.quote(literal.toString()));
+        }
+        regex.append(part);
+        literal.setLength(0);
+        return base;
+    }
+
+    /**
+     * Removes the directory from the fixed text that precedes the first variable part.
+     * @param literal The fixed text.
+     * @return The directory, ending with '/', or an empty String.
+     */
+    private static String splitBase(StringBuilder literal) {
+        int pos = literal.lastIndexOf("/");
+        String base = pos < 0 ? "" : literal.substring(0, pos + 1);
+        literal.delete(0, base.length());
+        return base;
+    }
+
+    private static int closingBrace(String str, int open) {
+        int depth = 0;
+        for (int i = open; i < str.length(); ++i) {
+            char c = str.charAt(i);
+            if (c == '{') {
+                ++depth;
+            } else if (c == '}' && --depth == 0) {
+                return i;
+            }
+        }
+        return str.length() - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "Retention(maxAge=" + maxAge + ", maxTotalSize=" + maxTotalSize + ", maxFiles=" + maxFiles + ")";
+    }
+
+    /**
+     * Converts an age such as "30d" to milliseconds. The units may be ms, s, m, h or d; the default is days.
+     * @param age The age.
+     * @return The age in milliseconds or 0 if it is not valid.
+     */
+    private static long parseAge(String age) {
+        Matcher matcher = AGE_PATTERN.matcher(age.trim());
+        if (!matcher.matches()) {
+            LOGGER.error("Unable to parse age: " + age);
+            return 0;
+        }
+        long value = Long.parseLong(matcher.group(1));
+        String unit = matcher.group(2);
+        if (unit == null || unit.equalsIgnoreCase("d")) {
+            return value * MILLIS_PER_DAY;
+        } else if (unit.equalsIgnoreCase("h")) {
+            return value * MILLIS_PER_HOUR;
+        } else if (unit.equalsIgnoreCase("m")) {
+            return value * MILLIS_PER_MINUTE;
+        } else if (unit.equalsIgnoreCase("s")) {
+            return value * MILLIS_PER_SECOND;
+        }
+        return value;
+    }
+
+    /**
+     * Create a RetentionPolicy.
+     * @param maxAge The age after which files are deleted, such as "30d". No limit if not set.
+     * @param maxTotalSize The total size the files may occupy, such as "10 GB". No limit if not set.
+     * @param maxFiles The number of files to keep. No limit if not set.
+     * @param config The Configuration.
+     * @return A RetentionPolicy.
+     */
+    @PluginFactory
+    public static RetentionPolicy createPolicy(@PluginAttr("maxAge") String maxAge,
+                                               @PluginAttr("maxTotalSize") String maxTotalSize,
+                                               @PluginAttr("maxFiles") String maxFiles,
+                                               @PluginConfiguration Configuration config) {
+        long age = maxAge == null ? 0 : parseAge(maxAge);
+        long size = maxTotalSize == null ? 0 : SizeBasedTriggeringPolicy.valueOf(maxTotalSize, 0);
+        int files = maxFiles == null ? 0 : Integer.parseInt(maxFiles);
+        if (age <= 0 && size <= 0 && files <= 0) {
+            LOGGER.warn("Retention does not limit the age, total size or number of files");
+        }
+        return new RetentionPolicy(age, size, files, config.getSubst());
+    }
+}
@@ -19,8 +19,8 @@ package org.apache.logging.log4j.core.appender.rolling;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.FileManager;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
-import org.apache.logging.log4j.core.appender.rolling.helper.Action;
-import org.apache.logging.log4j.core.appender.rolling.helper.ActionBase;
+import org.apache.logging.log4j.core.appender.rolling.helper.ActionExecutor;
+import org.apache.logging.log4j.core.appender.rolling.helper.RetentionAction;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
@@ -28,7 +28,6 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.concurrent.Semaphore;
 
 /**
  * The Rolling File Manager.
@@ -40,11 +39,13 @@ public class RollingFileManager extends FileManager {
     private long size;
     private long initialTime;
     private PatternProcessor processor;
-    private final Semaphore semaphore = new Semaphore(1);
+    private ActionExecutor.Task pending;
+    private volatile String activeFileName;
 
     protected RollingFileManager(String fileName, String pattern, OutputStream os, boolean append, long size,
                                  long time) {
         super(fileName, os, append, false);
+        this.activeFileName = fileName;
         this.size = size;
         this.initialTime = time;
         processor = new PatternProcessor(pattern);
@@ -70,6 +71,16 @@ public class RollingFileManager extends FileManager {
         super.write(bytes, offset, length);
     }
 
+    /**
+     * Return the name of the file being written to. This is the name the manager was created with unless the
+     * RolloverStrategy named a different active file when it rolled over.
+     * @return The name of the active file.
+     */
+    @Override
+    public String getFileName() {
+        return activeFileName;
+    }
+
     /**
      * Return the current size of the file.
      * @return The size of the file in bytes.
@@ -97,6 +108,10 @@ public class RollingFileManager extends FileManager {
             try {
                 size = 0;
                 initialTime = System.currentTimeMillis();
+                File parent = new File(getFileName()).getParentFile();
+                if (parent != null && !parent.exists()) {
+                    parent.mkdirs();
+                }
                 OutputStream os = new FileOutputStream(getFileName(), isAppend());
                 setOutputStream(os);
             } catch (FileNotFoundException ex) {
@@ -105,6 +120,12 @@ public class RollingFileManager extends FileManager {
         }
     }
 
+    @Override
+    public void releaseSub() {
+        super.releaseSub();
+        RetentionAction.evict(processor.getPattern());
+    }
+
     /**
      * Return the pattern processor.
      * @return The PatternProcessor.
@@ -115,97 +136,46 @@ public class RollingFileManager extends FileManager {
 
     private boolean rollover(RolloverStrategy strategy) {
 
-        try {
-            // Block until the asynchronous operation is completed.
-            semaphore.acquire();
-        } catch (InterruptedException ie) {
-            LOGGER.error("Thread interrupted while attempting to check rollover", ie);
-            return false;
+        if (pending != null && !(strategy instanceof DirectWriteRolloverStrategy)) {
+            try {
+                // The previous Action must complete before files are renamed again. If it is still queued this
+                // thread runs it rather than waiting for the Actions of other managers. A strategy that renames
+                // nothing does not have to wait, so the logging thread never compresses its own files.
+                pending.await();
+            } catch (InterruptedException ie) {
+                LOGGER.error("Thread interrupted while attempting to check rollover", ie);
+                return false;
+            }
+            pending = null;
         }
 
-        boolean success = false;
-        Thread thread = null;
-
-        try {
-            RolloverDescription descriptor = strategy.rollover(this);
-
-            if (descriptor != null) {
-
-                close();
-
-                if (descriptor.getSynchronous() != null) {
+        RolloverDescription descriptor = strategy.rollover(this);
 
-                    try {
-                        success = descriptor.getSynchronous().execute();
-                    } catch (Exception ex) {
-                        LOGGER.error("Error in synchronous task", ex);
-                    }
-                }
-
-                if (success && descriptor.getAsynchronous() != null) {
-                    thread = new Thread(new AsyncAction(descriptor.getAsynchronous(), this));
-                    thread.start();
-                }
-                return true;
-            }
+        if (descriptor == null) {
             return false;
-        } finally {
-            if (thread == null) {
-                semaphore.release();
-            }
         }
 
-    }
-
-    /**
-     * Performs actions asynchronously.
-     */
-    private static class AsyncAction extends ActionBase {
-
-        private final Action action;
-        private final RollingFileManager manager;
-
-        /**
-         * Constructor.
-         * @param act The action to perform.
-         * @param manager The manager.
-         */
-        public AsyncAction(Action act, RollingFileManager manager) {
-            this.action = act;
-            this.manager = manager;
+        close();
+        if (descriptor.getActiveFileName() != null) {
+            activeFileName = descriptor.getActiveFileName();
         }
 
-        /**
-         * Perform an action.
-         *
-         * @return true if action was successful.  A return value of false will cause
-         *         the rollover to be aborted if possible.
-         * @throws java.io.IOException if IO error, a thrown exception will cause the rollover
-         *                             to be aborted if possible.
-         */
-        public boolean execute() throws IOException {
+        boolean success = false;
+        if (descriptor.getSynchronous() != null) {
+
             try {
-                return action.execute();
-            } finally {
-                manager.semaphore.release();
+                success = descriptor.getSynchronous().execute();
+            } catch (Exception ex) {
+                LOGGER.error("Error in synchronous task", ex);
             }
+        } else {
+            success = true;
         }
 
-        /**
-         * Cancels the action if not already initialized or waits till completion.
-         */
-        public void close() {
-            action.close();
-        }
-
-        /**
-         * Determines if action has been completed.
-         *
-         * @return true if action is complete.
-         */
-        public boolean isComplete() {
-            return action.isComplete();
+        if (success && descriptor.getAsynchronous() != null) {
+            pending = ActionExecutor.submit(descriptor.getAsynchronous(), initialTime);
         }
+        return true;
     }
 
     /**
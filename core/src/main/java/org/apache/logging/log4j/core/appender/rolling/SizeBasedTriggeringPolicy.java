@@ -119,6 +119,17 @@ public class SizeBasedTriggeringPolicy implements TriggeringPolicy {
      * @return The Bytes value for the string
      */
     private static long valueOf(final String string) {
+        return valueOf(string, MAX_FILE_SIZE);
+    }
+
+    /**
+     * Converts a string to a number of bytes as described in {@link #valueOf(String)}.
+     *
+     * @param string The string to convert
+     * @param defaultValue The value to return if the string cannot be converted
+     * @return The Bytes value for the string
+     */
+    static long valueOf(final String string, final long defaultValue) {
         final Matcher matcher = VALUE_PATTERN.matcher(string);
 
         // Valid input?
@@ -141,15 +152,15 @@ public class SizeBasedTriggeringPolicy implements TriggeringPolicy {
                     return value * GB;
                 } else {
                     LOGGER.error("Units not recognized: " + string);
-                    return MAX_FILE_SIZE;
+                    return defaultValue;
                 }
             } catch (ParseException e) {
                 LOGGER.error("Unable to parse numeric part: " + string, e);
-                return MAX_FILE_SIZE;
+                return defaultValue;
             }
         } else {
             LOGGER.error("Unable to parse bytes: " + string);
-            return MAX_FILE_SIZE;
+            return defaultValue;
         }
     }
 }
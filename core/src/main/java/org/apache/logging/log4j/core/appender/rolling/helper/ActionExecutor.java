@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.helper;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the asynchronous Actions of all RollingFileManagers in the process on a bounded number of threads.
+ * <p/>
+ * <p>The number of threads is set with the system property "log4j.rollover.threads" and defaults to 2. Waiting
+ * Actions are run oldest file first, using the time the rolled over file was started, unless the system property
+ * "log4j.rollover.order" is "fifo", in which case they are run in the order they were submitted. The threads
+ * exit when there is no more work.
+ */
+public final class ActionExecutor {
+
+    /**
+     * The system property that sets the maximum number of Actions run at the same time.
+     */
+    public static final String THREADS_PROPERTY = "log4j.rollover.threads";
+
+    /**
+     * The system property that sets the order of waiting Actions, "oldest" or "fifo".
+     */
+    public static final String ORDER_PROPERTY = "log4j.rollover.order";
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private static final int DEFAULT_THREADS = 2;
+
+    private static final long KEEP_ALIVE_MILLIS = 1000;
+
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+
+    private static final boolean FIFO = "fifo".equalsIgnoreCase(System.getProperty(ORDER_PROPERTY));
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    /** The number of Tasks submitted that have not completed. */
+    private static final AtomicInteger PENDING = new AtomicInteger();
+
+    private static final ThreadPoolExecutor EXECUTOR;
+
+    static {
+        int threads = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+        if (threads < 1) {
+            LOGGER.error("Invalid value " + threads + " for " + THREADS_PROPERTY + ", using " + DEFAULT_THREADS);
+            threads = DEFAULT_THREADS;
+        }
+        // With no core threads every thread exits once it has been idle for the keep alive time.
+        EXECUTOR = new ThreadPoolExecutor(0, threads, KEEP_ALIVE_MILLIS, TimeUnit.MILLISECONDS,
+            new TaskQueue(), new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                public Thread newThread(Runnable runnable) {
+                    return new Thread(runnable, "Log4j-Rollover-" + count.incrementAndGet());
+                }
+            }, new RejectedExecutionHandler() {
+                public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+                    ((TaskQueue) executor.getQueue()).enqueue(runnable);
+                }
+            });
+    }
+
+    private ActionExecutor() {
+    }
+
+    /**
+     * Queue an Action.
+     * @param action The Action to run.
+     * @param time The time the file the Action works on was started. Older files are processed first.
+     * @return The Task, which can be used to wait for the Action.
+     */
+    public static Task submit(Action action, long time) {
+        Task task = new Task(action, FIFO ? 0 : time, SEQUENCE.getAndIncrement());
+        PENDING.incrementAndGet();
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    /**
+     * Return the maximum number of Actions that are run at the same time.
+     * @return The number of threads.
+     */
+    public static int getMaximumThreads() {
+        return EXECUTOR.getMaximumPoolSize();
+    }
+
+    /**
+     * Return the number of Actions waiting for a thread.
+     * @return The number of queued Actions.
+     */
+    public static int getQueueSize() {
+        return EXECUTOR.getQueue().size();
+    }
+
+    /**
+     * The queue of waiting Tasks. A ThreadPoolExecutor only starts threads beyond its core threads when the queue
+     * refuses a Task, so the queue refuses Tasks while every thread is busy and more threads may be started.
+     */
+    private static final class TaskQueue extends PriorityBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean offer(Runnable runnable) {
+            ThreadPoolExecutor executor = EXECUTOR;
+            if (executor != null) {
+                int threads = executor.getPoolSize();
+                if (PENDING.get() > threads && threads < executor.getMaximumPoolSize()) {
+                    return false;
+                }
+            }
+            return super.offer(runnable);
+        }
+
+        /**
+         * Queues a Task that could not be given to a new thread because the maximum was reached.
+         * @param runnable The Task.
+         */
+        void enqueue(Runnable runnable) {
+            super.offer(runnable);
+        }
+    }
+
+    /**
+     * An Action waiting for or being run by the executor.
+     */
+    public static final class Task implements Runnable, Comparable<Task> {
+
+        private final Action action;
+        private final long time;
+        private final long sequence;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private Task(Action action, long time, long sequence) {
+            this.action = action;
+            this.time = time;
+            this.sequence = sequence;
+        }
+
+        public void run() {
+            if (state.compareAndSet(QUEUED, RUNNING)) {
+                execute();
+            }
+        }
+
+        /**
+         * Wait for the Action to complete. If no thread has started it yet it is removed from the queue and run
+         * by the calling thread, so the caller never waits behind the Actions of other managers.
+         * @throws InterruptedException if the thread is interrupted while waiting for another thread.
+         */
+        public void await() throws InterruptedException {
+            if (state.compareAndSet(QUEUED, RUNNING)) {
+                EXECUTOR.remove(this);
+                execute();
+            } else {
+                done.await();
+            }
+        }
+
+        /**
+         * Determines if the Action has been run.
+         * @return true if the Action is complete.
+         */
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public int compareTo(Task other) {
+            if (time != other.time) {
+                return time < other.time ? -1 : 1;
+            }
+            return sequence < other.sequence ? -1 : sequence == other.sequence ? 0 : 1;
+        }
+
+        private void execute() {
+            try {
+                action.execute();
+            } catch (Exception ex) {
+                LOGGER.error("Error in asynchronous rollover action", ex);
+            } finally {
+                PENDING.decrementAndGet();
+                done.countDown();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.helper;
+
+import java.io.File;
+
+/**
+ * File delete action.
+ */
+public final class FileDeleteAction extends ActionBase {
+
+    /**
+     * The file to delete.
+     */
+    private final File file;
+
+    /**
+     * Creates a FileDeleteAction.
+     *
+     * @param file the file to delete.
+     */
+    public FileDeleteAction(final File file) {
+        if (file == null) {
+            throw new NullPointerException("file");
+        }
+        this.file = file;
+    }
+
+    /**
+     * Delete the file.
+     *
+     * @return true if the file was deleted or did not exist.
+     */
+    public boolean execute() {
+        return execute(file);
+    }
+
+    /**
+     * Delete a file.
+     *
+     * @param file the file to delete.
+     * @return true if the file was deleted or did not exist.
+     */
+    public static boolean execute(final File file) {
+        if (!file.exists() || file.delete()) {
+            return true;
+        }
+        LOGGER.warn("Unable to delete file {}", file.getAbsolutePath());
+        return false;
+    }
+}
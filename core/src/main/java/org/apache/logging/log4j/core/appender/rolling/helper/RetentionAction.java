@@ -0,0 +1,290 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.helper;
+
+import org.apache.logging.log4j.core.appender.AbstractManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Deletes rolled over files, oldest first, until they are within a maximum age, a maximum total size and a
+ * maximum number of files.
+ * <p/>
+ * <p>The files are those below a base directory whose path relative to it matches a regular expression. Each
+ * set of files is indexed by last modified time and the index is shared by all RetentionActions for the same
+ * file pattern, directory and expression until it is evicted when the appender's manager is released. The
+ * directory is only walked the first time and then once per rescan interval; in between only the files named
+ * when the action is created are updated. A file that another manager is writing to is never deleted.
+ * RetentionActions are run as part of the asynchronous Action of a rollover, so the work is done by the
+ * ActionExecutor.
+ */
+public final class RetentionAction extends ActionBase {
+
+    /**
+     * The default time between full scans of a directory.
+     */
+    public static final long DEFAULT_RESCAN_INTERVAL = 60L * 60 * 1000;
+
+    private static final ConcurrentMap<String, FileIndex> INDEXES = new ConcurrentHashMap<String, FileIndex>();
+
+    private final FileIndex index;
+    private final File active;
+    private final List<File> changed;
+    private final long maxAge;
+    private final long maxTotalSize;
+    private final int maxFiles;
+    private final long rescanInterval;
+    private volatile boolean complete;
+
+    /**
+     * Creates a RetentionAction.
+     *
+     * @param filePattern    the file pattern of the appender, which owns the index of the files.
+     * @param baseDir        the directory the files are in.
+     * @param pattern        the regular expression the path of a file relative to the base directory must match,
+     *                       using '/' as the separator.
+     * @param maxDepth       the number of directory levels below the base directory to search.
+     * @param active         the file being written to, which is never deleted, or null.
+     * @param changed        the files created, renamed or deleted since the last action.
+     * @param maxAge         the age in milliseconds after which files are deleted, or 0 for no limit.
+     * @param maxTotalSize   the total size in bytes the files may occupy, or 0 for no limit.
+     * @param maxFiles       the number of files to keep, or 0 for no limit.
+     * @param rescanInterval the minimum number of milliseconds between full scans of the directory.
+     */
+    public RetentionAction(final String filePattern, final File baseDir, final Pattern pattern, final int maxDepth,
+                           final File active, final Collection<File> changed, final long maxAge,
+                           final long maxTotalSize, final int maxFiles, final long rescanInterval) {
+        if (baseDir == null) {
+            throw new NullPointerException("baseDir");
+        }
+        if (pattern == null) {
+            throw new NullPointerException("pattern");
+        }
+        String key = filePattern + '\n' + baseDir.getAbsolutePath() + '\n' + pattern.pattern();
+        FileIndex fileIndex = INDEXES.get(key);
+        if (fileIndex == null) {
+            fileIndex = new FileIndex(baseDir, pattern, maxDepth);
+            FileIndex existing = INDEXES.putIfAbsent(key, fileIndex);
+            if (existing != null) {
+                fileIndex = existing;
+            }
+        }
+        this.index = fileIndex;
+        this.active = active == null ? null : active.getAbsoluteFile();
+        this.changed = changed == null ? new ArrayList<File>() : new ArrayList<File>(changed);
+        this.maxAge = maxAge;
+        this.maxTotalSize = maxTotalSize;
+        this.maxFiles = maxFiles;
+        this.rescanInterval = rescanInterval;
+    }
+
+    /**
+     * Discards the indexes of the files of a file pattern.
+     *
+     * @param filePattern the file pattern of the appender whose manager was released.
+     */
+    public static void evict(final String filePattern) {
+        String prefix = filePattern + '\n';
+        for (String key : INDEXES.keySet()) {
+            if (key.startsWith(prefix)) {
+                INDEXES.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Delete the files that exceed the limits.
+     *
+     * @return true.
+     */
+    public boolean execute() {
+        try {
+            index.apply(this);
+        } catch (RuntimeException ex) {
+            LOGGER.warn("Exception during retention of " + index.baseDir, ex);
+        } finally {
+            complete = true;
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the clean up has been completed.
+     *
+     * @return true if the clean up is complete.
+     */
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * A file and the attributes it had when it was indexed.
+     */
+    private static class Entry {
+        private final File file;
+        private final long lastModified;
+        private final long length;
+
+        public Entry(File file) {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+    }
+
+    /**
+     * The files of a directory that match an expression, oldest first.
+     */
+    private static class FileIndex {
+
+        private final File baseDir;
+        private final Pattern pattern;
+        private final int maxDepth;
+        private final Map<File, Entry> entries = new HashMap<File, Entry>();
+        private final TreeSet<Entry> byAge = new TreeSet<Entry>(new Comparator<Entry>() {
+            public int compare(Entry one, Entry two) {
+                if (one.lastModified != two.lastModified) {
+                    return one.lastModified < two.lastModified ? -1 : 1;
+                }
+                return one.file.compareTo(two.file);
+            }
+        });
+        private long totalSize;
+        private long lastScan;
+
+        public FileIndex(File baseDir, Pattern pattern, int maxDepth) {
+            this.baseDir = baseDir.getAbsoluteFile();
+            this.pattern = pattern;
+            this.maxDepth = maxDepth;
+        }
+
+        public synchronized void apply(RetentionAction action) {
+            long now = System.currentTimeMillis();
+            if (lastScan == 0 || now - lastScan >= action.rescanInterval) {
+                scan(action.active);
+                lastScan = now;
+            } else {
+                for (File file : action.changed) {
+                    update(file.getAbsoluteFile(), action.active);
+                }
+            }
+            while (!byAge.isEmpty()) {
+                Entry oldest = byAge.first();
+                boolean expired = action.maxAge > 0 && now - oldest.lastModified > action.maxAge;
+                boolean tooMany = action.maxFiles > 0 && byAge.size() > action.maxFiles;
+                boolean tooLarge = action.maxTotalSize > 0 && totalSize > action.maxTotalSize;
+                if (!expired && !tooMany && !tooLarge) {
+                    break;
+                }
+                remove(oldest);
+                if (oldest.file.exists() && oldest.file.lastModified() != oldest.lastModified) {
+                    // The file was replaced since it was indexed.
+                    update(oldest.file, action.active);
+                    continue;
+                }
+                if (!matches(oldest.file) || isOpen(oldest.file)) {
+                    LOGGER.warn("Retention will not delete " + oldest.file + " as it is not a rolled over file");
+                    continue;
+                }
+                FileDeleteAction.execute(oldest.file);
+            }
+        }
+
+        private void scan(File active) {
+            entries.clear();
+            byAge.clear();
+            totalSize = 0;
+            scan(baseDir, "", 0, active);
+        }
+
+        private void scan(File dir, String prefix, int depth, File active) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+            for (File file : files) {
+                String path = prefix + file.getName();
+                if (file.isDirectory()) {
+                    if (depth < maxDepth) {
+                        scan(file, path + "/", depth + 1, active);
+                    }
+                } else if (pattern.matcher(path).matches()) {
+                    add(file.getAbsoluteFile(), active);
+                }
+            }
+        }
+
+        private void update(File file, File active) {
+            Entry entry = entries.get(file);
+            if (entry != null) {
+                remove(entry);
+            }
+            if (file.isFile() && matches(file)) {
+                add(file, active);
+            }
+        }
+
+        private boolean matches(File file) {
+            String base = baseDir.getAbsolutePath() + File.separator;
+            String path = file.getPath();
+            if (!path.startsWith(base)) {
+                return false;
+            }
+            return pattern.matcher(path.substring(base.length()).replace(File.separatorChar, '/')).matches();
+        }
+
+        /**
+         * Determines if a manager is writing to the file, in which case it belongs to another appender.
+         */
+        private boolean isOpen(File file) {
+            if (AbstractManager.hasManager(file.getPath())) {
+                return true;
+            }
+            String cwd = new File("").getAbsolutePath() + File.separator;
+            String path = file.getPath();
+            return path.startsWith(cwd) && (AbstractManager.hasManager(path.substring(cwd.length())) ||
+                AbstractManager.hasManager(path.substring(cwd.length()).replace(File.separatorChar, '/')));
+        }
+
+        private void add(File file, File active) {
+            if (file.equals(active)) {
+                return;
+            }
+            Entry entry = new Entry(file);
+            entries.put(file, entry);
+            byAge.add(entry);
+            totalSize += entry.length;
+        }
+
+        private void remove(Entry entry) {
+            entries.remove(entry.file);
+            byAge.remove(entry);
+            totalSize -= entry.length;
+        }
+    }
+}
@@ -29,10 +29,21 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.lookup.StrLookup;
+import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This Appender "routes" between various Appenders, some of which can be references to
@@ -41,21 +52,41 @@ import java.util.concurrent.ConcurrentMap;
  * the Routing appender declaration. The pattern should contain one or more substitution patterns of
  * the form "$${[key:]token}". The pattern will be resolved each time the Appender is called using
  * the built in StrSubstitutor and the StrLookup plugin that matches the specified key.
+ * <p>
+ * Routes that already exist are located without locking. When a new Appender must be created only
+ * the threads routing to that key wait for it. Dynamically created Appenders may be stopped and
+ * discarded once there are more than maxAppenders of them or when they have been idle for longer
+ * than idleTimeout seconds. They are recreated when they are needed again. An evicted Appender is
+ * stopped once the events already being written to it have completed.
  */
 @Plugin(name = "Routing", type = "Core", elementType = "appender", printObject = true)
 public final class RoutingAppender extends AppenderBase {
     private static final String DEFAULT_KEY = "ROUTING_APPENDER_DEFAULT";
+    private static final long MILLIS_PER_SECOND = 1000L;
     private final Routes routes;
     private final Configuration config;
-    private ConcurrentMap<String, AppenderControl> appenders = new ConcurrentHashMap<String, AppenderControl>();
+    private ConcurrentMap<String, RouteControl> appenders = new ConcurrentHashMap<String, RouteControl>();
+    private final ConcurrentMap<String, FutureTask<RouteControl>> pending =
+        new ConcurrentHashMap<String, FutureTask<RouteControl>>();
+    private final Map<String, Route> dynamicRoutes = new HashMap<String, Route>();
+    private Route defaultRoute;
     private final RewritePolicy rewritePolicy;
+    private final KeyPattern pattern;
+    private final int maxAppenders;
+    private final long idleTimeout;
+    private final AtomicInteger dynamicCount = new AtomicInteger();
+    private final AtomicLong nextPurge = new AtomicLong();
 
     private RoutingAppender(String name, Filter filter, boolean handleException, Routes routes,
-                            RewritePolicy rewritePolicy, Configuration config) {
+                            RewritePolicy rewritePolicy, Configuration config, int maxAppenders,
+                            long idleTimeout) {
         super(name, filter, null, handleException);
         this.routes = routes;
         this.config = config;
         this.rewritePolicy = rewritePolicy;
+        this.pattern = new KeyPattern(routes.getPattern());
+        this.maxAppenders = maxAppenders;
+        this.idleTimeout = idleTimeout;
     }
 
     @Override
@@ -73,24 +104,31 @@ public final class RoutingAppender extends AppenderBase {
                             LOGGER.error("Duplicate route " + key + " is ignored");
                         }
                     } else {
-                        appenders.put(key, new AppenderControl(appender, null, null));
+                        appenders.put(key, new RouteControl(new AppenderControl(appender, null, null), false));
                     }
                 } else {
                     LOGGER.error("Appender " + route.getAppenderRef() + " cannot be located. Route ignored");
                 }
+            } else if (route.getKey() == null) {
+                if (defaultRoute == null) {
+                    defaultRoute = route;
+                }
+            } else if (!dynamicRoutes.containsKey(route.getKey())) {
+                dynamicRoutes.put(route.getKey(), route);
             }
         }
+        if (idleTimeout > 0) {
+            nextPurge.set(System.currentTimeMillis() + idleTimeout);
+        }
         super.start();
     }
 
     @Override
     public void stop() {
         super.stop();
-        Map<String, Appender> map = config.getAppenders();
-        for (Map.Entry<String, AppenderControl> entry : appenders.entrySet()) {
-            String name = entry.getValue().getAppender().getName();
-            if (!DEFAULT_KEY.equals(entry.getKey()) && !map.containsKey(name)) {
-                entry.getValue().getAppender().stop();
+        for (RouteControl entry : appenders.values()) {
+            if (entry.dynamic) {
+                entry.evict();
             }
         }
     }
@@ -99,63 +137,152 @@ public final class RoutingAppender extends AppenderBase {
         if (rewritePolicy != null) {
             event = rewritePolicy.rewrite(event);
         }
-        String key = config.getSubst().replace(event, routes.getPattern());
-        AppenderControl control = getControl(key, event);
-        if (control != null) {
-            control.callAppender(event);
+        String key = pattern.resolve(config.getSubst(), event);
+        RouteControl entry = getControl(key, event);
+        while (entry != null && !entry.acquire()) {
+            /* The Appender was evicted after it was located. */
+            entry = getControl(key, event);
+        }
+        if (entry != null) {
+            try {
+                entry.control.callAppender(event);
+            } finally {
+                entry.release();
+            }
+        }
+        if (idleTimeout > 0) {
+            purge();
         }
     }
 
-    private synchronized AppenderControl getControl(String key, LogEvent event) {
-        AppenderControl control = appenders.get(key);
-        boolean defaultRoute = false;
-        if (control != null) {
-            return control;
-        }
-        Route route = null;
-        for (Route r : routes.getRoutes()) {
-            if (r.getAppenderRef() == null && key.equals(r.getKey())) {
-                route = r;
-                break;
+    private boolean isEvicting() {
+        return maxAppenders > 0 || idleTimeout > 0;
+    }
+
+    private RouteControl getControl(String key, LogEvent event) {
+        RouteControl entry = appenders.get(key);
+        if (entry == null) {
+            entry = createControl(key, event);
+            if (entry == null) {
+                return null;
             }
         }
+        if (isEvicting()) {
+            entry.lastAccess = System.currentTimeMillis();
+        }
+        return entry;
+    }
+
+    private RouteControl createControl(String key, final LogEvent event) {
+        Route route = dynamicRoutes.get(key);
+        String routeKey = key;
         if (route == null) {
-            control = appenders.get(DEFAULT_KEY);
-            if (control != null) {
-                return control;
-            }
-            for (Route r : routes.getRoutes()) {
-                if (r.getAppenderRef() == null && r.getKey() == null) {
-                    route = r;
-                    defaultRoute = true;
-                    break;
+            RouteControl entry = appenders.get(DEFAULT_KEY);
+            if (entry != null || defaultRoute == null) {
+                return entry;
+            }
+            route = defaultRoute;
+            routeKey = DEFAULT_KEY;
+        }
+        final Route target = route;
+        final String mapKey = routeKey;
+        FutureTask<RouteControl> task = new FutureTask<RouteControl>(new Callable<RouteControl>() {
+            public RouteControl call() {
+                RouteControl entry = appenders.get(mapKey);
+                if (entry != null) {
+                    return entry;
+                }
+                Appender app = createAppender(target, event);
+                if (app == null) {
+                    return null;
                 }
+                entry = new RouteControl(new AppenderControl(app, null, null), true);
+                appenders.put(mapKey, entry);
+                if (maxAppenders > 0 && dynamicCount.incrementAndGet() > maxAppenders) {
+                    evictEldest(entry);
+                }
+                return entry;
             }
+        });
+        FutureTask<RouteControl> existing = pending.putIfAbsent(mapKey, task);
+        if (existing == null) {
+            existing = task;
+            task.run();
         }
-        if (route != null) {
-            Appender app = createAppender(route, event);
-            if (app == null) {
-                return null;
+        try {
+            return existing.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException ex) {
+            LOGGER.error("Unable to create Appender for route " + key, ex.getCause());
+            return null;
+        } finally {
+            pending.remove(mapKey, existing);
+        }
+    }
+
+    private void evictEldest(RouteControl current) {
+        String eldestKey = null;
+        RouteControl eldest = null;
+        for (Map.Entry<String, RouteControl> entry : appenders.entrySet()) {
+            RouteControl candidate = entry.getValue();
+            if (candidate.dynamic && candidate != current &&
+                (eldest == null || candidate.lastAccess < eldest.lastAccess)) {
+                eldestKey = entry.getKey();
+                eldest = candidate;
             }
-            control = new AppenderControl(app, null, null);
-            appenders.put(key, control);
-            if (defaultRoute) {
-                appenders.put(DEFAULT_KEY, control);
+        }
+        if (eldest != null) {
+            evict(eldestKey, eldest);
+        }
+    }
+
+    private void purge() {
+        long now = System.currentTimeMillis();
+        long next = nextPurge.get();
+        if (now < next || !nextPurge.compareAndSet(next, now + idleTimeout)) {
+            return;
+        }
+        for (Map.Entry<String, RouteControl> entry : appenders.entrySet()) {
+            RouteControl candidate = entry.getValue();
+            if (candidate.dynamic && now - candidate.lastAccess > idleTimeout) {
+                evict(entry.getKey(), candidate);
             }
         }
+    }
 
-        return control;
+    private void evict(String key, RouteControl entry) {
+        if (appenders.remove(key, entry)) {
+            if (maxAppenders > 0) {
+                dynamicCount.decrementAndGet();
+            }
+            LOGGER.debug("Stopping idle Appender {} for route {}", entry.control.getAppender().getName(), key);
+            entry.evict();
+        }
+    }
+
+    /**
+     * Returns the Appender currently used for a route key.
+     * @param key The route key.
+     * @return The Appender or null if the route has no Appender.
+     */
+    Appender getRouteAppender(String key) {
+        RouteControl entry = appenders.get(key);
+        return entry == null ? null : entry.control.getAppender();
     }
 
     private Appender createAppender(Route route, LogEvent event) {
         Node routeNode = route.getNode();
         for (Node node : routeNode.getChildren()) {
             if (node.getType().getElementName().equals("appender")) {
-                config.createConfiguration(node, event);
-                if (node.getObject() instanceof Appender) {
-                    Appender app = (Appender) node.getObject();
+                /* Configure a copy so the Route can create its Appender again and on several threads. */
+                Node appenderNode = new Node(node);
+                config.createConfiguration(appenderNode, event);
+                if (appenderNode.getObject() instanceof Appender) {
+                    Appender app = (Appender) appenderNode.getObject();
                     app.start();
-                    return (Appender) node.getObject();
+                    return app;
                 }
                 LOGGER.error("Unable to create Appender of type " + node.getName());
                 return null;
@@ -174,6 +301,10 @@ public final class RoutingAppender extends AppenderBase {
      * @param config The Configuration (automatically added by the Configuration).
      * @param rewritePolicy A RewritePolicy, if any.
      * @param filter A Filter to restrict events processed by the Appender or null.
+     * @param maxAppenders The maximum number of dynamically created Appenders to retain. Zero, the default,
+     * means there is no limit.
+     * @param idleTimeout The number of seconds a dynamically created Appender may be unused before it is
+     * stopped. Zero, the default, means Appenders are never stopped for being idle.
      * @return The RoutingAppender
      */
     @PluginFactory
@@ -182,9 +313,13 @@ public final class RoutingAppender extends AppenderBase {
                                           @PluginElement("routes") Routes routes,
                                           @PluginConfiguration Configuration config,
                                           @PluginElement("rewritePolicy") RewritePolicy rewritePolicy,
-                                          @PluginElement("filters") Filter filter) {
+                                          @PluginElement("filters") Filter filter,
+                                          @PluginAttr("maxAppenders") String maxAppenders,
+                                          @PluginAttr("idleTimeout") String idleTimeout) {
 
         boolean handleExceptions = suppress == null ? true : Boolean.valueOf(suppress);
+        int max = maxAppenders == null ? 0 : Integer.parseInt(maxAppenders);
+        long idle = idleTimeout == null ? 0 : Long.parseLong(idleTimeout) * MILLIS_PER_SECOND;
 
         if (name == null) {
             LOGGER.error("No name provided for RoutingAppender");
@@ -194,6 +329,134 @@ public final class RoutingAppender extends AppenderBase {
             LOGGER.error("No routes defined for RoutingAppender");
             return null;
         }
-        return new RoutingAppender(name, filter, handleExceptions, routes, rewritePolicy, config);
+        return new RoutingAppender(name, filter, handleExceptions, routes, rewritePolicy, config, max, idle);
+    }
+
+    /**
+     * An AppenderControl along with the information needed to evict it. The events being written to a
+     * dynamic Appender are counted so that an evicted Appender is only stopped after they have completed.
+     */
+    private static final class RouteControl {
+        private final AppenderControl control;
+        private final boolean dynamic;
+        private volatile long lastAccess = System.currentTimeMillis();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean evicted = false;
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        public RouteControl(AppenderControl control, boolean dynamic) {
+            this.control = control;
+            this.dynamic = dynamic;
+        }
+
+        /**
+         * Registers an event that is about to be written to the Appender.
+         * @return false if the Appender has been evicted and must not be used.
+         */
+        public boolean acquire() {
+            if (!dynamic) {
+                return true;
+            }
+            inFlight.incrementAndGet();
+            if (evicted) {
+                release();
+                return false;
+            }
+            return true;
+        }
+
+        /**
+         * Called when an event registered by acquire has been written. The last event written to an
+         * evicted Appender stops it.
+         */
+        public void release() {
+            if (dynamic && inFlight.decrementAndGet() == 0 && evicted) {
+                stopAppender();
+            }
+        }
+
+        /**
+         * Marks the Appender as evicted and stops it if no events are being written to it.
+         */
+        public void evict() {
+            evicted = true;
+            if (inFlight.get() == 0) {
+                stopAppender();
+            }
+        }
+
+        private void stopAppender() {
+            if (stopped.compareAndSet(false, true)) {
+                control.getAppender().stop();
+            }
+        }
+    }
+
+    /**
+     * The route pattern split into literal text and variable names so each key can be resolved
+     * without scanning the pattern. Patterns using escapes or nested variables are left to the
+     * StrSubstitutor.
+     */
+    private static final class KeyPattern {
+        private static final String PREFIX = "${";
+        private static final String SUFFIX = "}";
+
+        private final String pattern;
+        private final String[] literals;
+        private final String[] variables;
+
+        public KeyPattern(String pattern) {
+            this.pattern = pattern;
+            List<String> text = new ArrayList<String>();
+            List<String> names = new ArrayList<String>();
+            boolean compiled = true;
+            int pos = 0;
+            while (true) {
+                int start = pattern.indexOf(PREFIX, pos);
+                int end = start < 0 ? -1 : pattern.indexOf(SUFFIX, start + PREFIX.length());
+                if (end < 0) {
+                    text.add(pattern.substring(pos));
+                    break;
+                }
+                String name = pattern.substring(start + PREFIX.length(), end);
+                if ((start > 0 && pattern.charAt(start - 1) == StrSubstitutor.DEFAULT_ESCAPE) ||
+                    name.indexOf(PREFIX) >= 0) {
+                    compiled = false;
+                    break;
+                }
+                text.add(pattern.substring(pos, start));
+                names.add(name);
+                pos = end + SUFFIX.length();
+            }
+            this.literals = compiled ? text.toArray(new String[text.size()]) : null;
+            this.variables = compiled ? names.toArray(new String[names.size()]) : null;
+        }
+
+        public String resolve(StrSubstitutor subst, LogEvent event) {
+            StrLookup<?> resolver = subst.getVariableResolver();
+            if (variables == null || resolver == null) {
+                return subst.replace(event, pattern);
+            }
+            if (variables.length == 1 && literals[0].length() == 0 && literals[1].length() == 0) {
+                String value = resolver.lookup(event, variables[0]);
+                if (value == null) {
+                    return pattern;
+                }
+                return value.indexOf(PREFIX) >= 0 ? subst.replace(event, pattern) : value;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < variables.length; ++i) {
+                sb.append(literals[i]);
+                String value = resolver.lookup(event, variables[i]);
+                if (value == null) {
+                    sb.append(PREFIX).append(variables[i]).append(SUFFIX);
+                } else if (value.indexOf(PREFIX) >= 0) {
+                    return subst.replace(event, pattern);
+                } else {
+                    sb.append(value);
+                }
+            }
+            return sb.append(literals[variables.length]).toString();
+        }
     }
 }
@@ -24,6 +24,8 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.appender.AppenderRuntimeException;
 import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.filter.Filtering;
+import org.apache.logging.log4j.core.jmx.AppenderControlStats;
+import org.apache.logging.log4j.core.jmx.Metrics;
 
 /**
  * Wraps appenders with details the appender implementation shouldn't need to know about.
@@ -37,6 +39,8 @@ public class AppenderControl extends Filterable {
     private final Level level;
     private final int intLevel;
 
+    private final AppenderControlStats stats;
+
     /**
      * Constructor.
      * @param appender The target Appender.
@@ -48,6 +52,7 @@ public class AppenderControl extends Filterable {
         this.appender = appender;
         this.level = level;
         this.intLevel = level == null ? Level.ALL.intLevel() : level.intLevel();
+        this.stats = new AppenderControlStats(appender.getName());
         startFilter();
     }
 
@@ -59,24 +64,47 @@ public class AppenderControl extends Filterable {
         return appender;
     }
 
+    /**
+     * Return the statistics of this reference to the Appender. They are only updated while
+     * {@link Metrics#isEnabled()} is true.
+     * @return The statistics.
+     */
+    public AppenderControlStats getStats() {
+        return stats;
+    }
+
     /**
      * Call the appender.
      * @param event The event to process.
      */
     public void callAppender(LogEvent event) {
-        if (getFilter() != null) {
-            Filter.Result r = getFilter().filter(event);
-            if (r == Filter.Result.DENY) {
-                return;
-            }
+        boolean metrics = Metrics.isEnabled();
+        if (metrics) {
+            stats.event();
         }
         if (level != null) {
             if (intLevel < event.getLevel().intLevel()) {
+                if (metrics) {
+                    stats.filtered();
+                }
+                return;
+            }
+        }
+        Filter filter = getFilter();
+        if (filter != null) {
+            Filter.Result r = filter.filter(event);
+            if (r == Filter.Result.DENY) {
+                if (metrics) {
+                    stats.filtered();
+                }
                 return;
             }
         }
         if (recursive.get() != null) {
             appender.getHandler().error("Recursive call to appender " + appender.getName());
+            if (metrics) {
+                stats.error();
+            }
             return;
         }
         try {
@@ -86,23 +114,39 @@ public class AppenderControl extends Filterable {
                 appender.getHandler().error("Attempted to append to non-started appender " + appender.getName());
 
                 if (!appender.isExceptionSuppressed()) {
+                    if (metrics) {
+                        stats.error();
+                    }
                     throw new AppenderRuntimeException(
                         "Attempted to append to non-started appender " + appender.getName());
                 }
             }
 
             if (appender instanceof Filtering && ((Filtering) appender).isFiltered(event)) {
+                if (metrics) {
+                    stats.filtered();
+                }
                 return;
             }
 
+            long start = metrics ? System.nanoTime() : 0;
             try {
                 appender.append(event);
+                if (metrics) {
+                    stats.written(System.nanoTime() - start);
+                }
             } catch (RuntimeException ex) {
+                if (metrics) {
+                    stats.error();
+                }
                 appender.getHandler().error("An exception occurred processing Appender " + appender.getName(), ex);
                 if (!appender.isExceptionSuppressed()) {
                     throw ex;
                 }
             } catch (Exception ex) {
+                if (metrics) {
+                    stats.error();
+                }
                 appender.getHandler().error("An exception occurred processing Appender " + appender.getName(), ex);
                 if (!appender.isExceptionSuppressed()) {
                     throw new AppenderRuntimeException(ex);
@@ -20,27 +20,27 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.Appender;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.LogEvent;
-import org.apache.logging.log4j.core.config.plugins.PluginAttr;
-import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
-import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.appender.OutputStreamAppender;
 import org.apache.logging.log4j.core.config.plugins.PluginManager;
-import org.apache.logging.log4j.core.config.plugins.PluginElement;
-import org.apache.logging.log4j.core.config.plugins.PluginNode;
 import org.apache.logging.log4j.core.config.plugins.PluginType;
-import org.apache.logging.log4j.core.config.plugins.PluginValue;
 import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.helpers.NameUtil;
+import org.apache.logging.log4j.core.jmx.OutputStreamManagerStats;
+import org.apache.logging.log4j.core.jmx.OutputStreamManagerStatsMBean;
+import org.apache.logging.log4j.core.jmx.Server;
 import org.apache.logging.log4j.core.lookup.Interpolator;
 import org.apache.logging.log4j.core.lookup.StrLookup;
 import org.apache.logging.log4j.core.lookup.StrSubstitutor;
 import org.apache.logging.log4j.status.StatusLogger;
 
-import java.lang.annotation.Annotation;
+import javax.management.NotCompliantMBeanException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import java.lang.reflect.Array;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -93,6 +93,10 @@ public class BaseConfiguration extends Filterable implements Configuration {
 
     private ConcurrentMap<String, Object> componentMap = new ConcurrentHashMap<String, Object>();
 
+    private final ConcurrentMap<Class<?>, PluginBinder> binders = new ConcurrentHashMap<Class<?>, PluginBinder>();
+
+    private final Map<ObjectName, Object> managerStats = new HashMap<ObjectName, Object>();
+
     /**
      * Constructor.
      */
@@ -108,11 +112,19 @@ public class BaseConfiguration extends Filterable implements Configuration {
         pluginManager.collectPlugins();
         setup();
         doConfigure();
+        String contextName = Server.getContextName(this);
         for (LoggerConfig logger : loggers.values()) {
             logger.startFilter();
+            logger.registerStats(contextName, name);
+        }
+        if (!loggers.containsValue(root)) {
+            root.registerStats(contextName, name);
         }
         for (Appender appender : appenders.values()) {
             appender.start();
+            if (appender instanceof OutputStreamAppender) {
+                registerStats(contextName, ((OutputStreamAppender) appender).getManagerStats());
+            }
         }
 
         startFilter();
@@ -122,7 +134,13 @@ public class BaseConfiguration extends Filterable implements Configuration {
      * Tear down the configuration.
      */
     public void stop() {
+        for (Map.Entry<ObjectName, Object> entry : managerStats.entrySet()) {
+            Server.unregister(entry.getKey(), entry.getValue());
+        }
+        managerStats.clear();
+        root.unregisterStats();
         for (LoggerConfig logger : loggers.values()) {
+            logger.unregisterStats();
             logger.clearAppenders();
             logger.stopFilter();
         }
@@ -134,6 +152,25 @@ public class BaseConfiguration extends Filterable implements Configuration {
         stopFilter();
     }
 
+    /**
+     * Registers the statistics of an OutputStreamManager used by this Configuration. A manager may be shared with
+     * the next Configuration, so each Configuration registers its own MBean for it.
+     */
+    private void registerStats(String contextName, OutputStreamManagerStats stats) {
+        ObjectName objectName = Server.createName("OutputStreamManager", stats.getName(), "context", contextName,
+            "config", name);
+        if (objectName == null || managerStats.containsKey(objectName)) {
+            return;
+        }
+        try {
+            Object mbean = new StandardMBean(stats, OutputStreamManagerStatsMBean.class);
+            Server.registerMetrics(objectName, mbean);
+            managerStats.put(objectName, mbean);
+        } catch (NotCompliantMBeanException ex) {
+            LOGGER.warn("Unable to register MBean " + objectName, ex);
+        }
+    }
+
     protected void setup() {
     }
 
@@ -474,8 +511,12 @@ public class BaseConfiguration extends Filterable implements Configuration {
     private Object createPluginObject(PluginType type, Node node, LogEvent event)
     {
         Class clazz = type.getPluginClass();
+        if (clazz == null) {
+            return null;
+        }
+        PluginBinder binder = PluginBinder.getBinder(binders, clazz);
 
-        if (Map.class.isAssignableFrom(clazz)) {
+        if (binder.isMap()) {
             try {
                 Map<String, Object> map = (Map<String, Object>) clazz.newInstance();
                 for (Node child : node.getChildren()) {
@@ -488,7 +529,7 @@ public class BaseConfiguration extends Filterable implements Configuration {
             }
         }
 
-        if (List.class.isAssignableFrom(clazz)) {
+        if (binder.isList()) {
             try {
                 List<Object> list = (List<Object>) clazz.newInstance();
                 for (Node child : node.getChildren()) {
@@ -501,29 +542,17 @@ public class BaseConfiguration extends Filterable implements Configuration {
             }
         }
 
-        Method factoryMethod = null;
-
-        for (Method method : clazz.getMethods()) {
-            if (method.isAnnotationPresent(PluginFactory.class)) {
-                factoryMethod = method;
-                break;
-            }
-        }
+        Method factoryMethod = binder.getFactoryMethod();
         if (factoryMethod == null) {
             return null;
         }
 
-        Annotation[][] parmArray = factoryMethod.getParameterAnnotations();
-        Class[] parmClasses = factoryMethod.getParameterTypes();
-        if (parmArray.length != parmClasses.length) {
-            LOGGER.error("Number of parameter annotations does not equal the number of paramters");
-        }
-        Object[] parms = new Object[parmClasses.length];
+        Object[] parms = new Object[binder.size()];
 
-        int index = 0;
         Map<String, String> attrs = node.getAttributes();
         List<Node> children = node.getChildren();
-        StringBuilder sb = new StringBuilder();
+        /* The parameter description is only needed for the debug message. */
+        StringBuilder sb = LOGGER.isDebugEnabled() ? new StringBuilder() : null;
         List<Node> used = new ArrayList<Node>();
 
         /*
@@ -536,107 +565,134 @@ public class BaseConfiguration extends Filterable implements Configuration {
          *     Store the array into the parameter array.
          *   If not an array, store the object in the child node into the parameter array.
          */
-        for (Annotation[] parmTypes : parmArray) {
-            for (Annotation a : parmTypes) {
-                if (sb.length() == 0) {
-                    sb.append(" with params(");
-                } else {
-                    sb.append(", ");
-                }
-                if (a instanceof PluginNode) {
+        for (int index = 0; index < parms.length; ++index) {
+            PluginBinder.Kind kind = binder.getKind(index);
+            if (kind == PluginBinder.Kind.UNBOUND) {
+                continue;
+            }
+            if (sb != null) {
+                sb.append(sb.length() == 0 ? " with params(" : ", ");
+            }
+            String name = binder.getName(index);
+            switch (kind) {
+                case NODE:
                     parms[index] = node;
-                    sb.append("Node=").append(node.getName());
-                } else if (a instanceof PluginConfiguration) {
+                    if (sb != null) {
+                        sb.append("Node=").append(node.getName());
+                    }
+                    break;
+                case CONFIGURATION:
                     parms[index] = this;
-                    if (this.name != null) {
-                        sb.append("Configuration(").append(name).append(")");
-                    } else {
-                        sb.append("Configuration");
+                    if (sb != null) {
+                        if (this.name != null) {
+                            sb.append("Configuration(").append(this.name).append(")");
+                        } else {
+                            sb.append("Configuration");
+                        }
                     }
-                } else if (a instanceof PluginValue) {
-                    String name = ((PluginValue) a).value();
+                    break;
+                case VALUE: {
                     String v = node.getValue();
                     if (v == null) {
                         v = getAttrValue("value", attrs);
                     }
                     String value = subst.replace(event, v);
-                    sb.append(name).append("=\"").append(value).append("\"");
+                    if (sb != null) {
+                        sb.append(name).append("=\"").append(value).append("\"");
+                    }
                     parms[index] = value;
-                } else if (a instanceof PluginAttr) {
-                    String name = ((PluginAttr) a).value();
+                    break;
+                }
+                case ATTR: {
                     String value = subst.replace(event, getAttrValue(name, attrs));
-                    sb.append(name).append("=\"").append(value).append("\"");
+                    if (sb != null) {
+                        sb.append(name).append("=\"").append(value).append("\"");
+                    }
                     parms[index] = value;
-                } else if (a instanceof PluginElement) {
-                    PluginElement elem = (PluginElement) a;
-                    String name = elem.value();
-                    if (parmClasses[index].isArray()) {
-                        Class parmClass = parmClasses[index].getComponentType();
-                        List<Object> list = new ArrayList<Object>();
+                    break;
+                }
+                case ELEMENTS: {
+                    Class parmClass = binder.getType(index);
+                    List<Object> list = new ArrayList<Object>();
+                    if (sb != null) {
                         sb.append(name).append("={");
-                        boolean first = true;
-                        for (Node child : children) {
-                            PluginType childType = child.getType();
-                            if (elem.value().equalsIgnoreCase(childType.getElementName()) ||
-                                parmClass.isAssignableFrom(childType.getPluginClass())) {
-                                used.add(child);
-                                if (!first) {
-                                    sb.append(", ");
-                                }
-                                first = false;
-                                Object obj = child.getObject();
-                                if (obj == null) {
-                                    System.out.println("Null object returned for " + child.getName());
-                                }
-                                if (obj.getClass().isArray()) {
+                    }
+                    boolean first = true;
+                    for (Node child : children) {
+                        PluginType childType = child.getType();
+                        Class childClass = childType.getPluginClass();
+                        if (name.equalsIgnoreCase(childType.getElementName()) ||
+                            (childClass != null && parmClass.isAssignableFrom(childClass))) {
+                            used.add(child);
+                            if (sb != null && !first) {
+                                sb.append(", ");
+                            }
+                            first = false;
+                            Object obj = child.getObject();
+                            if (obj == null) {
+                                System.out.println("Null object returned for " + child.getName());
+                            }
+                            if (obj.getClass().isArray()) {
+                                if (sb != null) {
                                     printArray(sb, (Object[]) obj);
-                                    parms[index] = obj;
-                                    break;
                                 }
+                                parms[index] = obj;
+                                break;
+                            }
+                            if (sb != null) {
                                 sb.append(child.toString());
-                                list.add(obj);
                             }
+                            list.add(obj);
                         }
+                    }
+                    if (sb != null) {
                         sb.append("}");
-                        if (parms[index] != null) {
-                            break;
-                        }
-                        if (list.size() > 0 && !parmClass.isAssignableFrom(list.get(0).getClass())) {
-                            LOGGER.error("Attempted to assign List containing class " +
-                                list.get(0).getClass().getName() + " to array of type " + parmClass +
-                                " for attribute " + name);
-                            break;
-                        }
-                        Object[] array = (Object[]) Array.newInstance(parmClass, list.size());
-                        int i = 0;
-                        for (Object obj : list) {
-                            array[i] = obj;
-                            ++i;
-                        }
-                        parms[index] = array;
-                    } else {
-                        Class parmClass = parmClasses[index];
-                        boolean present = false;
-                        for (Node child : children) {
-                            PluginType childType = child.getType();
-                            if (elem.value().equals(childType.getElementName()) ||
-                                parmClass.isAssignableFrom(childType.getPluginClass())) {
+                    }
+                    if (parms[index] != null) {
+                        break;
+                    }
+                    if (list.size() > 0 && !parmClass.isAssignableFrom(list.get(0).getClass())) {
+                        LOGGER.error("Attempted to assign List containing class " +
+                            list.get(0).getClass().getName() + " to array of type " + parmClass +
+                            " for attribute " + name);
+                        break;
+                    }
+                    Object[] array = (Object[]) Array.newInstance(parmClass, list.size());
+                    int i = 0;
+                    for (Object obj : list) {
+                        array[i] = obj;
+                        ++i;
+                    }
+                    parms[index] = array;
+                    break;
+                }
+                case ELEMENT: {
+                    Class parmClass = binder.getType(index);
+                    boolean present = false;
+                    for (Node child : children) {
+                        PluginType childType = child.getType();
+                        Class childClass = childType.getPluginClass();
+                        if (name.equals(childType.getElementName()) ||
+                            (childClass != null && parmClass.isAssignableFrom(childClass))) {
+                            if (sb != null) {
                                 sb.append(child.getName()).append("(").append(child.toString()).append(")");
-                                present = true;
-                                used.add(child);
-                                parms[index] = child.getObject();
-                                break;
                             }
+                            present = true;
+                            used.add(child);
+                            parms[index] = child.getObject();
+                            break;
                         }
-                        if (!present) {
-                            sb.append("null");
-                        }
                     }
+                    if (sb != null && !present) {
+                        sb.append("null");
+                    }
+                    break;
                 }
+                default:
+                    break;
             }
-            ++index;
         }
-        if (sb.length() > 0) {
+        if (sb != null && sb.length() > 0) {
             sb.append(")");
         }
 
@@ -674,18 +730,16 @@ public class BaseConfiguration extends Filterable implements Configuration {
         }
 
         try {
-            int mod = factoryMethod.getModifiers();
-            if (!Modifier.isStatic(mod)) {
+            if (!binder.isStatic()) {
                 LOGGER.error(factoryMethod.getName() + " method is not static on class " +
                     clazz.getName() + " for element " + node.getName());
                 return null;
             }
-            LOGGER.debug("Calling {} on class {} for element {}{}", factoryMethod.getName(), clazz.getName(),
-                node.getName(), sb.toString());
-            //if (parms.length > 0) {
-                return factoryMethod.invoke(null, parms);
-            //}
-            //return factoryMethod.invoke(null, node);
+            if (sb != null) {
+                LOGGER.debug("Calling {} on class {} for element {}{}", factoryMethod.getName(), clazz.getName(),
+                    node.getName(), sb.toString());
+            }
+            return factoryMethod.invoke(null, parms);
         } catch (Exception e) {
             LOGGER.error("Unable to invoke method " + factoryMethod.getName() + " in class " +
                 clazz.getName() + " for element " + node.getName(), e);
@@ -105,6 +105,9 @@ public abstract class ConfigurationFactory {
         for (PluginType type : plugins.values()) {
             try {
                 Class<ConfigurationFactory> clazz = type.getPluginClass();
+                if (clazz == null) {
+                    continue;
+                }
                 Order o = clazz.getAnnotation(Order.class);
                 Integer weight = o.value();
                 if (o != null) {
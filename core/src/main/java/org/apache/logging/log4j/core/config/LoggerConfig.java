@@ -27,6 +27,9 @@ import org.apache.logging.log4j.core.filter.Filterable;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.LogEventFactory;
+import org.apache.logging.log4j.core.jmx.LoggerConfigStats;
+import org.apache.logging.log4j.core.jmx.Metrics;
+import org.apache.logging.log4j.core.jmx.Server;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
 import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
@@ -43,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import javax.management.ObjectName;
 
 /**
  * Logger object that is created via configuration.
@@ -63,7 +67,10 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
     private LoggerConfig parent;
     private AtomicInteger counter = new AtomicInteger();
     private boolean shutdown = false;
-
+    private final LoggerConfigStats stats;
+    private volatile boolean registered = false;
+    private volatile String contextName;
+    private volatile String configName;
 
     /**
      * Default constructor.
@@ -72,6 +79,7 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
         this.logEventFactory = this;
         this.level = Level.ERROR;
         this.name = "";
+        this.stats = new LoggerConfigStats(toString());
     }
 
     /**
@@ -85,6 +93,7 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
         this.name = name;
         this.level = level;
         this.additive = additive;
+        this.stats = new LoggerConfigStats(toString());
     }
 
     protected LoggerConfig(String name, List<AppenderRef> appenders, Filter filter, Level level,
@@ -95,6 +104,7 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
         this.appenderRefs = appenders;
         this.level = level;
         this.additive = additive;
+        this.stats = new LoggerConfigStats(toString());
     }
 
     @Override
@@ -133,7 +143,14 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
      * @param filter A Filter for the Appender reference.
      */
     public void addAppender(Appender appender, Level level, Filter filter) {
-        appenders.put(appender.getName(), new AppenderControl(appender, level, filter));
+        AppenderControl ctl = new AppenderControl(appender, level, filter);
+        AppenderControl previous = appenders.put(appender.getName(), ctl);
+        if (previous != null) {
+            unregisterStats(previous);
+        }
+        if (registered) {
+            Server.registerMetrics(createName(ctl), ctl.getStats());
+        }
     }
 
     /**
@@ -143,6 +160,7 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
     public void removeAppender(String name) {
         AppenderControl ctl = appenders.remove(name);
         if (ctl != null) {
+            unregisterStats(ctl);
             cleanupFilter(ctl);
         }
     }
@@ -169,10 +187,62 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
         while (iterator.hasNext()) {
             AppenderControl ctl = iterator.next();
             iterator.remove();
+            unregisterStats(ctl);
             cleanupFilter(ctl);
         }
     }
 
+    /**
+     * Return the statistics of this LoggerConfig. They are only updated while {@link Metrics#isEnabled()} is true.
+     * @return The statistics.
+     */
+    public LoggerConfigStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Registers the statistics of this LoggerConfig and of each Appender reference as MBeans once metrics are
+     * enabled. References added later are registered as they are added.
+     * @param context The name of the LoggerContext the Configuration is used by, or null.
+     * @param config The name of the Configuration this LoggerConfig belongs to, or null.
+     */
+    protected void registerStats(String context, String config) {
+        contextName = context;
+        configName = config;
+        registered = true;
+        Server.registerMetrics(createName(), stats);
+        for (AppenderControl ctl : appenders.values()) {
+            Server.registerMetrics(createName(ctl), ctl.getStats());
+        }
+    }
+
+    /**
+     * Unregisters the MBeans registered by {@link #registerStats(String, String)}.
+     */
+    protected void unregisterStats() {
+        if (!registered) {
+            return;
+        }
+        registered = false;
+        Server.unregister(createName(), stats);
+        for (AppenderControl ctl : appenders.values()) {
+            unregisterStats(ctl);
+        }
+    }
+
+    private void unregisterStats(AppenderControl ctl) {
+        Server.unregister(createName(ctl), ctl.getStats());
+    }
+
+    private ObjectName createName() {
+        return Server.createName("LoggerConfig", toString(), "context", contextName, "config", configName);
+    }
+
+    private ObjectName createName(AppenderControl ctl) {
+        return Server.createName("AppenderControl", ctl.getAppender().getName(), "context", contextName, "logger",
+            toString(), "config", configName);
+    }
+
     private void cleanupFilter(AppenderControl ctl) {
         Filter filter = ctl.getFilter();
         if (filter != null) {
@@ -281,7 +351,14 @@ public class LoggerConfig extends Filterable implements LogEventFactory {
 
         counter.incrementAndGet();
         try {
+            boolean metrics = Metrics.isEnabled();
+            if (metrics) {
+                stats.event();
+            }
             if (isFiltered(event)) {
+                if (metrics) {
+                    stats.filtered();
+                }
                 return;
             }
 
@@ -55,6 +55,24 @@ public class Node {
     public Node() {
     }
 
+    /**
+     * Creates a copy of a Node and its children that can be configured independently of the original.
+     * The configured objects are not copied.
+     * @param node The Node to copy.
+     */
+    public Node(Node node) {
+        this.parent = node.parent;
+        this.name = node.name;
+        this.value = node.value;
+        this.type = node.type;
+        this.attributes.putAll(node.attributes);
+        for (Node child : node.children) {
+            Node copy = new Node(child);
+            copy.parent = this;
+            this.children.add(copy);
+        }
+    }
+
     public Map<String, String> getAttributes() {
         return attributes;
     }
@@ -102,6 +120,6 @@ public class Node {
     @Override
     public String toString() {
         return type.isObjectPrintable() ? object.toString() :
-            type.getPluginClass().getName() + " with name " + name;
+            type.getClassName() + " with name " + name;
     }
 }
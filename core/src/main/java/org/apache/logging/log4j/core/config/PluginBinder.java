@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginConfiguration;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.config.plugins.PluginNode;
+import org.apache.logging.log4j.core.config.plugins.PluginValue;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The reflective information needed to create a plugin, resolved once per plugin class. This avoids
+ * locating the PluginFactory method and walking its parameter annotations every time a plugin is
+ * configured, which also happens while logging when the RoutingAppender creates a route. Binders are
+ * cached by the Configuration that uses them so that plugin classes are not referenced after the
+ * Configuration is discarded.
+ */
+final class PluginBinder {
+
+    /**
+     * How a factory method parameter obtains its value.
+     */
+    enum Kind {
+        /** The parameter is not annotated and is always null. */
+        UNBOUND,
+        /** The Node being configured. */
+        NODE,
+        /** The Configuration. */
+        CONFIGURATION,
+        /** The value of the Node. */
+        VALUE,
+        /** An attribute of the Node. */
+        ATTR,
+        /** A single child of the Node. */
+        ELEMENT,
+        /** An array built from the children of the Node. */
+        ELEMENTS
+    }
+
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final Class<?> pluginClass;
+    private final boolean isMap;
+    private final boolean isList;
+    private final Method factoryMethod;
+    private final boolean isStatic;
+    private final Kind[] kinds;
+    private final String[] names;
+    private final Class<?>[] types;
+
+    private PluginBinder(Class<?> clazz) {
+        this.pluginClass = clazz;
+        this.isMap = Map.class.isAssignableFrom(clazz);
+        this.isList = List.class.isAssignableFrom(clazz);
+        Method method = null;
+        for (Method m : clazz.getMethods()) {
+            if (m.isAnnotationPresent(PluginFactory.class)) {
+                method = m;
+                break;
+            }
+        }
+        factoryMethod = method;
+        if (method == null) {
+            isStatic = false;
+            kinds = new Kind[0];
+            names = new String[0];
+            types = new Class<?>[0];
+            return;
+        }
+        isStatic = Modifier.isStatic(method.getModifiers());
+        Annotation[][] parmArray = method.getParameterAnnotations();
+        Class<?>[] parmClasses = method.getParameterTypes();
+        if (parmArray.length != parmClasses.length) {
+            LOGGER.error("Number of parameter annotations does not equal the number of paramters");
+        }
+        kinds = new Kind[parmClasses.length];
+        names = new String[parmClasses.length];
+        types = new Class<?>[parmClasses.length];
+        for (int i = 0; i < parmClasses.length; ++i) {
+            kinds[i] = Kind.UNBOUND;
+            types[i] = parmClasses[i];
+            for (Annotation a : parmArray[i]) {
+                if (a instanceof PluginNode) {
+                    kinds[i] = Kind.NODE;
+                } else if (a instanceof PluginConfiguration) {
+                    kinds[i] = Kind.CONFIGURATION;
+                } else if (a instanceof PluginValue) {
+                    kinds[i] = Kind.VALUE;
+                    names[i] = ((PluginValue) a).value();
+                } else if (a instanceof PluginAttr) {
+                    kinds[i] = Kind.ATTR;
+                    names[i] = ((PluginAttr) a).value();
+                } else if (a instanceof PluginElement) {
+                    names[i] = ((PluginElement) a).value();
+                    if (parmClasses[i].isArray()) {
+                        kinds[i] = Kind.ELEMENTS;
+                        types[i] = parmClasses[i].getComponentType();
+                    } else {
+                        kinds[i] = Kind.ELEMENT;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the binder for a plugin class, creating it the first time the class is used.
+     * @param binders The binders already created.
+     * @param clazz The plugin class.
+     * @return The PluginBinder.
+     */
+    static PluginBinder getBinder(ConcurrentMap<Class<?>, PluginBinder> binders, Class<?> clazz) {
+        PluginBinder binder = binders.get(clazz);
+        if (binder == null) {
+            binder = new PluginBinder(clazz);
+            PluginBinder existing = binders.putIfAbsent(clazz, binder);
+            if (existing != null) {
+                binder = existing;
+            }
+        }
+        return binder;
+    }
+
+    public Class<?> getPluginClass() {
+        return pluginClass;
+    }
+
+    public boolean isMap() {
+        return isMap;
+    }
+
+    public boolean isList() {
+        return isList;
+    }
+
+    public Method getFactoryMethod() {
+        return factoryMethod;
+    }
+
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    /**
+     * Returns the number of parameters of the factory method.
+     * @return The number of parameters.
+     */
+    public int size() {
+        return kinds.length;
+    }
+
+    public Kind getKind(int index) {
+        return kinds[index];
+    }
+
+    /**
+     * Returns the attribute or element name a parameter is bound to.
+     * @param index The parameter index.
+     * @return The name, or null if the parameter is not bound to a name.
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * Returns the type of a parameter, or its component type if the parameter is an array of elements.
+     * @param index The parameter index.
+     * @return The type.
+     */
+    public Class<?> getType(int index) {
+        return types[index];
+    }
+}
@@ -30,12 +30,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.text.DecimalFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 /**
  * Component that loads and manages all the plugins.
@@ -48,9 +54,27 @@ public class PluginManager {
         new ConcurrentHashMap<String, ConcurrentMap<String, PluginType>>();
 
     private static CopyOnWriteArrayList<String> packages = new CopyOnWriteArrayList<String>();
+
+    /** Packages whose plugins are all listed in a plugin index visible to each ClassLoader. */
+    private static Map<ClassLoader, Set<String>> indexedPackages =
+        Collections.synchronizedMap(new WeakHashMap<ClassLoader, Set<String>>());
+
+    /**
+     * Packages that have already been scanned with each ClassLoader. A package scanned for the plugins of one
+     * Class is recorded with that Class name appended so it is scanned again for plugins of other Classes.
+     */
+    private static Map<ClassLoader, Set<String>> scannedPackages =
+        Collections.synchronizedMap(new WeakHashMap<ClassLoader, Set<String>>());
+
+    /** ClassLoaders whose plugin indexes have been loaded. */
+    private static Map<ClassLoader, Boolean> preloaded =
+        Collections.synchronizedMap(new WeakHashMap<ClassLoader, Boolean>());
+
     private static final String PATH = "org/apache/logging/log4j/core/config/plugins/";
     private static final String FILENAME = "Log4j2Plugins.dat";
     private static final String LOG4J_PACKAGES = "org.apache.logging.log4j.core";
+    /** Format version of the plugin index. It is written negated so older indexes can be recognized. */
+    private static final int VERSION = 2;
 
     private static final Logger LOGGER = StatusLogger.getLogger();
 
@@ -90,7 +114,7 @@ public class PluginManager {
         String packages = args.length == 2 ? args[1] : null;
 
         manager.collectPlugins(false, packages);
-        encode(pluginTypeMap);
+        encode(pluginTypeMap, packages == null ? new String[] {LOG4J_PACKAGES} : packages.split(","));
     }
 
     /**
@@ -126,57 +150,57 @@ public class PluginManager {
     }
 
     /**
-     * Collects plugins, optionally obtaining them from a preload map.
+     * Collects plugins, optionally obtaining them from a preload map. Packages that are named by a plugin index
+     * of the ClassLoader are never scanned and every other package is scanned only once per ClassLoader and
+     * plugin Class. An index does not cover the sub-packages of the packages it names.
      * @param preLoad if true, plugins will be obtained from the preload map.
      * @param pkgs A comma separated list of package names to scan for plugins. If
      * null the default Log4j package name will be used.
      */
     public void collectPlugins(boolean preLoad, String pkgs) {
-        if (pluginTypeMap.containsKey(type)) {
-            plugins = pluginTypeMap.get(type);
-            preLoad = false;
-        }
         long start = System.nanoTime();
-        ResolverUtil<?> r = new ResolverUtil();
         ClassLoader loader = Loader.getClassLoader();
-        if (loader != null) {
-            r.setClassLoader(loader);
+        if (loader == null) {
+            loader = PluginManager.class.getClassLoader();
         }
-        if (preLoad) {
-            ConcurrentMap<String, ConcurrentMap<String, PluginType>> map = decode(loader);
-            if (map != null) {
-                pluginTypeMap = map;
-                plugins = map.get(type);
-            } else {
-                LOGGER.warn("Plugin preloads not available");
-            }
+        if (preLoad && preloaded.put(loader, Boolean.TRUE) == null && !decode(loader)) {
+            LOGGER.warn("Plugin preloads not available");
         }
-        if (plugins.size() == 0) {
-            if (pkgs == null) {
-                packages.add(LOG4J_PACKAGES);
-            } else {
-                String[] names = pkgs.split(",");
-                for (String name : names) {
-                    packages.add(name);
-                }
+        if (pkgs == null) {
+            packages.addIfAbsent(LOG4J_PACKAGES);
+        } else {
+            String[] names = pkgs.split(",");
+            for (String name : names) {
+                packages.addIfAbsent(name);
             }
         }
-        ResolverUtil.Test test = new PluginTest(clazz);
+        Set<String> scanned = getPackages(scannedPackages, loader);
+        Set<String> indexed = getPackages(indexedPackages, loader);
+        ResolverUtil<?> r = null;
         for (String pkg : packages) {
-            r.findInPackage(test, pkg);
+            if (indexed.contains(pkg) || scanned.contains(pkg) ||
+                !scanned.add(clazz == null ? pkg : pkg + ':' + clazz.getName())) {
+                continue;
+            }
+            if (r == null) {
+                r = new ResolverUtil();
+                r.setClassLoader(loader);
+            }
+            r.findInPackage(new PluginTest(clazz), pkg);
         }
-        for (Class<?> item : r.getClasses()) {
-            Plugin p = item.getAnnotation(Plugin.class);
-            String pluginType = p.type();
-            if (!pluginTypeMap.containsKey(pluginType)) {
-                pluginTypeMap.putIfAbsent(pluginType, new ConcurrentHashMap<String, PluginType>());
+        if (r != null) {
+            for (Class<?> item : r.getClasses()) {
+                if (rootDir != null && !new File(rootDir + item.getName().replace('.', '/') + ".class").exists()) {
+                    continue;
+                }
+                Plugin p = item.getAnnotation(Plugin.class);
+                String type = p.elementType().equals(Plugin.EMPTY) ? p.name() : p.elementType();
+                getTypes(p.type()).put(p.name().toLowerCase(),
+                    new PluginType(item, type, p.printObject(), p.deferChildren()));
             }
-            Map<String, PluginType> map = pluginTypeMap.get(pluginType);
-            String type = p.elementType().equals(Plugin.EMPTY) ? p.name() : p.elementType();
-            map.put(p.name().toLowerCase(), new PluginType(item, type, p.printObject(), p.deferChildren()));
         }
         long elapsed = System.nanoTime() - start;
-        plugins = pluginTypeMap.get(type);
+        plugins = getTypes(type);
         StringBuilder sb = new StringBuilder("Generated plugins");
         sb.append(" in ");
         DecimalFormat numFormat = new DecimalFormat("#0");
@@ -188,52 +212,91 @@ public class PluginManager {
         LOGGER.debug(sb.toString());
     }
 
-    private static ConcurrentMap<String, ConcurrentMap<String, PluginType>> decode(ClassLoader loader) {
+    private static ConcurrentMap<String, PluginType> getTypes(String pluginType) {
+        ConcurrentMap<String, PluginType> types = pluginTypeMap.get(pluginType);
+        if (types == null) {
+            pluginTypeMap.putIfAbsent(pluginType, new ConcurrentHashMap<String, PluginType>());
+            types = pluginTypeMap.get(pluginType);
+        }
+        return types;
+    }
+
+    private static Set<String> getPackages(Map<ClassLoader, Set<String>> map, ClassLoader loader) {
+        synchronized (map) {
+            Set<String> set = map.get(loader);
+            if (set == null) {
+                set = new CopyOnWriteArraySet<String>();
+                map.put(loader, set);
+            }
+            return set;
+        }
+    }
+
+    /**
+     * Merges every plugin index visible to the ClassLoader into the plugin map. Plugin classes are
+     * recorded by name and are not loaded until they are used.
+     * @param loader The ClassLoader to locate the indexes and the plugin classes with.
+     * @return true if at least one index was loaded.
+     */
+    private static boolean decode(ClassLoader loader) {
         Enumeration<URL> resources;
         try {
             resources = loader.getResources(PATH + FILENAME);
         } catch (IOException ioe) {
             LOGGER.warn("Unable to preload plugins", ioe);
-            return null;
+            return false;
         }
-        ConcurrentMap<String, ConcurrentMap<String, PluginType>> map =
-            new ConcurrentHashMap<String, ConcurrentMap<String, PluginType>>();
+        boolean found = false;
         while (resources.hasMoreElements()) {
+            URL url = resources.nextElement();
             try {
-                URL url = resources.nextElement();
                 LOGGER.debug("Found Plugin Map at {}", url.toExternalForm());
                 InputStream is = url.openStream();
                 BufferedInputStream bis = new BufferedInputStream(is);
                 DataInputStream dis = new DataInputStream(bis);
                 int count = dis.readInt();
+                List<String> covered = new ArrayList<String>();
+                if (count < 0) {
+                    if (-count != VERSION) {
+                        dis.close();
+                        LOGGER.warn("Unsupported plugin index version {} at {}", -count, url.toExternalForm());
+                        continue;
+                    }
+                    int pkgCount = dis.readInt();
+                    for (int i = 0; i < pkgCount; ++i) {
+                        covered.add(dis.readUTF());
+                    }
+                    count = dis.readInt();
+                }
+                Map<String, Map<String, PluginType>> map = new HashMap<String, Map<String, PluginType>>(count);
                 for (int j = 0; j < count; ++j) {
                     String type = dis.readUTF();
                     int entries = dis.readInt();
-                    ConcurrentMap<String, PluginType> types = map.get(type);
-                    if (types == null) {
-                        types = new ConcurrentHashMap<String, PluginType>(count);
-                    }
+                    Map<String, PluginType> types = new HashMap<String, PluginType>(entries);
                     for (int i = 0; i < entries; ++i) {
                         String key = dis.readUTF();
                         String className = dis.readUTF();
                         String name = dis.readUTF();
                         boolean printable = dis.readBoolean();
                         boolean defer = dis.readBoolean();
-                        Class clazz = Class.forName(className);
-                        types.put(key, new PluginType(clazz, name, printable, defer));
+                        types.put(key, new PluginType(className, loader, name, printable, defer));
                     }
-                    map.putIfAbsent(type, types);
+                    map.put(type, types);
                 }
                 dis.close();
+                for (Map.Entry<String, Map<String, PluginType>> entry : map.entrySet()) {
+                    getTypes(entry.getKey()).putAll(entry.getValue());
+                }
+                getPackages(indexedPackages, loader).addAll(covered);
+                found = true;
             } catch (Exception ex) {
-                LOGGER.warn("Unable to preload plugins", ex);
-                return null;
+                LOGGER.warn("Unable to preload plugins from " + url.toExternalForm(), ex);
             }
         }
-        return map.size() == 0 ? null : map;
+        return found;
     }
 
-    private static void encode(ConcurrentMap<String, ConcurrentMap<String, PluginType>> map) {
+    private static void encode(ConcurrentMap<String, ConcurrentMap<String, PluginType>> map, String[] covered) {
         String fileName = rootDir + PATH + FILENAME;
         try {
             File file = new File(rootDir + PATH);
@@ -241,6 +304,11 @@ public class PluginManager {
             FileOutputStream fos = new FileOutputStream(fileName);
             BufferedOutputStream bos = new BufferedOutputStream(fos);
             DataOutputStream dos = new DataOutputStream(bos);
+            dos.writeInt(-VERSION);
+            dos.writeInt(covered.length);
+            for (String pkg : covered) {
+                dos.writeUTF(pkg);
+            }
             dos.writeInt(map.size());
             for (Map.Entry<String, ConcurrentMap<String, PluginType>> outer : map.entrySet()) {
                 dos.writeUTF(outer.getKey());
@@ -248,7 +316,7 @@ public class PluginManager {
                 for (Map.Entry<String, PluginType> entry : outer.getValue().entrySet()) {
                     dos.writeUTF(entry.getKey());
                     PluginType pt = entry.getValue();
-                    dos.writeUTF(pt.getPluginClass().getName());
+                    dos.writeUTF(pt.getClassName());
                     dos.writeUTF(pt.getElementName());
                     dos.writeBoolean(pt.isObjectPrintable());
                     dos.writeBoolean(pt.isDeferChildren());
@@ -17,27 +17,70 @@
 package org.apache.logging.log4j.core.config.plugins;
 
 
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.status.StatusLogger;
+
 import java.io.Serializable;
 
 /**
- * Plugin Descriptor.
+ * Plugin Descriptor. When created from a plugin index the plugin Class is not loaded until it is first requested.
  */
 public class PluginType implements Serializable {
 
-    private Class pluginClass;
+    private static final Logger LOGGER = StatusLogger.getLogger();
+
+    private final String className;
+    private transient ClassLoader loader;
+    private volatile Class pluginClass;
     private String elementName;
     private boolean printObject = false;
     private boolean deferChildren = false;
 
     public PluginType(Class clazz, String name, boolean printObj, boolean deferChildren) {
+        this.className = clazz.getName();
         this.pluginClass = clazz;
         this.elementName = name;
         this.printObject = printObj;
         this.deferChildren = deferChildren;
     }
 
+    /**
+     * Creates a descriptor for a plugin that will be loaded when it is first used.
+     * @param className The fully qualified name of the plugin class.
+     * @param loader The ClassLoader to load the plugin class with.
+     * @param name The element name.
+     * @param printObj true if the plugin's toString can be used to describe it.
+     * @param deferChildren true if the plugin's children should not be configured before the plugin.
+     */
+    public PluginType(String className, ClassLoader loader, String name, boolean printObj, boolean deferChildren) {
+        this.className = className;
+        this.loader = loader;
+        this.elementName = name;
+        this.printObject = printObj;
+        this.deferChildren = deferChildren;
+    }
+
+    /**
+     * Returns the plugin Class, loading it if necessary.
+     * @return The plugin Class or null if it cannot be loaded.
+     */
     public Class getPluginClass() {
-        return this.pluginClass;
+        Class clazz = this.pluginClass;
+        if (clazz == null) {
+            try {
+                clazz = loader == null ? Class.forName(className) : Class.forName(className, true, loader);
+                this.pluginClass = clazz;
+            } catch (ClassNotFoundException ex) {
+                LOGGER.error("Unable to load plugin class " + className, ex);
+            } catch (LinkageError err) {
+                LOGGER.error("Unable to load plugin class " + className, err);
+            }
+        }
+        return clazz;
+    }
+
+    public String getClassName() {
+        return this.className;
     }
 
     public String getElementName() {
@@ -35,27 +35,38 @@ import java.util.List;
 
 /**
  * Filter that invokes multiple filters.
+ *
+ * When the CompositeFilter is created the Filters are compiled into the array that is actually evaluated:
+ * nested CompositeFilters are flattened, built-in Filters that can only return NEUTRAL are dropped and, within
+ * a run of stateless built-in Filters that can only produce the same ACCEPT or DENY result, the cheap level and
+ * Marker checks are moved to the front. None of these change the Result of the chain.
  */
 @Plugin(name = "filters", type = "Core", printObject = true)
 public final class CompositeFilter implements Iterable<Filter>, Filter, Lifecycle {
 
+    private static final Package FILTER_PACKAGE = CompositeFilter.class.getPackage();
+
     private final List<Filter> filters;
+    private final Filter[] compiled;
     private final boolean hasFilters;
 
     private boolean isStarted;
 
     private CompositeFilter() {
         this.filters = new ArrayList<Filter>();
+        this.compiled = new Filter[0];
         this.hasFilters = false;
     }
 
     private CompositeFilter(List<Filter> filters) {
         if (filters == null) {
             this.filters = Collections.unmodifiableList(new ArrayList<Filter>());
+            this.compiled = new Filter[0];
             this.hasFilters = false;
             return;
         }
         this.filters = Collections.unmodifiableList(filters);
+        this.compiled = compile(this.filters);
         this.hasFilters = this.filters.size() > 0;
     }
 
@@ -134,14 +145,13 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, Lifecycl
      * @return the Result.
      */
     public Result filter(Logger logger, Level level, Marker marker, String msg, Object... params) {
-        Result result = Result.NEUTRAL;
-        for (Filter filter : filters) {
-            result = filter.filter(logger, level, marker, msg, params);
+        for (int i = 0; i < compiled.length; ++i) {
+            Result result = compiled[i].filter(logger, level, marker, msg, params);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return Result.NEUTRAL;
     }
 
     /**
@@ -154,14 +164,13 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, Lifecycl
      * @return the Result.
      */
     public Result filter(Logger logger, Level level, Marker marker, Object msg, Throwable t) {
-        Result result = Result.NEUTRAL;
-        for (Filter filter : filters) {
-            result = filter.filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiled.length; ++i) {
+            Result result = compiled[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return Result.NEUTRAL;
     }
 
     /**
@@ -174,14 +183,13 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, Lifecycl
      * @return the Result.
      */
     public Result filter(Logger logger, Level level, Marker marker, Message msg, Throwable t) {
-        Result result = Result.NEUTRAL;
-        for (Filter filter : filters) {
-            result = filter.filter(logger, level, marker, msg, t);
+        for (int i = 0; i < compiled.length; ++i) {
+            Result result = compiled[i].filter(logger, level, marker, msg, t);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return Result.NEUTRAL;
     }
 
     /**
@@ -190,14 +198,93 @@ public final class CompositeFilter implements Iterable<Filter>, Filter, Lifecycl
      * @return the Result.
      */
     public Result filter(LogEvent event) {
-        Result result = Result.NEUTRAL;
-        for (Filter filter : filters) {
-            result = filter.filter(event);
+        for (int i = 0; i < compiled.length; ++i) {
+            Result result = compiled[i].filter(event);
             if (result == Result.ACCEPT || result == Result.DENY) {
                 return result;
             }
         }
-        return result;
+        return Result.NEUTRAL;
+    }
+
+    /**
+     * Flattens, prunes and orders the Filters into the array evaluated by the filter methods.
+     * @param filters The configured Filters.
+     * @return The Filters to evaluate, in order.
+     */
+    private static Filter[] compile(List<Filter> filters) {
+        List<Filter> flat = new ArrayList<Filter>();
+        flatten(filters, flat);
+        List<Filter> result = new ArrayList<Filter>(flat.size());
+        List<Filter> run = new ArrayList<Filter>();
+        Result runResult = null;
+        for (Filter filter : flat) {
+            if (!isBuiltIn(filter)) {
+                addRun(run, result);
+                runResult = null;
+                result.add(filter);
+                continue;
+            }
+            Result match = filter.getOnMatch();
+            Result mismatch = filter.getOnMismatch();
+            if (match == Result.NEUTRAL && mismatch == Result.NEUTRAL) {
+                continue;
+            }
+            Result decision = match == Result.NEUTRAL ? mismatch : match;
+            boolean single = match == Result.NEUTRAL || mismatch == Result.NEUTRAL || match == mismatch;
+            if (!single || filter instanceof BurstFilter) {
+                addRun(run, result);
+                runResult = null;
+                result.add(filter);
+                continue;
+            }
+            if (runResult != null && runResult != decision) {
+                addRun(run, result);
+            }
+            runResult = decision;
+            run.add(filter);
+        }
+        addRun(run, result);
+        return result.toArray(new Filter[result.size()]);
+    }
+
+    private static void flatten(List<Filter> filters, List<Filter> flat) {
+        for (Filter filter : filters) {
+            if (filter instanceof CompositeFilter) {
+                flatten(((CompositeFilter) filter).filters, flat);
+            } else if (filter != null) {
+                flat.add(filter);
+            }
+        }
+    }
+
+    /**
+     * Appends a run of Filters that all produce the same decision, cheapest first. Since every Filter in the run
+     * can only return NEUTRAL or the same Result their order does not affect the outcome.
+     */
+    private static void addRun(List<Filter> run, List<Filter> result) {
+        for (Filter filter : run) {
+            if (isCheap(filter)) {
+                result.add(filter);
+            }
+        }
+        for (Filter filter : run) {
+            if (!isCheap(filter)) {
+                result.add(filter);
+            }
+        }
+        run.clear();
+    }
+
+    /**
+     * The Filters provided by Log4j only ever return their onMatch or onMismatch Result or NEUTRAL.
+     */
+    private static boolean isBuiltIn(Filter filter) {
+        return filter instanceof FilterBase && filter.getClass().getPackage() == FILTER_PACKAGE;
+    }
+
+    private static boolean isCheap(Filter filter) {
+        return filter instanceof ThresholdFilter || filter instanceof MarkerFilter;
     }
 
     @Override
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Filter;
+
+/**
+ * Implemented by Filters whose Result depends only on the Level of the event. When the context-wide Filter
+ * is made up only of these Filters each Logger folds it into its level threshold so that checking whether
+ * a Level is enabled does not need to call the Filter.
+ */
+public interface LevelOnlyFilter extends Filter {
+
+    /**
+     * Filter an event based only on its Level.
+     * @param level The event logging Level.
+     * @return The Result that every other filter method returns for an event at this Level.
+     */
+    Result filter(Level level);
+}
@@ -18,6 +18,7 @@ package org.apache.logging.log4j.core.filter;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -35,6 +36,9 @@ public final class MarkerFilter extends FilterBase {
 
     private final String name;
 
+    /** The Marker with the configured name, resolved once it has been created by the application. */
+    private volatile Marker marker;
+
     private MarkerFilter(String name, Result onMatch, Result onMismatch) {
         super(onMatch, onMismatch);
         this.name = name;
@@ -58,7 +62,21 @@ public final class MarkerFilter extends FilterBase {
     }
 
     private Result filter(Marker marker) {
-        return marker != null && marker.isInstanceOf(name) ? onMatch : onMismatch;
+        if (marker == null) {
+            return onMismatch;
+        }
+        Marker target = getTarget();
+        boolean match = target == null ? marker.isInstanceOf(name) : marker.isInstanceOf(target);
+        return match ? onMatch : onMismatch;
+    }
+
+    private Marker getTarget() {
+        Marker target = this.marker;
+        if (target == null && MarkerManager.exists(name)) {
+            target = MarkerManager.getMarker(name);
+            this.marker = target;
+        }
+        return target;
     }
 
     @Override
@@ -34,7 +34,7 @@ import org.apache.logging.log4j.message.Message;
  * The default Level is ERROR.
  */
 @Plugin(name = "ThresholdFilter", type = "Core", elementType = "filter", printObject = true)
-public final class ThresholdFilter extends FilterBase {
+public final class ThresholdFilter extends FilterBase implements LevelOnlyFilter {
 
     private final Level level;
 
@@ -60,7 +60,7 @@ public final class ThresholdFilter extends FilterBase {
         return filter(event.getLevel());
     }
 
-    private Result filter(Level level) {
+    public Result filter(Level level) {
         return level.isAtLeastAsSpecificAs(this.level) ? onMatch : onMismatch;
     }
 
@@ -16,9 +16,17 @@
  */
 package org.apache.logging.log4j.core.helpers;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Utility class for transforming strings.
+ * <p/>
+ * <p>The append methods escape a value in a single pass directly into the caller's buffer. Characters are
+ * classified through a lookup table and runs of characters that need no escaping are copied in one call, so
+ * a value without special characters is appended unchanged without being copied first.
  */
 public final class Transform {
 
@@ -28,6 +36,42 @@ public final class Transform {
     private static final String CDATA_EMBEDED_END = CDATA_END + CDATA_PSEUDO_END + CDATA_START;
     private static final int CDATA_END_LEN = CDATA_END.length();
 
+    /**
+     * The replacement of each character below '?' that has to be escaped, indexed by the character.
+     */
+    private static final String[] ENTITIES = new String['?'];
+
+    /**
+     * The maximum number of escaped values kept by {@link #escapeTagsCached(String)}.
+     */
+    private static final int MAX_CACHED = 1024;
+
+    private static final ConcurrentMap<String, String> CACHE = new ConcurrentHashMap<String, String>();
+
+    /**
+     * The JSON escape sequence of each character up to the backslash that has to be escaped, indexed by the
+     * character.
+     */
+    private static final String[] JSON_ESCAPES = new String['\\' + 1];
+
+    static {
+        ENTITIES['<'] = "&lt;";
+        ENTITIES['>'] = "&gt;";
+        ENTITIES['&'] = "&amp;";
+        ENTITIES['"'] = "&quot;";
+
+        for (char ch = 0; ch < ' '; ch++) {
+            JSON_ESCAPES[ch] = String.format("\\u%04x", (int) ch);
+        }
+        JSON_ESCAPES['\b'] = "\\b";
+        JSON_ESCAPES['\t'] = "\\t";
+        JSON_ESCAPES['\n'] = "\\n";
+        JSON_ESCAPES['\f'] = "\\f";
+        JSON_ESCAPES['\r'] = "\\r";
+        JSON_ESCAPES['"'] = "\\\"";
+        JSON_ESCAPES['\\'] = "\\\\";
+    }
+
     private Transform() {
     }
 
@@ -41,42 +85,115 @@ public final class Transform {
      * @return The input string with the special characters replaced.
      */
     public static String escapeTags(final String input) {
-        //Check if the string is null, zero length or devoid of special characters
-        // if so, return what was sent in.
-
-        if (input == null
-            || input.length() == 0
-            || (input.indexOf('"') == -1 &&
-            input.indexOf('&') == -1 &&
-            input.indexOf('<') == -1 &&
-            input.indexOf('>') == -1)) {
+        if (input == null) {
+            return null;
+        }
+        int first = indexOfTag(input, 0, input.length());
+        if (first < 0) {
             return input;
         }
+        StringBuilder buf = new StringBuilder(input.length() + 6);
+        buf.append(input, 0, first);
+        appendEscapingTags(buf, input, first, input.length());
+        return buf.toString();
+    }
 
-        //Use a StringBuffer in lieu of String concatenation -- it is
-        //much more efficient this way.
+    /**
+     * Returns the escaped form of a value that recurs, such as a logger or thread name. The escaped forms of
+     * up to 1024 values are remembered, so the value is usually only looked up.
+     *
+     * @param input The text to be converted.
+     * @return The input string with the special characters replaced.
+     */
+    public static String escapeTagsCached(final String input) {
+        if (input == null) {
+            return null;
+        }
+        String escaped = CACHE.get(input);
+        if (escaped == null) {
+            escaped = escapeTags(input);
+            if (CACHE.size() < MAX_CACHED) {
+                CACHE.putIfAbsent(input, escaped);
+            }
+        }
+        return escaped;
+    }
 
-        StringBuilder buf = new StringBuilder(input.length() + 6);
-        char ch = ' ';
-
-        int len = input.length();
-        for (int i = 0; i < len; i++) {
-            ch = input.charAt(i);
-            if (ch > '>') {
-                buf.append(ch);
-            } else if (ch == '<') {
-                buf.append("&lt;");
-            } else if (ch == '>') {
-                buf.append("&gt;");
-            } else if (ch == '&') {
-                buf.append("&amp;");
-            } else if (ch == '"') {
-                buf.append("&quot;");
-            } else {
-                buf.append(ch);
+    /**
+     * Appends the text to the buffer, replacing any '<', '>', '&' or '"' characters with the respective
+     * predefined entity references.
+     *
+     * @param buf The buffer to append to.
+     * @param input The text to be converted. If it is null "null" is appended, as by StringBuilder.
+     */
+    public static void appendEscapingTags(final StringBuilder buf, final CharSequence input) {
+        if (input == null) {
+            buf.append((String) null);
+        } else {
+            appendEscapingTags(buf, input, 0, input.length());
+        }
+    }
+
+    /**
+     * Appends a range of the text to the buffer, replacing any '<', '>', '&' or '"' characters with the
+     * respective predefined entity references.
+     *
+     * @param buf The buffer to append to.
+     * @param input The text to be converted.
+     * @param start The index of the first character to append.
+     * @param end The index after the last character to append.
+     */
+    public static void appendEscapingTags(final StringBuilder buf, final CharSequence input, final int start,
+                                          final int end) {
+        int i = start;
+        while (i < end && (input.charAt(i) >= '?' || ENTITIES[input.charAt(i)] == null)) {
+            ++i;
+        }
+        if (i == end && start == 0 && end == input.length() && input instanceof String) {
+            // Appending a whole String is a single array copy.
+            buf.append((String) input);
+            return;
+        }
+        int copied = start;
+        for (; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch < '?' && ENTITIES[ch] != null) {
+                buf.append(input, copied, i);
+                buf.append(ENTITIES[ch]);
+                copied = i + 1;
             }
         }
-        return buf.toString();
+        buf.append(input, copied, end);
+    }
+
+    /**
+     * Appends the text to the buffer as the content of a JSON string, escaping quotation marks, backslashes
+     * and control characters. The enclosing quotation marks are the responsibility of the caller.
+     *
+     * @param buf The buffer to append to.
+     * @param input The text to be converted.
+     */
+    public static void appendEscapingJSON(final StringBuilder buf, final CharSequence input) {
+        int end = input.length();
+        int i = 0;
+        while (i < end && (input.charAt(i) > '\\' || JSON_ESCAPES[input.charAt(i)] == null)) {
+            ++i;
+        }
+        if (i == end && input instanceof String) {
+            // Appending a whole String is a single array copy.
+            buf.append((String) input);
+            return;
+        }
+        int copied = 0;
+        for (; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch <= '\\' && JSON_ESCAPES[ch] != null) {
+                buf.append(input, copied, i);
+                buf.append(JSON_ESCAPES[ch]);
+                copied = i + 1;
+            }
+        }
+        buf.append(input, copied, end);
     }
 
     /**
@@ -90,23 +207,102 @@ public final class Transform {
      */
     public static void appendEscapingCDATA(final StringBuilder buf, final String str) {
         if (str != null) {
-            int end = str.indexOf(CDATA_END);
-            if (end < 0) {
-                buf.append(str);
+            appendEscapingCDATA(buf, str, 0, str.length());
+        }
+    }
+
+    /**
+     * Appends a range of the text to a CDATA section, handling embeded CDEnd strings (]]>).
+     *
+     * @param buf The buffer holding the XML data to this point.
+     * @param str The text that is inserted into an existing CDATA Section within buf.
+     * @param start The index of the first character to append.
+     * @param end The index after the last character to append.
+     */
+    public static void appendEscapingCDATA(final StringBuilder buf, final CharSequence str, final int start,
+                                           final int end) {
+        int copied = start;
+        int last = end - CDATA_END_LEN;
+        for (int i = start; i <= last; i++) {
+            if (str.charAt(i) == ']' && str.charAt(i + 1) == ']' && str.charAt(i + 2) == '>') {
+                buf.append(str, copied, i);
+                buf.append(CDATA_EMBEDED_END);
+                i += CDATA_END_LEN - 1;
+                copied = i + 1;
+            }
+        }
+        buf.append(str, copied, end);
+    }
+
+    /**
+     * Appends the stack trace of a Throwable, replacing any '<', '>', '&' or '"' characters with the respective
+     * predefined entity references.
+     *
+     * @param buf The buffer to append to.
+     * @param throwable The Throwable.
+     * @param separator The text to append between lines.
+     */
+    public static void appendStackTraceEscapingTags(final StringBuilder buf, final Throwable throwable,
+                                                    final String separator) {
+        appendStackTrace(buf, throwable, separator, false);
+    }
+
+    /**
+     * Appends the stack trace of a Throwable to a CDATA section, handling embeded CDEnd strings (]]>).
+     *
+     * @param buf The buffer to append to.
+     * @param throwable The Throwable.
+     * @param separator The text to append between lines.
+     */
+    public static void appendStackTraceEscapingCDATA(final StringBuilder buf, final Throwable throwable,
+                                                     final String separator) {
+        appendStackTrace(buf, throwable, separator, true);
+    }
+
+    /**
+     * Prints the stack trace and escapes it line by line from the printed buffer, without splitting it into
+     * Strings.
+     */
+    private static void appendStackTrace(final StringBuilder buf, final Throwable throwable,
+                                         final String separator, final boolean cdata) {
+        StringWriter sw = new StringWriter();
+        PrintWriter pw = new PrintWriter(sw);
+        try {
+            throwable.printStackTrace(pw);
+        } catch (RuntimeException ex) {
+            // Ignore any exceptions.
+        }
+        pw.flush();
+        String trace = sw.toString();
+        int length = trace.length();
+        int start = 0;
+        while (start < length) {
+            int end = start;
+            while (end < length && trace.charAt(end) != '\n' && trace.charAt(end) != '\r') {
+                ++end;
+            }
+            if (start > 0) {
+                buf.append(separator);
+            }
+            if (cdata) {
+                appendEscapingCDATA(buf, trace, start, end);
             } else {
-                int start = 0;
-                while (end > -1) {
-                    buf.append(str.substring(start, end));
-                    buf.append(CDATA_EMBEDED_END);
-                    start = end + CDATA_END_LEN;
-                    if (start < str.length()) {
-                        end = str.indexOf(CDATA_END, start);
-                    } else {
-                        return;
-                    }
-                }
-                buf.append(str.substring(start));
+                appendEscapingTags(buf, trace, start, end);
+            }
+            if (end + 1 < length && trace.charAt(end) == '\r' && trace.charAt(end + 1) == '\n') {
+                ++end;
+            }
+            start = end + 1;
+        }
+    }
+
+    private static int indexOfTag(final String input, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            char ch = input.charAt(i);
+            if (ch < '?' && ENTITIES[ch] != null) {
+                return i;
             }
         }
+        return -1;
     }
 }
@@ -29,7 +29,6 @@ import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Stack;
 
 /**
  * Implementation of a LogEvent.
@@ -46,7 +45,7 @@ public class Log4jLogEvent implements LogEvent, Serializable {
     private final long timestamp;
     private final ThrowableProxy throwable;
     private final Map<String, String> mdc;
-    private final Stack<String> ndc;
+    private final ThreadContext.ContextStack ndc;
     private String threadName = null;
     private StackTraceElement location;
 
@@ -60,8 +59,8 @@ public class Log4jLogEvent implements LogEvent, Serializable {
      * @param t A Throwable or null.
      */
     public Log4jLogEvent(String loggerName, Marker marker, String fqcn, Level level, Message message, Throwable t) {
-        this(loggerName, marker, fqcn, level, message, t, ThreadContext.getContext(), ThreadContext.cloneStack(), null,
-             null, System.currentTimeMillis());
+        this(loggerName, marker, fqcn, level, message, t, ThreadContext.getContext(),
+             ThreadContext.getImmutableStack(), null, null, System.currentTimeMillis());
     }
 
     /**
@@ -79,7 +78,8 @@ public class Log4jLogEvent implements LogEvent, Serializable {
      * @param timestamp The timestamp of the event.
      */
     public Log4jLogEvent(String loggerName, Marker marker, String fqcn, Level level, Message message, Throwable t,
-                         Map<String, String> mdc, Stack<String> ndc, String threadName, StackTraceElement location,
+                         Map<String, String> mdc, ThreadContext.ContextStack ndc, String threadName,
+                         StackTraceElement location,
                          long timestamp) {
         name = loggerName;
         this.marker = marker;
@@ -88,7 +88,7 @@ public class Log4jLogEvent implements LogEvent, Serializable {
         this.message = message;
         this.throwable = t == null ? null : new ThrowableProxy(t);
         this.mdc = mdc;
-        this.ndc = ndc;
+        this.ndc = ndc == null ? ThreadContext.EMPTY_STACK : ndc;
         this.timestamp = message instanceof TimestampMessage ? ((TimestampMessage) message).getTimestamp() : timestamp;
         this.threadName = threadName;
         this.location = location;
@@ -174,11 +174,10 @@ public class Log4jLogEvent implements LogEvent, Serializable {
     }
 
     /**
-     * @doubt Allows direct access to the map passed into the constructor, would allow appender
-     * or layout to manipulate event as seen by other appenders.
+     * Returns the context stack captured when the event was created. The stack is immutable.
      * @return The context Stack.
      */
-    public Stack<String> getContextStack() {
+    public ThreadContext.ContextStack getContextStack() {
         return ndc;
     }
 
@@ -267,7 +266,7 @@ public class Log4jLogEvent implements LogEvent, Serializable {
         private final long timestamp;
         private final Throwable throwable;
         private final HashMap<String, String> mdc;
-        private final Stack<String> ndc;
+        private final ThreadContext.ContextStack ndc;
         private String threadName;
         private StackTraceElement location;
 
@@ -88,6 +88,14 @@ public class ThrowableProxy extends Throwable {
     }
 
 
+    /**
+     * Return the Throwable this proxy wraps.
+     * @return The Throwable.
+     */
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
     @Override
     public void setStackTrace(StackTraceElement[] stackTraceElements) {
         throw new UnsupportedOperationException("Cannot set the stack trace on a ThrowableProxy");
@@ -279,19 +287,19 @@ public class ThrowableProxy extends Throwable {
             stackLength = stackTrace.length;
         }
         StackTracePackageElement[] packageArray = new StackTracePackageElement[stackLength];
-        Class clazz = stack.peek();
+        Class clazz = stack.isEmpty() ? null : stack.peek();
         ClassLoader lastLoader = null;
         for (int i = stackLength - 1; i >= 0; --i) {
             String className = stackTrace[i].getClassName();
             // The stack returned from getCurrentStack will be missing entries for  java.lang.reflect.Method.invoke()
             // and its implementation. The Throwable might also contain stack entries that are no longer
             // present as those methods have returned.
-            if (className.equals(clazz.getName())) {
+            if (clazz != null && className.equals(clazz.getName())) {
                 CacheEntry entry = resolvePackageElement(clazz, true);
                 packageArray[i] = entry.element;
                 lastLoader = entry.loader;
                 stack.pop();
-                clazz = stack.peek();
+                clazz = stack.isEmpty() ? null : stack.peek();
             } else {
                 if (map.containsKey(className)) {
                     CacheEntry entry = map.get(className);
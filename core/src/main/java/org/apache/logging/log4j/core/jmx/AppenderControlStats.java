@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * Thread safe counters and an append latency histogram for an AppenderControl.
+ */
+public class AppenderControlStats implements AppenderControlStatsMBean {
+
+    private static final int EVENTS = 0;
+    private static final int FILTERED = 1;
+    private static final int WRITTEN = 2;
+    private static final int ERRORS = 3;
+
+    private static final int MEDIAN = 50;
+    private static final int NINETY_NINE = 99;
+
+    private final String name;
+    private final StripedCounters counters = new StripedCounters(4);
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public AppenderControlStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEventCount() {
+        return counters.get(EVENTS);
+    }
+
+    public long getFilteredCount() {
+        return counters.get(FILTERED);
+    }
+
+    public long getWrittenCount() {
+        return counters.get(WRITTEN);
+    }
+
+    public long getErrorCount() {
+        return counters.get(ERRORS);
+    }
+
+    public long getAverageLatency() {
+        return latency.getAverage();
+    }
+
+    public long getMedianLatency() {
+        return latency.getPercentile(MEDIAN);
+    }
+
+    public long get99thPercentileLatency() {
+        return latency.getPercentile(NINETY_NINE);
+    }
+
+    public long getMaxLatency() {
+        return latency.getMax();
+    }
+
+    public long[] getLatencyHistogram() {
+        return latency.getBuckets();
+    }
+
+    public void reset() {
+        counters.reset();
+        latency.reset();
+    }
+
+    /**
+     * Records an event passed to the AppenderControl.
+     */
+    public void event() {
+        counters.increment(EVENTS);
+    }
+
+    /**
+     * Records an event that was rejected by the Level, the Filter or the Appender's own Filter.
+     */
+    public void filtered() {
+        counters.increment(FILTERED);
+    }
+
+    /**
+     * Records an event the Appender accepted.
+     * @param nanos The time the Appender took in nanoseconds.
+     */
+    public void written(long nanos) {
+        counters.increment(WRITTEN);
+        latency.record(nanos);
+    }
+
+    /**
+     * Records an event the Appender could not be called for or that caused it to throw an exception.
+     */
+    public void error() {
+        counters.increment(ERRORS);
+    }
+
+    @Override
+    public String toString() {
+        return name + " events=" + getEventCount() + ", filtered=" + getFilteredCount() + ", written=" +
+            getWrittenCount() + ", errors=" + getErrorCount();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The statistics of the reference from a LoggerConfig to an Appender. Latencies are in microseconds.
+ */
+public interface AppenderControlStatsMBean {
+
+    String getName();
+
+    long getEventCount();
+
+    long getFilteredCount();
+
+    long getWrittenCount();
+
+    long getErrorCount();
+
+    long getAverageLatency();
+
+    long getMedianLatency();
+
+    long get99thPercentileLatency();
+
+    long getMaxLatency();
+
+    long[] getLatencyHistogram();
+
+    void reset();
+}
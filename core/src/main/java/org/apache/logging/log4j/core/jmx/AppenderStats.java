@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe counters for an Appender.
+ */
+public class AppenderStats implements AppenderStatsMBean {
+
+    private final String name;
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+
+    public AppenderStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getSuccessCount() {
+        return successes.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getBypassedCount() {
+        return bypassed.get();
+    }
+
+    public void reset() {
+        successes.set(0);
+        failures.set(0);
+        bypassed.set(0);
+    }
+
+    /**
+     * Records an event the Appender accepted.
+     */
+    public void success() {
+        successes.incrementAndGet();
+    }
+
+    /**
+     * Records an event that caused the Appender to throw an exception.
+     */
+    public void failure() {
+        failures.incrementAndGet();
+    }
+
+    /**
+     * Records an event that was not passed to the Appender.
+     */
+    public void bypass() {
+        bypassed.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return name + " success=" + getSuccessCount() + ", failure=" + getFailureCount() + ", bypassed=" +
+            getBypassedCount();
+    }
+}
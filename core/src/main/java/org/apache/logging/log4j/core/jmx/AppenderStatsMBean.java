@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * Counters for the events an Appender has been asked to write.
+ */
+public interface AppenderStatsMBean {
+
+    /**
+     * Returns the name of the Appender.
+     * @return The Appender name.
+     */
+    String getName();
+
+    /**
+     * Returns the number of events the Appender accepted.
+     * @return The number of successful events.
+     */
+    long getSuccessCount();
+
+    /**
+     * Returns the number of events that caused the Appender to throw an exception.
+     * @return The number of failed events.
+     */
+    long getFailureCount();
+
+    /**
+     * Returns the number of events that were not passed to the Appender because it was
+     * considered to be unavailable.
+     * @return The number of bypassed events.
+     */
+    long getBypassedCount();
+
+    /**
+     * Sets all the counters to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thread safe statistics for the queue shared by the Appenders of an AsynchAppender.
+ */
+public class AsynchQueueStats implements AsynchQueueStatsMBean {
+
+    private static final int NINETY_NINE = 99;
+
+    private final String name;
+    private final BlockingQueue<?> queue;
+    private final LatencyHistogram timeInQueue = new LatencyHistogram();
+
+    public AsynchQueueStats(String name, BlockingQueue<?> queue) {
+        this.name = name;
+        this.queue = queue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getDequeuedCount() {
+        return timeInQueue.getCount();
+    }
+
+    public long getAverageTimeInQueue() {
+        return timeInQueue.getAverage();
+    }
+
+    public long get99thPercentileTimeInQueue() {
+        return timeInQueue.getPercentile(NINETY_NINE);
+    }
+
+    public long getMaxTimeInQueue() {
+        return timeInQueue.getMax();
+    }
+
+    public long[] getTimeInQueueHistogram() {
+        return timeInQueue.getBuckets();
+    }
+
+    public void reset() {
+        timeInQueue.reset();
+    }
+
+    /**
+     * Records an event taken from the queue.
+     * @param millis The time the event was created.
+     */
+    public void dequeued(long millis) {
+        timeInQueue.record(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis() - millis));
+    }
+
+    @Override
+    public String toString() {
+        return name + " size=" + getQueueSize() + ", dequeued=" + getDequeuedCount();
+    }
+}
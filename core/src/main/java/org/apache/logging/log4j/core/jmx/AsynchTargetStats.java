@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread safe statistics for an Appender the AsynchAppender dispatches to on its own thread.
+ */
+public class AsynchTargetStats implements AsynchTargetStatsMBean {
+
+    private final String name;
+    private final BlockingQueue<?> queue;
+    private final AtomicLong dispatched = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+    private final AtomicLong totalLatency = new AtomicLong();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    public AsynchTargetStats(String name, BlockingQueue<?> queue) {
+        this.name = name;
+        this.queue = queue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public int getQueueCapacity() {
+        return queue.size() + queue.remainingCapacity();
+    }
+
+    public long getDispatchedCount() {
+        return dispatched.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getOverflowCount() {
+        return overflows.get();
+    }
+
+    public long getAverageLatency() {
+        long count = dispatched.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.get() / count);
+    }
+
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatency.get());
+    }
+
+    public void reset() {
+        dispatched.set(0);
+        failures.set(0);
+        overflows.set(0);
+        totalLatency.set(0);
+        maxLatency.set(0);
+    }
+
+    /**
+     * Records an event that was passed to the Appender.
+     * @param latency The nanoseconds from when the event was queued until the Appender returned.
+     * @param success true if the Appender did not throw an exception.
+     */
+    public void dispatched(long latency, boolean success) {
+        dispatched.incrementAndGet();
+        if (!success) {
+            failures.incrementAndGet();
+        }
+        totalLatency.addAndGet(latency);
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+    }
+
+    /**
+     * Records an event that could not be queued.
+     */
+    public void overflow() {
+        overflows.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return name + " queued=" + getQueueSize() + ", dispatched=" + getDispatchedCount() + ", failures=" +
+            getFailureCount() + ", overflows=" + getOverflowCount();
+    }
+}
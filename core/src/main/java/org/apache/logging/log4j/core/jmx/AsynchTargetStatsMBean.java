@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The queue and delivery statistics of an Appender the AsynchAppender dispatches to on its own thread.
+ */
+public interface AsynchTargetStatsMBean {
+
+    /**
+     * Returns the name of the Appender.
+     * @return The Appender name.
+     */
+    String getName();
+
+    /**
+     * Returns the number of events waiting in the queue.
+     * @return The queue depth.
+     */
+    int getQueueSize();
+
+    /**
+     * Returns the maximum number of events the queue can hold.
+     * @return The queue capacity.
+     */
+    int getQueueCapacity();
+
+    /**
+     * Returns the number of events passed to the Appender.
+     * @return The number of dispatched events.
+     */
+    long getDispatchedCount();
+
+    /**
+     * Returns the number of events that caused the Appender to throw an exception.
+     * @return The number of failed events.
+     */
+    long getFailureCount();
+
+    /**
+     * Returns the number of events that were not queued because the queue was full.
+     * @return The number of overflowed events.
+     */
+    long getOverflowCount();
+
+    /**
+     * Returns the average time from when an event was queued until the Appender returned.
+     * @return The average dispatch latency in microseconds.
+     */
+    long getAverageLatency();
+
+    /**
+     * Returns the longest time from when an event was queued until the Appender returned.
+     * @return The maximum dispatch latency in microseconds.
+     */
+    long getMaxLatency();
+
+    /**
+     * Sets all the counters to zero.
+     */
+    void reset();
+}
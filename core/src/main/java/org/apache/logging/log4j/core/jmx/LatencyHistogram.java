@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A histogram of durations with buckets that double in width. The first bucket holds durations of less than a
+ * microsecond, bucket <code>n</code> holds durations from 2<sup>n-1</sup> up to 2<sup>n</sup> microseconds and
+ * the last bucket holds everything longer. Recording is striped like {@link StripedCounters}.
+ */
+public class LatencyHistogram {
+
+    /** The number of buckets. The last bucket starts at about four seconds. */
+    public static final int BUCKETS = 24;
+
+    private static final int TOTAL = BUCKETS;
+
+    private final StripedCounters counters = new StripedCounters(BUCKETS + 1);
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records a duration.
+     * @param nanos The duration in nanoseconds.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counters.increment(bucket(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counters.add(TOTAL, nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    private static int bucket(long micros) {
+        int bucket = Long.SIZE - Long.numberOfLeadingZeros(micros);
+        return bucket < BUCKETS ? bucket : BUCKETS - 1;
+    }
+
+    /**
+     * Returns the number of durations recorded.
+     * @return The number of durations.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; ++i) {
+            count += counters.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of durations recorded in each bucket.
+     * @return The counts, shortest bucket first.
+     */
+    public long[] getBuckets() {
+        long[] buckets = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; ++i) {
+            buckets[i] = counters.get(i);
+        }
+        return buckets;
+    }
+
+    /**
+     * Returns the average duration.
+     * @return The average in microseconds.
+     */
+    public long getAverage() {
+        long count = getCount();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(counters.get(TOTAL) / count);
+    }
+
+    /**
+     * Returns the longest duration.
+     * @return The maximum in microseconds.
+     */
+    public long getMax() {
+        return TimeUnit.NANOSECONDS.toMicros(max.get());
+    }
+
+    /**
+     * Returns an upper bound of the given percentile, which is the upper bound of the bucket the percentile
+     * falls in, but never more than the longest duration recorded.
+     * @param percentile The percentile, between 0 and 100.
+     * @return The duration in microseconds.
+     */
+    public long getPercentile(double percentile) {
+        long[] buckets = getBuckets();
+        long count = 0;
+        for (long bucket : buckets) {
+            count += bucket;
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; ++i) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(1L << i, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Discards all the recorded durations.
+     */
+    public void reset() {
+        counters.reset();
+        max.set(0);
+    }
+}
@@ -28,7 +28,7 @@ import java.util.List;
 /**
  * Preliminary implementation for testing with JBoss.
  */
-public class Log4jManager {
+public class Log4jManager implements Log4jManagerMBean {
 
     private static final StatusLogger LOGGER = StatusLogger.getLogger();
 
@@ -41,4 +41,12 @@ public class Log4jManager {
     public List<StatusData> getStatusData() {
         return LOGGER.getStatusData();
     }
+
+    public boolean isMetricsEnabled() {
+        return Metrics.isEnabled();
+    }
+
+    public void setMetricsEnabled(boolean enabled) {
+        Metrics.setEnabled(enabled);
+    }
 }
@@ -29,4 +29,8 @@ public interface Log4jManagerMBean {
     List<LoggerContext> getLoggerContexts();
 
     List<StatusData> getStatusData();
+
+    boolean isMetricsEnabled();
+
+    void setMetricsEnabled(boolean enabled);
 }
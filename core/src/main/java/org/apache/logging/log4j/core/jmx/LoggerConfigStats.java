@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * Thread safe counters for a LoggerConfig.
+ */
+public class LoggerConfigStats implements LoggerConfigStatsMBean {
+
+    private static final int EVENTS = 0;
+    private static final int FILTERED = 1;
+
+    private final String name;
+    private final StripedCounters counters = new StripedCounters(2);
+
+    public LoggerConfigStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getEventCount() {
+        return counters.get(EVENTS);
+    }
+
+    public long getFilteredCount() {
+        return counters.get(FILTERED);
+    }
+
+    public void reset() {
+        counters.reset();
+    }
+
+    /**
+     * Records an event passed to the LoggerConfig.
+     */
+    public void event() {
+        counters.increment(EVENTS);
+    }
+
+    /**
+     * Records an event the LoggerConfig's Filter rejected.
+     */
+    public void filtered() {
+        counters.increment(FILTERED);
+    }
+
+    @Override
+    public String toString() {
+        return name + " events=" + getEventCount() + ", filtered=" + getFilteredCount();
+    }
+}
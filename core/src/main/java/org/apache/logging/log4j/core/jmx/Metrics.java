@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * The switch for recording the statistics of LoggerConfigs, Appenders and OutputStreamManagers. The statistics
+ * are only updated while recording is enabled, so when it is disabled each place that records costs a single test
+ * of a volatile field. They are registered as MBeans once recording is first enabled. Recording is disabled unless
+ * the system property <code>log4j.metrics</code> is true and may be switched at runtime through
+ * {@link Log4jManagerMBean}.
+ */
+public final class Metrics {
+
+    /**
+     * The system property that enables recording at startup.
+     */
+    public static final String METRICS_PROPERTY = "log4j.metrics";
+
+    private static volatile boolean enabled = Boolean.getBoolean(METRICS_PROPERTY);
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns whether statistics are being recorded.
+     * @return true if statistics are recorded.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording statistics. Statistics recorded before recording was stopped are kept.
+     * @param enable true to record statistics.
+     */
+    public static void setEnabled(boolean enable) {
+        boolean was = enabled;
+        enabled = enable;
+        if (enable && !was) {
+            Server.registerMetrics();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+/**
+ * Thread safe counters for an OutputStreamManager.
+ */
+public class OutputStreamManagerStats implements OutputStreamManagerStatsMBean {
+
+    private static final int WRITES = 0;
+    private static final int BYTES = 1;
+    private static final int ERRORS = 2;
+
+    private final String name;
+    private final StripedCounters counters = new StripedCounters(3);
+
+    public OutputStreamManagerStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWriteCount() {
+        return counters.get(WRITES);
+    }
+
+    public long getBytesWritten() {
+        return counters.get(BYTES);
+    }
+
+    public long getErrorCount() {
+        return counters.get(ERRORS);
+    }
+
+    public void reset() {
+        counters.reset();
+    }
+
+    /**
+     * Records a successful write.
+     * @param bytes The number of bytes written.
+     */
+    public void written(int bytes) {
+        counters.increment(WRITES);
+        counters.add(BYTES, bytes);
+    }
+
+    /**
+     * Records a write that failed.
+     */
+    public void error() {
+        counters.increment(ERRORS);
+    }
+
+    @Override
+    public String toString() {
+        return name + " writes=" + getWriteCount() + ", bytes=" + getBytesWritten() + ", errors=" + getErrorCount();
+    }
+}
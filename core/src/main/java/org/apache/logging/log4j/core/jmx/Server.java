@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.status.StatusLogger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registers Log4j MBeans with the platform MBeanServer. Failures are reported to the StatusLogger and
+ * never prevent logging.
+ */
+public final class Server {
+
+    /**
+     * The domain of all Log4j MBeans.
+     */
+    public static final String DOMAIN = "org.apache.logging.log4j2";
+
+    private static final StatusLogger LOGGER = StatusLogger.getLogger();
+
+    /** The MBeans registered by this class. */
+    private static final ConcurrentMap<ObjectName, Object> REGISTERED = new ConcurrentHashMap<ObjectName, Object>();
+
+    /** The statistics that are registered once {@link Metrics} are enabled. */
+    private static final ConcurrentMap<ObjectName, Object> METRICS = new ConcurrentHashMap<ObjectName, Object>();
+
+    /** The name of the LoggerContext each Configuration is used by. */
+    private static final Map<Configuration, String> CONTEXTS =
+        Collections.synchronizedMap(new WeakHashMap<Configuration, String>());
+
+    private Server() {
+    }
+
+    /**
+     * Creates the name of a Log4j MBean.
+     * @param type The type of the component.
+     * @param name The name of the component.
+     * @param properties Pairs of keys and values of additional properties that distinguish components of the
+     * same name. Pairs with a null key or value are ignored.
+     * @return The ObjectName or null if the name is invalid.
+     */
+    public static ObjectName createName(String type, String name, String... properties) {
+        StringBuilder sb = new StringBuilder(DOMAIN);
+        sb.append(":type=").append(ObjectName.quote(type)).append(",name=").append(ObjectName.quote(name));
+        for (int i = 0; i + 1 < properties.length; i += 2) {
+            if (properties[i] != null && properties[i + 1] != null) {
+                sb.append(",").append(properties[i]).append("=").append(ObjectName.quote(properties[i + 1]));
+            }
+        }
+        try {
+            return new ObjectName(sb.toString());
+        } catch (Exception ex) {
+            LOGGER.warn("Invalid MBean name " + sb, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Records the name of the LoggerContext a Configuration is used by so that the MBeans of components with
+     * the same name in different LoggerContexts have distinct names.
+     * @param config The Configuration.
+     * @param contextName The name of the LoggerContext.
+     */
+    public static void setContextName(Configuration config, String contextName) {
+        if (config != null && contextName != null) {
+            CONTEXTS.put(config, contextName);
+        }
+    }
+
+    /**
+     * Returns the name of the LoggerContext a Configuration is used by.
+     * @param config The Configuration.
+     * @return The name of the LoggerContext or null if the Configuration has not been used by one.
+     */
+    public static String getContextName(Configuration config) {
+        return config == null ? null : CONTEXTS.get(config);
+    }
+
+    /**
+     * Registers an MBean, replacing any MBean that is registered with the same name.
+     * @param objectName The name to register the MBean with.
+     * @param mbean The MBean.
+     */
+    public static void register(ObjectName objectName, Object mbean) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+            REGISTERED.put(objectName, mbean);
+        } catch (Exception ex) {
+            LOGGER.warn("Unable to register MBean " + objectName, ex);
+        }
+    }
+
+    /**
+     * Registers statistics that are only updated while {@link Metrics#isEnabled()} is true. They are registered
+     * now if metrics are enabled, otherwise when metrics are first enabled.
+     * @param objectName The name to register the MBean with.
+     * @param mbean The MBean.
+     */
+    public static void registerMetrics(ObjectName objectName, Object mbean) {
+        if (objectName == null) {
+            return;
+        }
+        METRICS.put(objectName, mbean);
+        if (Metrics.isEnabled()) {
+            register(objectName, mbean);
+        }
+    }
+
+    /**
+     * Registers the statistics passed to {@link #registerMetrics(ObjectName, Object)} that are not registered yet.
+     */
+    static void registerMetrics() {
+        for (Map.Entry<ObjectName, Object> entry : METRICS.entrySet()) {
+            if (REGISTERED.get(entry.getKey()) != entry.getValue()) {
+                register(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Unregisters an MBean if it is still the one registered with the name.
+     * @param objectName The name the MBean was registered with.
+     * @param mbean The MBean.
+     */
+    public static void unregister(ObjectName objectName, Object mbean) {
+        if (objectName != null) {
+            METRICS.remove(objectName, mbean);
+        }
+        if (objectName == null || !REGISTERED.remove(objectName, mbean)) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (Exception ex) {
+            LOGGER.warn("Unable to unregister MBean " + objectName, ex);
+        }
+    }
+}
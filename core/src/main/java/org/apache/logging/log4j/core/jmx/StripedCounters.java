@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed set of counters that threads can update without contending with each other. Each thread adds to one of
+ * several stripes, chosen by its id, and reading a counter sums the stripes. The counters of a stripe are kept
+ * together and each stripe starts on its own cache line, so threads updating different stripes do not share
+ * cache lines.
+ */
+public class StripedCounters {
+
+    /** The number of longs in a 64 byte cache line. */
+    private static final int LINE = 8;
+
+    private static final int MAX_STRIPES = 16;
+
+    private static final int STRIPES = stripes();
+
+    private final AtomicLongArray cells;
+    private final int size;
+    private final int stride;
+
+    /**
+     * Constructor.
+     * @param size The number of counters.
+     */
+    public StripedCounters(int size) {
+        this.size = size;
+        this.stride = (size + LINE - 1) / LINE * LINE;
+        // One extra line in front of the first stripe keeps it off the cache line of the array header.
+        this.cells = new AtomicLongArray(LINE + STRIPES * stride);
+    }
+
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < processors && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    /**
+     * Returns the index of a counter in the stripe of the current thread.
+     * @param counter The counter.
+     * @return The index into the cells.
+     */
+    private int index(int counter) {
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        return LINE + stripe * stride + counter;
+    }
+
+    /**
+     * Returns the number of counters.
+     * @return The number of counters.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds one to a counter.
+     * @param counter The counter.
+     */
+    public void increment(int counter) {
+        cells.incrementAndGet(index(counter));
+    }
+
+    /**
+     * Adds a value to a counter.
+     * @param counter The counter.
+     * @param delta The value to add.
+     */
+    public void add(int counter, long delta) {
+        cells.addAndGet(index(counter), delta);
+    }
+
+    /**
+     * Returns the value of a counter. The value is not a snapshot; updates made while the stripes are summed may
+     * or may not be included.
+     * @param counter The counter.
+     * @return The sum of the counter over all stripes.
+     */
+    public long get(int counter) {
+        long sum = 0;
+        for (int i = LINE + counter; i < cells.length(); i += stride) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Sets all the counters to zero.
+     */
+    public void reset() {
+        for (int i = 0; i < cells.length(); ++i) {
+            cells.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the LogEvents written by a {@link BinaryLayout}. Each decoder must read a single stream,
+ * such as one socket connection, from its start.
+ * <p>
+ * Lengths and counts are checked before anything is allocated for them, so a corrupt or hostile stream
+ * causes a StreamCorruptedException rather than exhausting memory.
+ */
+public class BinaryEventDecoder {
+
+    /** The maximum number of streams whose dictionaries are retained. */
+    private static final int MAX_STREAMS = 64;
+    /** The maximum length in bytes of a string or serialized object. */
+    private static final int MAX_LENGTH = 16 * 1024 * 1024;
+    /** The maximum number of marker parents, context map entries or context stack values. */
+    private static final int MAX_COUNT = 64 * 1024;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_SHIFT = 7;
+    private static final int MAX_VARINT_SHIFT = 28;
+    private static final int TYPE_MASK = (1 << BinaryLayout.TYPE_BITS) - 1;
+    private static final String UTF8 = "UTF-8";
+
+    private final DataInputStream in;
+
+    private final Map<Integer, List<String>> dictionaries = new LinkedHashMap<Integer, List<String>>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<String>> eldest) {
+            return size() > MAX_STREAMS;
+        }
+    };
+
+    private List<String> dictionary;
+
+    public BinaryEventDecoder(InputStream is) {
+        this.in = is instanceof DataInputStream ? (DataInputStream) is : new DataInputStream(is);
+    }
+
+    /**
+     * Reads the next LogEvent, skipping any headers.
+     * @return The LogEvent.
+     * @throws java.io.EOFException if the end of the stream has been reached.
+     * @throws IOException if the stream cannot be read or is not in the binary format.
+     * @throws ClassNotFoundException if a serialized Message or Throwable cannot be loaded.
+     */
+    public LogEvent read() throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        while (tag == BinaryLayout.HEADER) {
+            int magic = in.readInt();
+            byte version = in.readByte();
+            if (magic != BinaryLayout.MAGIC || version != BinaryLayout.VERSION) {
+                throw new StreamCorruptedException("Unsupported binary log stream " + Integer.toHexString(magic) +
+                    " version " + version);
+            }
+            tag = in.readByte();
+        }
+        if (tag != BinaryLayout.EVENT) {
+            throw new StreamCorruptedException("Invalid record type " + tag);
+        }
+        Integer stream = Integer.valueOf(readVarint());
+        int flags = in.readByte();
+        dictionary = dictionaries.get(stream);
+        if (dictionary == null) {
+            dictionary = new ArrayList<String>();
+            dictionaries.put(stream, dictionary);
+        } else if ((flags & BinaryLayout.FLAG_RESET) != 0) {
+            dictionary.clear();
+        }
+        long millis = in.readLong();
+        Level level = Level.toLevel(readString());
+        String loggerName = readString();
+        String fqcn = readString();
+        String threadName = readString();
+        Marker marker = null;
+        if ((flags & BinaryLayout.FLAG_MARKER) != 0) {
+            String name = readString();
+            int count = readCount("marker parent");
+            String[] parents = new String[count];
+            for (int i = 0; i < count; ++i) {
+                parents[i] = readString();
+            }
+            for (int i = count - 1; i >= 0; --i) {
+                marker = MarkerManager.getMarker(parents[i], marker);
+            }
+            marker = MarkerManager.getMarker(name, marker);
+        }
+        Message message;
+        if (in.readByte() == BinaryLayout.MESSAGE_OBJECT) {
+            message = (Message) deserialize(readBlob());
+        } else {
+            message = new SimpleMessage(readString());
+        }
+        int size = readCount("context map");
+        Map<String, String> map = new HashMap<String, String>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; ++i) {
+            String key = readString();
+            map.put(key, readString());
+        }
+        size = readCount("context stack");
+        ThreadContext.ContextStack stack = ThreadContext.EMPTY_STACK;
+        for (int i = 0; i < size; ++i) {
+            stack = stack.push(readString());
+        }
+        StackTraceElement location = null;
+        if ((flags & BinaryLayout.FLAG_LOCATION) != 0) {
+            String className = readString();
+            String methodName = readString();
+            String fileName = readString();
+            location = new StackTraceElement(className, methodName, fileName, in.readInt());
+        }
+        Throwable thrown = null;
+        if ((flags & BinaryLayout.FLAG_THROWN) != 0) {
+            thrown = (Throwable) deserialize(readBlob());
+        }
+        return new Log4jLogEvent(loggerName, marker, fqcn, level, message, thrown, map, stack, threadName,
+            location, millis);
+    }
+
+    /**
+     * Closes the underlying stream.
+     * @throws IOException if an error occurs.
+     */
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readString() throws IOException {
+        int value = readVarint();
+        int type = value & TYPE_MASK;
+        int operand = value >>> BinaryLayout.TYPE_BITS;
+        switch (type) {
+            case BinaryLayout.NULL:
+                return null;
+            case BinaryLayout.REFERENCE:
+                if (operand >= dictionary.size()) {
+                    throw new StreamCorruptedException("Undefined string " + operand);
+                }
+                return dictionary.get(operand);
+            default:
+                byte[] bytes = new byte[checkLength(operand)];
+                in.readFully(bytes);
+                String str = new String(bytes, UTF8);
+                if (type == BinaryLayout.DEFINE) {
+                    dictionary.add(str);
+                }
+                return str;
+        }
+    }
+
+    private byte[] readBlob() throws IOException {
+        byte[] bytes = new byte[checkLength(readVarint())];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private int readCount(String what) throws IOException {
+        int count = readVarint();
+        if (count < 0 || count > MAX_COUNT) {
+            throw new StreamCorruptedException("Invalid " + what + " count " + count);
+        }
+        return count;
+    }
+
+    private static int checkLength(int length) throws StreamCorruptedException {
+        if (length < 0 || length > MAX_LENGTH) {
+            throw new StreamCorruptedException("Invalid length " + length);
+        }
+        return length;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_SHIFT) {
+            int b = in.readUnsignedByte();
+            value |= (b & VARINT_MASK) << shift;
+            if ((b & VARINT_MORE) == 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid variable length integer");
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        try {
+            return ois.readObject();
+        } finally {
+            ois.close();
+        }
+    }
+}
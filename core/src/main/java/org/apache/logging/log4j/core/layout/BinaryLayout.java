@@ -0,0 +1,346 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StringFormattedMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Formats a LogEvent in a compact binary form that can be read with a {@link BinaryEventDecoder}.
+ * <p>
+ * Logger names, thread names, levels, markers, context keys and locations are written once and then
+ * referred to by number for as long as the stream remains open. The dictionary is cleared whenever it
+ * reaches its maximum size. Messages that are only text are written as text. Other Messages and Throwables
+ * are written using Java serialization.
+ * <p>
+ * The format of version 1 is:
+ * <pre>
+ * header  := HEADER magic:int version:byte
+ * event   := EVENT stream:varint flags:byte millis:long level:str logger:str fqcn:str thread:str
+ *            [marker:str parentCount:varint parent:str*]        if flags &amp; MARKER
+ *            messageType:byte message:(str | blob)
+ *            mapSize:varint (key:str value:str)*
+ *            stackSize:varint value:str*
+ *            [class:str method:str file:str line:int]         if flags &amp; LOCATION
+ *            [thrown:blob]                                     if flags &amp; THROWN
+ * str     := NULL | LITERAL length:varint utf8 | DEFINE length:varint utf8 | REFERENCE id:varint
+ * blob    := length:varint bytes
+ * </pre>
+ * A string that is defined is assigned the next number in the dictionary of its stream. The stream number
+ * allows several Layouts to share one connection.
+ */
+@Plugin(name = "BinaryLayout", type = "Core", elementType = "layout", printObject = true)
+public final class BinaryLayout extends LayoutBase<LogEvent> implements StatefulLayout {
+
+    /** The tag of a header. */
+    public static final byte HEADER = 0x4C;
+    /** The tag of an event. */
+    public static final byte EVENT = 0x45;
+    /** Identifies the binary format. */
+    public static final int MAGIC = 0x344A4221;
+    /** The version of the format. */
+    public static final byte VERSION = 1;
+
+    static final int NULL = 0;
+    static final int LITERAL = 1;
+    static final int DEFINE = 2;
+    static final int REFERENCE = 3;
+    static final int TYPE_BITS = 2;
+
+    static final int FLAG_RESET = 0x01;
+    static final int FLAG_MARKER = 0x02;
+    static final int FLAG_LOCATION = 0x04;
+    static final int FLAG_THROWN = 0x08;
+
+    static final byte MESSAGE_TEXT = 0;
+    static final byte MESSAGE_OBJECT = 1;
+
+    private static final int DEFAULT_MAX_ENTRIES = 4096;
+    private static final int BUFFER_SIZE = 512;
+    private static final int VARINT_MASK = 0x7F;
+    private static final int VARINT_MORE = 0x80;
+    private static final int VARINT_SHIFT = 7;
+    private static final String UTF8 = "UTF-8";
+
+    private static final Random RANDOM = new Random();
+
+    private final int stream = RANDOM.nextInt() & Integer.MAX_VALUE;
+    private final int maxEntries;
+    private final Map<String, Integer> dictionary = new HashMap<String, Integer>();
+    private boolean reset;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(BUFFER_SIZE);
+    private final DataOutputStream out = new DataOutputStream(buffer);
+
+    private BinaryLayout(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Formats a {@link org.apache.logging.log4j.core.LogEvent} in the binary format.
+     * @param event The LogEvent.
+     * @return the formatted LogEvent.
+     */
+    public synchronized byte[] format(final LogEvent event) {
+        buffer.reset();
+        if (dictionary.size() >= maxEntries) {
+            dictionary.clear();
+            reset = true;
+        }
+        int mark = dictionary.size();
+        boolean wasReset = reset;
+        try {
+            Marker marker = event.getMarker();
+            StackTraceElement location = event.getSource();
+            Throwable thrown = event.getThrown();
+            int flags = (reset ? FLAG_RESET : 0) | (marker != null ? FLAG_MARKER : 0) |
+                (location != null ? FLAG_LOCATION : 0) | (thrown != null ? FLAG_THROWN : 0);
+            reset = false;
+            out.writeByte(EVENT);
+            writeVarint(stream);
+            out.writeByte(flags);
+            out.writeLong(event.getMillis());
+            writeString(event.getLevel().name(), true);
+            writeString(event.getLoggerName(), true);
+            writeString(event.getFQCN(), true);
+            writeString(event.getThreadName(), true);
+            if (marker != null) {
+                writeString(marker.getName(), true);
+                List<String> parents = new ArrayList<String>();
+                for (Marker parent = marker.getParent(); parent != null; parent = parent.getParent()) {
+                    parents.add(parent.getName());
+                }
+                writeVarint(parents.size());
+                for (String parent : parents) {
+                    writeString(parent, true);
+                }
+            }
+            writeMessage(event.getMessage());
+            Map<String, String> map = event.getContextMap();
+            if (map == null) {
+                writeVarint(0);
+            } else {
+                writeVarint(map.size());
+                for (Map.Entry<String, String> entry : map.entrySet()) {
+                    writeString(entry.getKey(), true);
+                    writeString(entry.getValue(), false);
+                }
+            }
+            ThreadContext.ContextStack stack = event.getContextStack();
+            if (stack == null) {
+                writeVarint(0);
+            } else {
+                writeVarint(stack.getDepth());
+                for (String value : stack) {
+                    writeString(value, false);
+                }
+            }
+            if (location != null) {
+                writeString(location.getClassName(), true);
+                writeString(location.getMethodName(), true);
+                writeString(location.getFileName(), true);
+                out.writeInt(location.getLineNumber());
+            }
+            if (thrown != null) {
+                writeBlob(serializeThrowable(thrown));
+            }
+            out.flush();
+        } catch (IOException ioe) {
+            // The receiver never sees this event, so the strings it defined must be defined again.
+            LOGGER.error("Binary formatting of Logging Event failed.", ioe);
+            rollback(mark, wasReset);
+            return new byte[0];
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Formats a LogEvent as a record that can be decoded on its own, for transports such as JMS where
+     * each record may reach a different receiver. The record starts with the header and defines every
+     * string it uses.
+     * @param event The LogEvent.
+     * @return the header followed by the formatted LogEvent.
+     */
+    public synchronized byte[] formatRecord(final LogEvent event) {
+        reset();
+        byte[] header = getHeader();
+        byte[] body = format(event);
+        reset();
+        byte[] record = new byte[header.length + body.length];
+        System.arraycopy(header, 0, record, 0, header.length);
+        System.arraycopy(body, 0, record, header.length, body.length);
+        return record;
+    }
+
+    /**
+     * Returns the LogEvent.
+     * @param event The Logging Event.
+     * @return The LogEvent.
+     */
+    public LogEvent formatAs(final LogEvent event) {
+        return event;
+    }
+
+    /**
+     * Clears the dictionary. Called when the stream is replaced, before the header is written again.
+     */
+    public synchronized void reset() {
+        dictionary.clear();
+        reset = false;
+    }
+
+    @Override
+    public byte[] getHeader() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+        try {
+            dos.writeByte(HEADER);
+            dos.writeInt(MAGIC);
+            dos.writeByte(VERSION);
+            dos.close();
+        } catch (IOException ioe) {
+            LOGGER.error("Unable to generate binary header", ioe);
+        }
+        return baos.toByteArray();
+    }
+
+    private void writeMessage(Message message) throws IOException {
+        if (message instanceof SimpleMessage || message instanceof ParameterizedMessage ||
+            message instanceof StringFormattedMessage || !(message instanceof Serializable)) {
+            out.writeByte(MESSAGE_TEXT);
+            writeString(message == null ? null : message.getFormattedMessage(), false);
+        } else {
+            byte[] bytes;
+            try {
+                bytes = serialize(message);
+            } catch (IOException ioe) {
+                LOGGER.warn("Unable to serialize " + message.getClass().getName() + ", writing it as text", ioe);
+                out.writeByte(MESSAGE_TEXT);
+                writeString(message.getFormattedMessage(), false);
+                return;
+            }
+            out.writeByte(MESSAGE_OBJECT);
+            writeBlob(bytes);
+        }
+    }
+
+    private void rollback(int mark, boolean wasReset) {
+        Iterator<Integer> iter = dictionary.values().iterator();
+        while (iter.hasNext()) {
+            if (iter.next() >= mark) {
+                iter.remove();
+            }
+        }
+        reset = wasReset;
+    }
+
+    private void writeString(String str, boolean shared) throws IOException {
+        if (str == null) {
+            writeVarint(NULL);
+            return;
+        }
+        if (shared) {
+            Integer id = dictionary.get(str);
+            if (id != null) {
+                writeVarint((id << TYPE_BITS) | REFERENCE);
+                return;
+            }
+            dictionary.put(str, dictionary.size());
+        }
+        byte[] bytes = str.getBytes(UTF8);
+        writeVarint((bytes.length << TYPE_BITS) | (shared ? DEFINE : LITERAL));
+        out.write(bytes);
+    }
+
+    private void writeBlob(byte[] bytes) throws IOException {
+        writeVarint(bytes.length);
+        out.write(bytes);
+    }
+
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~VARINT_MASK) != 0) {
+            out.writeByte((value & VARINT_MASK) | VARINT_MORE);
+            value >>>= VARINT_SHIFT;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Serializes a Throwable. If it cannot be serialized, for example because it has a field that is not
+     * Serializable, a Throwable holding its text and stack trace is serialized instead.
+     */
+    private static byte[] serializeThrowable(Throwable thrown) throws IOException {
+        try {
+            return serialize(thrown);
+        } catch (IOException ioe) {
+            LOGGER.warn("Unable to serialize " + thrown.getClass().getName() + ", writing it as text", ioe);
+            return serialize(toText(thrown));
+        }
+    }
+
+    private static Throwable toText(Throwable thrown) {
+        Throwable text = new Throwable(thrown.toString());
+        text.setStackTrace(thrown.getStackTrace());
+        Throwable cause = thrown.getCause();
+        if (cause != null) {
+            text.initCause(toText(cause));
+        }
+        return text;
+    }
+
+    private static byte[] serialize(Object obj) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ObjectOutputStream oos = new ObjectOutputStream(baos);
+        oos.writeObject(obj);
+        oos.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Create a BinaryLayout.
+     * @param maxEntries The maximum number of strings to hold in the dictionary before it is cleared.
+     * @return A BinaryLayout.
+     */
+    @PluginFactory
+    public static BinaryLayout createLayout(@PluginAttr("maxEntries") String maxEntries) {
+        int max = maxEntries == null ? DEFAULT_MAX_ENTRIES : Integer.parseInt(maxEntries);
+        if (max <= 0) {
+            LOGGER.warn("Invalid maxEntries " + maxEntries + ", using " + DEFAULT_MAX_ENTRIES);
+            max = DEFAULT_MAX_ENTRIES;
+        }
+        return new BinaryLayout(max);
+    }
+}
@@ -23,15 +23,8 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttr;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.helpers.Transform;
 
-import java.io.IOException;
-import java.io.InterruptedIOException;
-import java.io.LineNumberReader;
-import java.io.PrintWriter;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.lang.management.ManagementFactory;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
 
 /**
  * This layout outputs events in a HTML table.
@@ -82,7 +75,7 @@ public final class HTMLLayout extends AbstractStringLayout {
         sbuf.append(event.getMillis() - jvmStartTime);
         sbuf.append("</td>").append(LINE_SEP);
 
-        String escapedThread = Transform.escapeTags(event.getThreadName());
+        String escapedThread = Transform.escapeTagsCached(event.getThreadName());
         sbuf.append("<td title=\"").append(escapedThread).append(" thread\">");
         sbuf.append(escapedThread);
         sbuf.append("</td>").append(LINE_SEP);
@@ -90,18 +83,18 @@ public final class HTMLLayout extends AbstractStringLayout {
         sbuf.append("<td title=\"Level\">");
         if (event.getLevel().equals(Level.DEBUG)) {
             sbuf.append("<font color=\"#339933\">");
-            sbuf.append(Transform.escapeTags(String.valueOf(event.getLevel())));
+            sbuf.append(Transform.escapeTagsCached(String.valueOf(event.getLevel())));
             sbuf.append("</font>");
         } else if (event.getLevel().isAtLeastAsSpecificAs(Level.WARN)) {
             sbuf.append("<font color=\"#993300\"><strong>");
-            sbuf.append(Transform.escapeTags(String.valueOf(event.getLevel())));
+            sbuf.append(Transform.escapeTagsCached(String.valueOf(event.getLevel())));
             sbuf.append("</strong></font>");
         } else {
-            sbuf.append(Transform.escapeTags(String.valueOf(event.getLevel())));
+            sbuf.append(Transform.escapeTagsCached(String.valueOf(event.getLevel())));
         }
         sbuf.append("</td>").append(LINE_SEP);
 
-        String escapedLogger = Transform.escapeTags(event.getLoggerName());
+        String escapedLogger = Transform.escapeTagsCached(event.getLoggerName());
         if (escapedLogger.length() == 0) {
             escapedLogger = "root";
         }
@@ -112,76 +105,44 @@ public final class HTMLLayout extends AbstractStringLayout {
         if (locationInfo) {
             StackTraceElement element = event.getSource();
             sbuf.append("<td>");
-            sbuf.append(Transform.escapeTags(element.getFileName()));
+            Transform.appendEscapingTags(sbuf, element.getFileName());
             sbuf.append(':');
             sbuf.append(element.getLineNumber());
             sbuf.append("</td>").append(LINE_SEP);
         }
 
         sbuf.append("<td title=\"Message\">");
-        sbuf.append(Transform.escapeTags(event.getMessage().getFormattedMessage()));
+        Transform.appendEscapingTags(sbuf, event.getMessage().getFormattedMessage());
         sbuf.append("</td>").append(LINE_SEP);
         sbuf.append("</tr>").append(LINE_SEP);
 
-        if (event.getContextStack().size() > 0) {
+        if (!event.getContextStack().isEmpty()) {
             sbuf.append("<tr><td bgcolor=\"#EEEEEE\" style=\"font-size : xx-small;\" colspan=\"6\" ");
             sbuf.append("title=\"Nested Diagnostic Context\">");
-            sbuf.append("NDC: ").append(Transform.escapeTags(event.getContextStack().toString()));
+            sbuf.append("NDC: ");
+            Transform.appendEscapingTags(sbuf, event.getContextStack().toString());
             sbuf.append("</td></tr>").append(LINE_SEP);
         }
 
         if (event.getContextMap().size() > 0) {
             sbuf.append("<tr><td bgcolor=\"#EEEEEE\" style=\"font-size : xx-small;\" colspan=\"6\" ");
             sbuf.append("title=\"Mapped Diagnostic Context\">");
-            sbuf.append("MDC: ").append(Transform.escapeTags(event.getContextMap().toString()));
+            sbuf.append("MDC: ");
+            Transform.appendEscapingTags(sbuf, event.getContextMap().toString());
             sbuf.append("</td></tr>").append(LINE_SEP);
         }
 
         Throwable throwable = event.getThrown();
         if (throwable != null) {
             sbuf.append("<tr><td bgcolor=\"#993300\" style=\"color:White; font-size : xx-small;\" colspan=\"6\">");
-            appendThrowableAsHTML(throwable, sbuf);
+            Transform.appendStackTraceEscapingTags(sbuf, throwable, LINE_SEP + TRACE_PREFIX);
+            sbuf.append(LINE_SEP);
             sbuf.append("</td></tr>").append(LINE_SEP);
         }
 
         return sbuf.toString();
     }
 
-    private void appendThrowableAsHTML(Throwable throwable, StringBuilder sbuf) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        try {
-            throwable.printStackTrace(pw);
-        } catch (RuntimeException ex) {
-            // Ignore the exception.
-        }
-        pw.flush();
-        LineNumberReader reader = new LineNumberReader(new StringReader(sw.toString()));
-        ArrayList<String> lines = new ArrayList<String>();
-        try {
-          String line = reader.readLine();
-          while (line != null) {
-            lines.add(line);
-            line = reader.readLine();
-          }
-        } catch (IOException ex) {
-            if (ex instanceof InterruptedIOException) {
-                Thread.currentThread().interrupt();
-            }
-            lines.add(ex.toString());
-        }
-        boolean first = true;
-        for (String line : lines) {
-            if (!first) {
-                sbuf.append(TRACE_PREFIX);
-            } else {
-                first = false;
-            }
-            sbuf.append(Transform.escapeTags(line));
-            sbuf.append(LINE_SEP);
-        }
-    }
-
     /**
      * Returns appropriate HTML headers.
      * @return The header as a byte array.
@@ -0,0 +1,452 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttr;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.helpers.Transform;
+import org.apache.logging.log4j.core.impl.ThrowableProxy;
+import org.apache.logging.log4j.message.MapMessage;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+/**
+ * Formats each LogEvent as a JSON object followed by a newline. By default the object is indented over several
+ * lines; in compact mode it is written on a single line, so that the output is a stream of JSON lines.
+ * <p/>
+ * <p>The object contains the timestamp, level, logger name, thread name and message. The marker, the entries of
+ * a MapMessage or StructuredDataMessage, the context stack, the context map, the location and the throwable with
+ * its frames are included depending on the configuration. Map entries are written as JSON objects and the
+ * context stack and frames as arrays.
+ * <p/>
+ * <p>Each thread formats into its own reusable buffer. When the charset is UTF-8 the buffer is encoded directly
+ * into the byte array returned by {@link #format(LogEvent)} without creating a String, which also avoids the
+ * copy String.getBytes makes.
+ */
+@Plugin(name = "JSONLayout", type = "Core", elementType = "layout", printObject = true)
+public class JSONLayout extends AbstractStringLayout {
+
+    private static final int DEFAULT_SIZE = 512;
+
+    /** Buffers that grew larger than this are not kept for the next event. */
+    private static final int MAX_REUSED_SIZE = 64 * 1024;
+
+    private static final String INDENT = "  ";
+
+    private static final String UTF_8 = "UTF-8";
+
+    private static final ThreadLocal<StringBuilder> BUFFERS = new ThreadLocal<StringBuilder>();
+
+    private static final ThreadLocal<char[]> CHARS = new ThreadLocal<char[]>();
+
+    private final boolean locationInfo;
+    private final boolean properties;
+    private final boolean contextStack;
+    private final boolean marker;
+    private final boolean mapData;
+    private final boolean stackTrace;
+    private final boolean compact;
+    private final boolean utf8;
+
+    protected JSONLayout(boolean locationInfo, boolean properties, boolean contextStack, boolean marker,
+                         boolean mapData, boolean stackTrace, boolean compact, Charset charset) {
+        super(charset);
+        this.locationInfo = locationInfo;
+        this.properties = properties;
+        this.contextStack = contextStack;
+        this.marker = marker;
+        this.mapData = mapData;
+        this.stackTrace = stackTrace;
+        this.compact = compact;
+        this.utf8 = UTF_8.equals(charset.name());
+    }
+
+    /**
+     * Formats the LogEvent and encodes it.
+     * @param event The LogEvent.
+     * @return The JSON representation of the LogEvent as a byte array.
+     */
+    @Override
+    public byte[] format(final LogEvent event) {
+        StringBuilder buf = getBuffer();
+        try {
+            format(event, buf);
+            return utf8 ? encodeUTF8(buf) : buf.toString().getBytes(getCharset());
+        } finally {
+            release(buf);
+        }
+    }
+
+    /**
+     * Formats the LogEvent as a JSON String.
+     * @param event The LogEvent.
+     * @return The JSON representation of the LogEvent.
+     */
+    public String formatAs(final LogEvent event) {
+        StringBuilder buf = getBuffer();
+        try {
+            format(event, buf);
+            return buf.toString();
+        } finally {
+            release(buf);
+        }
+    }
+
+    private void format(final LogEvent event, final StringBuilder buf) {
+        buf.append('{');
+        appendName("timestamp", 1, buf).append(event.getMillis());
+        appendName("level", 1, buf);
+        appendString(String.valueOf(event.getLevel()), buf);
+        String name = event.getLoggerName();
+        appendName("logger", 1, buf);
+        appendString(name.length() == 0 ? "root" : name, buf);
+        appendName("thread", 1, buf);
+        appendString(event.getThreadName(), buf);
+
+        if (marker && event.getMarker() != null) {
+            appendName("marker", 1, buf);
+            appendMarker(event.getMarker(), 1, buf);
+        }
+
+        Message msg = event.getMessage();
+        if (mapData && msg instanceof MapMessage) {
+            MapMessage map = (MapMessage) msg;
+            if (map instanceof StructuredDataMessage) {
+                StructuredDataMessage data = (StructuredDataMessage) map;
+                if (data.getId() != null) {
+                    appendName("dataId", 1, buf);
+                    appendString(data.getId().toString(), buf);
+                }
+                if (data.getType() != null) {
+                    appendName("dataType", 1, buf);
+                    appendString(data.getType(), buf);
+                }
+            }
+            String text = map.getMessageFormat();
+            if (text != null && text.length() > 0) {
+                appendName("message", 1, buf);
+                appendString(text, buf);
+            }
+            appendName("data", 1, buf);
+            appendMap(map.getData(), 1, buf);
+        } else {
+            appendName("message", 1, buf);
+            appendString(msg.getFormattedMessage(), buf);
+        }
+
+        if (contextStack) {
+            ThreadContext.ContextStack stack = event.getContextStack();
+            if (stack != null && !stack.isEmpty()) {
+                appendName("contextStack", 1, buf).append('[');
+                boolean first = true;
+                for (String item : stack) {
+                    first = appendSeparator(first, 2, buf);
+                    appendString(item, buf);
+                }
+                newLine(1, buf).append(']');
+            }
+        }
+
+        if (properties) {
+            Map<String, String> map = event.getContextMap();
+            if (map != null && !map.isEmpty()) {
+                appendName("contextMap", 1, buf);
+                appendMap(map, 1, buf);
+            }
+        }
+
+        if (locationInfo) {
+            StackTraceElement element = event.getSource();
+            if (element != null) {
+                appendName("source", 1, buf).append('{');
+                appendName("class", 2, buf);
+                appendString(element.getClassName(), buf);
+                appendName("method", 2, buf);
+                appendString(element.getMethodName(), buf);
+                if (element.getFileName() != null) {
+                    appendName("file", 2, buf);
+                    appendString(element.getFileName(), buf);
+                }
+                appendName("line", 2, buf).append(element.getLineNumber());
+                newLine(1, buf).append('}');
+            }
+        }
+
+        Throwable thrown = event.getThrown();
+        if (thrown != null) {
+            appendName("thrown", 1, buf);
+            appendThrowable(thrown, 1, buf);
+        }
+
+        newLine(0, buf).append("}\n");
+    }
+
+    private void appendMarker(Marker m, int depth, StringBuilder buf) {
+        buf.append('{');
+        appendName("name", depth + 1, buf);
+        appendString(m.getName(), buf);
+        if (m.getParent() != null) {
+            appendName("parent", depth + 1, buf);
+            appendMarker(m.getParent(), depth + 1, buf);
+        }
+        newLine(depth, buf).append('}');
+    }
+
+    private void appendMap(Map<String, String> map, int depth, StringBuilder buf) {
+        buf.append('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            first = appendSeparator(first, depth + 1, buf);
+            appendString(entry.getKey(), buf);
+            buf.append(compact ? ":" : ": ");
+            if (entry.getValue() == null) {
+                buf.append("null");
+            } else {
+                appendString(entry.getValue(), buf);
+            }
+        }
+        if (!first) {
+            newLine(depth, buf);
+        }
+        buf.append('}');
+    }
+
+    private void appendThrowable(Throwable thrown, int depth, StringBuilder buf) {
+        Throwable original = thrown instanceof ThrowableProxy ? ((ThrowableProxy) thrown).getThrowable() : thrown;
+        buf.append('{');
+        appendName("name", depth + 1, buf);
+        appendString(original.getClass().getName(), buf);
+        if (thrown.getMessage() != null) {
+            appendName("message", depth + 1, buf);
+            appendString(thrown.getMessage(), buf);
+        }
+        if (stackTrace) {
+            appendName("frames", depth + 1, buf).append('[');
+            boolean first = true;
+            for (StackTraceElement element : thrown.getStackTrace()) {
+                first = appendSeparator(first, depth + 2, buf);
+                appendFrame(element, buf);
+            }
+            if (!first) {
+                newLine(depth + 1, buf);
+            }
+            buf.append(']');
+        }
+        Throwable cause = thrown.getCause();
+        if (cause != null && cause != thrown) {
+            appendName("cause", depth + 1, buf);
+            appendThrowable(cause, depth + 1, buf);
+        }
+        newLine(depth, buf).append('}');
+    }
+
+    /**
+     * Appends a frame in the format of StackTraceElement.toString() without creating the String.
+     */
+    private void appendFrame(StackTraceElement element, StringBuilder buf) {
+        buf.append('"');
+        Transform.appendEscapingJSON(buf, element.getClassName());
+        buf.append('.');
+        Transform.appendEscapingJSON(buf, element.getMethodName());
+        buf.append('(');
+        if (element.isNativeMethod()) {
+            buf.append("Native Method");
+        } else if (element.getFileName() == null) {
+            buf.append("Unknown Source");
+        } else {
+            Transform.appendEscapingJSON(buf, element.getFileName());
+            if (element.getLineNumber() >= 0) {
+                buf.append(':').append(element.getLineNumber());
+            }
+        }
+        buf.append(")\"");
+    }
+
+    /**
+     * Starts a member of an object, which always follows at least the first member or the opening brace.
+     */
+    private StringBuilder appendName(String name, int depth, StringBuilder buf) {
+        if (buf.charAt(buf.length() - 1) != '{') {
+            buf.append(',');
+        }
+        newLine(depth, buf);
+        buf.append('"').append(name).append(compact ? "\":" : "\": ");
+        return buf;
+    }
+
+    private boolean appendSeparator(boolean first, int depth, StringBuilder buf) {
+        if (!first) {
+            buf.append(',');
+        }
+        newLine(depth, buf);
+        return false;
+    }
+
+    private StringBuilder newLine(int depth, StringBuilder buf) {
+        if (!compact) {
+            buf.append('\n');
+            for (int i = 0; i < depth; i++) {
+                buf.append(INDENT);
+            }
+        }
+        return buf;
+    }
+
+    private static void appendString(String value, StringBuilder buf) {
+        if (value == null) {
+            buf.append("null");
+        } else {
+            buf.append('"');
+            Transform.appendEscapingJSON(buf, value);
+            buf.append('"');
+        }
+    }
+
+    private static StringBuilder getBuffer() {
+        StringBuilder buf = BUFFERS.get();
+        if (buf == null) {
+            return new StringBuilder(DEFAULT_SIZE);
+        }
+        BUFFERS.set(null);
+        return buf;
+    }
+
+    /**
+     * Keeps the buffer for the next event of the thread. The buffer is taken from the thread while it is in use,
+     * so an event logged while formatting, such as by a toString method, gets a buffer of its own.
+     */
+    private static void release(StringBuilder buf) {
+        if (buf.capacity() <= MAX_REUSED_SIZE) {
+            buf.setLength(0);
+            BUFFERS.set(buf);
+        }
+    }
+
+    /**
+     * Encodes the buffer as UTF-8. The characters are copied into an array kept by the thread and counted first,
+     * so that the result is the only array created.
+     */
+    private static byte[] encodeUTF8(StringBuilder buf) {
+        int length = buf.length();
+        char[] chars = CHARS.get();
+        if (chars == null || chars.length < length) {
+            chars = new char[Math.max(length, DEFAULT_SIZE)];
+            if (chars.length <= MAX_REUSED_SIZE) {
+                CHARS.set(chars);
+            }
+        }
+        buf.getChars(0, length, chars, 0);
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = chars[i];
+            if (ch < 0x80) {
+                ++size;
+            } else if (ch < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                size += 4;
+                ++i;
+            } else if (isSurrogate(ch)) {
+                ++size;
+            } else {
+                size += 3;
+            }
+        }
+        byte[] bytes = new byte[size];
+        if (size == length) {
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) chars[i];
+            }
+            return bytes;
+        }
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = chars[i];
+            if (ch < 0x80) {
+                bytes[pos++] = (byte) ch;
+            } else if (ch < 0x800) {
+                bytes[pos++] = (byte) (0xC0 | (ch >> 6));
+                bytes[pos++] = (byte) (0x80 | (ch & 0x3F));
+            } else if (Character.isHighSurrogate(ch) && i + 1 < length && Character.isLowSurrogate(chars[i + 1])) {
+                int cp = Character.toCodePoint(ch, chars[++i]);
+                bytes[pos++] = (byte) (0xF0 | (cp >> 18));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (isSurrogate(ch)) {
+                // An unpaired surrogate is replaced, as String.getBytes does.
+                bytes[pos++] = (byte) '?';
+            } else {
+                bytes[pos++] = (byte) (0xE0 | (ch >> 12));
+                bytes[pos++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (ch & 0x3F));
+            }
+        }
+        return bytes;
+    }
+
+    private static boolean isSurrogate(char ch) {
+        return ch >= Character.MIN_SURROGATE && ch <= Character.MAX_SURROGATE;
+    }
+
+    /**
+     * Create a JSON Layout.
+     * @param locationInfo If "true" include the location of the caller. The default is false.
+     * @param properties If "true" include the thread context map. The default is false.
+     * @param contextStack If "true" include the thread context stack. The default is true.
+     * @param marker If "true" include the marker and its parents. The default is true.
+     * @param mapData If "true" write the entries of a MapMessage or StructuredDataMessage as an object instead
+     * of formatting the message. The default is true.
+     * @param stackTrace If "true" include the frames of the throwable and its causes. The default is true.
+     * @param compact If "true" write each event on a single line. The default is false.
+     * @param charset The character set to use. The default is UTF-8.
+     * @return A JSON Layout.
+     */
+    @PluginFactory
+    public static JSONLayout createLayout(@PluginAttr("locationInfo") String locationInfo,
+                                          @PluginAttr("properties") String properties,
+                                          @PluginAttr("contextStack") String contextStack,
+                                          @PluginAttr("marker") String marker,
+                                          @PluginAttr("mapData") String mapData,
+                                          @PluginAttr("stackTrace") String stackTrace,
+                                          @PluginAttr("compact") String compact,
+                                          @PluginAttr("charset") String charset) {
+        Charset c = Charset.isSupported(UTF_8) ? Charset.forName(UTF_8) : Charset.defaultCharset();
+        if (charset != null) {
+            if (Charset.isSupported(charset)) {
+                c = Charset.forName(charset);
+            } else {
+                LOGGER.error("Charset " + charset + " is not supported for layout, using " + c.displayName());
+            }
+        }
+        boolean info = locationInfo == null ? false : Boolean.valueOf(locationInfo);
+        boolean props = properties == null ? false : Boolean.valueOf(properties);
+        boolean stack = contextStack == null ? true : Boolean.valueOf(contextStack);
+        boolean mark = marker == null ? true : Boolean.valueOf(marker);
+        boolean data = mapData == null ? true : Boolean.valueOf(mapData);
+        boolean frames = stackTrace == null ? true : Boolean.valueOf(stackTrace);
+        boolean comp = compact == null ? false : Boolean.valueOf(compact);
+        return new JSONLayout(info, props, stack, mark, data, frames, comp, c);
+    }
+}
@@ -16,6 +16,7 @@
  */
 package org.apache.logging.log4j.core.layout;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.config.Configuration;
@@ -64,6 +65,8 @@ public final class RFC5424Layout extends AbstractStringLayout {
     private static final int THREE_DIGITS = 100;
     private static final int MILLIS_PER_MINUTE = 60000;
     private static final int MINUTES_PER_HOUR = 60;
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int DEFAULT_SIZE = 256;
 
     private final Facility facility;
     private final String defaultId;
@@ -81,8 +84,15 @@ public final class RFC5424Layout extends AbstractStringLayout {
     private final ListChecker noopChecker = new NoopChecker();
     private final boolean includeNewLine;
 
-    private long lastTimestamp = -1;
-    private String timestamppStr = null;
+    /** The "&lt;PRI&gt;VERSION " prefix of the record for each Level, indexed by ordinal. */
+    private final String[] prefixes;
+    /** The HOSTNAME, APP-NAME and PROCID fields, which are the same for every record. */
+    private final String hostAppProc;
+    private final String defaultMessageId;
+    /** The SD-ID of the MDC element when the event does not supply an enterprise number. */
+    private final String mdcSdId;
+
+    private volatile CachedTimestamp cachedTimestamp = new CachedTimestamp(Long.MIN_VALUE, null, null);
 
 
     private RFC5424Layout(Configuration config, Facility facility, String id, int ein, boolean includeMDC,
@@ -144,6 +154,27 @@ public final class RFC5424Layout extends AbstractStringLayout {
         this.checker = c != null ? c : noopChecker;
         String name = config == null ? null : config.getName();
         configName = (name != null && name.length() > 0) ? name : null;
+
+        Level[] levels = Level.values();
+        prefixes = new String[levels.length];
+        for (Level level : levels) {
+            prefixes[level.ordinal()] = "<" + Priority.getPriority(facility, level) + ">1 ";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(' ').append(localHostName).append(' ');
+        if (appName != null) {
+            sb.append(appName);
+        } else if (configName != null) {
+            sb.append(configName);
+        } else {
+            sb.append("-");
+        }
+        sb.append(' ').append(getProcId()).append(' ');
+        hostAppProc = sb.toString();
+        defaultMessageId = messageId != null ? messageId : "-";
+        sb.setLength(0);
+        appendId(mdcId, enterpriseNumber, sb);
+        mdcSdId = sb.toString();
     }
 
     /**
@@ -154,34 +185,14 @@ public final class RFC5424Layout extends AbstractStringLayout {
     public String formatAs(final LogEvent event) {
         Message msg = event.getMessage();
         boolean isStructured = msg instanceof StructuredDataMessage;
-        StringBuilder buf = new StringBuilder();
+        StringBuilder buf = new StringBuilder(DEFAULT_SIZE);
 
-        buf.append("<");
-        buf.append(Priority.getPriority(facility, event.getLevel()));
-        buf.append(">1 ");
-        buf.append(computeTimeStampString(event.getMillis()));
-        buf.append(' ');
-        buf.append(localHostName);
-        buf.append(' ');
-        if (appName != null) {
-            buf.append(appName);
-        } else if (configName != null) {
-            buf.append(configName);
-        } else {
-            buf.append("-");
-        }
-        buf.append(" ");
-        buf.append(getProcId());
-        buf.append(" ");
+        buf.append(prefixes[event.getLevel().ordinal()]);
+        appendTimestamp(event.getMillis(), buf);
+        buf.append(hostAppProc);
         String type = isStructured ? ((StructuredDataMessage) msg).getType() : null;
-        if (type != null) {
-            buf.append(type);
-        } else if (messageId != null) {
-            buf.append(messageId);
-        } else {
-            buf.append("-");
-        }
-        buf.append(" ");
+        buf.append(type != null ? type : defaultMessageId);
+        buf.append(' ');
         if (isStructured || includeMDC) {
             StructuredDataId id = null;
             String text;
@@ -198,9 +209,14 @@ public final class RFC5424Layout extends AbstractStringLayout {
                 if (mdcRequired != null) {
                     checkRequired(event.getContextMap());
                 }
-                int ein = id == null || id.getEnterpriseNumber() < 0 ? enterpriseNumber : id.getEnterpriseNumber();
-                StructuredDataId mdcSDID = new StructuredDataId(mdcId, ein, null, null);
-                formatStructuredElement(mdcSDID, event.getContextMap(), buf, checker);
+                buf.append('[');
+                if (id == null || id.getEnterpriseNumber() < 0) {
+                    buf.append(mdcSdId);
+                } else {
+                    appendId(mdcId, id.getEnterpriseNumber(), buf);
+                }
+                appendMap(event.getContextMap(), buf, checker);
+                buf.append(']');
             }
             if (text != null && text.length() > 0) {
                 buf.append(" ").append(text);
@@ -263,18 +279,36 @@ public final class RFC5424Layout extends AbstractStringLayout {
         return mdcIncludes;
     }
 
-    private String computeTimeStampString(long now) {
-        long last;
-        synchronized (this) {
-            last = lastTimestamp;
-            if (now == lastTimestamp) {
-                return timestamppStr;
-            }
+    /**
+     * Appends the TIMESTAMP field. The text up to the seconds and the time zone offset
+     * are computed once per second and published in an immutable CachedTimestamp, so threads formatting events
+     * in the same second only read the volatile reference.
+     */
+    private void appendTimestamp(long now, StringBuilder buf) {
+        CachedTimestamp cached = cachedTimestamp;
+        long second = now - floorMod(now, MILLIS_PER_SECOND);
+        if (cached.second != second) {
+            cached = createTimestamp(second);
+            cachedTimestamp = cached;
+        }
+        buf.append(cached.dateTime);
+        int millis = (int) (now - second);
+        if (millis != 0) {
+            buf.append('.');
+            pad(millis, THREE_DIGITS, buf);
         }
+        buf.append(cached.zone);
+    }
+
+    private static long floorMod(long value, long divisor) {
+        long mod = value % divisor;
+        return mod < 0 ? mod + divisor : mod;
+    }
 
+    private CachedTimestamp createTimestamp(long second) {
         StringBuilder buf = new StringBuilder();
         Calendar cal = new GregorianCalendar();
-        cal.setTimeInMillis(now);
+        cal.setTimeInMillis(second);
         buf.append(Integer.toString(cal.get(Calendar.YEAR)));
         buf.append("-");
         pad(cal.get(Calendar.MONTH) + 1, TWO_DIGITS, buf);
@@ -286,13 +320,9 @@ public final class RFC5424Layout extends AbstractStringLayout {
         pad(cal.get(Calendar.MINUTE), TWO_DIGITS, buf);
         buf.append(":");
         pad(cal.get(Calendar.SECOND), TWO_DIGITS, buf);
+        String dateTime = buf.toString();
 
-        int millis = cal.get(Calendar.MILLISECOND);
-        if (millis != 0) {
-            buf.append(".");
-            pad(millis, THREE_DIGITS, buf);
-        }
-
+        buf.setLength(0);
         int tzmin = (cal.get(Calendar.ZONE_OFFSET) + cal.get(Calendar.DST_OFFSET)) / MILLIS_PER_MINUTE;
         if (tzmin == 0) {
             buf.append("Z");
@@ -309,13 +339,7 @@ public final class RFC5424Layout extends AbstractStringLayout {
             buf.append(":");
             pad(tzmin, TWO_DIGITS, buf);
         }
-        synchronized (this) {
-            if (last == lastTimestamp) {
-                lastTimestamp = now;
-                timestamppStr = buf.toString();
-            }
-        }
-        return buf.toString();
+        return new CachedTimestamp(second, dateTime, buf.toString());
     }
 
     private void pad(int val, int max, StringBuilder buf) {
@@ -334,26 +358,17 @@ public final class RFC5424Layout extends AbstractStringLayout {
             return;
         }
         sb.append("[");
-        sb.append(getId(id));
+        int ein = id.getEnterpriseNumber();
+        appendId(id.getName() == null ? defaultId : id.getName(), ein < 0 ? enterpriseNumber : ein, sb);
         appendMap(data, sb, checker);
         sb.append("]");
     }
 
-    private String getId(StructuredDataId id) {
-        StringBuilder sb = new StringBuilder();
-        if (id.getName() == null) {
-            sb.append(defaultId);
-        } else {
-            sb.append(id.getName());
-        }
-        int ein = id.getEnterpriseNumber();
-        if (ein < 0) {
-            ein = enterpriseNumber;
-        }
+    private void appendId(String name, int ein, StringBuilder sb) {
+        sb.append(name);
         if (ein >= 0) {
             sb.append("@").append(ein);
         }
-        return sb.toString();
     }
 
     private void checkRequired(Map<String, String> map) {
@@ -367,7 +382,11 @@ public final class RFC5424Layout extends AbstractStringLayout {
 
     private void appendMap(Map<String, String> map, StringBuilder sb, ListChecker checker)
     {
-        SortedMap<String, String> sorted = new TreeMap<String, String>(map);
+        if (map.isEmpty()) {
+            return;
+        }
+        SortedMap<String, String> sorted = map instanceof SortedMap ? (SortedMap<String, String>) map :
+            new TreeMap<String, String>(map);
         for (Map.Entry<String, String> entry : sorted.entrySet()) {
             if (checker.check(entry.getKey())) {
                 sb.append(" ");
@@ -376,6 +395,21 @@ public final class RFC5424Layout extends AbstractStringLayout {
         }
     }
 
+    /**
+     * The date and time of a second up to the seconds field and the time zone offset in effect during it.
+     */
+    private static class CachedTimestamp {
+        private final long second;
+        private final String dateTime;
+        private final String zone;
+
+        public CachedTimestamp(long second, String dateTime, String zone) {
+            this.second = second;
+            this.dateTime = dateTime;
+            this.zone = zone;
+        }
+    }
+
     /**
      * Interface used to check keys in a Map.
      */
@@ -0,0 +1,30 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+/**
+ * A Layout whose output refers to data written with earlier events. Events formatted by such a Layout
+ * must be written in the order they were formatted and the Layout must be reset, and its header written
+ * again, whenever the stream it writes to is replaced.
+ */
+public interface StatefulLayout {
+
+    /**
+     * Discards any state the Layout has shared with the reader of the stream.
+     */
+    void reset();
+}
@@ -16,15 +16,7 @@
  */
 package org.apache.logging.log4j.core.layout;
 
-import java.io.IOException;
-import java.io.InterruptedIOException;
-import java.io.LineNumberReader;
-import java.io.PrintWriter;
-import java.io.StringReader;
-import java.io.StringWriter;
 import java.nio.charset.Charset;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 
 import org.apache.logging.log4j.core.config.plugins.Plugin;
@@ -99,13 +91,13 @@ public class XMLLayout extends AbstractStringLayout {
         if (name.length() == 0) {
             name = "root";
         }
-        buf.append(Transform.escapeTags(name));
+        buf.append(Transform.escapeTagsCached(name));
         buf.append("\" timestamp=\"");
         buf.append(event.getMillis());
         buf.append("\" level=\"");
-        buf.append(Transform.escapeTags(String.valueOf(event.getLevel())));
+        buf.append(Transform.escapeTagsCached(String.valueOf(event.getLevel())));
         buf.append("\" thread=\"");
-        buf.append(Transform.escapeTags(event.getThreadName()));
+        buf.append(Transform.escapeTagsCached(event.getThreadName()));
         buf.append("\">\r\n");
 
         buf.append("<log4j:message><![CDATA[");
@@ -114,7 +106,7 @@ public class XMLLayout extends AbstractStringLayout {
         Transform.appendEscapingCDATA(buf, event.getMessage().getFormattedMessage());
         buf.append("]]></log4j:message>\r\n");
 
-        if (event.getContextStack().size() > 0) {
+        if (!event.getContextStack().isEmpty()) {
             buf.append("<log4j:NDC><![CDATA[");
             Transform.appendEscapingCDATA(buf, event.getContextStack().toString());
             buf.append("]]></log4j:NDC>\r\n");
@@ -122,23 +114,19 @@ public class XMLLayout extends AbstractStringLayout {
 
         Throwable throwable = event.getThrown();
         if (throwable != null) {
-            List<String> s = getThrowableString(throwable);
             buf.append("<log4j:throwable><![CDATA[");
-            for (String str : s) {
-                Transform.appendEscapingCDATA(buf, str);
-                buf.append("\r\n");
-            }
-            buf.append("]]></log4j:throwable>\r\n");
+            Transform.appendStackTraceEscapingCDATA(buf, throwable, "\r\n");
+            buf.append("\r\n]]></log4j:throwable>\r\n");
         }
 
         if (locationInfo) {
             StackTraceElement element = event.getSource();
             buf.append("<log4j:locationInfo class=\"");
-            buf.append(Transform.escapeTags(element.getClassName()));
+            Transform.appendEscapingTags(buf, element.getClassName());
             buf.append("\" method=\"");
-            buf.append(Transform.escapeTags(element.getMethodName()));
+            Transform.appendEscapingTags(buf, element.getMethodName());
             buf.append("\" file=\"");
-            buf.append(Transform.escapeTags(element.getFileName()));
+            Transform.appendEscapingTags(buf, element.getFileName());
             buf.append("\" line=\"");
             buf.append(element.getLineNumber());
             buf.append("\"/>\r\n");
@@ -148,9 +136,9 @@ public class XMLLayout extends AbstractStringLayout {
             buf.append("<log4j:properties>\r\n");
             for (Map.Entry<String, String> entry : event.getContextMap().entrySet()) {
                 buf.append("<log4j:data name=\"");
-                buf.append(Transform.escapeTags(entry.getKey()));
+                Transform.appendEscapingTags(buf, entry.getKey());
                 buf.append("\" value=\"");
-                buf.append(Transform.escapeTags(String.valueOf(entry.getValue())));
+                Transform.appendEscapingTags(buf, String.valueOf(entry.getValue()));
                 buf.append("\"/>\r\n");
             }
             buf.append("</log4j:properties>\r\n");
@@ -191,32 +179,6 @@ public class XMLLayout extends AbstractStringLayout {
         return sbuf.toString().getBytes(getCharset());
     }
 
-    List<String> getThrowableString(Throwable throwable) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        try {
-            throwable.printStackTrace(pw);
-        } catch (RuntimeException ex) {
-            // Ignore any exceptions.
-        }
-        pw.flush();
-        LineNumberReader reader = new LineNumberReader(new StringReader(sw.toString()));
-        ArrayList<String> lines = new ArrayList<String>();
-        try {
-          String line = reader.readLine();
-          while (line != null) {
-            lines.add(line);
-            line = reader.readLine();
-          }
-        } catch (IOException ex) {
-            if (ex instanceof InterruptedIOException) {
-                Thread.currentThread().interrupt();
-            }
-            lines.add(ex.toString());
-        }
-        return lines;
-    }
-
     /**
      * Create an XML Layout.
      * @param locationInfo If "true" include the location information in the generated XML.
@@ -47,6 +47,9 @@ public class Interpolator implements StrLookup {
 
         for (Map.Entry<String, PluginType> entry : plugins.entrySet()) {
             Class<StrLookup> clazz = entry.getValue().getPluginClass();
+            if (clazz == null) {
+                continue;
+            }
             try {
                 lookups.put(entry.getKey(), clazz.newInstance());
             } catch (Exception ex) {
@@ -17,7 +17,9 @@
 package org.apache.logging.log4j.core.net;
 
 import org.apache.logging.log4j.core.appender.AbstractManager;
+import org.apache.logging.log4j.core.appender.AppenderRuntimeException;
 
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageProducer;
@@ -29,13 +31,40 @@ import javax.naming.InitialContext;
 import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Base Class for Managers of JMS connections.
  */
 public abstract class AbstractJMSManager extends AbstractManager {
 
+    /**
+     * The default number of milliseconds a batch may remain open before it is committed.
+     */
+    public static final int DEFAULT_BATCH_DELAY = 1000;
+
+    private static final int QUEUE_MULTIPLIER = 4;
+
+    /** The number of milliseconds a caller waits for space in the queue before checking whether it was stopped. */
+    private static final long STOP_CHECK_INTERVAL = 100;
+
+    /** The number of times a failed batch is sent again before its messages are discarded. */
+    private static final int BATCH_RETRIES = 1;
+
+    private volatile BlockingQueue<Serializable> queue;
+
+    private volatile boolean stopped = false;
+
+    private Dispatcher[] dispatchers;
+
+    private final AtomicLong dropped = new AtomicLong();
+
     /**
      * The Constructor.
      * @param name The name of the Appender.
@@ -134,18 +163,214 @@ public abstract class AbstractJMSManager extends AbstractManager {
      */
     public synchronized void send(Serializable object, Session session, MessageProducer producer) throws Exception {
         try {
-            Message msg;
-            if (object instanceof String) {
-                msg = session.createTextMessage();
-                ((TextMessage) msg).setText((String) object);
-            } else {
-                msg = session.createObjectMessage();
-                ((ObjectMessage) msg).setObject(object);
-            }
-            producer.send(msg);
+            producer.send(createMessage(object, session));
         } catch (JMSException ex) {
             LOGGER.error("Could not publish message via JMS " + getName());
             throw ex;
         }
     }
+
+    /**
+     * Hands the Object to the background dispatchers when the Manager is batching.
+     * @param object The Object to send.
+     * @return true if the Object was queued, false if the Manager sends synchronously.
+     * @throws InterruptedException if the caller is interrupted while waiting for space in the queue.
+     * @throws AppenderRuntimeException if the dispatchers have been stopped.
+     */
+    protected boolean dispatch(Serializable object) throws InterruptedException {
+        if (stopped) {
+            throw new AppenderRuntimeException("JMS manager " + getName() + " has been stopped");
+        }
+        BlockingQueue<Serializable> q = queue;
+        if (q == null) {
+            return false;
+        }
+        // Once the dispatchers are stopped nothing drains the queue, so never wait for space indefinitely.
+        while (!q.offer(object, STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS)) {
+            if (stopped) {
+                throw new AppenderRuntimeException("JMS manager " + getName() + " has been stopped");
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of messages that were discarded because their batch could not be committed or
+     * because they were still queued when the dispatchers were stopped.
+     * @return The number of discarded messages.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Starts the background dispatchers. Each dispatcher owns a transacted Session and MessageProducer and
+     * commits whenever batchSize messages have been sent or batchDelay milliseconds have elapsed since the
+     * first message of the batch.
+     * @param sessions The number of dispatchers, and therefore of Sessions, to use.
+     * @param batchSize The maximum number of messages per transaction.
+     * @param batchDelay The maximum number of milliseconds a transaction may remain open.
+     * @throws JMSException if a Session or MessageProducer cannot be created.
+     */
+    protected void startDispatchers(int sessions, int batchSize, int batchDelay) throws JMSException {
+        queue = new ArrayBlockingQueue<Serializable>(batchSize * sessions * QUEUE_MULTIPLIER);
+        dispatchers = new Dispatcher[sessions];
+        for (int i = 0; i < sessions; ++i) {
+            Session session = createTransactedSession();
+            dispatchers[i] = new Dispatcher(getName() + "-" + (i + 1), queue, session, createProducer(session),
+                batchSize, batchDelay);
+        }
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.start();
+        }
+    }
+
+    /**
+     * Stops the background dispatchers after the queued messages have been sent. Objects dispatched afterwards
+     * are rejected.
+     */
+    protected void stopDispatchers() {
+        if (dispatchers == null) {
+            return;
+        }
+        stopped = true;
+        for (Dispatcher dispatcher : dispatchers) {
+            dispatcher.shutdown = true;
+        }
+        for (Dispatcher dispatcher : dispatchers) {
+            try {
+                dispatcher.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        dispatchers = null;
+        int count = queue.size();
+        queue = null;
+        if (count > 0) {
+            dropped.addAndGet(count);
+            LOGGER.error("Discarded " + count + " messages queued for JMS " + getName() + " after it was stopped");
+        }
+    }
+
+    /**
+     * Creates a transacted Session for a background dispatcher.
+     * @return The Session.
+     * @throws JMSException if an error occurs.
+     */
+    protected abstract Session createTransactedSession() throws JMSException;
+
+    /**
+     * Creates a MessageProducer for the destination on the given Session.
+     * @param session The Session.
+     * @return The MessageProducer.
+     * @throws JMSException if an error occurs.
+     */
+    protected abstract MessageProducer createProducer(Session session) throws JMSException;
+
+    /**
+     * Creates the Message for an Object. Strings are sent as TextMessages, byte arrays as BytesMessages and
+     * anything else as an ObjectMessage.
+     * @param object The Object to send.
+     * @param session The Session.
+     * @return The Message.
+     * @throws JMSException if an error occurs.
+     */
+    protected Message createMessage(Serializable object, Session session) throws JMSException {
+        if (object instanceof String) {
+            TextMessage msg = session.createTextMessage();
+            msg.setText((String) object);
+            return msg;
+        } else if (object instanceof byte[]) {
+            BytesMessage msg = session.createBytesMessage();
+            msg.writeBytes((byte[]) object);
+            return msg;
+        }
+        ObjectMessage msg = session.createObjectMessage();
+        msg.setObject(object);
+        return msg;
+    }
+
+    /**
+     * Drains the queue, sending each batch of messages in a single transaction.
+     */
+    private class Dispatcher extends Thread {
+
+        private volatile boolean shutdown = false;
+        private final BlockingQueue<Serializable> queue;
+        private final Session session;
+        private final MessageProducer producer;
+        private final int batchSize;
+        private final int batchDelay;
+
+        public Dispatcher(String name, BlockingQueue<Serializable> queue, Session session, MessageProducer producer,
+                          int batchSize, int batchDelay) {
+            super(name);
+            setDaemon(true);
+            this.queue = queue;
+            this.session = session;
+            this.producer = producer;
+            this.batchSize = batchSize;
+            this.batchDelay = batchDelay;
+        }
+
+        @Override
+        public void run() {
+            List<Serializable> batch = new ArrayList<Serializable>(batchSize);
+            while (!shutdown || !queue.isEmpty()) {
+                try {
+                    Serializable first = queue.poll(batchDelay, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    long deadline = System.currentTimeMillis() + batchDelay;
+                    while (batch.size() < batchSize) {
+                        if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                            continue;
+                        }
+                        long wait = deadline - System.currentTimeMillis();
+                        Serializable next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : null;
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                } catch (InterruptedException ex) {
+                    shutdown = true;
+                }
+                if (batch.size() > 0) {
+                    commit(batch);
+                    batch.clear();
+                }
+            }
+            try {
+                session.close();
+            } catch (JMSException ex) {
+                LOGGER.error("Error closing session for " + getName(), ex);
+            }
+        }
+
+        private void commit(List<Serializable> batch) {
+            for (int attempt = 0; attempt <= BATCH_RETRIES; ++attempt) {
+                try {
+                    for (Serializable object : batch) {
+                        producer.send(createMessage(object, session));
+                    }
+                    session.commit();
+                    return;
+                } catch (Exception ex) {
+                    LOGGER.error("Could not publish " + batch.size() + " messages via JMS " + getName(), ex);
+                    try {
+                        session.rollback();
+                    } catch (Exception rbex) {
+                        LOGGER.error("Unable to roll back transaction for " + getName(), rbex);
+                    }
+                }
+            }
+            long total = dropped.addAndGet(batch.size());
+            LOGGER.error("Discarded " + batch.size() + " messages for JMS " + getName() + " after " +
+                (BATCH_RETRIES + 1) + " attempts, " + total + " discarded in total");
+        }
+    }
 }
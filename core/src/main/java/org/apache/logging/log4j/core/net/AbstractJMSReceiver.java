@@ -20,18 +20,30 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.AbstractServer;
 import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.layout.BinaryEventDecoder;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.SerializedLayout;
 
+import javax.jms.BytesMessage;
 import javax.jms.JMSException;
 import javax.jms.ObjectMessage;
 import javax.naming.Context;
 import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.SequenceInputStream;
 
 /**
- * Base class for receiving LogEvents over JMS. This class expects all messages to be serialized log events.
+ * Base class for receiving LogEvents over JMS. This class expects all messages to be log events, either
+ * as ObjectMessages or as BytesMessages containing the output of the BinaryLayout or the SerializedLayout.
  */
 public abstract class AbstractJMSReceiver extends AbstractServer implements javax.jms.MessageListener {
 
+    /** The object stream header that the SerializedLayout omits from each event. */
+    private static final byte[] SERIALIZED_HEADER = SerializedLayout.createLayout().getHeader();
+
     /**
      * Logger to capture diagnostics.
      */
@@ -47,13 +59,43 @@ public abstract class AbstractJMSReceiver extends AbstractServer implements java
             if (message instanceof ObjectMessage) {
                 ObjectMessage objectMessage = (ObjectMessage) message;
                 log((LogEvent) objectMessage.getObject());
+            } else if (message instanceof BytesMessage) {
+                log(readEvent((BytesMessage) message));
             } else {
                 logger.warn("Received message is of type " + message.getJMSType()
-                    + ", was expecting ObjectMessage.");
+                    + ", was expecting ObjectMessage or BytesMessage.");
             }
         } catch (JMSException jmse) {
             logger.error("Exception thrown while processing incoming message.",
                 jmse);
+        } catch (IOException ioe) {
+            logger.error("Unable to deserialize incoming message.", ioe);
+        } catch (ClassNotFoundException cnfe) {
+            logger.error("Unable to deserialize incoming message.", cnfe);
+        }
+    }
+
+    /**
+     * Reads a LogEvent written by the BinaryLayout or the SerializedLayout. BinaryLayout records start with
+     * their header. The SerializedLayout omits the object stream header so it is supplied here.
+     * @param message The BytesMessage.
+     * @return The LogEvent.
+     * @throws JMSException if the message cannot be read.
+     * @throws IOException if the message does not contain a LogEvent.
+     * @throws ClassNotFoundException if a class in the event cannot be found.
+     */
+    private LogEvent readEvent(BytesMessage message) throws JMSException, IOException, ClassNotFoundException {
+        byte[] body = new byte[(int) message.getBodyLength()];
+        message.readBytes(body);
+        if (body.length > 0 && body[0] == BinaryLayout.HEADER) {
+            return new BinaryEventDecoder(new ByteArrayInputStream(body)).read();
+        }
+        ObjectInputStream ois = new ObjectInputStream(new SequenceInputStream(
+            new ByteArrayInputStream(SERIALIZED_HEADER), new ByteArrayInputStream(body)));
+        try {
+            return (LogEvent) ois.readObject();
+        } finally {
+            ois.close();
         }
     }
 
@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import org.apache.logging.log4j.core.appender.AppenderRuntimeException;
+import org.apache.logging.log4j.core.appender.ManagerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Socket Manager for UDP connections that writes through a DatagramChannel.
+ *
+ * The channel is connected to the target. By default every record, including the footer, is sent as its own
+ * datagram as soon as it is written, so no lock is taken. The header is sent in the same datagram as the first
+ * record, as DatagramOutputStream does. When batching is enabled the records of
+ * all threads are packed into shared datagrams of at most maxPacketSize bytes. A batch is sent when the next
+ * record does not fit, when the manager is closed or, at the latest, BATCH_DELAY milliseconds after it was
+ * started. Receivers must then be able to split a datagram into records, for example by using a Layout that
+ * ends each record with a new line. Protocols that require one message per datagram, such as Syslog over UDP,
+ * must not enable batching.
+ */
+public class DatagramChannelManager extends AbstractSocketManager {
+
+    /**
+     * The default maximum packet size. This is the largest payload that fits in an Ethernet frame.
+     */
+    public static final int DEFAULT_PACKET_SIZE = 1472;
+
+    /**
+     * The largest payload a UDP datagram can carry.
+     */
+    public static final int MAX_PACKET_SIZE = 65507;
+
+    /**
+     * The maximum number of milliseconds a batched record waits before it is sent.
+     */
+    public static final int BATCH_DELAY = 1000;
+
+    private static ManagerFactory factory = new DatagramChannelManagerFactory();
+
+    private final DatagramChannel channel;
+
+    private final ByteBuffer batch;
+
+    private final BatchFlusher flusher;
+
+    private final AtomicReference<byte[]> header = new AtomicReference<byte[]>();
+
+    /**
+     * The Constructor.
+     * @param name The unique name of the connection.
+     * @param channel The DatagramChannel, connected to the host.
+     * @param addr The address of the host.
+     * @param host The host to send to.
+     * @param port The port on the host.
+     * @param maxPacketSize The maximum number of bytes to send in one datagram.
+     * @param batch true if records from all threads should be packed into shared datagrams.
+     */
+    protected DatagramChannelManager(String name, DatagramChannel channel, InetAddress addr, String host, int port,
+                                     int maxPacketSize, boolean batch) {
+        super(name, new DatagramStream(channel), addr, host, port);
+        this.channel = channel;
+        if (batch) {
+            this.batch = ByteBuffer.allocateDirect(maxPacketSize);
+            this.flusher = new BatchFlusher(name);
+            this.flusher.setDaemon(true);
+            this.flusher.start();
+        } else {
+            this.batch = null;
+            this.flusher = null;
+        }
+    }
+
+    /**
+     * Obtain a DatagramChannelManager.
+     * @param host The host to connect to.
+     * @param port The port on the host.
+     * @param maxPacketSize The maximum number of bytes to send in one datagram or 0 to use the default.
+     * @param batch true if records should be packed into shared datagrams.
+     * @return A DatagramChannelManager.
+     */
+    public static DatagramChannelManager getSocketManager(String host, int port, int maxPacketSize, boolean batch) {
+        if (host == null || host.length() == 0) {
+            throw new IllegalArgumentException("A host name is required");
+        }
+        if (port <= 0) {
+            throw new IllegalArgumentException("A port value is required");
+        }
+        if (maxPacketSize <= 0) {
+            maxPacketSize = DEFAULT_PACKET_SIZE;
+        } else if (maxPacketSize > MAX_PACKET_SIZE) {
+            maxPacketSize = MAX_PACKET_SIZE;
+        }
+        String name = "UDPChannel:" + host + ":" + port + (batch ? ":batch" : "");
+        return (DatagramChannelManager) getManager(name, new FactoryData(host, port, maxPacketSize, batch),
+            factory);
+    }
+
+    /**
+     * Starts the next datagram with the header.
+     * @param header The header.
+     */
+    @Override
+    public void setHeader(byte[] header) {
+        if (header == null) {
+            return;
+        }
+        if (batch != null) {
+            synchronized (batch) {
+                append(batch, header, 0, header.length);
+            }
+        } else {
+            this.header.set(header);
+        }
+    }
+
+    @Override
+    protected void write(byte[] bytes, int offset, int length) {
+        if (batch != null) {
+            synchronized (batch) {
+                append(batch, bytes, offset, length);
+            }
+            return;
+        }
+        byte[] first = header.get() == null ? null : header.getAndSet(null);
+        if (first == null) {
+            sendDatagram(ByteBuffer.wrap(bytes, offset, length));
+            return;
+        }
+        try {
+            // A gathering write sends both buffers in one datagram.
+            channel.write(new ByteBuffer[] {ByteBuffer.wrap(first), ByteBuffer.wrap(bytes, offset, length)});
+        } catch (IOException ex) {
+            String msg = "Error writing to " + getName();
+            throw new AppenderRuntimeException(msg, ex);
+        }
+    }
+
+    /**
+     * Records are sent as they are written or, when batching, once the datagram is full or the batch delay has
+     * expired, so there is nothing to flush.
+     */
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    protected void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+            flusher.interrupt();
+            synchronized (batch) {
+                try {
+                    send(batch);
+                } catch (AppenderRuntimeException ex) {
+                    LOGGER.error("Unable to send the last batch to " + getName(), ex);
+                }
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException ex) {
+            LOGGER.error("Unable to close channel " + getName() + ". " + ex);
+        }
+    }
+
+    private void append(ByteBuffer buffer, byte[] bytes, int offset, int length) {
+        if (length > buffer.remaining()) {
+            send(buffer);
+            if (length > buffer.remaining()) {
+                sendDatagram(ByteBuffer.wrap(bytes, offset, length));
+                return;
+            }
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    private void send(ByteBuffer buffer) {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        try {
+            sendDatagram(buffer);
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    private void sendDatagram(ByteBuffer datagram) {
+        try {
+            channel.write(datagram);
+        } catch (IOException ex) {
+            String msg = "Error writing to " + getName();
+            throw new AppenderRuntimeException(msg, ex);
+        }
+    }
+
+    /**
+     * The OutputStream of the manager, which sends each write as a datagram.
+     */
+    private static class DatagramStream extends OutputStream {
+
+        private final DatagramChannel channel;
+
+        public DatagramStream(DatagramChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            channel.write(ByteBuffer.wrap(bytes, offset, length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Sends the current batch at least every BATCH_DELAY milliseconds.
+     */
+    private class BatchFlusher extends Thread {
+
+        private volatile boolean shutdown = false;
+
+        public BatchFlusher(String name) {
+            super("DatagramBatchFlusher-" + name);
+        }
+
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        public void run() {
+            while (!shutdown) {
+                try {
+                    sleep(BATCH_DELAY);
+                } catch (InterruptedException ie) {
+                    continue;
+                }
+                synchronized (batch) {
+                    try {
+                        send(batch);
+                    } catch (AppenderRuntimeException ex) {
+                        LOGGER.error("Unable to send batch to " + DatagramChannelManager.this.getName(), ex);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Data for the factory.
+     */
+    private static class FactoryData {
+        private String host;
+        private int port;
+        private int maxPacketSize;
+        private boolean batch;
+
+        public FactoryData(String host, int port, int maxPacketSize, boolean batch) {
+            this.host = host;
+            this.port = port;
+            this.maxPacketSize = maxPacketSize;
+            this.batch = batch;
+        }
+    }
+
+    /**
+     * Factory to create the DatagramChannelManager.
+     */
+    private static class DatagramChannelManagerFactory
+        implements ManagerFactory<DatagramChannelManager, FactoryData> {
+
+        public DatagramChannelManager createManager(String name, FactoryData data) {
+            InetAddress address;
+            try {
+                address = InetAddress.getByName(data.host);
+            } catch (UnknownHostException ex) {
+                String msg = "Could not find host " + data.host;
+                LOGGER.error(msg, ex);
+                throw new AppenderRuntimeException(msg, ex);
+            }
+            try {
+                DatagramChannel channel = DatagramChannel.open();
+                channel.connect(new InetSocketAddress(address, data.port));
+                return new DatagramChannelManager(name, channel, address, data.host, data.port, data.maxPacketSize,
+                    data.batch);
+            } catch (IOException ex) {
+                String msg = "Could not open DatagramChannel to " + data.host;
+                LOGGER.error(msg, ex);
+                throw new AppenderRuntimeException(msg, ex);
+            }
+        }
+    }
+}
@@ -46,7 +46,13 @@ public class DatagramOutputStream extends OutputStream {
     private InetAddress address;
     private int port;
 
-    private byte[] data;
+    private static final int INITIAL_SIZE = 1024;
+
+    private byte[] data = new byte[INITIAL_SIZE];
+
+    private int count;
+
+    private DatagramPacket packet;
 
     /**
      * The Constructor.
@@ -89,17 +95,21 @@ public class DatagramOutputStream extends OutputStream {
 
     @Override
     public synchronized void flush() throws IOException {
-        if (this.ds != null && this.address != null) {
-            DatagramPacket packet = new DatagramPacket(data, data.length, address, port);
+        if (this.ds != null && this.address != null && count > 0) {
+            if (packet == null) {
+                packet = new DatagramPacket(data, count, address, port);
+            } else {
+                packet.setData(data, 0, count);
+            }
             ds.send(packet);
         }
-        data = null;
+        count = 0;
     }
 
     @Override
     public synchronized void close() throws IOException {
         if (ds != null) {
-            if (data != null) {
+            if (count > 0) {
                 flush();
             }
             ds.close();
@@ -108,12 +118,13 @@ public class DatagramOutputStream extends OutputStream {
     }
 
     private void copy(byte[] bytes, int offset, int length) {
-        int index = data == null ? 0 : data.length;
-        byte[] copy = new byte[length + index];
-        if (data != null) {
-            System.arraycopy(data, 0, copy, 0, index);
+        int size = count + length;
+        if (size > data.length) {
+            byte[] copy = new byte[Math.max(size, data.length << 1)];
+            System.arraycopy(data, 0, copy, 0, count);
+            data = copy;
         }
-        System.arraycopy(bytes, offset, copy, index, length);
-        data = copy;
+        System.arraycopy(bytes, offset, data, count, length);
+        count = size;
     }
 }
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.net;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
 import javax.jms.Queue;
 import javax.jms.QueueConnection;
 import javax.jms.QueueConnectionFactory;
@@ -38,6 +39,7 @@ public class JMSQueueManager extends AbstractJMSManager {
 
     private QueueConnection queueConnection;
     private QueueSession queueSession;
+    private Queue queue;
     private QueueSender queueSender;
 
     /**
@@ -46,12 +48,15 @@ public class JMSQueueManager extends AbstractJMSManager {
      * @param conn The QueueConnection.
      * @param sess The QueueSession.
      * @param sender The QueueSender.
+     * @param queue The Queue.
      */
-    protected JMSQueueManager(String name, QueueConnection conn, QueueSession sess, QueueSender sender) {
+    protected JMSQueueManager(String name, QueueConnection conn, QueueSession sess, QueueSender sender,
+                              Queue queue) {
         super(name);
         this.queueConnection = conn;
         this.queueSession = sess;
         this.queueSender = sender;
+        this.queue = queue;
     }
 
     /**
@@ -72,6 +77,33 @@ public class JMSQueueManager extends AbstractJMSManager {
                                                      String securityPrincipalName, String securityCredentials,
                                                      String factoryBindingName, String queueBindingName,
                                                      String userName, String password) {
+        return getJMSQueueManager(factoryName, providerURL, urlPkgPrefixes, securityPrincipalName,
+            securityCredentials, factoryBindingName, queueBindingName, userName, password, 0, DEFAULT_BATCH_DELAY, 1);
+    }
+
+    /**
+     * Obtain a JMSQueueManager.
+     * @param factoryName The fully qualified class name of the InitialContextFactory.
+     * @param providerURL The URL of the provider to use.
+     * @param urlPkgPrefixes A colon-separated list of package prefixes for the class name of the factory class that
+     * will create a URL context factory
+     * @param securityPrincipalName The name of the identity of the Principal.
+     * @param securityCredentials The security credentials of the Principal.
+     * @param factoryBindingName The name to locate in the Context that provides the QueueConnectionFactory.
+     * @param queueBindingName The name to use to locate the Queue.
+     * @param userName The userid to use to create the Queue Connection.
+     * @param password The password to use to create the Queue Connection.
+     * @param batchSize The number of messages to send in each transaction, or zero to send each message
+     * synchronously on the caller's thread.
+     * @param batchDelay The maximum number of milliseconds a transaction may remain open when batching.
+     * @param sessions The number of Sessions, each with its own dispatcher thread, to use when batching.
+     * @return The JMSQueueManager.
+     */
+    public static JMSQueueManager getJMSQueueManager(String factoryName, String providerURL, String urlPkgPrefixes,
+                                                     String securityPrincipalName, String securityCredentials,
+                                                     String factoryBindingName, String queueBindingName,
+                                                     String userName, String password, int batchSize, int batchDelay,
+                                                     int sessions) {
 
         if (factoryBindingName == null) {
             LOGGER.error("No factory name provided for JMSQueueManager");
@@ -82,18 +114,41 @@ public class JMSQueueManager extends AbstractJMSManager {
             return null;
         }
 
+        if (batchSize > 0 && (batchDelay <= 0 || sessions <= 0)) {
+            LOGGER.error("Batching JMSQueueManager requires a positive batchDelay and number of sessions");
+            return null;
+        }
+
         String name = "JMSQueue:" + factoryBindingName + "." + queueBindingName;
+        if (batchSize > 0) {
+            name += ":batch=" + batchSize + "," + batchDelay + "," + sessions;
+        }
         return (JMSQueueManager) getManager(name, factory, new FactoryData(factoryName, providerURL, urlPkgPrefixes,
-            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password));
+            securityPrincipalName, securityCredentials, factoryBindingName, queueBindingName, userName, password,
+            batchSize, batchDelay, sessions));
     }
 
     @Override
     public void send(Serializable object) throws Exception {
+        if (dispatch(object)) {
+            return;
+        }
         super.send(object, queueSession, queueSender);
     }
 
+    @Override
+    protected Session createTransactedSession() throws JMSException {
+        return queueConnection.createQueueSession(true, Session.SESSION_TRANSACTED);
+    }
+
+    @Override
+    protected MessageProducer createProducer(Session session) throws JMSException {
+        return ((QueueSession) session).createSender(queue);
+    }
+
     @Override
     public void releaseSub() {
+        stopDispatchers();
         try {
             if (queueSession != null) {
                 queueSession.close();
@@ -119,10 +174,13 @@ public class JMSQueueManager extends AbstractJMSManager {
         private String queueBindingName;
         private String userName;
         private String password;
+        private int batchSize;
+        private int batchDelay;
+        private int sessions;
 
         public FactoryData(String factoryName, String providerURL, String urlPkgPrefixes, String securityPrincipalName,
                            String securityCredentials, String factoryBindingName, String queueBindingName,
-                           String userName, String password) {
+                           String userName, String password, int batchSize, int batchDelay, int sessions) {
             this.factoryName = factoryName;
             this.providerURL = providerURL;
             this.urlPkgPrefixes = urlPkgPrefixes;
@@ -132,6 +190,9 @@ public class JMSQueueManager extends AbstractJMSManager {
             this.queueBindingName = queueBindingName;
             this.userName = userName;
             this.password = password;
+            this.batchSize = batchSize;
+            this.batchDelay = batchDelay;
+            this.sessions = sessions;
         }
     }
 
@@ -154,8 +215,12 @@ public class JMSQueueManager extends AbstractJMSManager {
                 QueueSession sess = conn.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
                 Queue queue = (Queue) lookup(ctx, data.queueBindingName);
                 QueueSender sender = sess.createSender(queue);
+                JMSQueueManager manager = new JMSQueueManager(name, conn, sess, sender, queue);
+                if (data.batchSize > 0) {
+                    manager.startDispatchers(data.sessions, data.batchSize, data.batchDelay);
+                }
                 conn.start();
-                return new JMSQueueManager(name, conn, sess, sender);
+                return manager;
 
             } catch (NamingException ex) {
                 LOGGER.error("Unable to locate resource", ex);
@@ -19,6 +19,7 @@ package org.apache.logging.log4j.core.net;
 import org.apache.logging.log4j.core.appender.ManagerFactory;
 
 import javax.jms.JMSException;
+import javax.jms.MessageProducer;
 import javax.jms.Session;
 import javax.jms.Topic;
 import javax.jms.TopicConnection;
@@ -38,6 +39,7 @@ public class JMSTopicManager extends AbstractJMSManager {
 
     private TopicConnection topicConnection;
     private TopicSession topicSession;
+    private Topic topic;
     private TopicPublisher topicPublisher;
 
     /**
@@ -46,12 +48,15 @@ public class JMSTopicManager extends AbstractJMSManager {
      * @param conn The TopicConnection.
      * @param sess The TopicSession.
      * @param pub The TopicPublisher.
+     * @param topic The Topic.
      */
-    public JMSTopicManager(String name, TopicConnection conn, TopicSession sess, TopicPublisher pub) {
+    public JMSTopicManager(String name, TopicConnection conn, TopicSession sess, TopicPublisher pub,
+                           Topic topic) {
         super(name);
         this.topicConnection = conn;
         this.topicSession = sess;
         this.topicPublisher = pub;
+        this.topic = topic;
     }
 
     /**
@@ -72,6 +77,33 @@ public class JMSTopicManager extends AbstractJMSManager {
                                                      String securityPrincipalName, String securityCredentials,
                                                      String factoryBindingName, String topicBindingName,
                                                      String userName, String password) {
+        return getJMSTopicManager(factoryName, providerURL, urlPkgPrefixes, securityPrincipalName,
+            securityCredentials, factoryBindingName, topicBindingName, userName, password, 0, DEFAULT_BATCH_DELAY, 1);
+    }
+
+    /**
+     * Obtain a JSMTopicManager.
+     * @param factoryName The fully qualified class name of the InitialContextFactory.
+     * @param providerURL The URL of the provider to use.
+     * @param urlPkgPrefixes A colon-separated list of package prefixes for the class name of the factory class that
+     * will create a URL context factory
+     * @param securityPrincipalName The name of the identity of the Principal.
+     * @param securityCredentials The security credentials of the Principal.
+     * @param factoryBindingName The name to locate in the Context that provides the TopicConnectionFactory.
+     * @param topicBindingName The name to use to locate the Topic.
+     * @param userName The userid to use to create the Topic Connection.
+     * @param password The password to use to create the Topic Connection.
+     * @param batchSize The number of messages to send in each transaction, or zero to send each message
+     * synchronously on the caller's thread.
+     * @param batchDelay The maximum number of milliseconds a transaction may remain open when batching.
+     * @param sessions The number of Sessions, each with its own dispatcher thread, to use when batching.
+     * @return A JMSTopicManager.
+     */
+    public static JMSTopicManager getJMSTopicManager(String factoryName, String providerURL, String urlPkgPrefixes,
+                                                     String securityPrincipalName, String securityCredentials,
+                                                     String factoryBindingName, String topicBindingName,
+                                                     String userName, String password, int batchSize, int batchDelay,
+                                                     int sessions) {
 
         if (factoryBindingName == null) {
             LOGGER.error("No factory name provided for JMSTopicManager");
@@ -82,19 +114,42 @@ public class JMSTopicManager extends AbstractJMSManager {
             return null;
         }
 
+        if (batchSize > 0 && (batchDelay <= 0 || sessions <= 0)) {
+            LOGGER.error("Batching JMSTopicManager requires a positive batchDelay and number of sessions");
+            return null;
+        }
+
         String name = "JMSTopic:" + factoryBindingName + "." + topicBindingName;
+        if (batchSize > 0) {
+            name += ":batch=" + batchSize + "," + batchDelay + "," + sessions;
+        }
         return (JMSTopicManager) getManager(name, factory, new FactoryData(factoryName, providerURL, urlPkgPrefixes,
-            securityPrincipalName, securityCredentials, factoryBindingName, topicBindingName, userName, password));
+            securityPrincipalName, securityCredentials, factoryBindingName, topicBindingName, userName, password,
+            batchSize, batchDelay, sessions));
     }
 
 
     @Override
     public void send(Serializable object) throws Exception {
+        if (dispatch(object)) {
+            return;
+        }
         super.send(object, topicSession, topicPublisher);
     }
 
+    @Override
+    protected Session createTransactedSession() throws JMSException {
+        return topicConnection.createTopicSession(true, Session.SESSION_TRANSACTED);
+    }
+
+    @Override
+    protected MessageProducer createProducer(Session session) throws JMSException {
+        return ((TopicSession) session).createPublisher(topic);
+    }
+
     @Override
     public void releaseSub() {
+        stopDispatchers();
         try {
             if (topicSession != null) {
                 topicSession.close();
@@ -120,10 +175,13 @@ public class JMSTopicManager extends AbstractJMSManager {
         private String topicBindingName;
         private String userName;
         private String password;
+        private int batchSize;
+        private int batchDelay;
+        private int sessions;
 
         public FactoryData(String factoryName, String providerURL, String urlPkgPrefixes, String securityPrincipalName,
                            String securityCredentials, String factoryBindingName, String topicBindingName,
-                           String userName, String password) {
+                           String userName, String password, int batchSize, int batchDelay, int sessions) {
             this.factoryName = factoryName;
             this.providerURL = providerURL;
             this.urlPkgPrefixes = urlPkgPrefixes;
@@ -133,6 +191,9 @@ public class JMSTopicManager extends AbstractJMSManager {
             this.topicBindingName = topicBindingName;
             this.userName = userName;
             this.password = password;
+            this.batchSize = batchSize;
+            this.batchDelay = batchDelay;
+            this.sessions = sessions;
         }
     }
 
@@ -155,8 +216,12 @@ public class JMSTopicManager extends AbstractJMSManager {
                 TopicSession sess = conn.createTopicSession(false, Session.AUTO_ACKNOWLEDGE);
                 Topic topic = (Topic) lookup(ctx, data.topicBindingName);
                 TopicPublisher pub = sess.createPublisher(topic);
+                JMSTopicManager manager = new JMSTopicManager(name, conn, sess, pub, topic);
+                if (data.batchSize > 0) {
+                    manager.startDispatchers(data.sessions, data.batchSize, data.batchDelay);
+                }
                 conn.start();
-                return new JMSTopicManager(name, conn, sess, pub);
+                return manager;
             } catch (NamingException ex) {
                 LOGGER.error("Bad Name " + data.topicBindingName, ex);
             } catch (JMSException jmsex) {
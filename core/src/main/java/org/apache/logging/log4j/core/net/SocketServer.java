@@ -24,14 +24,18 @@ import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
 import org.apache.logging.log4j.core.config.XMLConfiguration;
 import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.core.layout.BinaryEventDecoder;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
 import org.xml.sax.InputSource;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.ObjectInputStream;
 import java.io.OptionalDataException;
@@ -150,16 +154,17 @@ public class SocketServer extends AbstractServer implements Runnable {
     }
 
     /**
-     * Thread that processes the events.
+     * Thread that processes the events. The format of the events, Java serialization or the
+     * BinaryLayout's format, is determined from the first byte sent on the connection.
      */
     private class SocketHandler extends Thread {
-        private final ObjectInputStream ois;
+        private final InputStream is;
 
         private boolean shutdown = false;
 
         public SocketHandler(Socket socket) throws IOException {
 
-            ois = new ObjectInputStream(socket.getInputStream());
+            is = new BufferedInputStream(socket.getInputStream());
         }
 
         public void shutdown() {
@@ -171,11 +176,16 @@ public class SocketServer extends AbstractServer implements Runnable {
             boolean closed = false;
             try {
                 try {
-                    while (!shutdown) {
-                        LogEvent event = (LogEvent) ois.readObject();
-                        if (event != null) {
-                            log(event);
-                        }
+                    is.mark(1);
+                    int first = is.read();
+                    if (first < 0) {
+                        throw new EOFException();
+                    }
+                    is.reset();
+                    if (first == BinaryLayout.HEADER) {
+                        readBinary();
+                    } else {
+                        readSerialized();
                     }
                 } catch (EOFException eof) {
                     closed = true;
@@ -188,7 +198,7 @@ public class SocketServer extends AbstractServer implements Runnable {
                 }
                 if (!closed) {
                     try {
-                        ois.close();
+                        is.close();
                     } catch (Exception ex) {
                         // Ignore the exception;
                     }
@@ -197,6 +207,23 @@ public class SocketServer extends AbstractServer implements Runnable {
                 handlers.remove(getId());
             }
         }
+
+        private void readSerialized() throws IOException, ClassNotFoundException {
+            ObjectInputStream ois = new ObjectInputStream(is);
+            while (!shutdown) {
+                LogEvent event = (LogEvent) ois.readObject();
+                if (event != null) {
+                    log(event);
+                }
+            }
+        }
+
+        private void readBinary() throws IOException, ClassNotFoundException {
+            BinaryEventDecoder decoder = new BinaryEventDecoder(is);
+            while (!shutdown) {
+                log(decoder.read());
+            }
+        }
     }
 
     /**
@@ -111,6 +111,9 @@ public final class PatternParser {
         for (PluginType type : plugins.values()) {
             try {
                 Class<PatternConverter> clazz = type.getPluginClass();
+                if (clazz == null) {
+                    continue;
+                }
                 ConverterKeys keys = clazz.getAnnotation(ConverterKeys.class);
                 if (keys != null) {
                     for (String key : keys.value()) {
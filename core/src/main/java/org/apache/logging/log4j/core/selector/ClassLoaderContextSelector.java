@@ -21,11 +21,12 @@ import org.apache.logging.log4j.core.helpers.Loader;
 import org.apache.logging.log4j.core.impl.ContextAnchor;
 import org.apache.logging.log4j.status.StatusLogger;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +47,13 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class ClassLoaderContextSelector implements ContextSelector {
 
+    /**
+     * Arguments for getCallerClass, created once so that walking the stack does not allocate.
+     */
+    private static final int MAX_DEPTH = 64;
+
+    private static final Object[][] DEPTHS = new Object[MAX_DEPTH][];
+
     private static AtomicReference<LoggerContext> context = new AtomicReference<LoggerContext>();
 
     private static PrivateSecurityManager securityManager;
@@ -54,11 +62,19 @@ public class ClassLoaderContextSelector implements ContextSelector {
 
     private static StatusLogger logger = StatusLogger.getLogger();
 
-    private static ConcurrentMap<String, AtomicReference<WeakReference<LoggerContext>>> contextMap =
-        new ConcurrentHashMap<String, AtomicReference<WeakReference<LoggerContext>>>();
+    /**
+     * The LoggerContext of each ClassLoader. ClassLoaders are only weakly referenced so that undeployed
+     * applications can be collected.
+     */
+    private static ConcurrentMap<LoaderKey, WeakReference<LoggerContext>> contextMap =
+        new ConcurrentHashMap<LoaderKey, WeakReference<LoggerContext>>();
 
+    private static ReferenceQueue<ClassLoader> staleLoaders = new ReferenceQueue<ClassLoader>();
 
     static {
+        for (int i = 0; i < MAX_DEPTH; ++i) {
+            DEPTHS[i] = new Object[] {i};
+        }
         setupCallerCheck();
     }
 
@@ -74,34 +90,17 @@ public class ClassLoaderContextSelector implements ContextSelector {
             return locateContext(loader, null);
         } else {
             if (getCallerClass != null) {
-                try {
-                    Class clazz = Class.class;
-                    boolean next = false;
-                    for (int index = 2; clazz != null; ++index) {
-                        Object[] params = new Object[] {index};
-                        clazz = (Class) getCallerClass.invoke(null, params);
-                        if (clazz == null) {
-                            break;
-                        }
-                        if (clazz.getName().equals(fqcn)) {
-                            next = true;
-                            continue;
-                        }
-                        if (next) {
-                            break;
-                        }
-                    }
-                    if (clazz != null) {
-                        return locateContext(clazz.getClassLoader(), null);
-                    }
-                } catch (Exception ex) {
-                    // logger.debug("Unable to determine caller class via Sun Reflection", ex);
+                Class clazz = getCallerClass(fqcn);
+                if (clazz != null) {
+                    return locateContext(clazz.getClassLoader(), null);
                 }
             }
 
             if (securityManager != null) {
                 Class clazz = securityManager.getCaller(fqcn);
-                return locateContext(clazz.getClassLoader(), null);
+                if (clazz != null) {
+                    return locateContext(clazz.getClassLoader(), null);
+                }
             }
 
             Throwable t = new Throwable();
@@ -132,21 +131,45 @@ public class ClassLoaderContextSelector implements ContextSelector {
         }
     }
 
+    /**
+     * Walks the stack with sun.reflect.Reflection.getCallerClass to find the class that called fqcn.
+     * @param fqcn The fully qualified class name of the logging API.
+     * @return The caller or null if it could not be determined within MAX_DEPTH frames.
+     */
+    private static Class getCallerClass(String fqcn) {
+        try {
+            boolean next = false;
+            for (int index = 2; index < MAX_DEPTH; ++index) {
+                Class clazz = (Class) getCallerClass.invoke(null, DEPTHS[index]);
+                if (clazz == null) {
+                    return null;
+                }
+                if (clazz.getName().equals(fqcn)) {
+                    next = true;
+                } else if (next) {
+                    return clazz;
+                }
+            }
+        } catch (Exception ex) {
+            // logger.debug("Unable to determine caller class via Sun Reflection", ex);
+        }
+        return null;
+    }
+
     public void removeContext(LoggerContext context) {
 
-        for (Map.Entry<String, AtomicReference<WeakReference<LoggerContext>>> entry : contextMap.entrySet()) {
-            LoggerContext ctx = entry.getValue().get().get();
+        for (Map.Entry<LoaderKey, WeakReference<LoggerContext>> entry : contextMap.entrySet()) {
+            LoggerContext ctx = entry.getValue().get();
             if (ctx == context) {
-                contextMap.remove(entry.getKey());
+                contextMap.remove(entry.getKey(), entry.getValue());
             }
         }
     }
 
     public List<LoggerContext> getLoggerContexts() {
         List<LoggerContext> list = new ArrayList<LoggerContext>();
-        Collection<AtomicReference<WeakReference<LoggerContext>>> coll = contextMap.values();
-        for (AtomicReference<WeakReference<LoggerContext>> ref : coll) {
-            LoggerContext ctx = ref.get().get();
+        for (WeakReference<LoggerContext> ref : contextMap.values()) {
+            LoggerContext ctx = ref.get();
             if (ctx != null) {
                 list.add(ctx);
             }
@@ -155,25 +178,41 @@ public class ClassLoaderContextSelector implements ContextSelector {
     }
 
     private LoggerContext locateContext(ClassLoader loader, String configLocation) {
-        String name = loader.toString();
-        AtomicReference<WeakReference<LoggerContext>> ref = contextMap.get(name);
-        if (ref == null) {
-            LoggerContext ctx = new LoggerContext(name, null, configLocation);
-            AtomicReference<WeakReference<LoggerContext>> r =
-                new AtomicReference<WeakReference<LoggerContext>>();
-            r.set(new WeakReference<LoggerContext>(ctx));
-            contextMap.putIfAbsent(loader.toString(), r);
-            ctx = contextMap.get(name).get().get();
+        if (loader == null) {
+            return getDefault();
+        }
+        LoaderKey key = new LoaderKey(loader, null);
+        WeakReference<LoggerContext> ref = contextMap.get(key);
+        LoggerContext ctx = ref == null ? null : ref.get();
+        if (ctx != null) {
             return ctx;
-        } else {
-            WeakReference<LoggerContext> r = ref.get();
-            LoggerContext ctx = r.get();
-            if (ctx != null) {
+        }
+        expungeStaleLoaders();
+        ctx = new LoggerContext(loader.toString(), null, configLocation);
+        WeakReference<LoggerContext> newRef = new WeakReference<LoggerContext>(ctx);
+        key = new LoaderKey(loader, staleLoaders);
+        while (true) {
+            if (ref == null) {
+                ref = contextMap.putIfAbsent(key, newRef);
+                if (ref == null) {
+                    return ctx;
+                }
+            } else if (contextMap.replace(key, ref, newRef)) {
                 return ctx;
+            } else {
+                ref = contextMap.get(key);
             }
-            ctx = new LoggerContext(name, null, configLocation);
-            ref.compareAndSet(r, new WeakReference<LoggerContext>(ctx));
-            return ctx;
+            LoggerContext existing = ref == null ? null : ref.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+    }
+
+    private static void expungeStaleLoaders() {
+        Reference<? extends ClassLoader> ref;
+        while ((ref = staleLoaders.poll()) != null) {
+            contextMap.remove(ref);
         }
     }
 
@@ -184,13 +223,17 @@ public class ClassLoaderContextSelector implements ContextSelector {
             Method[] methods = clazz.getMethods();
             for (Method method : methods) {
                 int modifier = method.getModifiers();
-                if (method.getName().equals("getCallerClass") && Modifier.isStatic(modifier)) {
+                if (method.getName().equals("getCallerClass") && Modifier.isStatic(modifier) &&
+                    method.getParameterTypes().length == 1) {
+                    method.invoke(null, DEPTHS[0]);
                     getCallerClass = method;
                     break;
                 }
             }
         } catch (ClassNotFoundException cnfe) {
             logger.debug("sun.reflect.Reflection is not installed");
+        } catch (Exception ex) {
+            logger.debug("sun.reflect.Reflection.getCallerClass is not supported", ex);
         }
         try {
             securityManager = new PrivateSecurityManager();
@@ -230,4 +273,33 @@ public class ClassLoaderContextSelector implements ContextSelector {
         }
     }
 
+    /**
+     * Weak reference to a ClassLoader that compares by identity and can be used as a Map key.
+     */
+    private static class LoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hashCode;
+
+        public LoaderKey(ClassLoader loader, ReferenceQueue<ClassLoader> queue) {
+            super(loader, queue);
+            hashCode = System.identityHashCode(loader);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LoaderKey)) {
+                return false;
+            }
+            ClassLoader loader = get();
+            return loader != null && loader == ((LoaderKey) obj).get();
+        }
+    }
 }
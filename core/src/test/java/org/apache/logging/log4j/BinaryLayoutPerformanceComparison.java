@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.BinaryLayout;
+import org.apache.logging.log4j.core.layout.SerializedLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the size and cost of writing a LogEvent with the SerializedLayout and the BinaryLayout.
+ */
+public class BinaryLayoutPerformanceComparison {
+
+    // How many times should we try to format:
+    private static final int COUNT = 1000000;
+    private static final int WARMUP = 50000;
+
+    private static final String FQCN = BinaryLayoutPerformanceComparison.class.getName();
+
+    private final LogEvent event;
+
+    public BinaryLayoutPerformanceComparison() {
+        Map<String, String> mdc = new HashMap<String, String>();
+        mdc.put("user", "test");
+        mdc.put("requestId", "12345");
+        StackTraceElement location = new StackTraceElement(FQCN, "testPerformance",
+            "BinaryLayoutPerformanceComparison.java", 64);
+        event = new Log4jLogEvent("org.apache.logging.log4j.perf.Test", MarkerManager.getMarker("PERF"), FQCN,
+            Level.INFO, new ParameterizedMessage("SEE IF THIS IS LOGGED {}.", 2), null, mdc,
+            ThreadContext.EMPTY_STACK.push("request"), "main", location, System.currentTimeMillis());
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        SerializedLayout serialized = SerializedLayout.createLayout();
+        BinaryLayout binary = BinaryLayout.createLayout(null);
+        format(serialized, WARMUP);
+        format(binary, WARMUP);
+
+        System.out.println("Starting SerializedLayout");
+        long result1 = format(serialized, COUNT);
+        System.out.println("Starting BinaryLayout");
+        long result2 = format(binary, COUNT);
+
+        System.out.println("###############################################");
+        System.out.println("Serialized: " + result1 + " ns, " + serialized.format(event).length + " bytes");
+        System.out.println("Binary: " + result2 + " ns, " + binary.format(event).length + " bytes");
+        System.out.println("###############################################");
+    }
+
+    private long format(Layout<?> layout, int loop) {
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            layout.format(event);
+        }
+        return (System.nanoTime() - start) / loop;
+    }
+}
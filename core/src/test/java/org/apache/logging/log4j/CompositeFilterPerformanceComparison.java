@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.apache.logging.log4j.core.filter.MarkerFilter;
+import org.apache.logging.log4j.core.filter.RegexFilter;
+import org.apache.logging.log4j.core.filter.ThreadContextMapFilter;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
+import org.apache.logging.log4j.core.helpers.KeyValuePair;
+import org.junit.Test;
+
+/**
+ * Compares evaluating a chain of Filters one after the other, as CompositeFilter used to, with the
+ * compiled chain CompositeFilter now builds.
+ */
+public class CompositeFilterPerformanceComparison {
+
+    // How many times should we try to filter:
+    private static final int COUNT = 10000000;
+    private static final int WARMUP = 100000;
+
+    private static final Marker MARKER = MarkerManager.getMarker("PERF");
+
+    private final Filter[] filters = new Filter[] {
+        RegexFilter.createFilter(".* test .*", null, "NEUTRAL", "NEUTRAL"),
+        ThreadContextMapFilter.createFilter(new KeyValuePair[] {new KeyValuePair("LOG4J", "test"),
+            new KeyValuePair("USER", "test")}, "or", "NEUTRAL", "DENY"),
+        MarkerFilter.createFilter("PERF", "NEUTRAL", "DENY"),
+        ThresholdFilter.createFilter("INFO", "NEUTRAL", "DENY")
+    };
+
+    @Test
+    public void testPerformance() throws Exception {
+        CompositeFilter compiled = CompositeFilter.createFilters(filters);
+        sequential(filters, WARMUP);
+        compiled(compiled, WARMUP);
+
+        System.out.println("Starting sequential filters");
+        long result1 = sequential(filters, COUNT);
+        System.out.println("Starting compiled filters");
+        long result2 = compiled(compiled, COUNT);
+
+        System.out.println("###############################################");
+        System.out.println("Sequential: " + result1);
+        System.out.println("Compiled: " + result2);
+        System.out.println("###############################################");
+    }
+
+    private long sequential(Filter[] filters, int loop) {
+        Integer j = new Integer(2);
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            for (Filter filter : filters) {
+                Filter.Result result = filter.filter(null, Level.DEBUG, MARKER, "SEE IF THIS IS LOGGED {}.", j);
+                if (result == Filter.Result.ACCEPT || result == Filter.Result.DENY) {
+                    break;
+                }
+            }
+        }
+        return (System.nanoTime() - start) / loop;
+    }
+
+    private long compiled(Filter filter, int loop) {
+        Integer j = new Integer(2);
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            filter.filter(null, Level.DEBUG, MARKER, "SEE IF THIS IS LOGGED {}.", j);
+        }
+        return (System.nanoTime() - start) / loop;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j;
+
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.JSONLayout;
+import org.apache.logging.log4j.core.layout.XMLLayout;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the size and cost of formatting a LogEvent with the XMLLayout and the JSONLayout, with and without
+ * a Throwable.
+ */
+public class JSONLayoutPerformanceComparison {
+
+    // How many times should we try to format:
+    private static final int COUNT = 1000000;
+    private static final int WARMUP = 50000;
+
+    private static final String FQCN = JSONLayoutPerformanceComparison.class.getName();
+
+    private final LogEvent event;
+    private final LogEvent thrownEvent;
+
+    public JSONLayoutPerformanceComparison() {
+        Map<String, String> mdc = new HashMap<String, String>();
+        mdc.put("user", "test");
+        mdc.put("requestId", "12345");
+        StackTraceElement location = new StackTraceElement(FQCN, "testPerformance",
+            "JSONLayoutPerformanceComparison.java", 64);
+        event = new Log4jLogEvent("org.apache.logging.log4j.perf.Test", MarkerManager.getMarker("PERF"), FQCN,
+            Level.INFO, new ParameterizedMessage("SEE IF <THIS> IS \"LOGGED\" {}.", 2), null, mdc,
+            ThreadContext.EMPTY_STACK.push("request"), "main", location, System.currentTimeMillis());
+        thrownEvent = new Log4jLogEvent("org.apache.logging.log4j.perf.Test", MarkerManager.getMarker("PERF"), FQCN,
+            Level.ERROR, new ParameterizedMessage("SEE IF <THIS> IS \"LOGGED\" {}.", 2),
+            new IllegalStateException("Test", new RuntimeException("Cause")), mdc,
+            ThreadContext.EMPTY_STACK.push("request"), "main", location, System.currentTimeMillis());
+    }
+
+    @Test
+    public void testPerformance() throws Exception {
+        XMLLayout xml = XMLLayout.createLayout("true", "true", null, null);
+        JSONLayout json = JSONLayout.createLayout("true", "true", null, null, null, null, null, null);
+        JSONLayout compact = JSONLayout.createLayout("true", "true", null, null, null, null, "true", null);
+        compare(xml, json, compact, event, "without a Throwable");
+        compare(xml, json, compact, thrownEvent, "with a Throwable");
+    }
+
+    private void compare(Layout<?> xml, Layout<?> json, Layout<?> compact, LogEvent logEvent, String title) {
+        format(xml, logEvent, WARMUP);
+        format(json, logEvent, WARMUP);
+        format(compact, logEvent, WARMUP);
+
+        System.out.println("Starting XMLLayout " + title);
+        long result1 = format(xml, logEvent, COUNT);
+        System.out.println("Starting JSONLayout " + title);
+        long result2 = format(json, logEvent, COUNT);
+        System.out.println("Starting compact JSONLayout " + title);
+        long result3 = format(compact, logEvent, COUNT);
+
+        System.out.println("###############################################");
+        System.out.println("XML: " + result1 + " ns, " + xml.format(logEvent).length + " bytes");
+        System.out.println("JSON: " + result2 + " ns, " + json.format(logEvent).length + " bytes");
+        System.out.println("Compact JSON: " + result3 + " ns, " + compact.format(logEvent).length + " bytes");
+        System.out.println("###############################################");
+    }
+
+    private long format(Layout<?> layout, LogEvent logEvent, int loop) {
+        long start = System.nanoTime();
+        for (int i = 0; i < loop; i++) {
+            layout.format(logEvent);
+        }
+        return (System.nanoTime() - start) / loop;
+    }
+}
@@ -22,6 +22,7 @@ import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.core.filter.ThresholdFilter;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.junit.AfterClass;
@@ -33,6 +34,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -113,6 +115,23 @@ public class LoggerTest {
         app.clear();
     }
 
+    @Test
+    public void levelOnlyContextFilter() {
+        assertTrue(logger.isTraceEnabled());
+        Filter filter = ThresholdFilter.createFilter("INFO", null, null);
+        ctx.addFilter(filter);
+        try {
+            assertFalse(logger.isDebugEnabled());
+            assertTrue(logger.isInfoEnabled());
+            logger.debug("Debug message");
+            assertTrue("Debug event was not filtered", app.getEvents().size() == 0);
+        } finally {
+            ctx.removeFiler(filter);
+        }
+        assertTrue(logger.isTraceEnabled());
+        app.clear();
+    }
+
     @Test
     public void debugObject() {
         logger.debug(new Date());
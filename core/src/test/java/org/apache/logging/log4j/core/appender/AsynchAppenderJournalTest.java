@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class AsynchAppenderJournalTest {
+
+    private static final String DIR = "target/test-asynch-journal";
+    private static final int COUNT = 200;
+
+    @Before
+    public void setup() {
+        File[] files = new File(DIR).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testSpillAndReplay() throws Exception {
+        DefaultConfiguration config = new DefaultConfiguration();
+        GateAppender gate = new GateAppender("Gate");
+        gate.start();
+        config.addAppender(gate);
+        AsynchAppender appender = AsynchAppender.createAppender(
+            new AppenderRef[] {AppenderRef.createAppenderRef("Gate", null, null)}, null, "true", "4", "JournalTest",
+            null, config, "true", DIR, null, null, null, null);
+        appender.start();
+        try {
+            assertNotNull("No journal", appender.getJournal());
+            long start = System.nanoTime();
+            for (int i = 0; i < COUNT; ++i) {
+                appender.append(createEvent("Message " + i));
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("Append blocked for " + elapsed + "ms", elapsed < 5000);
+            assertTrue("Events were not written to the journal", appender.getJournal().hasRecords());
+
+            gate.open();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (gate.messages.size() < COUNT && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(COUNT, gate.messages.size());
+            for (int i = 0; i < COUNT; ++i) {
+                assertEquals("Message " + i, gate.messages.get(i));
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testReplayAfterRestart() throws Exception {
+        DefaultConfiguration config = new DefaultConfiguration();
+        GateAppender gate = new GateAppender("Gate");
+        gate.start();
+        config.addAppender(gate);
+        AppenderRef[] refs = new AppenderRef[] {AppenderRef.createAppenderRef("Gate", null, null)};
+        AsynchAppender appender = AsynchAppender.createAppender(refs, null, "true", "2", "RestartTest", null,
+            config, "true", DIR, null, null, null, null);
+        appender.start();
+        for (int i = 0; i < 20; ++i) {
+            appender.append(createEvent("Message " + i));
+        }
+        int journaled = appender.getJournal().getRecordCount();
+        assertTrue("Events were not written to the journal", journaled > 0);
+        // Open the gate once the appender is stopping so the thread only delivers what it holds in memory.
+        final GateAppender stalled = gate;
+        Thread opener = new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ex) {
+                    // Ignore the exception.
+                }
+                stalled.open();
+            }
+        };
+        opener.start();
+        appender.stop();
+        assertTrue("No events were left in the journal", gate.messages.size() < 20);
+        int delivered = gate.messages.size();
+
+        GateAppender replay = new GateAppender("Gate");
+        replay.start();
+        replay.open();
+        config.getAppenders().put("Gate", replay);
+        appender = AsynchAppender.createAppender(refs, null, "true", "2", "RestartTest", null,
+            config, "true", DIR, null, null, null, null);
+        appender.start();
+        try {
+            appender.append(createEvent("Message 20"));
+            long deadline = System.currentTimeMillis() + 10000;
+            while (delivered + replay.messages.size() < 21 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            List<String> all = new CopyOnWriteArrayList<String>(gate.messages);
+            all.addAll(replay.messages);
+            assertEquals(21, all.size());
+            for (int i = 0; i < 21; ++i) {
+                assertEquals("Message " + i, all.get(i));
+            }
+        } finally {
+            appender.stop();
+        }
+    }
+
+    private static LogEvent createEvent(String msg) {
+        return new Log4jLogEvent(AsynchAppenderJournalTest.class.getName(), null, null, Level.INFO,
+            new SimpleMessage(msg), null);
+    }
+}
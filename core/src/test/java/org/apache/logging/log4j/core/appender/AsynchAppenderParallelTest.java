@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.AppenderRef;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.jmx.AsynchTargetStatsMBean;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class AsynchAppenderParallelTest {
+
+    private static final int COUNT = 10;
+
+    @Test
+    public void testStalledTarget() throws Exception {
+        DefaultConfiguration config = new DefaultConfiguration();
+        GateAppender stalled = new GateAppender("Stalled");
+        GateAppender healthy = new GateAppender("Healthy");
+        healthy.open();
+        config.addAppender(stalled);
+        config.addAppender(healthy);
+        AppenderRef[] refs = new AppenderRef[] {AppenderRef.createAppenderRef("Stalled", null, null),
+            AppenderRef.createAppenderRef("Healthy", null, null)};
+        AsynchAppender appender = AsynchAppender.createAppender(refs, null, "true", "32", "Parallel", null, config,
+            "true", null, null, null, null, "parallel");
+        appender.start();
+        try {
+            for (int i = 0; i < COUNT; ++i) {
+                appender.append(createEvent("Message " + i));
+            }
+            waitFor(healthy, COUNT);
+            assertEquals("Healthy target was stalled", COUNT, healthy.messages.size());
+            assertEquals(0, stalled.messages.size());
+
+            List<AsynchTargetStatsMBean> stats = appender.getTargetStats();
+            assertEquals(2, stats.size());
+            assertEquals("Stalled", stats.get(0).getName());
+            assertEquals(32, stats.get(0).getQueueCapacity());
+            assertTrue("Stalled target has no queued events", stats.get(0).getQueueSize() > 0);
+            assertEquals(COUNT, stats.get(1).getDispatchedCount());
+
+            stalled.open();
+            waitFor(stalled, COUNT);
+            for (int i = 0; i < COUNT; ++i) {
+                assertEquals("Message " + i, stalled.messages.get(i));
+            }
+            assertEquals(COUNT, stats.get(0).getDispatchedCount());
+            assertEquals(0, stats.get(0).getQueueSize());
+            assertTrue(stats.get(0).getMaxLatency() >= stats.get(0).getAverageLatency());
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testDiscardPolicy() throws Exception {
+        DefaultConfiguration config = new DefaultConfiguration();
+        GateAppender stalled = new GateAppender("Stalled");
+        config.addAppender(stalled);
+        AsynchTarget[] targets = new AsynchTarget[] {AsynchTarget.createTarget("Stalled", "2", "discard")};
+        AsynchAppender appender = AsynchAppender.createAppender(null, null, "true", null, "Discard", null, config,
+            "true", null, null, null, targets, null);
+        appender.start();
+        try {
+            for (int i = 0; i < COUNT; ++i) {
+                appender.append(createEvent("Message " + i));
+            }
+            AsynchTargetStatsMBean stats = appender.getTargetStats().get(0);
+            assertEquals(2, stats.getQueueCapacity());
+            assertTrue("No events were discarded", stats.getOverflowCount() > 0);
+            stalled.open();
+            waitFor(stalled, COUNT - (int) stats.getOverflowCount());
+            assertEquals(COUNT, stalled.messages.size() + stats.getOverflowCount());
+            assertEquals("Message 0", stalled.messages.get(0));
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testNoTargets() throws Exception {
+        DefaultConfiguration config = new DefaultConfiguration();
+        GateAppender error = new GateAppender("Error");
+        error.open();
+        config.addAppender(error);
+        AppenderRef[] refs = new AppenderRef[] {AppenderRef.createAppenderRef("Missing", null, null)};
+        AsynchAppender appender = AsynchAppender.createAppender(refs, "Error", "true", null, "NoTargets", null,
+            config, "true", null, null, null, null, "parallel");
+        appender.start();
+        try {
+            for (int i = 0; i < COUNT; ++i) {
+                appender.append(createEvent("Message " + i));
+            }
+            assertEquals(0, appender.getTargetStats().size());
+            assertEquals(COUNT, error.messages.size());
+        } finally {
+            appender.stop();
+        }
+    }
+
+    @Test
+    public void testConfiguration() throws Exception {
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, "log4j-asynch-parallel.xml");
+        LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
+        ctx.reconfigure();
+        try {
+            Configuration config = ctx.getConfiguration();
+            AsynchAppender appender = (AsynchAppender) config.getAppenders().get("Asynch");
+            List<AsynchTargetStatsMBean> stats = appender.getTargetStats();
+            assertEquals(2, stats.size());
+            assertEquals("List", stats.get(0).getName());
+            assertEquals("Discard", stats.get(1).getName());
+            assertEquals(16, stats.get(1).getQueueCapacity());
+            Logger logger = LogManager.getLogger(AsynchAppenderParallelTest.class);
+            logger.error("This is a test");
+            ListAppender list = (ListAppender) config.getAppenders().get("Discard");
+            long deadline = System.currentTimeMillis() + 10000;
+            while (list.getMessages().size() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals("This is a test", list.getMessages().get(0));
+        } finally {
+            System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+            ctx.reconfigure();
+            StatusLogger.getLogger().reset();
+        }
+    }
+
+    private static void waitFor(GateAppender appender, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (appender.messages.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static LogEvent createEvent(String msg) {
+        return new Log4jLogEvent(AsynchAppenderParallelTest.class.getName(), null, null, Level.INFO,
+            new SimpleMessage(msg), null);
+    }
+}
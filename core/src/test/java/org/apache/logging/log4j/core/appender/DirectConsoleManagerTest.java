@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class DirectConsoleManagerTest {
+
+    private static final String FILENAME = "target/directConsoleTest.log";
+
+    private File file;
+    private FileOutputStream fos;
+
+    @Before
+    public void setup() throws Exception {
+        file = new File(FILENAME);
+        file.delete();
+        fos = new FileOutputStream(file);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        fos.close();
+        file.delete();
+    }
+
+    @Test
+    public void testBuffering() throws Exception {
+        DirectConsoleManager manager = new DirectConsoleManager(fos, "test-buffer", 16, 60000);
+        try {
+            manager.write("0123456789".getBytes());
+            assertEquals("Event was not buffered", 0, file.length());
+            manager.write("0123456789".getBytes());
+            assertEquals("Full buffer was not written", 10, file.length());
+            manager.write("012345678901234567890".getBytes());
+            assertEquals("Event larger than the buffer was not written", 41, file.length());
+            manager.write("abc".getBytes());
+            manager.flush();
+            assertEquals(44, file.length());
+        } finally {
+            manager.release();
+        }
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        DirectConsoleManager manager = new DirectConsoleManager(fos, "test-interval", 1024, 10);
+        try {
+            manager.write("0123456789".getBytes());
+            long end = System.currentTimeMillis() + 5000;
+            while (file.length() == 0 && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            assertEquals("Buffer was not flushed by the timer", 10, file.length());
+        } finally {
+            manager.release();
+        }
+    }
+
+    @Test
+    public void testReleaseFlushesWithoutClosing() throws Exception {
+        DirectConsoleManager manager = new DirectConsoleManager(fos, "test-release", 1024, 60000);
+        manager.setFooter("footer".getBytes());
+        manager.write("0123456789".getBytes());
+        manager.release();
+        assertEquals(16, file.length());
+        fos.write('x');
+        assertTrue("Descriptor was closed", fos.getFD().valid());
+        assertEquals(17, file.length());
+    }
+}
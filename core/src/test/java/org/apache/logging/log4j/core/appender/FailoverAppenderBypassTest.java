@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.core.jmx.AppenderStatsMBean;
+import org.apache.logging.log4j.core.jmx.Server;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+/**
+ *
+ */
+public class FailoverAppenderBypassTest {
+    private static final String CONFIG = "log4j-failover-bypass.xml";
+    private static FailoverAppender failover;
+    private static ListAppender app;
+    private static LoggerContext ctx;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        Configuration config = ctx.getConfiguration();
+        failover = (FailoverAppender) config.getAppenders().get("Failover");
+        app = (ListAppender) config.getAppenders().get("List");
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    org.apache.logging.log4j.Logger logger = LogManager.getLogger("LoggerTest");
+
+    @Test
+    public void testBypass() throws Exception {
+        assertNotNull(failover);
+        AppenderStatsMBean stats = failover.getPrimaryStats();
+        for (int i = 0; i < 5; ++i) {
+            logger.error("This is a test");
+        }
+        assertEquals(5, app.getEvents().size());
+        assertEquals(2, stats.getFailureCount());
+        assertEquals(3, stats.getBypassedCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = Server.createName("FailoverAppender", "Failover", "context", ctx.getName(), "appender",
+            "List");
+        assertEquals(Long.valueOf(5), server.getAttribute(name, "SuccessCount"));
+
+        Thread.sleep(1100);
+        logger.error("This is a test");
+        logger.error("This is a test");
+        assertEquals(7, app.getEvents().size());
+        assertEquals("Primary was not probed", 3, stats.getFailureCount());
+        assertEquals(4, stats.getBypassedCount());
+    }
+}
@@ -22,12 +22,15 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.core.config.Configuration;
 import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.core.jmx.Server;
 import org.apache.logging.log4j.status.StatusLogger;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.Map;
 
@@ -77,4 +80,12 @@ public class FailoverAppenderTest {
         assertNotNull(events);
         assertTrue("Incorrect number of events. Should be 1 is " + events.size(), events.size() == 1);
     }
+
+    @Test
+    public void testMBeansWithoutThreshold() {
+        ObjectName name = Server.createName("FailoverAppender", "Failover", "context", ctx.getName(), "appender",
+            "List");
+        assertTrue("MBean not registered without a failureThreshold",
+            ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class JournalManagerTest {
+
+    private static final String DIR = "target/test-journal";
+
+    @Before
+    public void setup() {
+        File dir = new File(DIR);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testReadInOrder() throws Exception {
+        JournalManager journal = JournalManager.getJournalManager(DIR, "order", 1024, 4);
+        assertNotNull(journal);
+        try {
+            assertFalse(journal.hasRecords());
+            for (int i = 0; i < 100; ++i) {
+                assertTrue("Unable to write record " + i, journal.write(("record " + i).getBytes()));
+            }
+            assertEquals(100, journal.getRecordCount());
+            assertTrue("Records were not written to several segments", countSegments("order") > 1);
+            for (int i = 0; i < 100; ++i) {
+                JournalManager.Record record = journal.read();
+                assertNotNull("Missing record " + i, record);
+                assertEquals("record " + i, new String(record.getData()));
+                journal.commit(record);
+            }
+            assertNull(journal.read());
+            assertFalse(journal.hasRecords());
+            assertEquals("Consumed segments were not deleted", 1, countSegments("order"));
+        } finally {
+            journal.release();
+        }
+    }
+
+    @Test
+    public void testRecovery() throws Exception {
+        JournalManager journal = JournalManager.getJournalManager(DIR, "recover", 1024, 4);
+        for (int i = 0; i < 40; ++i) {
+            journal.write(("record " + i).getBytes());
+        }
+        for (int i = 0; i < 25; ++i) {
+            journal.commit(journal.read());
+        }
+        // Read but not committed so it must be returned again.
+        journal.read();
+        journal.release();
+
+        journal = JournalManager.getJournalManager(DIR, "recover", 1024, 4);
+        try {
+            assertEquals(15, journal.getRecordCount());
+            journal.write("new record".getBytes());
+            for (int i = 25; i < 40; ++i) {
+                JournalManager.Record record = journal.read();
+                assertEquals("record " + i, new String(record.getData()));
+                journal.commit(record);
+            }
+            JournalManager.Record record = journal.read();
+            assertEquals("new record", new String(record.getData()));
+            journal.commit(record);
+            assertNull(journal.read());
+        } finally {
+            journal.release();
+        }
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        JournalManager journal = JournalManager.getJournalManager(DIR, "bounded", 1024, 2);
+        try {
+            byte[] data = new byte[100];
+            int count = 0;
+            while (journal.write(data)) {
+                ++count;
+            }
+            assertTrue("Journal did not fill", count > 0 && count <= 2 * 1024 / data.length);
+            assertEquals(2, countSegments("bounded"));
+            assertFalse("Record larger than a segment was written", journal.write(new byte[2048]));
+            journal.commit(journal.read());
+            assertFalse(journal.write(data));
+        } finally {
+            journal.release();
+        }
+    }
+
+    @Test
+    public void testConsumers() throws Exception {
+        JournalManager journal = JournalManager.getJournalManager(DIR, "consumers", 1024, 4);
+        for (int i = 0; i < 4; ++i) {
+            journal.write(("record " + i).getBytes());
+        }
+        // Two consumers, as while a configuration replaces another, commit out of order.
+        JournalManager.Record first = journal.read();
+        JournalManager.Record second = journal.read();
+        assertEquals("record 0", new String(first.getData()));
+        assertEquals("record 1", new String(second.getData()));
+        journal.commit(second);
+        journal.commit(first);
+        // Record 2 is read but never committed; record 3 is consumed after it.
+        journal.read();
+        journal.commit(journal.read());
+        journal.release();
+
+        journal = JournalManager.getJournalManager(DIR, "consumers", 1024, 4);
+        try {
+            assertEquals(1, journal.getRecordCount());
+            JournalManager.Record record = journal.read();
+            assertEquals("record 2", new String(record.getData()));
+            journal.commit(record);
+            assertNull("A consumed record was read again", journal.read());
+        } finally {
+            journal.release();
+        }
+    }
+
+    private int countSegments(String prefix) {
+        int count = 0;
+        for (File file : new File(DIR).listFiles()) {
+            if (file.getName().startsWith(prefix + "-")) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
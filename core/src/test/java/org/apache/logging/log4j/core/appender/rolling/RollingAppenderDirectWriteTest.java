@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.appender.RollingFileAppender;
+import org.apache.logging.log4j.core.config.DefaultConfiguration;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class RollingAppenderDirectWriteTest {
+
+    private static final String CONFIG = "log4j-rolling-direct.xml";
+    private static final String DIR = "target/rolling-direct";
+
+    org.apache.logging.log4j.Logger logger = LogManager.getLogger(RollingAppenderDirectWriteTest.class.getName());
+
+    @BeforeClass
+    public static void setupClass() {
+        deleteDir();
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        ctx.reconfigure();
+        deleteDir();
+        StatusLogger.getLogger().reset();
+    }
+
+    @Test
+    public void testAppender() throws Exception {
+        LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        ctx.reconfigure();
+        RollingFileAppender appender = (RollingFileAppender) ctx.getConfiguration().getAppenders().get("RollingFile");
+        assertEquals(DIR + File.separator + "test-1.log", new File(appender.getFileName()).getPath());
+        for (int i = 0; i < 100; ++i) {
+            logger.debug("This is test message number " + i);
+        }
+        // Wait for the last compression and clean up to complete.
+        Thread.sleep(500);
+        File dir = new File(DIR);
+        int active = 0;
+        int compressed = 0;
+        int highest = 0;
+        for (File file : dir.listFiles()) {
+            String name = file.getName();
+            assertTrue("Unexpected file " + name, name.startsWith("test-"));
+            if (name.endsWith(".log.gz")) {
+                ++compressed;
+            } else {
+                ++active;
+            }
+            int index = Integer.parseInt(name.substring("test-".length(), name.indexOf('.')));
+            highest = Math.max(highest, index);
+        }
+        assertEquals(1, active);
+        assertEquals(3, compressed);
+        assertTrue("Files were not written directly", highest > 4);
+        assertTrue("The active file is not the newest", new File(DIR, "test-" + highest + ".log").exists());
+        assertFalse("The oldest file was not deleted", new File(DIR, "test-1.log.gz").exists());
+
+        // A new configuration continues with the newest file.
+        ctx.reconfigure();
+        appender = (RollingFileAppender) ctx.getConfiguration().getAppenders().get("RollingFile");
+        assertEquals(new File(DIR, "test-" + highest + ".log").getPath(), new File(appender.getFileName()).getPath());
+    }
+
+    @Test
+    public void testNoCounter() throws Exception {
+        DirectWriteRolloverStrategy strategy = DirectWriteRolloverStrategy.createStrategy("2", null,
+            new DefaultConfiguration());
+        String pattern = DIR + "-nocounter/test-%d{yyyy-MM-dd}.log.gz";
+        PatternProcessor processor = new PatternProcessor(pattern);
+        String fileName = strategy.getActiveFileName(processor);
+        RollingFileManager manager = RollingFileManager.getFileManager(fileName, pattern, true, false);
+        try {
+            for (int i = 0; i < 3; ++i) {
+                assertNull("Rolled over to the active file", strategy.rollover(manager));
+            }
+            assertEquals(fileName, manager.getFileName());
+        } finally {
+            manager.release();
+            new File(fileName).delete();
+            new File(DIR + "-nocounter").delete();
+        }
+    }
+
+    private static void deleteDir() {
+        File dir = new File(DIR);
+        if (dir.exists()) {
+            File[] files = dir.listFiles();
+            for (File file : files) {
+                file.delete();
+            }
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class RollingAppenderRetentionTest {
+
+    private static final String CONFIG = "log4j-rolling-retention.xml";
+    private static final String DIR = "target/rolling-retention";
+
+    org.apache.logging.log4j.Logger logger = LogManager.getLogger(RollingAppenderRetentionTest.class.getName());
+
+    private static File foreign;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        deleteDir(new File(DIR));
+        // A file of another appender that only differs where the pattern has a date and a counter.
+        File month = new File(DIR, new SimpleDateFormat("yyyy-MM").format(new Date()));
+        month.mkdirs();
+        foreign = new File(month, "test-error-other.log.gz");
+        new FileOutputStream(foreign).close();
+        foreign.setLastModified(System.currentTimeMillis() - 60000);
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        ctx.reconfigure();
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        LoggerContext ctx = (LoggerContext) LogManager.getContext();
+        ctx.reconfigure();
+        deleteDir(new File(DIR));
+        StatusLogger.getLogger().reset();
+    }
+
+    @Test
+    public void testAppender() throws Exception {
+        for (int i = 0; i < 100; ++i) {
+            logger.debug("This is test message number " + i);
+        }
+        // Wait for the last compression and clean up to complete.
+        Thread.sleep(500);
+        File[] dirs = new File(DIR).listFiles();
+        int archives = 0;
+        int highest = 0;
+        for (File dir : dirs) {
+            if (!dir.isDirectory()) {
+                continue;
+            }
+            for (File file : dir.listFiles()) {
+                if (file.equals(foreign)) {
+                    continue;
+                }
+                String name = file.getName();
+                assertTrue("Unexpected file " + name, name.endsWith(".log.gz"));
+                ++archives;
+                int index = Integer.parseInt(name.substring(name.lastIndexOf('-') + 1, name.indexOf('.')));
+                highest = Math.max(highest, index);
+            }
+        }
+        assertEquals("Retention did not limit the archives", 3, archives);
+        assertEquals(3, highest);
+        assertTrue("Retention deleted a file it did not roll over", foreign.exists());
+    }
+
+    @Test
+    public void testDateRegex() throws Exception {
+        Date date = new Date();
+        String[] patterns = {"yyyy-MM-dd", "MM-dd-yyyy", "yyyyMMdd'T'HHmm", "dd MMM yyyy HH:mm:ss,SSS", "EEE"};
+        for (String pattern : patterns) {
+            String regex = RetentionPolicy.dateRegex(pattern);
+            String formatted = new SimpleDateFormat(pattern).format(date);
+            assertTrue(formatted + " does not match " + regex, Pattern.matches(regex, formatted));
+        }
+        assertFalse(Pattern.matches(RetentionPolicy.dateRegex("yyyy-MM-dd"), "error"));
+    }
+
+    private static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                deleteDir(file);
+            }
+        }
+        dir.delete();
+    }
+}
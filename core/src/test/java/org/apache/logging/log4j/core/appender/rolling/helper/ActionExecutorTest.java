@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.helper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class ActionExecutorTest {
+
+    private final Thread testThread = Thread.currentThread();
+    private final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    private final List<ActionExecutor.Task> blockers = new ArrayList<ActionExecutor.Task>();
+    private final List<CountDownLatch> releases = new ArrayList<CountDownLatch>();
+    private CountDownLatch started;
+    private volatile CountDownLatch executed;
+
+    /**
+     * Occupy every thread of the executor so that the Actions submitted by a test are queued.
+     */
+    @Before
+    public void setUp() throws Exception {
+        int threads = ActionExecutor.getMaximumThreads();
+        started = new CountDownLatch(threads);
+        for (int i = 0; i < threads; ++i) {
+            final CountDownLatch release = new CountDownLatch(1);
+            releases.add(release);
+            blockers.add(ActionExecutor.submit(new ActionBase() {
+                @Override
+                public boolean execute() {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return true;
+                }
+            }, Long.MIN_VALUE));
+        }
+        started.await();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        for (CountDownLatch release : releases) {
+            release.countDown();
+        }
+        for (ActionExecutor.Task task : blockers) {
+            task.await();
+        }
+    }
+
+    @Test
+    public void testOldestFirst() throws Exception {
+        ActionExecutor.submit(new Record("third"), 3000);
+        ActionExecutor.submit(new Record("first"), 1000);
+        ActionExecutor.submit(new Record("second"), 2000);
+        assertEquals(3, ActionExecutor.getQueueSize());
+        assertTrue(order.isEmpty());
+        // Free a single thread so the queued Actions run one at a time. Waiting with await() could run a
+        // queued Action on this thread instead.
+        executed = new CountDownLatch(3);
+        releases.get(0).countDown();
+        assertTrue("Actions did not run", executed.await(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("first", "second", "third"), order);
+    }
+
+    @Test
+    public void testAwaitRunsQueuedAction() throws Exception {
+        ActionExecutor.Task task = ActionExecutor.submit(new Record("queued"), 1000);
+        assertFalse(task.isDone());
+        task.await();
+        assertTrue(task.isDone());
+        assertEquals(Arrays.asList("queued@" + Thread.currentThread().getName()), order);
+        assertEquals(0, ActionExecutor.getQueueSize());
+    }
+
+    /**
+     * Records the order Actions are run in.
+     */
+    private class Record extends ActionBase {
+        private final String name;
+
+        public Record(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean execute() {
+            order.add(Thread.currentThread() == testThread ? name + "@" + testThread.getName() : name);
+            CountDownLatch latch = executed;
+            if (latch != null) {
+                latch.countDown();
+            }
+            return true;
+        }
+    }
+}
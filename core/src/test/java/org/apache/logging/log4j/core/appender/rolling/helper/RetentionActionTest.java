@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.rolling.helper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class RetentionActionTest {
+
+    private static final String DIR = "target/retention";
+    private static final Pattern PATTERN = Pattern.compile("[^/]+/app-[^/]+\\.log\\.gz");
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    /** Each test has its own directory because the index of a directory is kept between actions. */
+    private File dir;
+    private String filePattern;
+    private long now;
+
+    @Before
+    public void setUp() throws Exception {
+        deleteDir(new File(DIR));
+        now = System.currentTimeMillis();
+    }
+
+    @After
+    public void tearDown() {
+        if (filePattern != null) {
+            RetentionAction.evict(filePattern);
+        }
+        deleteDir(new File(DIR));
+    }
+
+    @Test
+    public void testMaxFiles() throws Exception {
+        dir = new File(DIR, "files");
+        filePattern = dir.getPath() + "/%d{yyyy-MM}/app-%i.log.gz";
+        for (int i = 1; i <= 5; ++i) {
+            createFile("2012-0" + i + "/app-" + i + ".log.gz", 10, now - (10 - i) * HOUR);
+        }
+        File active = createFile("2012-05/app-6.log.gz", 10, now);
+        File other = createFile("2012-01/other-1.log.gz", 10, now - 20 * HOUR);
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, active, null, 0, 0, 3, HOUR));
+        assertFalse(new File(dir, "2012-01/app-1.log.gz").exists());
+        assertFalse(new File(dir, "2012-02/app-2.log.gz").exists());
+        assertTrue(new File(dir, "2012-03/app-3.log.gz").exists());
+        assertTrue(active.exists());
+        assertTrue(other.exists());
+    }
+
+    @Test
+    public void testMaxAgeAndTotalSize() throws Exception {
+        dir = new File(DIR, "age");
+        filePattern = dir.getPath() + "/%d{yyyy-MM}/app-%i.log.gz";
+        createFile("a/app-1.log.gz", 100, now - 50 * HOUR);
+        createFile("a/app-2.log.gz", 100, now - 30 * HOUR);
+        createFile("a/app-3.log.gz", 100, now - 3 * HOUR);
+        createFile("a/app-4.log.gz", 100, now - 2 * HOUR);
+        createFile("a/app-5.log.gz", 100, now - HOUR);
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, null, TimeUnit.DAYS.toMillis(2), 0, 0, HOUR));
+        assertFalse(new File(dir, "a/app-1.log.gz").exists());
+        assertTrue(new File(dir, "a/app-2.log.gz").exists());
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, null, 0, 250, 0, HOUR));
+        assertFalse(new File(dir, "a/app-3.log.gz").exists());
+        assertTrue(new File(dir, "a/app-4.log.gz").exists());
+        assertTrue(new File(dir, "a/app-5.log.gz").exists());
+    }
+
+    @Test
+    public void testIncrementalScan() throws Exception {
+        dir = new File(DIR, "incremental");
+        filePattern = dir.getPath() + "/%d{yyyy-MM}/app-%i.log.gz";
+        createFile("b/app-1.log.gz", 10, now - 3 * HOUR);
+        createFile("b/app-2.log.gz", 10, now - 2 * HOUR);
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, null, 0, 0, 2, HOUR));
+        assertEquals(2, new File(dir, "b").list().length);
+
+        // Files that are not added are only found by the next full scan.
+        createFile("b/app-3.log.gz", 10, now - HOUR);
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, null, 0, 0, 2, HOUR));
+        assertTrue(new File(dir, "b/app-1.log.gz").exists());
+
+        File added = createFile("b/app-4.log.gz", 10, now);
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, Collections.singletonList(added), 0, 0, 2, HOUR));
+        assertFalse(new File(dir, "b/app-1.log.gz").exists());
+        assertEquals(3, new File(dir, "b").list().length);
+
+        run(new RetentionAction(filePattern, dir, PATTERN, 1, null, null, 0, 0, 2, 0));
+        String[] names = new File(dir, "b").list();
+        Arrays.sort(names);
+        assertEquals(Arrays.asList("app-3.log.gz", "app-4.log.gz"), Arrays.asList(names));
+    }
+
+    private void run(RetentionAction action) throws Exception {
+        assertTrue(action.execute());
+        long end = System.currentTimeMillis() + 5000;
+        while (!action.isComplete() && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertTrue("Retention did not complete", action.isComplete());
+    }
+
+    private File createFile(String name, int size, long lastModified) throws IOException {
+        File file = new File(dir, name);
+        file.getParentFile().mkdirs();
+        FileOutputStream os = new FileOutputStream(file);
+        try {
+            os.write(new byte[size]);
+        } finally {
+            os.close();
+        }
+        file.setLastModified(lastModified);
+        return file;
+    }
+
+    private static void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                deleteDir(file);
+            }
+        }
+        dir.delete();
+    }
+}
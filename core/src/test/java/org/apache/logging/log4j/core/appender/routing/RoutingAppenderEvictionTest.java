@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.appender.routing;
+
+import org.apache.logging.log4j.EventLogger;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class RoutingAppenderEvictionTest {
+    private static final String CONFIG = "log4j-routing-evict.xml";
+    private static RoutingAppender routing;
+    private static LoggerContext ctx;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        Configuration config = ctx.getConfiguration();
+        routing = (RoutingAppender) config.getAppenders().get("Routing");
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    @Test
+    public void evictionTest() {
+        assertNotNull("No RoutingAppender", routing);
+        log("A");
+        Appender first = routing.getRouteAppender("A");
+        assertNotNull("No Appender for route A", first);
+        assertEquals(1, ((ListAppender) first).getEvents().size());
+        log("A");
+        assertEquals(2, ((ListAppender) first).getEvents().size());
+        log("B");
+        log("C");
+        assertNull("Route A was not evicted", routing.getRouteAppender("A"));
+        assertFalse("Evicted Appender was not stopped", first.isStarted());
+        assertNotNull(routing.getRouteAppender("B"));
+        assertNotNull(routing.getRouteAppender("C"));
+        log("A");
+        Appender second = routing.getRouteAppender("A");
+        assertNotNull("Route A was not recreated", second);
+        assertNotSame(first, second);
+        assertTrue(second.isStarted());
+        assertEquals(1, ((ListAppender) second).getEvents().size());
+        assertTrue("No route was evicted",
+            routing.getRouteAppender("B") == null || routing.getRouteAppender("C") == null);
+    }
+
+    private void log(String type) {
+        EventLogger.logEvent(new StructuredDataMessage("Test", "This is a test", type));
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config;
+
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.core.filter.CompositeFilter;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class PluginBinderTest {
+
+    @Test
+    public void testFactoryParameters() {
+        ConcurrentMap<Class<?>, PluginBinder> binders = new ConcurrentHashMap<Class<?>, PluginBinder>();
+        PluginBinder binder = PluginBinder.getBinder(binders, ConsoleAppender.class);
+        assertSame(binder, PluginBinder.getBinder(binders, ConsoleAppender.class));
+        assertNotNull(binder.getFactoryMethod());
+        assertTrue(binder.isStatic());
+        assertFalse(binder.isMap());
+        assertEquals(8, binder.size());
+        assertEquals(PluginBinder.Kind.ELEMENT, binder.getKind(0));
+        assertEquals("layout", binder.getName(0));
+        assertEquals(PluginBinder.Kind.ELEMENT, binder.getKind(1));
+        assertSame(Filter.class, binder.getType(1));
+        assertEquals(PluginBinder.Kind.ATTR, binder.getKind(2));
+        assertEquals("target", binder.getName(2));
+    }
+
+    @Test
+    public void testArrayParameter() {
+        PluginBinder binder = PluginBinder.getBinder(new ConcurrentHashMap<Class<?>, PluginBinder>(),
+            CompositeFilter.class);
+        assertEquals(PluginBinder.Kind.ELEMENTS, binder.getKind(0));
+        assertSame(Filter.class, binder.getType(0));
+    }
+}
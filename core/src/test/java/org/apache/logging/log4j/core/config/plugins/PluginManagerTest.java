@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.config.plugins;
+
+import org.apache.logging.log4j.core.appender.ConsoleAppender;
+import org.apache.logging.log4j.test.appender.ListAppender;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ */
+public class PluginManagerTest {
+
+    @Test
+    public void testIndexedPlugins() {
+        PluginManager manager = new PluginManager("Core");
+        manager.collectPlugins();
+        PluginType type = manager.getPluginType("Console");
+        assertNotNull("Console plugin not found", type);
+        assertEquals(ConsoleAppender.class.getName(), type.getClassName());
+        assertSame(ConsoleAppender.class, type.getPluginClass());
+    }
+
+    @Test
+    public void testScannedPackage() {
+        PluginManager.addPackage("org.apache.logging.log4j.test");
+        PluginManager manager = new PluginManager("Core");
+        manager.collectPlugins();
+        PluginType type = manager.getPluginType("List");
+        assertNotNull("List plugin not found", type);
+        assertSame(ListAppender.class, type.getPluginClass());
+        manager = new PluginManager("Core");
+        manager.collectPlugins();
+        assertNotNull("List plugin not retained", manager.getPluginType("List"));
+    }
+
+    @Test
+    public void testIndexedSubPackageScanned() {
+        // The core index names org.apache.logging.log4j.core, which must not hide plugins in its sub-packages.
+        PluginManager.addPackage("org.apache.logging.log4j.core.appender.rewrite");
+        PluginManager manager = new PluginManager("Core");
+        manager.collectPlugins();
+        assertNotNull("Plugin in a sub-package of an indexed package not found",
+            manager.getPluginType("TestRewritePolicy"));
+    }
+
+    @Test
+    public void testUnknownType() {
+        PluginManager manager = new PluginManager("NoSuchPluginType");
+        manager.collectPlugins();
+        assertNotNull(manager.getPlugins());
+        assertEquals(0, manager.getPlugins().size());
+    }
+
+    @Test
+    public void testDeferredClass() {
+        PluginType type = new PluginType(ListAppender.class.getName(), getClass().getClassLoader(), "appender",
+            true, false);
+        assertEquals(ListAppender.class.getName(), type.getClassName());
+        assertSame(ListAppender.class, type.getPluginClass());
+        type = new PluginType("org.apache.logging.log4j.NoSuchPlugin", getClass().getClassLoader(), "appender",
+            true, false);
+        assertNull(type.getPluginClass());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.filter;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.helpers.KeyValuePair;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class CompositeFilterTest {
+
+    @After
+    public void cleanup() {
+        ThreadContext.clear();
+    }
+
+    @Test
+    public void testEmpty() {
+        CompositeFilter filter = CompositeFilter.createFilters(null);
+        assertTrue(!filter.hasFilters());
+        LogEvent event = new Log4jLogEvent(null, null, null, Level.DEBUG, new SimpleMessage("Test"), null);
+        assertEquals(Filter.Result.NEUTRAL, filter.filter(event));
+    }
+
+    @Test
+    public void testOrderIsPreservedForMixedResults() {
+        Filter accept = ThresholdFilter.createFilter("INFO", "ACCEPT", "NEUTRAL");
+        Filter deny = ThresholdFilter.createFilter("ERROR", "NEUTRAL", "DENY");
+        CompositeFilter filter = CompositeFilter.createFilters(new Filter[] {accept, deny});
+        assertEquals(Filter.Result.ACCEPT, filter.filter(null, Level.INFO, null, "Test", (Throwable) null));
+        filter = CompositeFilter.createFilters(new Filter[] {deny, accept});
+        assertEquals(Filter.Result.DENY, filter.filter(null, Level.INFO, null, "Test", (Throwable) null));
+    }
+
+    @Test
+    public void testNestedAndNeutralFilters() {
+        Marker marker = MarkerManager.getMarker("CompositeFilterTest");
+        Filter neutral = ThresholdFilter.createFilter("ERROR", "NEUTRAL", "NEUTRAL");
+        Filter map = ThreadContextMapFilter.createFilter(new KeyValuePair[] {new KeyValuePair("user", "test"),
+            new KeyValuePair("role", "admin")},
+            "or", "NEUTRAL", "DENY");
+        Filter markerFilter = MarkerFilter.createFilter("CompositeFilterTest", "NEUTRAL", "DENY");
+        CompositeFilter nested = CompositeFilter.createFilters(new Filter[] {neutral, map});
+        CompositeFilter filter = CompositeFilter.createFilters(new Filter[] {nested, markerFilter});
+        assertEquals(2, filter.size());
+
+        assertEquals(Filter.Result.DENY, filter.filter(null, Level.DEBUG, marker, "Test", (Throwable) null));
+        ThreadContext.put("user", "test");
+        assertEquals(Filter.Result.NEUTRAL, filter.filter(null, Level.DEBUG, marker, "Test", (Throwable) null));
+        assertEquals(Filter.Result.DENY, filter.filter(null, Level.DEBUG, null, "Test", (Throwable) null));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.helpers;
+
+import org.junit.Test;
+
+import java.io.PrintWriter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ *
+ */
+public class TransformTest {
+
+    @Test
+    public void testEscapeTags() {
+        String plain = "org.apache.logging.Test";
+        assertSame(plain, Transform.escapeTags(plain));
+        assertNull(Transform.escapeTags(null));
+        assertEquals("&lt;b&gt;&quot;Tom &amp; Jerry&quot;&lt;/b&gt;", Transform.escapeTags("<b>\"Tom & Jerry\"</b>"));
+        assertEquals("a&lt;", Transform.escapeTags("a<"));
+    }
+
+    @Test
+    public void testEscapeTagsCached() {
+        String name = "thread<1>";
+        String escaped = Transform.escapeTagsCached(name);
+        assertEquals("thread&lt;1&gt;", escaped);
+        assertSame(escaped, Transform.escapeTagsCached(name));
+    }
+
+    @Test
+    public void testAppendEscapingTags() {
+        StringBuilder buf = new StringBuilder("x=");
+        Transform.appendEscapingTags(buf, "1 < 2 & 3 > 2");
+        assertEquals("x=1 &lt; 2 &amp; 3 &gt; 2", buf.toString());
+        buf.setLength(0);
+        Transform.appendEscapingTags(buf, "abc<def>ghi", 2, 8);
+        assertEquals("c&lt;def&gt;", buf.toString());
+    }
+
+    @Test
+    public void testAppendEscapingCDATA() {
+        StringBuilder buf = new StringBuilder();
+        Transform.appendEscapingCDATA(buf, "a]]>b]]>");
+        assertEquals("a]]>]]&gt;<![CDATA[b]]>]]&gt;<![CDATA[", buf.toString());
+        buf.setLength(0);
+        Transform.appendEscapingCDATA(buf, "]]");
+        assertEquals("]]", buf.toString());
+        buf.setLength(0);
+        Transform.appendEscapingCDATA(buf, "x]]]>", 1, 5);
+        assertEquals("]]]>]]&gt;<![CDATA[", buf.toString());
+    }
+
+    @Test
+    public void testAppendStackTrace() {
+        Throwable throwable = new Throwable("<msg>") {
+            @Override
+            public void printStackTrace(PrintWriter writer) {
+                writer.print("java.lang.Throwable: <msg>\r\n\tat a.b(]]>)\n\n\tat c.d\r\n");
+            }
+        };
+        StringBuilder buf = new StringBuilder();
+        Transform.appendStackTraceEscapingTags(buf, throwable, "|");
+        assertEquals("java.lang.Throwable: &lt;msg&gt;|\tat a.b(]]&gt;)||\tat c.d", buf.toString());
+        buf.setLength(0);
+        Transform.appendStackTraceEscapingCDATA(buf, throwable, "|");
+        assertEquals("java.lang.Throwable: <msg>|\tat a.b(]]>]]&gt;<![CDATA[)||\tat c.d", buf.toString());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(1));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(100));
+        histogram.record(TimeUnit.SECONDS.toNanos(60));
+        long[] buckets = histogram.getBuckets();
+        assertEquals(1, buckets[0]);
+        assertEquals(1, buckets[1]);
+        assertEquals(1, buckets[2]);
+        assertEquals(1, buckets[7]);
+        assertEquals(1, buckets[LatencyHistogram.BUCKETS - 1]);
+        assertEquals(5, histogram.getCount());
+        assertEquals(TimeUnit.SECONDS.toMicros(60), histogram.getMax());
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 0; i < 99; ++i) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(10));
+        }
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(16, histogram.getPercentile(50));
+        assertEquals(16, histogram.getPercentile(99));
+        assertEquals(5000, histogram.getPercentile(100));
+        assertEquals(59, histogram.getAverage());
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void testConcurrentUpdates() throws Exception {
+        final StripedCounters counters = new StripedCounters(3);
+        final int count = 10000;
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int i = 0; i < 8; ++i) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < count; ++j) {
+                        counters.increment(1);
+                        counters.add(2, 2);
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, counters.get(0));
+        assertEquals(8 * count, counters.get(1));
+        assertEquals(16 * count, counters.get(2));
+        counters.reset();
+        assertEquals(0, counters.get(2));
+    }
+}
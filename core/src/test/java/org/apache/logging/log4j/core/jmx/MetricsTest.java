@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.jmx;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.core.config.Configuration;
+import org.apache.logging.log4j.core.config.LoggerConfig;
+import org.apache.logging.log4j.core.config.XMLConfigurationFactory;
+import org.apache.logging.log4j.status.StatusLogger;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class MetricsTest {
+    private static final String CONFIG = "log4j-metrics.xml";
+    private static LoggerContext ctx;
+    private static LoggerConfig loggerConfig;
+
+    @BeforeClass
+    public static void setupClass() {
+        System.setProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY, CONFIG);
+        ctx = (LoggerContext) LogManager.getContext(false);
+        Configuration config = ctx.getConfiguration();
+        loggerConfig = config.getLoggerConfig("MetricsTest");
+        ObjectName name = Server.createName("LoggerConfig", "MetricsTest", "context", ctx.getName(), "config",
+            "MetricsTest");
+        assertFalse("MBean registered while metrics are disabled",
+            ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+
+    @AfterClass
+    public static void cleanupClass() {
+        System.clearProperty(XMLConfigurationFactory.CONFIGURATION_FILE_PROPERTY);
+        ctx.reconfigure();
+        StatusLogger.getLogger().reset();
+    }
+
+    @After
+    public void tearDown() {
+        Metrics.setEnabled(false);
+    }
+
+    private final Logger logger = LogManager.getLogger("MetricsTest");
+
+    @Test
+    public void testRecording() throws Exception {
+        Metrics.setEnabled(true);
+        logger.debug("Debug");
+        logger.warn("Warn");
+        logger.warn(MarkerManager.getMarker("SKIP"), "Skipped");
+        Metrics.setEnabled(false);
+        logger.warn("Not recorded");
+
+        LoggerConfigStats stats = loggerConfig.getStats();
+        assertEquals(3, stats.getEventCount());
+        assertEquals(1, stats.getFilteredCount());
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = Server.createName("LoggerConfig", "MetricsTest", "context", ctx.getName(), "config",
+            "MetricsTest");
+        assertEquals(Long.valueOf(3), server.getAttribute(name, "EventCount"));
+
+        name = Server.createName("AppenderControl", "List", "context", ctx.getName(), "logger", "MetricsTest",
+            "config", "MetricsTest");
+        assertEquals(Long.valueOf(2), server.getAttribute(name, "EventCount"));
+        assertEquals(Long.valueOf(1), server.getAttribute(name, "FilteredCount"));
+        assertEquals(Long.valueOf(1), server.getAttribute(name, "WrittenCount"));
+
+        name = Server.createName("AppenderControl", "File", "context", ctx.getName(), "logger", "MetricsTest",
+            "config", "MetricsTest");
+        assertEquals(Long.valueOf(2), server.getAttribute(name, "WrittenCount"));
+        assertEquals(Long.valueOf(0), server.getAttribute(name, "ErrorCount"));
+        long[] histogram = (long[]) server.getAttribute(name, "LatencyHistogram");
+        long count = 0;
+        for (long bucket : histogram) {
+            count += bucket;
+        }
+        assertEquals(2, count);
+
+        name = Server.createName("OutputStreamManager", "target/metrics.log", "context", ctx.getName(), "config",
+            "MetricsTest");
+        String separator = System.getProperty("line.separator");
+        assertEquals(Long.valueOf(2), server.getAttribute(name, "WriteCount"));
+        assertEquals(Long.valueOf(("Debug" + separator + "Warn" + separator).length()),
+            server.getAttribute(name, "BytesWritten"));
+    }
+
+    @Test
+    public void testSwitch() {
+        Log4jManager manager = new Log4jManager();
+        assertFalse(manager.isMetricsEnabled());
+        manager.setMetricsEnabled(true);
+        assertTrue(Metrics.isEnabled());
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ *
+ */
+public class BinaryLayoutTest {
+
+    private static final String FQCN = BinaryLayoutTest.class.getName();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout(null);
+        Marker parent = MarkerManager.getMarker("BinaryParent");
+        Marker marker = MarkerManager.getMarker("BinaryChild", parent);
+        Map<String, String> mdc = new HashMap<String, String>();
+        mdc.put("key1", "value1");
+        mdc.put("key2", null);
+        ThreadContext.ContextStack ndc = ThreadContext.EMPTY_STACK.push("outer").push("inner");
+        StackTraceElement location = new StackTraceElement("org.example.Test", "run", "Test.java", 42);
+        StructuredDataMessage msg = new StructuredDataMessage("Audit@18060", "Transfer Complete", "Transfer");
+        msg.put("ToAccount", "123456");
+        Exception thrown = new IllegalStateException("test");
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(layout.getHeader());
+        baos.write(layout.format(new Log4jLogEvent("org.example.Test", marker, FQCN, Level.WARN, msg, thrown,
+            mdc, ndc, "main", location, 1234L)));
+        byte[] first = layout.format(event("second"));
+        baos.write(first);
+        byte[] repeat = layout.format(event("second"));
+        baos.write(repeat);
+        assertTrue("Dictionary was not used", repeat.length < first.length);
+
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        LogEvent event = decoder.read();
+        assertEquals("org.example.Test", event.getLoggerName());
+        assertEquals(Level.WARN, event.getLevel());
+        assertEquals(FQCN, event.getFQCN());
+        assertEquals("main", event.getThreadName());
+        assertEquals(1234L, event.getMillis());
+        assertEquals("BinaryChild", event.getMarker().getName());
+        assertEquals("BinaryParent", event.getMarker().getParent().getName());
+        assertTrue(event.getMessage() instanceof StructuredDataMessage);
+        assertEquals(msg.getFormattedMessage(), event.getMessage().getFormattedMessage());
+        assertEquals(mdc, event.getContextMap());
+        assertEquals(ndc, event.getContextStack());
+        assertEquals(location, event.getSource());
+        assertNotNull(event.getThrown());
+        assertEquals("test", event.getThrown().getMessage());
+
+        for (int i = 0; i < 2; ++i) {
+            event = decoder.read();
+            assertEquals("second", event.getMessage().getFormattedMessage());
+            assertEquals(Level.INFO, event.getLevel());
+            assertNull(event.getMarker());
+            assertNull(event.getThrown());
+        }
+        try {
+            decoder.read();
+            fail("Expected end of stream");
+        } catch (EOFException eof) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testDictionaryReset() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout("3");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(layout.getHeader());
+        for (int i = 0; i < 10; ++i) {
+            baos.write(layout.format(new Log4jLogEvent("logger" + i, null, FQCN, Level.INFO,
+                new SimpleMessage("msg" + i), null)));
+        }
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        for (int i = 0; i < 10; ++i) {
+            LogEvent event = decoder.read();
+            assertEquals("logger" + i, event.getLoggerName());
+            assertEquals("msg" + i, event.getMessage().getFormattedMessage());
+        }
+    }
+
+    @Test
+    public void testInterleavedStreams() throws Exception {
+        BinaryLayout layout1 = BinaryLayout.createLayout(null);
+        BinaryLayout layout2 = BinaryLayout.createLayout(null);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(layout1.getHeader());
+        baos.write(layout1.format(event("one")));
+        baos.write(layout2.getHeader());
+        baos.write(layout2.format(event("two")));
+        baos.write(layout1.format(event("three")));
+        baos.write(layout2.format(event("four")));
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        String[] expected = {"one", "two", "three", "four"};
+        for (String msg : expected) {
+            LogEvent event = decoder.read();
+            assertNotNull(event);
+            assertEquals("BinaryLayoutTest", event.getLoggerName());
+            assertEquals(msg, event.getMessage().getFormattedMessage());
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout(null);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(layout.getHeader());
+        baos.write(layout.format(event("before")));
+        layout.reset();
+        // A new connection only sees the records written after the reset.
+        baos.reset();
+        baos.write(layout.getHeader());
+        baos.write(layout.format(event("after")));
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        LogEvent event = decoder.read();
+        assertEquals("BinaryLayoutTest", event.getLoggerName());
+        assertEquals("after", event.getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testFormatRecord() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout(null);
+        layout.formatRecord(event("first"));
+        // Each record is read by a new decoder, as a JMS receiver does.
+        byte[] record = layout.formatRecord(event("second"));
+        LogEvent event = new BinaryEventDecoder(new ByteArrayInputStream(record)).read();
+        assertEquals("BinaryLayoutTest", event.getLoggerName());
+        assertEquals(Level.INFO, event.getLevel());
+        assertEquals("second", event.getMessage().getFormattedMessage());
+    }
+
+    @Test
+    public void testOversizedString() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout(null);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+        dos.write(layout.getHeader());
+        dos.writeByte(BinaryLayout.EVENT);
+        dos.writeByte(0);
+        dos.writeByte(0);
+        dos.writeLong(0L);
+        // A literal level name claiming to be a gigabyte long.
+        dos.write(new byte[] {(byte) 0xFD, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F});
+        dos.close();
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        try {
+            decoder.read();
+            fail("Oversized string was accepted");
+        } catch (StreamCorruptedException ex) {
+            // Expected.
+        }
+    }
+
+    @Test
+    public void testNotSerializable() throws Exception {
+        BinaryLayout layout = BinaryLayout.createLayout(null);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(layout.getHeader());
+        baos.write(layout.format(new Log4jLogEvent("BinaryLayoutTest", null, FQCN, Level.ERROR,
+            new UnserializableMessage("failed"), new UnserializableException("broken"))));
+        baos.write(layout.format(event("next")));
+        BinaryEventDecoder decoder = new BinaryEventDecoder(new ByteArrayInputStream(baos.toByteArray()));
+        LogEvent event = decoder.read();
+        assertEquals("failed", event.getMessage().getFormattedMessage());
+        assertNotNull(event.getThrown());
+        assertTrue(event.getThrown().getMessage().contains("broken"));
+        event = decoder.read();
+        assertEquals("BinaryLayoutTest", event.getLoggerName());
+        assertEquals(Level.INFO, event.getLevel());
+        assertEquals("next", event.getMessage().getFormattedMessage());
+    }
+
+    private static LogEvent event(String msg) {
+        return new Log4jLogEvent("BinaryLayoutTest", null, FQCN, Level.INFO, new SimpleMessage(msg), null);
+    }
+
+    private static class UnserializableMessage implements Message, Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String text;
+        private final Object state = new Object();
+
+        public UnserializableMessage(String text) {
+            this.text = text;
+        }
+
+        public String getFormattedMessage() {
+            return text;
+        }
+
+        public String getMessageFormat() {
+            return text;
+        }
+
+        public Object[] getParameters() {
+            return null;
+        }
+    }
+
+    private static class UnserializableException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final Object state = new Object();
+
+        public UnserializableException(String msg) {
+            super(msg);
+        }
+    }
+}
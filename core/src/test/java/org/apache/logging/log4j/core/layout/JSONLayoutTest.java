@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.layout;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.MapMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.message.StructuredDataMessage;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class JSONLayoutTest {
+
+    private static final String FQCN = JSONLayoutTest.class.getName();
+    private static final long TIME = 1350000000123L;
+
+    @Test
+    public void testCompact() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout(null, null, null, null, null, null, "true", null);
+        LogEvent event = new Log4jLogEvent("org.test", null, FQCN, Level.INFO, new SimpleMessage("Hello"), null,
+            null, null, "main", null, TIME);
+        assertEquals("{\"timestamp\":1350000000123,\"level\":\"INFO\",\"logger\":\"org.test\",\"thread\":\"main\"," +
+            "\"message\":\"Hello\"}\n", layout.formatAs(event));
+    }
+
+    @Test
+    public void testIndented() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout(null, null, null, null, null, null, null, null);
+        LogEvent event = new Log4jLogEvent("", null, FQCN, Level.WARN, new SimpleMessage("Hello"), null,
+            null, null, "main", null, TIME);
+        assertEquals("{\n  \"timestamp\": 1350000000123,\n  \"level\": \"WARN\",\n  \"logger\": \"root\",\n" +
+            "  \"thread\": \"main\",\n  \"message\": \"Hello\"\n}\n", layout.formatAs(event));
+    }
+
+    @Test
+    public void testEscaping() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout(null, null, null, null, null, null, "true", null);
+        String text = "\"quoted\" back\\slash\nnew\tline\u0001 caf\u00e9 \u20ac \ud83d\ude00 \ud800";
+        LogEvent event = new Log4jLogEvent("org.test", null, FQCN, Level.INFO, new SimpleMessage(text), null,
+            null, null, "main", null, TIME);
+        String json = layout.formatAs(event);
+        assertTrue(json, json.contains("\"message\":\"\\\"quoted\\\" back\\\\slash\\nnew\\tline\\u0001 caf\u00e9 " +
+            "\u20ac \ud83d\ude00 \ud800\"}"));
+        assertTrue("UTF-8 encoding differs from String.getBytes",
+            Arrays.equals(json.getBytes("UTF-8"), layout.format(event)));
+    }
+
+    @Test
+    public void testFields() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout("true", "true", null, null, null, null, "true", null);
+        Map<String, String> mdc = new TreeMap<String, String>();
+        mdc.put("user", "test");
+        mdc.put("requestId", "12345");
+        StackTraceElement location = new StackTraceElement(FQCN, "testFields", "JSONLayoutTest.java", 42);
+        Marker marker = MarkerManager.getMarker("CHILD", MarkerManager.getMarker("PARENT"));
+        LogEvent event = new Log4jLogEvent("org.test", marker, FQCN, Level.DEBUG, new SimpleMessage("Hello"), null,
+            mdc, ThreadContext.EMPTY_STACK.push("request"), "main", location, TIME);
+        String json = layout.formatAs(event);
+        assertTrue(json, json.contains(",\"marker\":{\"name\":\"CHILD\",\"parent\":{\"name\":\"PARENT\"}},"));
+        assertTrue(json, json.contains(",\"contextStack\":[\"request\"],"));
+        assertTrue(json, json.contains(",\"contextMap\":{\"requestId\":\"12345\",\"user\":\"test\"},"));
+        assertTrue(json, json.contains(",\"source\":{\"class\":\"" + FQCN +
+            "\",\"method\":\"testFields\",\"file\":\"JSONLayoutTest.java\",\"line\":42}}\n"));
+    }
+
+    @Test
+    public void testMapMessage() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout(null, null, null, null, null, null, "true", null);
+        MapMessage map = new MapMessage();
+        map.put("key", "value");
+        LogEvent event = new Log4jLogEvent("org.test", null, FQCN, Level.INFO, map, null, null, null, "main", null,
+            TIME);
+        assertTrue(layout.formatAs(event).endsWith(",\"data\":{\"key\":\"value\"}}\n"));
+
+        StructuredDataMessage msg = new StructuredDataMessage("Transfer@18060", "Transfer Complete", "Audit");
+        msg.put("Amount", "200.00");
+        event = new Log4jLogEvent("org.test", null, FQCN, Level.INFO, msg, null, null, null, "main", null, TIME);
+        String json = layout.formatAs(event);
+        assertTrue(json, json.endsWith(",\"dataId\":\"" + msg.getId() + "\",\"dataType\":\"Audit\"," +
+            "\"message\":\"Transfer Complete\",\"data\":{\"Amount\":\"200.00\"}}\n"));
+    }
+
+    @Test
+    public void testThrowable() throws Exception {
+        JSONLayout layout = JSONLayout.createLayout(null, null, null, null, null, null, "true", null);
+        Exception cause = new IllegalStateException("cause");
+        cause.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("org.test.Cause", "run", "Cause.java", 7)});
+        Exception ex = new RuntimeException("\"failed\"", cause);
+        ex.setStackTrace(new StackTraceElement[] {
+            new StackTraceElement("org.test.Main", "main", "Main.java", 12),
+            new StackTraceElement("org.test.Main", "call", null, -1)});
+        LogEvent event = new Log4jLogEvent("org.test", null, FQCN, Level.ERROR, new SimpleMessage("Hello"), ex,
+            null, null, "main", null, TIME);
+        String json = layout.formatAs(event);
+        assertTrue(json, json.endsWith(",\"thrown\":{\"name\":\"java.lang.RuntimeException\"," +
+            "\"message\":\"\\\"failed\\\"\",\"frames\":[\"org.test.Main.main(Main.java:12)\"," +
+            "\"org.test.Main.call(Unknown Source)\"],\"cause\":{\"name\":\"java.lang.IllegalStateException\"," +
+            "\"message\":\"cause\",\"frames\":[\"org.test.Cause.run(Cause.java:7)\"]}}}\n"));
+    }
+}
@@ -21,18 +21,25 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.MarkerManager;
 import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.BasicConfigurationFactory;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.apache.logging.log4j.test.appender.ListAppender;
 import org.apache.logging.log4j.core.config.ConfigurationFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
 import org.apache.logging.log4j.message.StructuredDataMessage;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -128,4 +135,37 @@ public class RFC5424LayoutTest {
 
     }
 
+    @Test
+    public void testTimestamp() throws Exception {
+        RFC5424Layout layout = RFC5424Layout.createLayout("Local0", "Event", "3692", "false", null, null, "ATM",
+            null, null, null, null, null, null);
+        long second = 1350000000000L;
+        long[] times = {second, second + 7, second + 999, second + 1000, second + 61250, second, -1};
+        for (long time : times) {
+            LogEvent event = new Log4jLogEvent("test", null, null, Level.INFO, new SimpleMessage("msg"), null,
+                null, null, "main", null, time);
+            String record = layout.formatAs(event);
+            String expected = expectedTimestamp(time);
+            assertEquals(expected, record.substring(record.indexOf(' ') + 1, record.indexOf(' ') + 1 +
+                expected.length()));
+            assertTrue(record, record.endsWith(" ATM - - - msg"));
+        }
+    }
+
+    private String expectedTimestamp(long time) {
+        TimeZone zone = TimeZone.getDefault();
+        SimpleDateFormat format = new SimpleDateFormat(time % 1000 == 0 ? "yyyy-MM-dd'T'HH:mm:ss" :
+            "yyyy-MM-dd'T'HH:mm:ss.SSS");
+        format.setTimeZone(zone);
+        StringBuilder sb = new StringBuilder(format.format(new Date(time)));
+        int offset = zone.getOffset(time) / 60000;
+        if (offset == 0) {
+            sb.append('Z');
+        } else {
+            sb.append(offset < 0 ? '-' : '+');
+            offset = Math.abs(offset);
+            sb.append(String.format("%02d:%02d", offset / 60, offset % 60));
+        }
+        return sb.toString();
+    }
 }
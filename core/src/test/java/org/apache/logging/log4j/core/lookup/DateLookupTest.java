@@ -18,13 +18,13 @@ package org.apache.logging.log4j.core.lookup;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.message.Message;
 import org.junit.Test;
 
 import java.util.Calendar;
 import java.util.Map;
-import java.util.Stack;
 
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -84,7 +84,7 @@ public class DateLookupTest {
             return null;
         }
 
-        public Stack<String> getContextStack() {
+        public ThreadContext.ContextStack getContextStack() {
             return null;
         }
 
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ *
+ */
+public class DatagramChannelManagerTest {
+
+    private static final int PORT = 8199;
+
+    private DatagramSocket socket;
+
+    @Before
+    public void setUp() throws Exception {
+        socket = new DatagramSocket(PORT);
+        socket.setSoTimeout(3000);
+    }
+
+    @After
+    public void tearDown() {
+        socket.close();
+    }
+
+    @Test
+    public void testDatagramPerRecord() throws Exception {
+        DatagramChannelManager manager = DatagramChannelManager.getSocketManager("localhost", PORT, 0, false);
+        manager.setHeader("header\n".getBytes());
+        manager.setFooter("footer\n".getBytes());
+        write(manager, "first\n");
+        write(manager, "second\n");
+        manager.release();
+        assertEquals("header\nfirst\n", receive());
+        assertEquals("second\n", receive());
+        assertEquals("footer\n", receive());
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        DatagramChannelManager manager = DatagramChannelManager.getSocketManager("localhost", PORT, 16, true);
+        write(manager, "first\n");
+        manager.flush();
+        write(manager, "second\n");
+        write(manager, "third\n");
+        manager.release();
+        assertEquals("first\nsecond\n", receive());
+        assertEquals("third\n", receive());
+    }
+
+    private void write(DatagramChannelManager manager, String msg) {
+        byte[] bytes = msg.getBytes();
+        manager.write(bytes, 0, bytes.length);
+    }
+
+    private String receive() throws Exception {
+        byte[] bytes = new byte[DatagramChannelManager.MAX_PACKET_SIZE];
+        DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
+        socket.receive(packet);
+        return new String(packet.getData(), packet.getOffset(), packet.getLength());
+    }
+}
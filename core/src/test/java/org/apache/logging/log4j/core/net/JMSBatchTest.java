@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.net;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AppenderRuntimeException;
+import org.apache.logging.log4j.core.appender.JMSQueueAppender;
+import org.apache.logging.log4j.core.appender.JMSTopicAppender;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockejb.jms.MockQueue;
+import org.mockejb.jms.MockTopic;
+import org.mockejb.jms.QueueConnectionFactoryImpl;
+import org.mockejb.jms.TopicConnectionFactoryImpl;
+import org.mockejb.jndi.MockContextFactory;
+
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSession;
+import javax.jms.TopicConnection;
+import javax.jms.TopicConnectionFactory;
+import javax.jms.TopicSession;
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the batching mode of the JMS Managers.
+ */
+public class JMSBatchTest {
+
+    private static final String QUEUE_FACTORY_NAME = "TestBatchQueueConnectionFactory";
+    private static final String QUEUE_NAME = "TestBatchQueue";
+    private static final String TOPIC_FACTORY_NAME = "TestBatchTopicConnectionFactory";
+    private static final String TOPIC_NAME = "TestBatchTopic";
+    private static final int COUNT = 25;
+
+    private static AtomicInteger commits = new AtomicInteger();
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        MockContextFactory.setAsInitial();
+        Context context = new InitialContext();
+        context.rebind(QUEUE_FACTORY_NAME, transactional(new QueueConnectionFactoryImpl()));
+        context.rebind(QUEUE_NAME, new MockQueue(QUEUE_NAME));
+        context.rebind(TOPIC_FACTORY_NAME, transactional(new TopicConnectionFactoryImpl()));
+        context.rebind(TOPIC_NAME, new MockTopic(TOPIC_NAME));
+    }
+
+    @Test
+    public void testBatchedBytesMessages() throws Exception {
+        final List<LogEvent> received = new ArrayList<LogEvent>();
+        new JMSQueueReceiver(QUEUE_FACTORY_NAME, QUEUE_NAME, null, null) {
+            @Override
+            protected void log(LogEvent event) {
+                synchronized (received) {
+                    received.add(event);
+                }
+            }
+        };
+        JMSQueueAppender appender = JMSQueueAppender.createAppender(null, null, null, null, null, QUEUE_FACTORY_NAME,
+            QUEUE_NAME, null, null, null, null, "false", "10", "100", "2", "true");
+        assertNotNull("No appender created", appender);
+        appender.start();
+        for (int i = 0; i < COUNT; ++i) {
+            appender.append(createEvent("Queue message " + i));
+        }
+        appender.stop();
+        assertEvents(received);
+    }
+
+    @Test
+    public void testBatchedObjectMessages() throws Exception {
+        final List<LogEvent> received = new ArrayList<LogEvent>();
+        new JMSTopicReceiver(TOPIC_FACTORY_NAME, TOPIC_NAME, null, null) {
+            @Override
+            protected void log(LogEvent event) {
+                synchronized (received) {
+                    received.add(event);
+                }
+            }
+        };
+        JMSTopicAppender appender = JMSTopicAppender.createAppender(null, null, null, null, null, TOPIC_FACTORY_NAME,
+            TOPIC_NAME, null, null, null, null, "false", "10", "100", "2", null);
+        assertNotNull("No appender created", appender);
+        appender.start();
+        for (int i = 0; i < COUNT; ++i) {
+            appender.append(createEvent("Topic message " + i));
+        }
+        appender.stop();
+        assertEvents(received);
+    }
+
+    @Test
+    public void testDispatchAfterStop() throws Exception {
+        JMSQueueAppender appender = JMSQueueAppender.createAppender(null, null, null, null, null, QUEUE_FACTORY_NAME,
+            QUEUE_NAME, null, null, null, null, "false", "10", "100", "1", "true");
+        assertNotNull("No appender created", appender);
+        appender.start();
+        appender.stop();
+        commits.set(0);
+        try {
+            appender.append(createEvent("After stop"));
+            fail("Message was accepted after the manager was stopped");
+        } catch (AppenderRuntimeException ex) {
+            // Expected
+        }
+    }
+
+    private static LogEvent createEvent(String msg) {
+        return new Log4jLogEvent(JMSBatchTest.class.getName(), null, JMSBatchTest.class.getName(), Level.INFO,
+            new SimpleMessage(msg), null);
+    }
+
+    private static void assertEvents(List<LogEvent> received) {
+        int count = commits.getAndSet(0);
+        assertTrue("No transactions were committed", count > 0);
+        assertTrue("Events were not batched", count < COUNT);
+        synchronized (received) {
+            assertEquals("Incorrect number of events", COUNT, received.size());
+            for (LogEvent event : received) {
+                assertTrue("Incorrect event " + event.getMessage().getFormattedMessage(),
+                    event.getMessage().getFormattedMessage().contains("message"));
+            }
+        }
+    }
+
+    /**
+     * The mock JMS provider does not support transactions so commit and rollback are intercepted here.
+     */
+    private static Object transactional(Object target) {
+        Class<?>[] interfaces;
+        if (target instanceof QueueConnectionFactory) {
+            interfaces = new Class<?>[] {QueueConnectionFactory.class};
+        } else if (target instanceof TopicConnectionFactory) {
+            interfaces = new Class<?>[] {TopicConnectionFactory.class};
+        } else if (target instanceof QueueConnection) {
+            interfaces = new Class<?>[] {QueueConnection.class};
+        } else if (target instanceof TopicConnection) {
+            interfaces = new Class<?>[] {TopicConnection.class};
+        } else if (target instanceof QueueSession) {
+            interfaces = new Class<?>[] {QueueSession.class};
+        } else if (target instanceof TopicSession) {
+            interfaces = new Class<?>[] {TopicSession.class};
+        } else {
+            return target;
+        }
+        return Proxy.newProxyInstance(JMSBatchTest.class.getClassLoader(), interfaces, new Transactional(target));
+    }
+
+    private static class Transactional implements InvocationHandler {
+        private final Object target;
+
+        public Transactional(Object target) {
+            this.target = target;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("commit")) {
+                commits.incrementAndGet();
+                return null;
+            } else if (method.getName().equals("rollback")) {
+                return null;
+            }
+            try {
+                return transactional(method.invoke(target, args));
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
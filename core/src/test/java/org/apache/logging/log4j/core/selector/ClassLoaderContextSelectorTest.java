@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.core.selector;
+
+import org.apache.logging.log4j.core.LoggerContext;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class ClassLoaderContextSelectorTest {
+
+    private static final String FQCN = ClassLoaderContextSelectorTest.class.getName() + "$Api";
+
+    @Test
+    public void testCallerContext() {
+        ClassLoaderContextSelector selector = new ClassLoaderContextSelector();
+        LoggerContext byLoader = selector.getContext(FQCN, getClass().getClassLoader(), false);
+        LoggerContext byCaller = Api.getContext(selector);
+        assertSame("Caller context differs from the context of its ClassLoader", byLoader, byCaller);
+        assertSame("Context was not cached", byCaller, Api.getContext(selector));
+    }
+
+    @Test
+    public void testSeparateLoaders() {
+        ClassLoaderContextSelector selector = new ClassLoaderContextSelector();
+        ClassLoader loader = new URLClassLoader(new URL[0], getClass().getClassLoader());
+        LoggerContext first = selector.getContext(FQCN, loader, false);
+        LoggerContext second = selector.getContext(FQCN, getClass().getClassLoader(), false);
+        assertNotSame("ClassLoaders share a context", first, second);
+        assertSame("Context was not cached", first, selector.getContext(FQCN, loader, false));
+        assertTrue("Context not listed", selector.getLoggerContexts().contains(first));
+        selector.removeContext(first);
+        assertTrue("Context not removed", !selector.getLoggerContexts().contains(first));
+    }
+
+    /**
+     * Stands in for the logging API so that its caller can be located.
+     */
+    private static class Api {
+        public static LoggerContext getContext(ClassLoaderContextSelector selector) {
+            return selector.getContext(FQCN, null, false);
+        }
+    }
+}
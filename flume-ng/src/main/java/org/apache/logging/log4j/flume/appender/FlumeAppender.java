@@ -43,6 +43,8 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
 
     private final String mdcPrefix;
 
+    private final MDCKeys keys;
+
     private final boolean compressBody;
 
     private final int reconnectDelay;
@@ -62,6 +64,7 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
         this.mdcRequired = required;
         this.eventPrefix = eventPrefix;
         this.mdcPrefix = mdcPrefix;
+        this.keys = MDCKeys.createKeys(includes, excludes, required, mdcPrefix, eventPrefix);
         this.compressBody = compress;
         this.reconnectDelay = delay;
         this.retries = retries;
@@ -99,8 +102,7 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
      */
     public FlumeEvent createEvent(LogEvent event, String includes, String excludes, String required,
                       String mdcPrefix, String eventPrefix, boolean compress) {
-        return new FlumeEvent(event, mdcIncludes, mdcExcludes, mdcRequired, mdcPrefix,
-            eventPrefix, compressBody);
+        return new FlumeEvent(event, keys, compressBody);
     }
 
     /**
@@ -117,6 +119,9 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
      * @param eventPrefix The prefix to add to event key names.
      * @param compressBody If true the event body will be compressed.
      * @param batchSize Number of events to include in a batch. Defaults to 1.
+     * @param pipelined If true events are queued and sent to the agents by background threads.
+     * @param maxDelay The maximum number of milliseconds a pipelined event waits for its batch to fill.
+     * @param maxInFlight The number of pipelined batches that may be sent concurrently.
      * @param factory The factory to use to create Flume events.
      * @param layout The layout to format the event.
      * @param filter A Filter to filter events.
@@ -138,6 +143,9 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
                                                    @PluginAttr("eventPrefix") String eventPrefix,
                                                    @PluginAttr("compress") String compressBody,
                                                    @PluginAttr("batchSize") String batchSize,
+                                                   @PluginAttr("pipelined") String pipelined,
+                                                   @PluginAttr("maxDelay") String maxDelay,
+                                                   @PluginAttr("maxInFlight") String maxInFlight,
                                                    @PluginElement("flumeEventFactory") FlumeEventFactory factory,
                                                    @PluginElement("layout") Layout layout,
                                                    @PluginElement("filters") Filter filter) {
@@ -150,6 +158,9 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
         int batchCount = batchSize == null ? 1 : Integer.parseInt(batchSize);
         int reconnectDelay = delay == null ? 0 : Integer.parseInt(delay);
         int retries = agentRetries == null ? 0 : Integer.parseInt(agentRetries);
+        boolean pipeline = pipelined == null ? false : Boolean.valueOf(pipelined);
+        int delayMillis = maxDelay == null ? 0 : Integer.parseInt(maxDelay);
+        int inFlight = maxInFlight == null ? 0 : Integer.parseInt(maxInFlight);
 
         if (layout == null) {
             layout = RFC5424Layout.createLayout(null, null, null, "True", null, null, null, null, excludes,
@@ -170,7 +181,8 @@ public final class FlumeAppender extends AppenderBase implements FlumeEventFacto
                 LOGGER.debug("No agents provided, using defaults");
                 agents = new Agent[] {Agent.createAgent(null, null)};
             }
-            manager = FlumeAvroManager.getManager(name, agents, batchCount);
+            manager = FlumeAvroManager.getManager(name, agents, batchCount, pipeline, delayMillis, inFlight,
+                reconnectDelay, retries);
         }
 
         if (manager == null) {
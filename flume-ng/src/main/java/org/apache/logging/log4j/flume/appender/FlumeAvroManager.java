@@ -33,7 +33,10 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manager for FlumeAvroAppenders.
@@ -45,8 +48,23 @@ public class FlumeAvroManager extends FlumeManager {
      */
     public static final int DEFAULT_RECONNECTION_DELAY   = 500;
 
+    /**
+     * The default maximum number of milliseconds an event waits for its batch to fill when pipelined.
+     */
+    public static final int DEFAULT_MAX_DELAY = 1000;
+
+    /**
+     * The default number of batches that may be in flight at once when pipelined.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2;
+
     private static final int DEFAULT_RECONNECTS = 3;
 
+    private static final int QUEUE_MULTIPLIER = 4;
+
+    /** The number of milliseconds a caller waits for space in the queue before checking whether it was stopped. */
+    private static final long STOP_CHECK_INTERVAL = 100;
+
     private static ManagerFactory factory = new AvroManagerFactory();
 
     private AvroSourceProtocol client;
@@ -61,6 +79,14 @@ public class FlumeAvroManager extends FlumeManager {
 
     private Transceiver transceiver;
 
+    private final BlockingQueue<FlumeEvent> queue;
+
+    private final Sender[] senders;
+
+    private volatile boolean stopped = false;
+
+    private final AtomicLong dropped = new AtomicLong();
+
     /**
      * Constructor
      * @param name The unique name of this manager.
@@ -72,6 +98,35 @@ public class FlumeAvroManager extends FlumeManager {
         this.agents = agents;
         this.batchSize = batchSize;
         this.client = connect(agents);
+        this.queue = null;
+        this.senders = null;
+    }
+
+    /**
+     * Constructor for a pipelined manager. Events are queued and sent by background threads, each of which
+     * builds its own batch and has at most one RPC outstanding, so up to maxInFlight batches may be in flight.
+     * @param name The unique name of this manager.
+     * @param agents An array of Agents.
+     * @param batchSize The number of events to include in a batch.
+     * @param maxDelay The maximum number of milliseconds an event waits for its batch to fill.
+     * @param maxInFlight The number of batches that may be in flight at once.
+     * @param delay The number of milliseconds to wait between retries.
+     * @param retries The number of times to retry an agent before failing over to the next agent.
+     */
+    protected FlumeAvroManager(String name, Agent[] agents, int batchSize, int maxDelay, int maxInFlight,
+                               int delay, int retries) {
+        super(name);
+        this.agents = agents;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<FlumeEvent>(batchSize * maxInFlight * QUEUE_MULTIPLIER);
+        this.senders = new Sender[maxInFlight];
+        for (int i = 0; i < maxInFlight; ++i) {
+            senders[i] = new Sender(name + "-" + (i + 1), maxDelay, delay == 0 ? DEFAULT_RECONNECTION_DELAY : delay,
+                retries == 0 ? DEFAULT_RECONNECTS : retries);
+        }
+        for (Sender sender : senders) {
+            sender.start();
+        }
     }
 
     /**
@@ -81,6 +136,23 @@ public class FlumeAvroManager extends FlumeManager {
      * @return A FlumeAvroManager.
      */
     public static FlumeAvroManager getManager(String name, Agent[] agents, int batchSize) {
+        return getManager(name, agents, batchSize, false, 0, 0, 0, 0);
+    }
+
+    /**
+     * Return a FlumeAvroManager.
+     * @param name The name of the Appender.
+     * @param agents The agents to use.
+     * @param batchSize The number of events to include in a batch.
+     * @param pipelined If true events are queued and sent by background threads.
+     * @param maxDelay The maximum number of milliseconds an event waits for its batch to fill when pipelined.
+     * @param maxInFlight The number of batches that may be in flight at once when pipelined.
+     * @param delay The number of milliseconds to wait between retries when pipelined.
+     * @param retries The number of times to retry an agent before failing over when pipelined.
+     * @return A FlumeAvroManager.
+     */
+    public static FlumeAvroManager getManager(String name, Agent[] agents, int batchSize, boolean pipelined,
+                                              int maxDelay, int maxInFlight, int delay, int retries) {
         if (agents == null || agents.length == 0) {
             throw new IllegalArgumentException("At least one agent is required");
         }
@@ -99,7 +171,17 @@ public class FlumeAvroManager extends FlumeManager {
             first = false;
         }
         sb.append("]");
-        return (FlumeAvroManager) getManager(sb.toString(), factory, new FactoryData(name, agents, batchSize));
+        if (pipelined) {
+            if (maxDelay <= 0) {
+                maxDelay = DEFAULT_MAX_DELAY;
+            }
+            if (maxInFlight <= 0) {
+                maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+            }
+            sb.append(":pipelined");
+        }
+        return (FlumeAvroManager) getManager(sb.toString(), factory, new FactoryData(name, agents, batchSize,
+            pipelined, maxDelay, maxInFlight, delay, retries));
     }
 
     /**
@@ -118,20 +200,49 @@ public class FlumeAvroManager extends FlumeManager {
         return current;
     }
 
-    public synchronized void send(FlumeEvent event, int delay, int retries)  {
+    /**
+     * Returns the number of events that were discarded because they could not be sent to any agent after the
+     * last retry, or were still queued when the manager was released. Only pipelined managers discard events.
+     * @return The number of discarded events.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Send an event. When pipelined the event is queued for the background senders, waiting for space if the
+     * queue is full, and delay and retries are those the manager was created with.
+     * @param event The FlumeEvent.
+     * @param delay The number of milliseconds to wait between retries.
+     * @param retries The number of times to retry an agent before failing over to the next agent.
+     * @throws AppenderRuntimeException if the pipelined manager has been released.
+     */
+    public void send(FlumeEvent event, int delay, int retries)  {
+        if (queue == null) {
+            sendNow(event, delay, retries);
+            return;
+        }
+        try {
+            // Once the senders are stopped nothing drains the queue, so never wait for space indefinitely.
+            do {
+                if (stopped) {
+                    throw new AppenderRuntimeException("Flume manager " + getName() + " has been stopped");
+                }
+            } while (!queue.offer(event, STOP_CHECK_INTERVAL, TimeUnit.MILLISECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AppenderRuntimeException("Interrupted while queuing event for " + getName());
+        }
+    }
+
+    private synchronized void sendNow(FlumeEvent event, int delay, int retries)  {
         if (delay == 0) {
             delay = DEFAULT_RECONNECTION_DELAY;
         }
         if (retries == 0) {
             retries = DEFAULT_RECONNECTS;
         }
-        AvroFlumeEvent avroEvent = new AvroFlumeEvent();
-        avroEvent.body = ByteBuffer.wrap(event.getBody());
-        avroEvent.headers = new HashMap<CharSequence, CharSequence>();
-
-        for (Map.Entry<String, String> entry : event.getHeaders().entrySet()) {
-          avroEvent.headers.put(entry.getKey(), entry.getValue());
-        }
+        AvroFlumeEvent avroEvent = convert(event);
 
         List<AvroFlumeEvent> batch = batchSize > 1 ? events.addAndGet(avroEvent, batchSize) : null;
         if (batch == null && batchSize > 1) {
@@ -199,7 +310,14 @@ public class FlumeAvroManager extends FlumeManager {
 
     }
 
-    private void sleep(int delay) {
+    private static AvroFlumeEvent convert(FlumeEvent event) {
+        AvroFlumeEvent avroEvent = new AvroFlumeEvent();
+        avroEvent.body = ByteBuffer.wrap(event.getBody());
+        avroEvent.headers = new HashMap<CharSequence, CharSequence>(event.getHeaders());
+        return avroEvent;
+    }
+
+    private static void sleep(int delay) {
         try {
             Thread.sleep(delay);
         } catch (InterruptedException ex) {
@@ -244,6 +362,34 @@ public class FlumeAvroManager extends FlumeManager {
 
     @Override
     protected void releaseSub() {
+        if (senders != null) {
+            stopped = true;
+            for (Sender sender : senders) {
+                sender.shutdown = true;
+            }
+            for (Sender sender : senders) {
+                try {
+                    sender.join();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int remaining = queue.size();
+            queue.clear();
+            if (remaining > 0) {
+                dropped.addAndGet(remaining);
+                LOGGER.error("Discarded " + remaining + " events queued for " + getName() + " after it was stopped");
+            }
+            return;
+        }
+        List<AvroFlumeEvent> remaining = events.drain();
+        if (remaining.size() > 0 && client != null) {
+            try {
+                client.appendBatch(remaining);
+            } catch (Exception ex) {
+                LOGGER.error("Unable to send " + remaining.size() + " remaining events for " + getName(), ex);
+            }
+        }
         if (transceiver != null) {
             try {
                 transceiver.close();
@@ -270,6 +416,110 @@ public class FlumeAvroManager extends FlumeManager {
                 return null;
             }
         }
+
+        public synchronized List<AvroFlumeEvent> drain() {
+            List<AvroFlumeEvent> events = new ArrayList<AvroFlumeEvent>(this);
+            clear();
+            return events;
+        }
+    }
+
+    /**
+     * Drains the queue, building batches by size or by maxDelay and failing over between agents without
+     * blocking the application.
+     */
+    private class Sender extends Thread {
+
+        private volatile boolean shutdown = false;
+        private final int maxDelay;
+        private final int delay;
+        private final int retries;
+        private int agent = 0;
+        private Transceiver senderTransceiver;
+        private AvroSourceProtocol senderClient;
+
+        public Sender(String name, int maxDelay, int delay, int retries) {
+            super(name);
+            setDaemon(true);
+            this.maxDelay = maxDelay;
+            this.delay = delay;
+            this.retries = retries;
+        }
+
+        @Override
+        public void run() {
+            List<AvroFlumeEvent> batch = new ArrayList<AvroFlumeEvent>(batchSize);
+            while (!shutdown || !queue.isEmpty()) {
+                try {
+                    FlumeEvent first = queue.poll(maxDelay, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(convert(first));
+                    long deadline = System.currentTimeMillis() + maxDelay;
+                    while (batch.size() < batchSize) {
+                        long wait = deadline - System.currentTimeMillis();
+                        FlumeEvent next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(convert(next));
+                    }
+                } catch (InterruptedException ex) {
+                    shutdown = true;
+                }
+                if (batch.size() > 0) {
+                    send(batch);
+                    batch.clear();
+                }
+            }
+            close();
+        }
+
+        private void send(List<AvroFlumeEvent> batch) {
+            Exception cause = null;
+            for (int attempt = 0; attempt < agents.length * retries; ++attempt) {
+                try {
+                    if (senderClient == null) {
+                        senderTransceiver = new NettyTransceiver(new InetSocketAddress(agents[agent].getHost(),
+                            agents[agent].getPort()));
+                        senderClient = SpecificRequestor.getClient(AvroSourceProtocol.class, senderTransceiver);
+                    }
+                    Status status = batch.size() == 1 ? senderClient.append(batch.get(0)) :
+                        senderClient.appendBatch(batch);
+                    if (status.equals(Status.OK)) {
+                        return;
+                    }
+                    cause = new AvroRemoteException("RPC communication failed to " + agents[agent].getHost() +
+                        ":" + agents[agent].getPort());
+                } catch (Exception ex) {
+                    cause = ex;
+                }
+                if ((attempt + 1) % retries == 0) {
+                    LOGGER.warn("Error writing to " + getName() + " at " + agents[agent].getHost() + ":" +
+                        agents[agent].getPort(), cause);
+                    close();
+                    agent = (agent + 1) % agents.length;
+                } else {
+                    FlumeAvroManager.sleep(delay);
+                }
+            }
+            long total = dropped.addAndGet(batch.size());
+            LOGGER.error("Unable to send " + batch.size() + " events to any agent for " + getName() + ", " + total +
+                " events have been discarded", cause);
+        }
+
+        private void close() {
+            if (senderTransceiver != null) {
+                try {
+                    senderTransceiver.close();
+                } catch (IOException ioe) {
+                    LOGGER.error("Attempt to clean up Avro transceiver failed", ioe);
+                }
+            }
+            senderTransceiver = null;
+            senderClient = null;
+        }
     }
 
     /**
@@ -279,17 +529,33 @@ public class FlumeAvroManager extends FlumeManager {
         private String name;
         private Agent[] agents;
         private int batchSize;
+        private boolean pipelined;
+        private int maxDelay;
+        private int maxInFlight;
+        private int delay;
+        private int retries;
 
         /**
          * Constructor.
          * @param name The name of the Appender.
          * @param agents The agents.
          * @param batchSize The number of events to include in a batch.
+         * @param pipelined If true events are sent by background threads.
+         * @param maxDelay The maximum number of milliseconds an event waits for its batch to fill.
+         * @param maxInFlight The number of batches that may be in flight at once.
+         * @param delay The number of milliseconds to wait between retries.
+         * @param retries The number of times to retry an agent before failing over.
          */
-        public FactoryData(String name, Agent[] agents, int batchSize) {
+        public FactoryData(String name, Agent[] agents, int batchSize, boolean pipelined, int maxDelay,
+                           int maxInFlight, int delay, int retries) {
             this.name = name;
             this.agents = agents;
             this.batchSize = batchSize;
+            this.pipelined = pipelined;
+            this.maxDelay = maxDelay;
+            this.maxInFlight = maxInFlight;
+            this.delay = delay;
+            this.retries = retries;
         }
     }
 
@@ -306,7 +572,10 @@ public class FlumeAvroManager extends FlumeManager {
          */
         public FlumeAvroManager createManager(String name, FactoryData data) {
             try {
-
+                if (data.pipelined) {
+                    return new FlumeAvroManager(name, data.agents, data.batchSize, data.maxDelay, data.maxInFlight,
+                        data.delay, data.retries);
+                }
                 return new FlumeAvroManager(name, data.name, data.agents, data.batchSize);
             } catch (Exception ex) {
                 LOGGER.error("Could not create FlumeAvroManager", ex);
@@ -20,6 +20,7 @@ import org.apache.flume.event.SimpleEvent;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.helpers.UUIDUtil;
 import org.apache.logging.log4j.message.MapMessage;
@@ -29,11 +30,9 @@ import org.apache.logging.log4j.message.StructuredDataMessage;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Stack;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -41,21 +40,28 @@ import java.util.zip.GZIPOutputStream;
  */
 public class FlumeEvent extends SimpleEvent implements LogEvent {
 
-    private static final String DEFAULT_MDC_PREFIX = "mdc:";
-
-    private static final String DEFAULT_EVENT_PREFIX = "";
-
     private static final String EVENT_TYPE = "eventType";
 
     private static final String EVENT_ID = "eventId";
 
     private static final String GUID = "guId";
 
-    private static final String TIMESTAMP = "timeStamp";;
+    private static final String TIMESTAMP = "timeStamp";
+
+    /**
+     * GUIDs are a UUID generated once per JVM followed by a sequence number.
+     */
+    private static final String GUID_BASE = UUIDUtil.getTimeBasedUUID().toString() + "-";
+
+    private static final AtomicLong GUID_SEQUENCE = new AtomicLong();
+
+    private static final int HEADER_CAPACITY = 16;
 
     private final LogEvent event;
 
-    private final Map<String, String> ctx = new HashMap<String, String>();
+    private final Map<String, String> ctx;
+
+    private final MDCKeys keys;
 
     private final boolean compress;
 
@@ -71,84 +77,63 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
      */
     public FlumeEvent(LogEvent event, String includes, String excludes, String required,
                       String mdcPrefix, String eventPrefix, boolean compress) {
+        this(event, MDCKeys.createKeys(includes, excludes, required, mdcPrefix, eventPrefix), compress);
+    }
+
+    /**
+     * Construct the FlumeEvent.
+     * @param event The Log4j LogEvent.
+     * @param keys The MDC keys to include and the header prefixes.
+     * @param compress If true the event body should be compressed.
+     */
+    public FlumeEvent(LogEvent event, MDCKeys keys, boolean compress) {
         this.event = event;
+        this.keys = keys;
         this.compress = compress;
-        Map<String, String> headers = getHeaders();
+        this.ctx = keys.select(event.getContextMap());
+        Map<String, String> headers = new HashMap<String, String>(HEADER_CAPACITY);
+        setHeaders(headers);
         headers.put(TIMESTAMP, Long.toString(event.getMillis()));
-        if (mdcPrefix == null) {
-            mdcPrefix = DEFAULT_MDC_PREFIX;
-        }
-        if (eventPrefix == null) {
-            eventPrefix = DEFAULT_EVENT_PREFIX;
-        }
-        Map<String, String> mdc = event.getContextMap();
-        if (includes != null) {
-            String[] array = includes.split(",");
-            if (array.length > 0) {
-                for (String str : array) {
-                    if (mdc.containsKey(str)) {
-                        ctx.put(str, mdc.get(str));
-                    }
-                }
-            }
-        } else if (excludes != null) {
-            String[] array = excludes.split(",");
-            if (array.length > 0) {
-                List<String> list = Arrays.asList(array);
-                for (Map.Entry<String, String> entry : mdc.entrySet()) {
-                    if (!list.contains(entry.getKey())) {
-                        ctx.put(entry.getKey(), entry.getValue());
-                    }
-                }
-            }
-        } else {
-            ctx.putAll(mdc);
-        }
-
-        if (required != null) {
-            String[] array = required.split(",");
-            if (array.length > 0) {
-                for (String str : array) {
-                    if (!mdc.containsKey(str)) {
-                        throw new LoggingException("Required key " + str + " is missing from the MDC");
-                    }
-                }
-            }
-        }
         Message message = event.getMessage();
         if (message instanceof MapMessage) {
             if (message instanceof StructuredDataMessage) {
-                addStructuredData(eventPrefix, headers, (StructuredDataMessage) message);
+                addStructuredData(keys.getEventPrefix(), headers, (StructuredDataMessage) message);
             }
-            addMapData(eventPrefix, headers, (MapMessage) message);
+            addMapData(keys.getEventPrefix(), headers, (MapMessage) message);
         }
 
-        addContextData(mdcPrefix, headers, ctx);
+        addContextData(keys.getMDCPrefix(), headers, ctx);
 
         addGuid(headers);
     }
 
     protected void addStructuredData(String prefix, Map<String, String> fields, StructuredDataMessage msg) {
-        fields.put(prefix + EVENT_TYPE, msg.getType());
+        fields.put(eventKey(prefix, EVENT_TYPE), msg.getType());
         StructuredDataId id = msg.getId();
-        fields.put(prefix + EVENT_ID, id.getName());
+        fields.put(eventKey(prefix, EVENT_ID), id.getName());
     }
 
     protected void addMapData(String prefix, Map<String, String> fields, MapMessage msg) {
         Map<String, String> data = msg.getData();
         for (Map.Entry<String, String> entry : data.entrySet()) {
-            fields.put(prefix + entry.getKey(), entry.getValue());
+            fields.put(eventKey(prefix, entry.getKey()), entry.getValue());
         }
     }
 
     protected void addContextData(String prefix, Map<String, String> fields, Map<String, String> context) {
+        boolean cached = prefix.equals(keys.getMDCPrefix());
         for (Map.Entry<String, String> entry : context.entrySet()) {
-            fields.put(prefix + entry.getKey(), entry.getValue());
+            String key = cached ? keys.getMDCKey(entry.getKey()) : prefix + entry.getKey();
+            fields.put(key, entry.getValue());
         }
     }
 
     protected void addGuid(Map<String, String> fields) {
-        fields.put(GUID, UUIDUtil.getTimeBasedUUID().toString());
+        fields.put(GUID, GUID_BASE + Long.toHexString(GUID_SEQUENCE.incrementAndGet()));
+    }
+
+    private String eventKey(String prefix, String key) {
+        return prefix.equals(keys.getEventPrefix()) ? keys.getEventKey(key) : prefix + key;
     }
 
     /**
@@ -256,10 +241,10 @@ public class FlumeEvent extends SimpleEvent implements LogEvent {
     }
 
     /**
-     * Return a copy of the context stack.
-     * @return a copy of the context stack.
+     * Return the context stack.
+     * @return the context stack.
      */
-    public Stack<String> getContextStack() {
+    public ThreadContext.ContextStack getContextStack() {
         return event.getContextStack();
     }
 }
@@ -0,0 +1,177 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import org.apache.logging.log4j.LoggingException;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The MDC include, exclude and required lists and the header prefixes of a FlumeAppender, parsed once so that
+ * they do not have to be split for every event. Prefixed header keys are cached.
+ */
+public final class MDCKeys {
+
+    private static final String DEFAULT_MDC_PREFIX = "mdc:";
+
+    private static final String DEFAULT_EVENT_PREFIX = "";
+
+    /**
+     * The maximum number of prefixed keys cached for each prefix. Keys beyond this are concatenated per event.
+     */
+    private static final int MAX_CACHED_KEYS = 1024;
+
+    private final Set<String> includes;
+
+    private final Set<String> excludes;
+
+    private final String[] required;
+
+    private final String mdcPrefix;
+
+    private final String eventPrefix;
+
+    private final ConcurrentMap<String, String> mdcKeys = new ConcurrentHashMap<String, String>();
+
+    private final ConcurrentMap<String, String> eventKeys = new ConcurrentHashMap<String, String>();
+
+    private MDCKeys(Set<String> includes, Set<String> excludes, String[] required, String mdcPrefix,
+                    String eventPrefix) {
+        this.includes = includes;
+        this.excludes = excludes;
+        this.required = required;
+        this.mdcPrefix = mdcPrefix;
+        this.eventPrefix = eventPrefix;
+    }
+
+    /**
+     * Create the MDCKeys.
+     * @param includes A comma separated list of MDC elements to include.
+     * @param excludes A comma separated list of MDC elements to exclude.
+     * @param required A comma separated list of MDC elements that are required to be defined.
+     * @param mdcPrefix The value to prefix to MDC keys.
+     * @param eventPrefix The value to prefix to event keys.
+     * @return The MDCKeys.
+     */
+    public static MDCKeys createKeys(String includes, String excludes, String required, String mdcPrefix,
+                                     String eventPrefix) {
+        Set<String> excludeSet = includes == null ? toSet(excludes) : null;
+        String[] requiredArray = required == null ? new String[0] : required.split(",");
+        return new MDCKeys(toSet(includes), excludeSet, requiredArray,
+            mdcPrefix == null ? DEFAULT_MDC_PREFIX : mdcPrefix,
+            eventPrefix == null ? DEFAULT_EVENT_PREFIX : eventPrefix);
+    }
+
+    private static Set<String> toSet(String list) {
+        if (list == null) {
+            return null;
+        }
+        Set<String> set = new HashSet<String>();
+        Collections.addAll(set, list.split(","));
+        return set;
+    }
+
+    /**
+     * Returns the MDC entries that should be included in the event.
+     * @param mdc The MDC of the event.
+     * @return The selected entries. This is the MDC itself when neither includes nor excludes are configured.
+     * @throws LoggingException if a required key is missing.
+     */
+    public Map<String, String> select(Map<String, String> mdc) {
+        if (mdc == null) {
+            mdc = Collections.emptyMap();
+        }
+        for (String key : required) {
+            if (!mdc.containsKey(key)) {
+                throw new LoggingException("Required key " + key + " is missing from the MDC");
+            }
+        }
+        if (includes != null) {
+            Map<String, String> ctx = new HashMap<String, String>(includes.size());
+            for (String key : includes) {
+                String value = mdc.get(key);
+                if (value != null || mdc.containsKey(key)) {
+                    ctx.put(key, value);
+                }
+            }
+            return ctx;
+        } else if (excludes != null) {
+            Map<String, String> ctx = new HashMap<String, String>(mdc.size());
+            for (Map.Entry<String, String> entry : mdc.entrySet()) {
+                if (!excludes.contains(entry.getKey())) {
+                    ctx.put(entry.getKey(), entry.getValue());
+                }
+            }
+            return ctx;
+        }
+        return mdc;
+    }
+
+    /**
+     * Returns the prefix added to MDC keys.
+     * @return The MDC prefix.
+     */
+    public String getMDCPrefix() {
+        return mdcPrefix;
+    }
+
+    /**
+     * Returns the prefix added to event fields.
+     * @return The event prefix.
+     */
+    public String getEventPrefix() {
+        return eventPrefix;
+    }
+
+    /**
+     * Returns the header key for an MDC key.
+     * @param key The MDC key.
+     * @return The key with the MDC prefix.
+     */
+    public String getMDCKey(String key) {
+        return prefix(mdcKeys, mdcPrefix, key);
+    }
+
+    /**
+     * Returns the header key for an event field.
+     * @param key The name of the event field.
+     * @return The key with the event prefix.
+     */
+    public String getEventKey(String key) {
+        return prefix(eventKeys, eventPrefix, key);
+    }
+
+    private static String prefix(ConcurrentMap<String, String> cache, String prefix, String key) {
+        if (prefix.length() == 0) {
+            return key;
+        }
+        String result = cache.get(key);
+        if (result == null) {
+            result = prefix + key;
+            if (cache.size() < MAX_CACHED_KEYS) {
+                cache.putIfAbsent(key, result);
+            }
+        }
+        return result;
+    }
+}
@@ -124,7 +124,7 @@ public class FlumeAppenderTest {
     public void testLog4jAvroAppender() throws InterruptedException, IOException {
         Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
         FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
-            "false", null, null, null, null, null, "true", "1", null, null, null);
+            "false", null, null, null, null, null, "true", "1", null, null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -151,7 +151,7 @@ public class FlumeAppenderTest {
     public void testMultiple() throws InterruptedException, IOException {
         Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
         FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
-            "false", null, null, null, null, null, "true", "1", null, null, null);
+            "false", null, null, null, null, null, "true", "1", null, null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -181,7 +181,7 @@ public class FlumeAppenderTest {
     public void testBatch() throws InterruptedException, IOException {
         Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
         FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
-            "false", null, null, null, null, null, "true", "10", null, null, null);
+            "false", null, null, null, null, null, "true", "10", null, null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -212,7 +212,7 @@ public class FlumeAppenderTest {
     public void testConnectionRefused() {
         Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
         FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
-            "false", null, null, null, null, null, "true", "1", null, null, null);
+            "false", null, null, null, null, null, "true", "1", null, null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -239,7 +239,7 @@ public class FlumeAppenderTest {
         Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort),
                                       Agent.createAgent("localhost", altPort)};
         FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
-            "false", null, null, null, null, null, "true", "1", null, null, null);
+            "false", null, null, null, null, null, "true", "1", null, null, null, null, null, null);
         avroAppender.start();
         avroLogger.addAppender(avroAppender);
         avroLogger.setLevel(Level.ALL);
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LoggingException;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.MapMessage;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ *
+ */
+public class FlumeEventTest {
+
+    @Test
+    public void testIncludes() {
+        MDCKeys keys = MDCKeys.createKeys("one,three", null, null, null, null);
+        Map<String, String> headers = new FlumeEvent(createEvent(), keys, false).getHeaders();
+        assertEquals("1", headers.get("mdc:one"));
+        assertEquals("3", headers.get("mdc:three"));
+        assertFalse(headers.containsKey("mdc:two"));
+    }
+
+    @Test
+    public void testExcludes() {
+        MDCKeys keys = MDCKeys.createKeys(null, "two", null, "ctx.", "evt.");
+        Map<String, String> headers = new FlumeEvent(createEvent(), keys, false).getHeaders();
+        assertEquals("1", headers.get("ctx.one"));
+        assertEquals("3", headers.get("ctx.three"));
+        assertFalse(headers.containsKey("ctx.two"));
+        assertEquals("value", headers.get("evt.key"));
+    }
+
+    @Test(expected = LoggingException.class)
+    public void testRequired() {
+        MDCKeys keys = MDCKeys.createKeys(null, null, "one,four", null, null);
+        new FlumeEvent(createEvent(), keys, false);
+    }
+
+    @Test
+    public void testStringConstructor() {
+        Map<String, String> headers = new FlumeEvent(createEvent(), null, "one", null, null, null, false).getHeaders();
+        assertEquals("2", headers.get("mdc:two"));
+        assertFalse(headers.containsKey("mdc:one"));
+    }
+
+    @Test
+    public void testGuid() {
+        MDCKeys keys = MDCKeys.createKeys(null, null, null, null, null);
+        String first = new FlumeEvent(createEvent(), keys, false).getHeaders().get("guId");
+        String second = new FlumeEvent(createEvent(), keys, false).getHeaders().get("guId");
+        assertNotNull(first);
+        assertNotNull(second);
+        assertTrue("Duplicate GUID " + first, !first.equals(second));
+    }
+
+    private LogEvent createEvent() {
+        Map<String, String> mdc = new HashMap<String, String>();
+        mdc.put("one", "1");
+        mdc.put("two", "2");
+        mdc.put("three", "3");
+        MapMessage msg = new MapMessage();
+        msg.put("key", "value");
+        return new Log4jLogEvent("FlumeEventTest", null, FlumeEventTest.class.getName(), Level.INFO, msg, null,
+            mdc, null, null, null, System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache license, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the license for the specific language governing permissions and
+ * limitations under the license.
+ */
+package org.apache.logging.log4j.flume.appender;
+
+import org.apache.flume.Channel;
+import org.apache.flume.ChannelSelector;
+import org.apache.flume.Context;
+import org.apache.flume.Event;
+import org.apache.flume.Transaction;
+import org.apache.flume.channel.ChannelProcessor;
+import org.apache.flume.channel.MemoryChannel;
+import org.apache.flume.channel.ReplicatingChannelSelector;
+import org.apache.flume.conf.Configurables;
+import org.apache.flume.lifecycle.LifecycleController;
+import org.apache.flume.lifecycle.LifecycleState;
+import org.apache.flume.source.AvroSource;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.Logger;
+import org.apache.logging.log4j.core.appender.AppenderRuntimeException;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tests the pipelined FlumeAvroManager against a local Avro source.
+ */
+public class FlumePipelinedAppenderTest {
+
+    private static final int testServerPort = 12355;
+
+    private static final long TIMEOUT = 5000;
+
+    private static int instance = 0;
+
+    private AvroSource eventSource;
+    private Channel channel;
+    private Logger avroLogger;
+
+    private String testPort;
+
+    @Before
+    public void setUp() throws Exception {
+        // Unique names keep the Flume counter MBeans of each test from colliding.
+        ++instance;
+        eventSource = new AvroSource();
+        eventSource.setName("PipelinedSource" + instance);
+        channel = new MemoryChannel();
+        channel.setName("PipelinedChannel" + instance);
+
+        Configurables.configure(channel, new Context());
+
+        avroLogger = (Logger) LogManager.getLogger("pipelinedlogger");
+        removeAppenders(avroLogger);
+        Context context = new Context();
+        testPort = String.valueOf(testServerPort);
+        context.put("port", testPort);
+        context.put("bind", "0.0.0.0");
+        Configurables.configure(eventSource, context);
+
+        List<Channel> channels = new ArrayList<Channel>();
+        channels.add(channel);
+
+        ChannelSelector cs = new ReplicatingChannelSelector();
+        cs.setChannels(channels);
+
+        eventSource.setChannelProcessor(new ChannelProcessor(cs));
+
+        eventSource.start();
+
+        Assert.assertTrue("Reached start or error", LifecycleController.waitForOneOf(
+            eventSource, LifecycleState.START_OR_ERROR));
+        Assert.assertEquals("Server is started", LifecycleState.START, eventSource.getLifecycleState());
+    }
+
+    @After
+    public void teardown() throws Exception {
+        removeAppenders(avroLogger);
+        eventSource.stop();
+        Assert.assertTrue("Reached stop or error",
+            LifecycleController.waitForOneOf(eventSource, LifecycleState.STOP_OR_ERROR));
+        Assert.assertEquals("Server is stopped", LifecycleState.STOP, eventSource.getLifecycleState());
+    }
+
+    @Test
+    public void testPartialBatchIsFlushed() throws Exception {
+        Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
+        FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
+            "false", null, null, null, null, null, "true", "10", "true", "200", "2", null, null, null);
+        avroAppender.start();
+        avroLogger.addAppender(avroAppender);
+        avroLogger.setLevel(Level.ALL);
+
+        for (int i = 0; i < 25; ++i) {
+            avroLogger.info("Test message " + i);
+        }
+
+        Set<String> bodies = take(25);
+        for (int i = 0; i < 25; ++i) {
+            Assert.assertTrue("Missing message " + i, bodies.contains("Test message " + i));
+        }
+    }
+
+    @Test
+    public void testFailoverDoesNotBlock() throws Exception {
+        String deadPort = Integer.toString(testServerPort + 1);
+        Agent[] agents = new Agent[] {Agent.createAgent("localhost", deadPort),
+                                      Agent.createAgent("localhost", testPort)};
+        FlumeAppender avroAppender = FlumeAppender.createAppender(agents, null, "false", null, "100", "3", "avro",
+            "false", null, null, null, null, null, "true", "1", "true", null, null, null, null, null);
+        avroAppender.start();
+        avroLogger.addAppender(avroAppender);
+        avroLogger.setLevel(Level.ALL);
+
+        long start = System.currentTimeMillis();
+        avroLogger.info("Test message");
+        long elapsed = System.currentTimeMillis() - start;
+        Assert.assertTrue("Application thread waited for failover: " + elapsed + "ms", elapsed < 200);
+
+        Set<String> bodies = take(1);
+        Assert.assertTrue("Channel contained event, but not expected message", bodies.contains("Test message"));
+    }
+
+    @Test
+    public void testSendAfterStop() throws Exception {
+        Agent[] agents = new Agent[] {Agent.createAgent("localhost", testPort)};
+        FlumeAvroManager manager = FlumeAvroManager.getManager("Stopped", agents, 1, true, 100, 1, 0, 0);
+        manager.release();
+        FlumeEvent event = new FlumeEvent(new Log4jLogEvent("pipelinedlogger", null, null, Level.INFO,
+            new SimpleMessage("Test message"), null), null, null, null, null, null, false);
+        try {
+            manager.send(event, 0, 0);
+            Assert.fail("Event was accepted after the manager was stopped");
+        } catch (AppenderRuntimeException ex) {
+            // Expected
+        }
+    }
+
+    private Set<String> take(int count) throws Exception {
+        Set<String> bodies = new HashSet<String>();
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (bodies.size() < count && System.currentTimeMillis() < end) {
+            Transaction transaction = channel.getTransaction();
+            transaction.begin();
+            Event event = channel.take();
+            transaction.commit();
+            transaction.close();
+            if (event == null) {
+                Thread.sleep(10);
+                continue;
+            }
+            String body = getBody(event);
+            bodies.add(body.substring(body.indexOf("Test message")));
+        }
+        Assert.assertEquals("Incorrect number of events", count, bodies.size());
+        return bodies;
+    }
+
+    private void removeAppenders(Logger logger) {
+        Map<String, Appender> map = logger.getAppenders();
+        for (Map.Entry<String, Appender> entry : map.entrySet()) {
+            Appender app = entry.getValue();
+            avroLogger.removeAppender(app);
+            app.stop();
+        }
+    }
+
+    private String getBody(Event event) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        InputStream is = new GZIPInputStream(new ByteArrayInputStream(event.getBody()));
+        int n = 0;
+        while (-1 != (n = is.read())) {
+            baos.write(n);
+        }
+        return new String(baos.toByteArray());
+    }
+}
@@ -20,6 +20,7 @@ import com.cloudera.flume.core.EventBaseImpl;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LoggingException;
 import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.ThreadContext;
 import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.helpers.UUIDUtil;
 import org.apache.logging.log4j.message.MapMessage;
@@ -33,7 +34,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Stack;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -298,10 +298,10 @@ public class FlumeEvent extends EventBaseImpl implements LogEvent {
     }
 
     /**
-     * Return a copy of the context stack.
-     * @return a copy of the context stack.
+     * Return the context stack.
+     * @return the context stack.
      */
-    public Stack<String> getContextStack() {
+    public ThreadContext.ContextStack getContextStack() {
         return event.getContextStack();
     }
 }